@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ee.cache;
+
+import java.io.IOException;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.transaction.RollbackException;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.SystemException;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+
+import org.wildfly.clustering.ee.MutationStatistics;
+import org.wildfly.clustering.marshalling.spi.Fingerprinted;
+
+/**
+ * Suppresses the cache write of a mutated value whose serialized form is identical to the form most recently replicated,
+ * as determined by comparing their {@link Fingerprinted fingerprints}.
+ * The fingerprint of a written value only becomes the fingerprint of its replicated form once its write succeeds, see {@link #written(Object, TransactionManager)}.
+ * @author agent
+ */
+public class FingerprintMutationFilter implements MutationStatistics {
+
+    private final LongAdder mutations = new LongAdder();
+    private final LongAdder suppressedMutations = new LongAdder();
+
+    /**
+     * Indicates whether the specified value needs to be written to the cache.
+     * @param value the mutated value
+     * @param previous the value currently held by the cache, or null, if unknown, in which case the value is compared against its own previous form
+     * @return false, if the write of this value can be suppressed, true otherwise.
+     */
+    public boolean test(Object value, Object previous) {
+        if (value instanceof Fingerprinted) {
+            Fingerprinted current = (Fingerprinted) value;
+            OptionalLong previousFingerprint = (previous instanceof Fingerprinted) ? ((Fingerprinted) previous).getFingerprint() : current.getFingerprint();
+            try {
+                // Always compute the current fingerprint, since its serialized form is reused by the subsequent write
+                OptionalLong currentFingerprint = current.computeFingerprint();
+                if (previousFingerprint.isPresent() && currentFingerprint.equals(previousFingerprint)) {
+                    // The current form is already replicated
+                    current.commitFingerprint();
+                    this.suppressedMutations.increment();
+                    return false;
+                }
+            } catch (IOException e) {
+                // Let the subsequent write report the marshalling failure
+            }
+        }
+        this.mutations.increment();
+        return true;
+    }
+
+    /**
+     * Commits the fingerprint of the specified value, as computed by {@link #test(Object, Object)}, once its write succeeded.
+     * If the value was written within a transaction, its fingerprint is only committed if that transaction commits.
+     * @param value a value that was written to the cache
+     * @param tm the transaction manager of the cache, or null, if the cache is non-transactional
+     */
+    public void written(Object value, TransactionManager tm) {
+        if (value instanceof Fingerprinted) {
+            Fingerprinted fingerprinted = (Fingerprinted) value;
+            try {
+                Transaction tx = (tm != null) ? tm.getTransaction() : null;
+                if (tx != null) {
+                    tx.registerSynchronization(new Synchronization() {
+                        @Override
+                        public void beforeCompletion() {
+                        }
+
+                        @Override
+                        public void afterCompletion(int status) {
+                            if (status == Status.STATUS_COMMITTED) {
+                                fingerprinted.commitFingerprint();
+                            }
+                        }
+                    });
+                } else {
+                    fingerprinted.commitFingerprint();
+                }
+            } catch (RollbackException | SystemException e) {
+                // Leave the fingerprint uncommitted, such that the next mutation of this value is written
+            }
+        }
+    }
+
+    @Override
+    public long getMutationCount() {
+        return this.mutations.sum();
+    }
+
+    @Override
+    public long getSuppressedMutationCount() {
+        return this.suppressedMutations.sum();
+    }
+}
@@ -23,6 +23,7 @@
 package org.wildfly.clustering.ee.cache.function;
 
 import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.infinispan.protostream.SerializationContext;
@@ -44,10 +45,12 @@ public class FunctionSerializationContextInitializer extends AbstractSerializati
     public void registerMarshallers(SerializationContext context) {
         context.registerMarshaller(new FunctionalMarshaller<>(ConcurrentMapPutFunction.class, (Class<Map.Entry<Object, Object>>) (Class<?>) SimpleImmutableEntry.class, ConcurrentMapPutFunction<Object, Object>::getOperand, ConcurrentMapPutFunction<Object, Object>::new));
         context.registerMarshaller(new FunctionalScalarMarshaller<>(ConcurrentMapRemoveFunction.class, Scalar.ANY, ConcurrentMapRemoveFunction::getOperand, ConcurrentMapRemoveFunction::new));
+        context.registerMarshaller(new FunctionalMarshaller<>(ConcurrentMapComputeFunction.class, (Class<Map<Object, Object>>) (Class<?>) HashMap.class, ConcurrentMapComputeFunction<Object, Object>::getOperand, ConcurrentMapComputeFunction<Object, Object>::new));
         context.registerMarshaller(new FunctionalScalarMarshaller<>(ConcurrentSetAddFunction.class, Scalar.ANY, ConcurrentSetAddFunction::getOperand, ConcurrentSetAddFunction::new));
         context.registerMarshaller(new FunctionalScalarMarshaller<>(ConcurrentSetRemoveFunction.class, Scalar.ANY, ConcurrentSetRemoveFunction::getOperand, ConcurrentSetRemoveFunction::new));
         context.registerMarshaller(new FunctionalMarshaller<>(CopyOnWriteMapPutFunction.class, (Class<Map.Entry<Object, Object>>) (Class<?>) SimpleImmutableEntry.class, CopyOnWriteMapPutFunction<Object, Object>::getOperand, CopyOnWriteMapPutFunction<Object, Object>::new));
         context.registerMarshaller(new FunctionalScalarMarshaller<>(CopyOnWriteMapRemoveFunction.class, Scalar.ANY, CopyOnWriteMapRemoveFunction::getOperand, CopyOnWriteMapRemoveFunction::new));
+        context.registerMarshaller(new FunctionalMarshaller<>(CopyOnWriteMapComputeFunction.class, (Class<Map<Object, Object>>) (Class<?>) HashMap.class, CopyOnWriteMapComputeFunction<Object, Object>::getOperand, CopyOnWriteMapComputeFunction<Object, Object>::new));
         context.registerMarshaller(new FunctionalScalarMarshaller<>(CopyOnWriteSetAddFunction.class, Scalar.ANY, CopyOnWriteSetAddFunction::getOperand, CopyOnWriteSetAddFunction::new));
         context.registerMarshaller(new FunctionalScalarMarshaller<>(CopyOnWriteSetRemoveFunction.class, Scalar.ANY, CopyOnWriteSetRemoveFunction::getOperand, CopyOnWriteSetRemoveFunction::new));
     }
@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ee.cache.scheduler;
+
+import java.util.function.Function;
+
+import org.wildfly.clustering.ee.Batch;
+import org.wildfly.clustering.ee.Batcher;
+
+/**
+ * Configures a {@link LocalScheduler} to process due entries in batches, using a bounded number of concurrent threads.
+ * @author agent
+ * @param <T> the scheduled entry type
+ */
+public interface BatchConfiguration<T> {
+
+    /**
+     * Returns a function that determines the batch to which a given scheduled entry belongs, e.g. its segment or primary owner.
+     * @return a function returning a batch key.
+     */
+    Function<T, Object> getBatchFunction();
+
+    /**
+     * Returns the maximum number of batches to process concurrently.
+     * @return a number of threads
+     */
+    int getMaxThreads();
+
+    /**
+     * Returns the maximum number of batches awaiting processing, beyond which batches will be processed by the scheduler thread itself.
+     * @return a queue length
+     */
+    default int getQueueLength() {
+        return this.getMaxThreads();
+    }
+
+    /**
+     * Returns the batcher used to process all entries of a batch within a single batch, e.g. a transaction.
+     * If the task of any entry fails, the batch is discarded and the entries whose task did not yet complete are processed individually.
+     * @return a batcher, or null, if the entries of a batch should always be processed individually.
+     */
+    default Batcher<? extends Batch> getBatcher() {
+        return null;
+    }
+
+    /**
+     * Returns the statistics to which processed batches are recorded.
+     * @return batch statistics, or null, if batches should not be recorded.
+     */
+    default RecordableBatchStatistics getStatistics() {
+        return null;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ee.cache.scheduler;
+
+import java.time.Duration;
+
+/**
+ * Exposes statistics of the batches processed by one or more {@link LocalScheduler} instances.
+ * @author agent
+ */
+public interface BatchStatistics {
+
+    /**
+     * Returns the number of batches processed.
+     * @return a number of batches
+     */
+    long getBatchCount();
+
+    /**
+     * Returns the number of entries whose task completed successfully.
+     * @return a number of entries
+     */
+    long getSucceededCount();
+
+    /**
+     * Returns the number of entries whose task failed, and will be retried.
+     * @return a number of entries
+     */
+    long getFailedCount();
+
+    /**
+     * Returns the size of the largest batch processed.
+     * @return a number of entries
+     */
+    int getMaxBatchSize();
+
+    /**
+     * Returns the cumulative time spent processing batches.
+     * @return a duration
+     */
+    Duration getBatchTime();
+
+    /**
+     * Returns the number of batches processed by the scheduler thread itself, due to saturation of the batch executor.
+     * @return a number of batches
+     */
+    long getSaturatedCount();
+}
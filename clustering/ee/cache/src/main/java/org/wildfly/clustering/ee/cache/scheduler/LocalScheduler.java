@@ -24,42 +24,104 @@ package org.wildfly.clustering.ee.cache.scheduler;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import org.jboss.as.clustering.context.DefaultExecutorService;
 import org.jboss.as.clustering.context.DefaultThreadFactory;
+import org.jboss.logging.Logger;
+import org.wildfly.clustering.ee.Batch;
+import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.Scheduler;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Scheduler that uses a single scheduled task in concert with an {@link ScheduledEntries}.
+ * If the entries specify a tick duration, the task polls for expired entries at that fixed interval, rather than being rescheduled per entry.
+ * Polling stops while there are no scheduled entries.
+ * If configured for batching, all due entries are grouped into batches processed concurrently by a bounded executor.
  * @author Paul Ferraro
  */
 public class LocalScheduler<T> implements Scheduler<T, Instant>, Iterable<T>, Runnable {
 
+    private static final Logger LOGGER = Logger.getLogger(LocalScheduler.class);
+
     private final ScheduledExecutorService executor;
     private final ScheduledEntries<T, Instant> entries;
+    private final Supplier<Instant> clock;
     private final Predicate<T> task;
     private final Duration closeTimeout;
+    private final Duration tick;
+    private final Function<T, Object> batchFunction;
+    private final ExecutorService batchExecutor;
+    private final Batcher<? extends Batch> batcher;
+    private final RecordableBatchStatistics statistics;
 
     private volatile Future<?> future = null;
 
     public LocalScheduler(ScheduledEntries<T, Instant> entries, Predicate<T> task, Duration closeTimeout) {
+        this(entries, task, closeTimeout, null);
+    }
+
+    public LocalScheduler(ScheduledEntries<T, Instant> entries, Predicate<T> task, Duration closeTimeout, BatchConfiguration<T> batchConfiguration) {
+        this(entries, task, closeTimeout, batchConfiguration, Instant::now);
+    }
+
+    LocalScheduler(ScheduledEntries<T, Instant> entries, Predicate<T> task, Duration closeTimeout, BatchConfiguration<T> batchConfiguration, Supplier<Instant> clock) {
         ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new DefaultThreadFactory(this.getClass()));
         executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
         executor.setRemoveOnCancelPolicy(entries.isSorted());
         this.executor = executor;
         this.entries = entries;
+        this.clock = clock;
         this.task = task;
         this.closeTimeout = closeTimeout;
+        this.tick = entries.getTickDuration();
+        this.batchFunction = (batchConfiguration != null) ? batchConfiguration.getBatchFunction() : null;
+        this.batcher = (batchConfiguration != null) ? batchConfiguration.getBatcher() : null;
+        this.statistics = (batchConfiguration != null) ? batchConfiguration.getStatistics() : null;
+        this.batchExecutor = (batchConfiguration != null) ? this.createBatchExecutor(batchConfiguration) : null;
+    }
+
+    private ExecutorService createBatchExecutor(BatchConfiguration<T> configuration) {
+        RecordableBatchStatistics statistics = this.statistics;
+        // Apply back-pressure by processing the batch via the scheduler thread when saturated
+        RejectedExecutionHandler handler = new RejectedExecutionHandler() {
+            @Override
+            public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+                if (!executor.isShutdown()) {
+                    if (statistics != null) {
+                        statistics.recordSaturation();
+                    }
+                    task.run();
+                } else if (task instanceof Future) {
+                    // Otherwise the scheduler thread would wait for this batch forever
+                    ((Future<?>) task).cancel(false);
+                }
+            }
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(configuration.getMaxThreads(), configuration.getMaxThreads(), 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(configuration.getQueueLength()), new DefaultThreadFactory(this.getClass()), handler);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     @Override
@@ -116,10 +178,21 @@ public class LocalScheduler<T> implements Scheduler<T, Instant>, Iterable<T>, Ru
 
     @Override
     public void close() {
+        if (this.batchExecutor != null) {
+            // Cancel any batches that have not yet started, otherwise the scheduler thread would wait for them forever
+            for (Runnable batch : WildFlySecurityManager.doPrivilegedWithParameter(this.batchExecutor, DefaultExecutorService.SHUTDOWN_NOW_ACTION)) {
+                if (batch instanceof Future) {
+                    ((Future<?>) batch).cancel(false);
+                }
+            }
+        }
         WildFlySecurityManager.doPrivilegedWithParameter(this.executor, DefaultExecutorService.SHUTDOWN_NOW_ACTION);
         if (!this.closeTimeout.isNegative() && !this.closeTimeout.isZero()) {
             try {
                 this.executor.awaitTermination(this.closeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                if (this.batchExecutor != null) {
+                    this.batchExecutor.awaitTermination(this.closeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
@@ -128,19 +201,154 @@ public class LocalScheduler<T> implements Scheduler<T, Instant>, Iterable<T>, Ru
 
     @Override
     public void run() {
+        try {
+            if (this.batchExecutor != null) {
+                this.runBatches();
+            } else {
+                this.runSequentially();
+            }
+        } catch (RuntimeException e) {
+            // Never propagate, otherwise a task polling at a fixed interval would be silently cancelled
+            LOGGER.warn(e.getLocalizedMessage(), e);
+        }
+        synchronized (this) {
+            if (this.tick == null) {
+                this.future = this.scheduleFirst();
+            } else if (this.entries.peek() == null) {
+                // Stop polling while idle, until the next entry is scheduled
+                Future<?> future = this.future;
+                if (future != null) {
+                    future.cancel(false);
+                }
+                this.future = null;
+                // Resume polling if an entry was scheduled concurrently, but observed our polling task
+                if (this.entries.peek() != null) {
+                    this.future = this.scheduleTicks();
+                }
+            }
+        }
+    }
+
+    private void runSequentially() {
         Iterator<Map.Entry<T, Instant>> entries = this.entries.iterator();
         while (entries.hasNext()) {
             if (Thread.currentThread().isInterrupted()) return;
             Map.Entry<T, Instant> entry = entries.next();
-            if (entry.getValue().isAfter(Instant.now())) break;
+            if (entry.getValue().isAfter(this.clock.get())) break;
             T key = entry.getKey();
             // Remove only if task is successful
             if (this.task.test(key)) {
                 entries.remove();
             }
         }
-        synchronized (this) {
-            this.future = this.scheduleFirst();
+    }
+
+    private void runBatches() {
+        // Drain all due entries, grouped by batch
+        Map<Object, List<Map.Entry<T, Instant>>> batches = new LinkedHashMap<>();
+        Instant now = this.clock.get();
+        for (Map.Entry<T, Instant> entry : this.entries) {
+            if (entry.getValue().isAfter(now)) break;
+            batches.computeIfAbsent(this.batchFunction.apply(entry.getKey()), k -> new ArrayList<>()).add(entry);
+        }
+        List<Future<?>> futures = new ArrayList<>(batches.size());
+        for (List<Map.Entry<T, Instant>> batch : batches.values()) {
+            if (Thread.currentThread().isInterrupted()) break;
+            try {
+                futures.add(this.batchExecutor.submit(() -> this.runBatch(batch)));
+            } catch (RejectedExecutionException e) {
+                // Scheduler was closed
+                return;
+            }
+        }
+        // Wait for all batches to complete, even if interrupted, so that their entries are not drained again by a subsequent run
+        // Once the scheduler is closed, batches that have not yet started will never run, so stop waiting
+        boolean interrupted = false;
+        boolean closed = false;
+        Iterator<Future<?>> remaining = futures.iterator();
+        while (!closed && remaining.hasNext()) {
+            Future<?> future = remaining.next();
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    if (this.batchExecutor.isShutdown()) {
+                        closed = true;
+                        break;
+                    }
+                } catch (CancellationException e) {
+                    break;
+                } catch (ExecutionException e) {
+                    LOGGER.warn(e.getLocalizedMessage(), e.getCause());
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runBatch(List<Map.Entry<T, Instant>> batch) {
+        long start = System.nanoTime();
+        List<Map.Entry<T, Instant>> completed = new ArrayList<>(batch.size());
+        List<Map.Entry<T, Instant>> remaining = (this.batcher != null) ? this.runTogether(batch, completed) : batch;
+        this.runIndividually(remaining, completed);
+        for (Map.Entry<T, Instant> entry : completed) {
+            // Remove only if entry was not rescheduled while its task was running
+            this.entries.remove(entry.getKey(), entry.getValue());
+        }
+        long nanos = System.nanoTime() - start;
+        if (this.statistics != null) {
+            this.statistics.record(batch.size(), completed.size(), nanos);
+        }
+        LOGGER.tracef("Processed batch of %d entries (%d failed) in %d ms", batch.size(), batch.size() - completed.size(), TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * Runs the task for each of the specified entries within a single batch, adding the entries whose task completed to the specified list.
+     * If a task fails, the batch is discarded, and the entries whose task did not yet complete are returned, to be run individually.
+     * The entries whose task already completed are never run again, since their task may have already triggered side effects, e.g. listener notifications.
+     * @return the entries that remain to be run individually
+     */
+    private List<Map.Entry<T, Instant>> runTogether(List<Map.Entry<T, Instant>> entries, List<Map.Entry<T, Instant>> completed) {
+        int index = 0;
+        try (Batch batch = this.batcher.createBatch()) {
+            while (index < entries.size()) {
+                if (Thread.currentThread().isInterrupted()) break;
+                Map.Entry<T, Instant> entry = entries.get(index);
+                if (!this.test(entry.getKey())) {
+                    // The failed task would otherwise be committed along with the tasks that completed
+                    batch.discard();
+                    break;
+                }
+                completed.add(entry);
+                index += 1;
+            }
+        } catch (RuntimeException e) {
+            LOGGER.debug(e.getLocalizedMessage(), e);
+        }
+        return (index < entries.size()) ? entries.subList(index, entries.size()) : Collections.emptyList();
+    }
+
+    private boolean test(T key) {
+        try {
+            return this.task.test(key);
+        } catch (RuntimeException e) {
+            LOGGER.debug(e.getLocalizedMessage(), e);
+            return false;
+        }
+    }
+
+    private void runIndividually(List<Map.Entry<T, Instant>> entries, List<Map.Entry<T, Instant>> completed) {
+        for (Map.Entry<T, Instant> entry : entries) {
+            if (Thread.currentThread().isInterrupted()) break;
+            // Remove only if task is successful
+            if (this.task.test(entry.getKey())) {
+                completed.add(entry);
+            }
         }
     }
 
@@ -150,7 +358,7 @@ public class LocalScheduler<T> implements Scheduler<T, Instant>, Iterable<T>, Ru
     }
 
     private Future<?> schedule(Map.Entry<T, Instant> entry) {
-        Duration delay = Duration.between(Instant.now(), entry.getValue());
+        Duration delay = Duration.between(this.clock.get(), entry.getValue());
         long millis = !delay.isNegative() ? delay.toMillis() + 1 : 0;
         try {
             return this.executor.schedule(this, millis, TimeUnit.MILLISECONDS);
@@ -159,11 +367,20 @@ public class LocalScheduler<T> implements Scheduler<T, Instant>, Iterable<T>, Ru
         }
     }
 
+    private Future<?> scheduleTicks() {
+        long millis = this.tick.toMillis();
+        try {
+            return this.executor.scheduleWithFixedDelay(this, millis, millis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
     private void scheduleIfAbsent() {
         if (this.future == null) {
             synchronized (this) {
                 if (this.future == null) {
-                    this.future = this.scheduleFirst();
+                    this.future = (this.tick != null) ? this.scheduleTicks() : this.scheduleFirst();
                 }
             }
         }
@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ee.cache.scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the batches processed by one or more {@link LocalScheduler} instances.
+ * @author agent
+ */
+public class RecordableBatchStatistics implements BatchStatistics {
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batchNanos = new LongAdder();
+    private final LongAdder saturated = new LongAdder();
+    private final AtomicInteger maxBatchSize = new AtomicInteger();
+
+    /**
+     * Records a processed batch.
+     * @param size the number of entries in the batch
+     * @param succeeded the number of entries whose task completed successfully
+     * @param nanos the time spent processing the batch, in nanoseconds
+     */
+    public void record(int size, int succeeded, long nanos) {
+        this.batches.increment();
+        this.batchNanos.add(nanos);
+        this.succeeded.add(succeeded);
+        this.failed.add(size - succeeded);
+        this.maxBatchSize.accumulateAndGet(size, Math::max);
+    }
+
+    /**
+     * Records a batch that was processed by the scheduler thread itself.
+     */
+    public void recordSaturation() {
+        this.saturated.increment();
+    }
+
+    /**
+     * Resets any previously recorded batches.
+     */
+    public void reset() {
+        this.batches.reset();
+        this.succeeded.reset();
+        this.failed.reset();
+        this.batchNanos.reset();
+        this.saturated.reset();
+        this.maxBatchSize.set(0);
+    }
+
+    @Override
+    public long getBatchCount() {
+        return this.batches.sum();
+    }
+
+    @Override
+    public long getSucceededCount() {
+        return this.succeeded.sum();
+    }
+
+    @Override
+    public long getFailedCount() {
+        return this.failed.sum();
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return this.maxBatchSize.get();
+    }
+
+    @Override
+    public Duration getBatchTime() {
+        return Duration.ofNanos(this.batchNanos.sum());
+    }
+
+    @Override
+    public long getSaturatedCount() {
+        return this.saturated.sum();
+    }
+}
@@ -21,6 +21,7 @@
  */
 package org.wildfly.clustering.ee.cache.scheduler;
 
+import java.time.Duration;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -36,6 +37,14 @@ public interface ScheduledEntries<K, V> extends Iterable<Map.Entry<K, V>> {
      */
     boolean isSorted();
 
+    /**
+     * Returns the fixed interval at which these entries should be polled for expired entries.
+     * @return a polling interval, or null, if polling should be scheduled according to the first entry.
+     */
+    default Duration getTickDuration() {
+        return null;
+    }
+
     /**
      * Adds an entry using the specified key and value.
      * @param key an entry key
@@ -49,6 +58,14 @@ public interface ScheduledEntries<K, V> extends Iterable<Map.Entry<K, V>> {
      */
     void remove(K key);
 
+    /**
+     * Removes the entry with the specified key, but only if it is still associated with the specified value, i.e. if it was not rescheduled.
+     * @param key an entry key
+     * @param value an entry value
+     * @return true, if the entry was removed, false otherwise
+     */
+    boolean remove(K key, V value);
+
     /**
      * Returns, but does not remove, the first entry.
      */
@@ -0,0 +1,316 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ee.cache.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * {@link ScheduledEntries} implemented using a hierarchical hashed timing wheel.
+ * Scheduled instants are rounded up to the next tick boundary, such that all entries scheduled within the same tick expire as a batch.
+ * Both {@link #add(Object, Instant)} and {@link #remove(Object)} run in O(1) time.
+ * Entries are cascaded toward the finest wheel lazily, whenever these entries are iterated.
+ * @author agent
+ */
+public class TimingWheelScheduledEntries<K> implements ScheduledEntries<K, Instant> {
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+
+    private final Duration tick;
+    private final long tickMillis;
+    private final Supplier<Instant> clock;
+    private final Map<K, Entry<K>> entries = new ConcurrentHashMap<>();
+    // Buckets of each wheel, indexed by level * WHEEL_SIZE + slot
+    private final List<Set<Entry<K>>> buckets = new ArrayList<>(LEVELS * WHEEL_SIZE);
+    // Entries scheduled beyond the range of the coarsest wheel
+    private final Set<Entry<K>> overflow = ConcurrentHashMap.newKeySet();
+
+    private volatile long cursor;
+
+    /**
+     * Creates a new entries object using the specified tick duration.
+     * @param tick the resolution of the finest wheel
+     */
+    public TimingWheelScheduledEntries(Duration tick) {
+        this(tick, Instant::now);
+    }
+
+    TimingWheelScheduledEntries(Duration tick, Supplier<Instant> clock) {
+        if (tick.toMillis() <= 0) {
+            throw new IllegalArgumentException(tick.toString());
+        }
+        this.tick = tick;
+        this.tickMillis = tick.toMillis();
+        this.clock = clock;
+        for (int i = 0; i < LEVELS * WHEEL_SIZE; ++i) {
+            this.buckets.add(ConcurrentHashMap.newKeySet());
+        }
+        this.cursor = this.currentTick();
+    }
+
+    @Override
+    public boolean isSorted() {
+        // Iteration order is only sorted to the resolution of each wheel
+        return false;
+    }
+
+    @Override
+    public Duration getTickDuration() {
+        return this.tick;
+    }
+
+    @Override
+    public void add(K key, Instant value) {
+        // Round up, so that entries never expire early
+        long millis = value.toEpochMilli() + ((value.getNano() % 1_000_000 > 0) ? 1 : 0);
+        Entry<K> entry = new Entry<>(key, -Math.floorDiv(-millis, this.tickMillis), this.tickMillis);
+        long cursor = this.cursor;
+        this.entries.compute(key, (k, existing) -> {
+            if (existing != null) {
+                existing.bucket.remove(existing);
+            }
+            this.place(entry, cursor);
+            return entry;
+        });
+        this.replaceIfAdvanced(entry, cursor);
+    }
+
+    @Override
+    public void remove(K key) {
+        this.entries.computeIfPresent(key, (k, existing) -> {
+            existing.bucket.remove(existing);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean remove(K key, Instant value) {
+        AtomicBoolean removed = new AtomicBoolean(false);
+        this.entries.computeIfPresent(key, (k, existing) -> {
+            if (!existing.getValue().equals(value)) return existing;
+            existing.bucket.remove(existing);
+            removed.set(true);
+            return null;
+        });
+        return removed.get();
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, Instant>> iterator() {
+        long cursor = this.advance();
+        List<Set<Entry<K>>> buckets = new ArrayList<>(LEVELS * WHEEL_SIZE + 1);
+        for (int i = 0; i < WHEEL_SIZE; ++i) {
+            buckets.add(this.buckets.get((int) ((cursor + i) & WHEEL_MASK)));
+        }
+        for (int level = 1; level < LEVELS; ++level) {
+            long group = cursor >> (level * WHEEL_BITS);
+            // The bucket of the current group was already cascaded to the finer wheels
+            for (int i = 1; i < WHEEL_SIZE; ++i) {
+                buckets.add(this.buckets.get(level * WHEEL_SIZE + (int) ((group + i) & WHEEL_MASK)));
+            }
+        }
+        buckets.add(this.overflow);
+        return new EntryIterator(buckets.iterator());
+    }
+
+    private long currentTick() {
+        return Math.floorDiv(this.clock.get().toEpochMilli(), this.tickMillis);
+    }
+
+    /**
+     * Advances the cursor to the current tick, cascading the entries of any elapsed buckets.
+     * @return the current cursor
+     */
+    private synchronized long advance() {
+        long previous = this.cursor;
+        long current = this.currentTick();
+        if (current <= previous) return previous;
+        this.cursor = current;
+        // Cascade coarsest wheels first, so that an entry moves directly to its final bucket
+        int coarsestShift = (LEVELS - 1) * WHEEL_BITS;
+        if ((current >> coarsestShift) != (previous >> coarsestShift)) {
+            this.cascade(this.overflow, current);
+        }
+        for (int level = LEVELS - 1; level >= 0; --level) {
+            int shift = level * WHEEL_BITS;
+            long from = previous >> shift;
+            long to = current >> shift;
+            // Elapsed ticks of the finest wheel are due, while the current group of a coarser wheel is now in range of the finer wheels
+            long first = (level == 0) ? from : from + 1;
+            long last = Math.min((level == 0) ? to - 1 : to, first + WHEEL_MASK);
+            for (long group = first; group <= last; ++group) {
+                this.cascade(this.buckets.get(level * WHEEL_SIZE + (int) (group & WHEEL_MASK)), current);
+            }
+        }
+        return current;
+    }
+
+    private void cascade(Set<Entry<K>> bucket, long cursor) {
+        for (Entry<K> entry : bucket) {
+            this.entries.computeIfPresent(entry.getKey(), (key, existing) -> {
+                if (existing == entry) {
+                    this.place(entry, cursor);
+                }
+                return existing;
+            });
+        }
+    }
+
+    /**
+     * Re-places the specified entry if the cursor advanced while it was being added, since its bucket may have already been cascaded.
+     */
+    private void replaceIfAdvanced(Entry<K> entry, long cursor) {
+        long current = this.cursor;
+        while (current != cursor) {
+            long replacement = current;
+            this.entries.computeIfPresent(entry.getKey(), (key, existing) -> {
+                if (existing == entry) {
+                    this.place(entry, replacement);
+                }
+                return existing;
+            });
+            cursor = current;
+            current = this.cursor;
+        }
+    }
+
+    /**
+     * Moves the specified entry to its bucket relative to the specified cursor.
+     * Must be invoked while holding the lock of the entry's mapping.
+     */
+    private void place(Entry<K> entry, long cursor) {
+        Set<Entry<K>> bucket = this.locate(entry.tick, cursor);
+        Set<Entry<K>> previous = entry.bucket;
+        if (bucket != previous) {
+            if (previous != null) {
+                previous.remove(entry);
+            }
+            entry.bucket = bucket;
+            bucket.add(entry);
+        }
+    }
+
+    private Set<Entry<K>> locate(long tick, long cursor) {
+        // Entries that are already due belong in the bucket of the cursor
+        long target = Math.max(tick, cursor);
+        for (int level = 0; level < LEVELS; ++level) {
+            int shift = level * WHEEL_BITS;
+            long group = target >> shift;
+            if (group - (cursor >> shift) < WHEEL_SIZE) {
+                return this.buckets.get(level * WHEEL_SIZE + (int) (group & WHEEL_MASK));
+            }
+        }
+        return this.overflow;
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<K, Instant>> {
+        private final Iterator<Set<Entry<K>>> buckets;
+        private Iterator<Entry<K>> entries = Collections.emptyIterator();
+        private Entry<K> current = null;
+
+        EntryIterator(Iterator<Set<Entry<K>>> buckets) {
+            this.buckets = buckets;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!this.entries.hasNext()) {
+                if (!this.buckets.hasNext()) return false;
+                this.entries = this.buckets.next().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public Map.Entry<K, Instant> next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.current = this.entries.next();
+            return this.current;
+        }
+
+        @Override
+        public void remove() {
+            Entry<K> entry = this.current;
+            if (entry == null) {
+                throw new IllegalStateException();
+            }
+            this.current = null;
+            TimingWheelScheduledEntries.this.entries.computeIfPresent(entry.getKey(), (key, existing) -> {
+                if (existing != entry) return existing;
+                existing.bucket.remove(existing);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * A scheduled entry, whose value is its tick boundary.
+     * Uses identity equality, so that a rescheduled entry is never confused with its predecessor.
+     */
+    private static class Entry<K> implements Map.Entry<K, Instant> {
+        private final K key;
+        private final long tick;
+        private final long tickMillis;
+        // Guarded by the lock of the mapping of this entry
+        volatile Set<Entry<K>> bucket = null;
+
+        Entry(K key, long tick, long tickMillis) {
+            this.key = key;
+            this.tick = tick;
+            this.tickMillis = tickMillis;
+        }
+
+        @Override
+        public K getKey() {
+            return this.key;
+        }
+
+        @Override
+        public Instant getValue() {
+            return Instant.ofEpochMilli(this.tick * this.tickMillis);
+        }
+
+        @Override
+        public Instant setValue(Instant value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String toString() {
+            return this.key.toString();
+        }
+    }
+}
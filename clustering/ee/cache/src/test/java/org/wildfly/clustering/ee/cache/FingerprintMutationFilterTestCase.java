@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ee.cache;
+
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.OptionalLong;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.wildfly.clustering.marshalling.spi.Fingerprinted;
+
+/**
+ * Unit test for {@link FingerprintMutationFilter}.
+ * @author agent
+ */
+public class FingerprintMutationFilterTestCase {
+
+    @Test
+    public void test() {
+        FingerprintMutationFilter filter = new FingerprintMutationFilter();
+
+        // Values without a fingerprint are always written
+        Assert.assertTrue(filter.test(new Object(), null));
+        Assert.assertTrue(filter.test(new TestFingerprinted(null, 1L), null));
+        Assert.assertTrue(filter.test(new TestFingerprinted(null, 1L), new TestFingerprinted(null, 1L)));
+
+        // Compare against own previous fingerprint
+        Assert.assertFalse(filter.test(new TestFingerprinted(1L, 1L), null));
+        Assert.assertTrue(filter.test(new TestFingerprinted(1L, 2L), null));
+
+        // Compare against fingerprint of previous value
+        Assert.assertFalse(filter.test(new TestFingerprinted(null, 1L), new TestFingerprinted(1L, 3L)));
+        Assert.assertTrue(filter.test(new TestFingerprinted(1L, 1L), new TestFingerprinted(2L, 3L)));
+
+        // Same instance
+        TestFingerprinted value = new TestFingerprinted(1L, 1L);
+        Assert.assertFalse(filter.test(value, value));
+        value = new TestFingerprinted(1L, 2L);
+        Assert.assertTrue(filter.test(value, value));
+
+        Assert.assertEquals(6L, filter.getMutationCount());
+        Assert.assertEquals(3L, filter.getSuppressedMutationCount());
+    }
+
+    @Test
+    public void written() {
+        FingerprintMutationFilter filter = new FingerprintMutationFilter();
+
+        TestFingerprinted value = new TestFingerprinted(null, 1L);
+        Assert.assertTrue(filter.test(value, null));
+        // Computed fingerprint is not committed until written
+        Assert.assertFalse(value.getFingerprint().isPresent());
+        // Hence, if the write failed, the next mutation is written again
+        Assert.assertTrue(filter.test(value, null));
+
+        filter.written(value, null);
+        Assert.assertEquals(OptionalLong.of(1L), value.getFingerprint());
+        Assert.assertFalse(filter.test(value, null));
+
+        // Suppression commits the computed fingerprint, which equals the committed fingerprint
+        value = new TestFingerprinted(1L, 1L);
+        Assert.assertFalse(filter.test(value, new TestFingerprinted(1L, 1L)));
+        Assert.assertEquals(OptionalLong.of(1L), value.getFingerprint());
+
+        // Values without a fingerprint are ignored
+        filter.written(new Object(), null);
+    }
+
+    @Test
+    public void writtenNonTransactional() throws Exception {
+        FingerprintMutationFilter filter = new FingerprintMutationFilter();
+        TransactionManager tm = mock(TransactionManager.class);
+
+        when(tm.getTransaction()).thenReturn(null);
+
+        TestFingerprinted value = new TestFingerprinted(null, 1L);
+        Assert.assertTrue(filter.test(value, null));
+
+        filter.written(value, tm);
+
+        Assert.assertEquals(OptionalLong.of(1L), value.getFingerprint());
+    }
+
+    @Test
+    public void writtenTransactional() throws Exception {
+        FingerprintMutationFilter filter = new FingerprintMutationFilter();
+        TransactionManager tm = mock(TransactionManager.class);
+        Transaction tx = mock(Transaction.class);
+        ArgumentCaptor<Synchronization> capturedSynchronization = ArgumentCaptor.forClass(Synchronization.class);
+
+        when(tm.getTransaction()).thenReturn(tx);
+
+        TestFingerprinted value = new TestFingerprinted(null, 1L);
+        Assert.assertTrue(filter.test(value, null));
+
+        filter.written(value, tm);
+
+        verify(tx).registerSynchronization(capturedSynchronization.capture());
+
+        // Fingerprint is not committed until the transaction commits
+        Assert.assertFalse(value.getFingerprint().isPresent());
+
+        Synchronization synchronization = capturedSynchronization.getValue();
+        synchronization.beforeCompletion();
+        synchronization.afterCompletion(Status.STATUS_ROLLEDBACK);
+
+        Assert.assertFalse(value.getFingerprint().isPresent());
+
+        Assert.assertTrue(filter.test(value, null));
+
+        filter.written(value, tm);
+
+        verify(tx, times(2)).registerSynchronization(capturedSynchronization.capture());
+
+        synchronization = capturedSynchronization.getValue();
+        synchronization.beforeCompletion();
+        synchronization.afterCompletion(Status.STATUS_COMMITTED);
+
+        Assert.assertEquals(OptionalLong.of(1L), value.getFingerprint());
+    }
+
+    private static class TestFingerprinted implements Fingerprinted {
+        private volatile Long fingerprint;
+        private volatile Long computedFingerprint;
+        private final long current;
+
+        TestFingerprinted(Long fingerprint, long current) {
+            this.fingerprint = fingerprint;
+            this.current = current;
+        }
+
+        @Override
+        public OptionalLong getFingerprint() {
+            Long fingerprint = this.fingerprint;
+            return (fingerprint != null) ? OptionalLong.of(fingerprint) : OptionalLong.empty();
+        }
+
+        @Override
+        public OptionalLong computeFingerprint() throws IOException {
+            this.computedFingerprint = this.current;
+            return OptionalLong.of(this.current);
+        }
+
+        @Override
+        public void commitFingerprint() {
+            Long fingerprint = this.computedFingerprint;
+            if (fingerprint != null) {
+                this.fingerprint = fingerprint;
+                this.computedFingerprint = null;
+            }
+        }
+    }
+}
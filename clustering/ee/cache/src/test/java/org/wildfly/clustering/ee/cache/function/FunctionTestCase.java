@@ -22,6 +22,7 @@
 
 package org.wildfly.clustering.ee.cache.function;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -119,4 +120,60 @@ public class FunctionTestCase {
         Map<String, String> result4 = new ConcurrentMapRemoveFunction<String, String>("bar").apply(null, result3);
         Assert.assertNull(result4);
     }
+
+    @Test
+    public void copyOnWriteMapCompute() {
+        Map<String, String> changes = new HashMap<>();
+        changes.put("foo", "a");
+        changes.put("bar", "b");
+        Map<String, String> result = new CopyOnWriteMapComputeFunction<>(changes).apply(null, null);
+        Assert.assertNotNull(result);
+        Assert.assertEquals("a", result.get("foo"));
+        Assert.assertEquals("b", result.get("bar"));
+
+        changes = new HashMap<>();
+        changes.put("foo", null);
+        changes.put("bar", "c");
+        Map<String, String> result2 = new CopyOnWriteMapComputeFunction<>(changes).apply(null, result);
+        Assert.assertNotNull(result2);
+        Assert.assertNotSame(result, result2);
+        Assert.assertFalse(result2.containsKey("foo"));
+        Assert.assertEquals("c", result2.get("bar"));
+
+        changes = new HashMap<>();
+        changes.put("bar", null);
+        Map<String, String> result3 = new CopyOnWriteMapComputeFunction<>(changes).apply(null, result2);
+        // Empty map is retained
+        Assert.assertNotNull(result3);
+        Assert.assertNotSame(result2, result3);
+        Assert.assertTrue(result3.isEmpty());
+    }
+
+    @Test
+    public void concurrentMapCompute() {
+        Map<String, String> changes = new HashMap<>();
+        changes.put("foo", "a");
+        changes.put("bar", "b");
+        Map<String, String> result = new ConcurrentMapComputeFunction<>(changes).apply(null, null);
+        Assert.assertNotNull(result);
+        Assert.assertEquals("a", result.get("foo"));
+        Assert.assertEquals("b", result.get("bar"));
+
+        changes = new HashMap<>();
+        changes.put("foo", null);
+        changes.put("bar", "c");
+        Map<String, String> result2 = new ConcurrentMapComputeFunction<>(changes).apply(null, result);
+        Assert.assertNotNull(result2);
+        Assert.assertSame(result, result2);
+        Assert.assertFalse(result2.containsKey("foo"));
+        Assert.assertEquals("c", result2.get("bar"));
+
+        changes = new HashMap<>();
+        changes.put("bar", null);
+        Map<String, String> result3 = new ConcurrentMapComputeFunction<>(changes).apply(null, result2);
+        // Empty map is retained
+        Assert.assertNotNull(result3);
+        Assert.assertSame(result2, result3);
+        Assert.assertTrue(result3.isEmpty());
+    }
 }
@@ -31,10 +31,17 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.wildfly.clustering.ee.Batch;
+import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.Scheduler;
 
 /**
@@ -120,6 +127,336 @@ public class LocalSchedulerTestCase {
         }
     }
 
+    @Test
+    public void tick() {
+        AtomicReference<Instant> clock = new AtomicReference<>(Instant.now());
+        // Polling interval is long enough that the scheduler never polls on its own during this test
+        ScheduledEntries<UUID, Instant> entries = new TimingWheelScheduledEntries<>(Duration.ofMinutes(1), clock::get);
+        Predicate<UUID> task = mock(Predicate.class);
+
+        UUID id = UUID.randomUUID();
+
+        try (LocalScheduler<UUID> scheduler = new LocalScheduler<>(entries, task, Duration.ZERO, null, clock::get)) {
+            when(task.test(id)).thenReturn(true);
+
+            scheduler.schedule(id, clock.get().plusSeconds(1));
+
+            // Verify that entry is not expired before its tick
+            scheduler.run();
+
+            verify(task, never()).test(id);
+
+            clock.set(clock.get().plus(Duration.ofMinutes(2)));
+
+            scheduler.run();
+
+            // Verify that entry was expired and removed on a subsequent tick
+            verify(task).test(id);
+            Assert.assertFalse(entries.iterator().hasNext());
+        }
+    }
+
+    @Test
+    public void tickFailure() {
+        AtomicReference<Instant> clock = new AtomicReference<>(Instant.now());
+        ScheduledEntries<UUID, Instant> entries = new TimingWheelScheduledEntries<>(Duration.ofMinutes(1), clock::get);
+        Predicate<UUID> task = mock(Predicate.class);
+
+        UUID id = UUID.randomUUID();
+
+        try (LocalScheduler<UUID> scheduler = new LocalScheduler<>(entries, task, Duration.ZERO, null, clock::get)) {
+            when(task.test(id)).thenThrow(new IllegalStateException()).thenReturn(true);
+
+            scheduler.schedule(id, clock.get());
+
+            clock.set(clock.get().plus(Duration.ofMinutes(2)));
+
+            // Verify that a failing task does not propagate, and does not trigger removal
+            scheduler.run();
+
+            verify(task).test(id);
+            Assert.assertTrue(entries.iterator().hasNext());
+
+            // Verify that entry is retried on the next tick
+            scheduler.run();
+
+            verify(task, times(2)).test(id);
+            Assert.assertFalse(entries.iterator().hasNext());
+        }
+    }
+
+    @Test
+    public void batch() {
+        AtomicReference<Instant> clock = new AtomicReference<>(Instant.now());
+        ScheduledEntries<UUID, Instant> entries = new SortedScheduledEntries<>();
+        Predicate<UUID> task = mock(Predicate.class);
+        BatchConfiguration<UUID> configuration = mock(BatchConfiguration.class);
+        RecordableBatchStatistics statistics = new RecordableBatchStatistics();
+
+        when(configuration.getBatchFunction()).thenReturn(id -> id.getLeastSignificantBits() % 2);
+        when(configuration.getMaxThreads()).thenReturn(2);
+        when(configuration.getQueueLength()).thenReturn(1);
+        when(configuration.getStatistics()).thenReturn(statistics);
+
+        List<UUID> ids = new ArrayList<>(10);
+        for (int i = 0; i < 10; ++i) {
+            ids.add(new UUID(0, i));
+        }
+
+        try (LocalScheduler<UUID> scheduler = new LocalScheduler<>(entries, task, Duration.ZERO, configuration, clock::get)) {
+            when(task.test(any())).thenReturn(true);
+
+            // Schedule far enough in the future that the scheduler never runs on its own during this test
+            Instant instant = clock.get().plus(Duration.ofHours(1));
+            for (UUID id : ids) {
+                scheduler.schedule(id, instant.plusMillis(id.getLeastSignificantBits()));
+            }
+
+            clock.set(instant.plus(Duration.ofHours(1)));
+
+            scheduler.run();
+
+            // Verify that all entries were processed in 2 batches and removed
+            for (UUID id : ids) {
+                verify(task).test(id);
+            }
+            Assert.assertFalse(entries.iterator().hasNext());
+            Assert.assertEquals(10L, statistics.getSucceededCount());
+            Assert.assertEquals(0L, statistics.getFailedCount());
+            Assert.assertEquals(2L, statistics.getBatchCount());
+            Assert.assertEquals(5, statistics.getMaxBatchSize());
+        }
+    }
+
+    @Test
+    public void batchReschedule() {
+        AtomicReference<Instant> clock = new AtomicReference<>(Instant.now());
+        ScheduledEntries<UUID, Instant> entries = new SortedScheduledEntries<>();
+        Predicate<UUID> task = mock(Predicate.class);
+        BatchConfiguration<UUID> configuration = mock(BatchConfiguration.class);
+
+        when(configuration.getBatchFunction()).thenReturn(id -> id.getLeastSignificantBits() % 2);
+        when(configuration.getMaxThreads()).thenReturn(2);
+        when(configuration.getQueueLength()).thenReturn(1);
+
+        UUID rescheduledId = new UUID(0, 0);
+        UUID expiredId = new UUID(0, 1);
+
+        try (LocalScheduler<UUID> scheduler = new LocalScheduler<>(entries, task, Duration.ZERO, configuration, clock::get)) {
+            Instant instant = clock.get().plus(Duration.ofHours(1));
+            Instant rescheduledInstant = instant.plus(Duration.ofDays(1));
+
+            // Emulate an entry that was rescheduled while its task was running
+            when(task.test(rescheduledId)).thenAnswer(invocation -> {
+                scheduler.schedule(rescheduledId, rescheduledInstant);
+                return true;
+            });
+            when(task.test(expiredId)).thenReturn(true);
+
+            scheduler.schedule(rescheduledId, instant);
+            scheduler.schedule(expiredId, instant.plusMillis(1));
+
+            clock.set(instant.plus(Duration.ofHours(1)));
+
+            scheduler.run();
+
+            verify(task).test(rescheduledId);
+            verify(task).test(expiredId);
+
+            // Verify that only the rescheduled entry remains
+            Map.Entry<UUID, Instant> entry = entries.peek();
+            Assert.assertNotNull(entry);
+            Assert.assertEquals(rescheduledId, entry.getKey());
+            Assert.assertEquals(rescheduledInstant, entry.getValue());
+            entries.remove(rescheduledId);
+            Assert.assertNull(entries.peek());
+        }
+    }
+
+    @Test
+    public void batchTogether() {
+        AtomicReference<Instant> clock = new AtomicReference<>(Instant.now());
+        // Use polling, so that the entry of a failed task is not retried immediately
+        ScheduledEntries<UUID, Instant> entries = new TimingWheelScheduledEntries<>(Duration.ofMinutes(1), clock::get);
+        Predicate<UUID> task = mock(Predicate.class);
+        BatchConfiguration<UUID> configuration = mock(BatchConfiguration.class);
+        Batcher<Batch> batcher = mock(Batcher.class);
+        Batch batch = mock(Batch.class);
+        RecordableBatchStatistics statistics = new RecordableBatchStatistics();
+
+        // All entries belong to the same batch
+        when(configuration.getBatchFunction()).thenReturn(id -> Boolean.TRUE);
+        when(configuration.getMaxThreads()).thenReturn(1);
+        when(configuration.getQueueLength()).thenReturn(1);
+        when(configuration.getStatistics()).thenReturn(statistics);
+        doReturn(batcher).when(configuration).getBatcher();
+        when(batcher.createBatch()).thenReturn(batch);
+
+        UUID id1 = new UUID(0, 1);
+        UUID id2 = new UUID(0, 2);
+        UUID id3 = new UUID(0, 3);
+
+        try (LocalScheduler<UUID> scheduler = new LocalScheduler<>(entries, task, Duration.ZERO, configuration, clock::get)) {
+            when(task.test(any())).thenReturn(true);
+
+            Instant instant = clock.get().plus(Duration.ofHours(1));
+            scheduler.schedule(id1, instant.plusMillis(1));
+            scheduler.schedule(id2, instant.plusMillis(2));
+
+            clock.set(instant.plus(Duration.ofHours(1)));
+
+            scheduler.run();
+
+            // Verify that all entries were processed within a single batch
+            verify(batcher).createBatch();
+            verify(batch).close();
+            verify(batch, never()).discard();
+            verify(task).test(id1);
+            verify(task).test(id2);
+            Assert.assertNull(entries.peek());
+
+            reset(batcher, batch, task);
+            when(batcher.createBatch()).thenReturn(batch);
+            when(task.test(id1)).thenReturn(true);
+            when(task.test(id2)).thenReturn(false);
+            when(task.test(id3)).thenReturn(true);
+
+            instant = clock.get().plus(Duration.ofHours(1));
+            scheduler.schedule(id1, instant.plusMillis(1));
+            scheduler.schedule(id2, instant.plusMillis(2));
+            scheduler.schedule(id3, instant.plusMillis(3));
+
+            clock.set(instant.plus(Duration.ofHours(1)));
+
+            scheduler.run();
+
+            // Verify that a failed task discards the batch, after which each entry whose task did not complete is processed individually
+            verify(batcher).createBatch();
+            verify(batch).discard();
+            verify(batch).close();
+            verify(task).test(id1);
+            verify(task, times(2)).test(id2);
+            verify(task).test(id3);
+
+            // Verify that only the entry whose task failed remains
+            Map.Entry<UUID, Instant> entry = entries.peek();
+            Assert.assertNotNull(entry);
+            Assert.assertEquals(id2, entry.getKey());
+            entries.remove(id2);
+            Assert.assertNull(entries.peek());
+
+            Assert.assertEquals(2L, statistics.getBatchCount());
+            Assert.assertEquals(4L, statistics.getSucceededCount());
+            Assert.assertEquals(1L, statistics.getFailedCount());
+        }
+    }
+
+    @Test
+    public void batchFailureSideEffects() {
+        AtomicReference<Instant> clock = new AtomicReference<>(Instant.now());
+        ScheduledEntries<UUID, Instant> entries = new TimingWheelScheduledEntries<>(Duration.ofMinutes(1), clock::get);
+        BatchConfiguration<UUID> configuration = mock(BatchConfiguration.class);
+        Batcher<Batch> batcher = mock(Batcher.class);
+        Batch batch = mock(Batch.class);
+
+        when(configuration.getBatchFunction()).thenReturn(id -> Boolean.TRUE);
+        when(configuration.getMaxThreads()).thenReturn(1);
+        when(configuration.getQueueLength()).thenReturn(1);
+        doReturn(batcher).when(configuration).getBatcher();
+        when(batcher.createBatch()).thenReturn(batch);
+
+        List<UUID> ids = new ArrayList<>(5);
+        for (int i = 0; i < 5; ++i) {
+            ids.add(new UUID(0, i));
+        }
+        UUID failingId = ids.get(2);
+        Map<UUID, AtomicInteger> notifications = new ConcurrentHashMap<>();
+        // Emulates a task that notifies a listener, e.g. of session expiration, before it completes
+        Predicate<UUID> task = id -> {
+            if (id.equals(failingId)) return false;
+            notifications.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+            return true;
+        };
+
+        try (LocalScheduler<UUID> scheduler = new LocalScheduler<>(entries, task, Duration.ZERO, configuration, clock::get)) {
+            Instant instant = clock.get().plus(Duration.ofHours(1));
+            for (UUID id : ids) {
+                scheduler.schedule(id, instant.plusMillis(id.getLeastSignificantBits()));
+            }
+
+            clock.set(instant.plus(Duration.ofHours(1)));
+
+            scheduler.run();
+
+            verify(batch).discard();
+
+            // Verify that the listener of each successful task was notified exactly once, despite the failure mid-batch
+            for (UUID id : ids) {
+                if (!id.equals(failingId)) {
+                    Assert.assertEquals(id.toString(), 1, notifications.get(id).get());
+                }
+            }
+            Assert.assertFalse(notifications.containsKey(failingId));
+
+            // Verify that only the entry whose task failed remains
+            Map.Entry<UUID, Instant> entry = entries.peek();
+            Assert.assertNotNull(entry);
+            Assert.assertEquals(failingId, entry.getKey());
+        }
+    }
+
+    @Test
+    public void closeWithPendingBatches() throws InterruptedException {
+        AtomicReference<Instant> clock = new AtomicReference<>(Instant.now());
+        ScheduledEntries<UUID, Instant> entries = new SortedScheduledEntries<>();
+        BatchConfiguration<UUID> configuration = mock(BatchConfiguration.class);
+
+        // Each entry is its own batch, processed by a single thread, such that all but the first batch are queued
+        when(configuration.getBatchFunction()).thenReturn(id -> id);
+        when(configuration.getMaxThreads()).thenReturn(1);
+        when(configuration.getQueueLength()).thenReturn(4);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+        AtomicInteger count = new AtomicInteger();
+        Predicate<UUID> task = id -> {
+            count.incrementAndGet();
+            started.countDown();
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return true;
+        };
+
+        LocalScheduler<UUID> scheduler = new LocalScheduler<>(entries, task, Duration.ZERO, configuration, clock::get);
+        Instant instant = clock.get().plus(Duration.ofHours(1));
+        for (int i = 0; i < 3; ++i) {
+            scheduler.schedule(new UUID(0, i), instant.plusMillis(i));
+        }
+        clock.set(instant.plus(Duration.ofHours(1)));
+
+        Thread thread = new Thread(scheduler);
+        thread.start();
+        try {
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Close while the first batch is running, and the remaining batches are queued
+            scheduler.close();
+
+            // Verify that the thread waiting for the batches is not blocked forever
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+            Assert.assertFalse(thread.isAlive());
+            // Verify that the queued batches never ran
+            Assert.assertEquals(1, count.get());
+        } finally {
+            blocker.countDown();
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
     @Test
     public void cancel() {
         ScheduledEntries<UUID, Instant> entries = mock(ScheduledEntries.class);
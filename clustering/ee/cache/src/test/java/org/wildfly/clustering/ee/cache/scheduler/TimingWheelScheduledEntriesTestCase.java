@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ee.cache.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TimingWheelScheduledEntries}.
+ * @author agent
+ */
+public class TimingWheelScheduledEntriesTestCase {
+
+    @Test
+    public void order() {
+        // Align with a tick boundary
+        Instant now = Instant.ofEpochMilli(System.currentTimeMillis() / 100 * 100);
+        ScheduledEntries<UUID, Instant> entries = new TimingWheelScheduledEntries<>(Duration.ofMillis(100), () -> now);
+
+        Assert.assertFalse(entries.iterator().hasNext());
+
+        UUID past = UUID.randomUUID();
+        UUID present = UUID.randomUUID();
+        UUID soon = UUID.randomUUID();
+        UUID later = UUID.randomUUID();
+        entries.add(present, now);
+        entries.add(past, now.minus(Duration.ofSeconds(1)));
+        entries.add(later, now.plus(Duration.ofSeconds(2)));
+        entries.add(soon, now.plus(Duration.ofSeconds(1)));
+
+        Iterator<Map.Entry<UUID, Instant>> iterator = entries.iterator();
+        // Due entries share the same tick, in no particular order
+        Assert.assertTrue(iterator.hasNext());
+        Map.Entry<UUID, Instant> first = iterator.next();
+        Assert.assertTrue(iterator.hasNext());
+        Map.Entry<UUID, Instant> second = iterator.next();
+        Assert.assertTrue((first.getKey() == past) ? (second.getKey() == present) : (first.getKey() == present) && (second.getKey() == past));
+        Assert.assertFalse(first.getValue().isAfter(now));
+        Assert.assertFalse(second.getValue().isAfter(now));
+        Assert.assertTrue(iterator.hasNext());
+        Map.Entry<UUID, Instant> entry = iterator.next();
+        Assert.assertSame(soon, entry.getKey());
+        Assert.assertFalse(entry.getValue().isBefore(now.plus(Duration.ofSeconds(1))));
+        Assert.assertTrue(iterator.hasNext());
+        entry = iterator.next();
+        Assert.assertSame(later, entry.getKey());
+        Assert.assertFalse(entry.getValue().isBefore(now.plus(Duration.ofSeconds(2))));
+        Assert.assertFalse(iterator.hasNext());
+
+        // Verify removal via iterator
+        iterator = entries.iterator();
+        iterator.next();
+        iterator.remove();
+        iterator.next();
+        iterator.remove();
+        iterator = entries.iterator();
+        Assert.assertSame(soon, iterator.next().getKey());
+        Assert.assertSame(later, iterator.next().getKey());
+        Assert.assertFalse(iterator.hasNext());
+
+        // Verify rescheduling replaces existing entry
+        entries.add(soon, now.plus(Duration.ofSeconds(3)));
+        iterator = entries.iterator();
+        Assert.assertSame(later, iterator.next().getKey());
+        Assert.assertSame(soon, iterator.next().getKey());
+        Assert.assertFalse(iterator.hasNext());
+
+        // Verify removal
+        entries.remove(later);
+        entries.remove(UUID.randomUUID());
+        iterator = entries.iterator();
+        Assert.assertSame(soon, iterator.next().getKey());
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void cascade() {
+        Instant start = Instant.now();
+        AtomicReference<Instant> clock = new AtomicReference<>(start);
+        ScheduledEntries<UUID, Instant> entries = new TimingWheelScheduledEntries<>(Duration.ofMillis(1), clock::get);
+
+        // Populate every wheel, as well as the overflow
+        Duration[] delays = new Duration[] { Duration.ofMillis(10), Duration.ofMillis(100), Duration.ofSeconds(10), Duration.ofMinutes(20), Duration.ofDays(1) };
+        UUID[] keys = new UUID[delays.length];
+        for (int i = delays.length - 1; i >= 0; --i) {
+            keys[i] = UUID.randomUUID();
+            entries.add(keys[i], start.plus(delays[i]));
+        }
+
+        for (int i = 0; i < delays.length; ++i) {
+            Instant due = start.plus(delays[i]);
+
+            // Verify entry is not yet due
+            clock.set(due.minusMillis(1));
+            Map.Entry<UUID, Instant> entry = entries.peek();
+            Assert.assertSame(keys[i], entry.getKey());
+            Assert.assertTrue(entry.getValue().isAfter(clock.get()));
+
+            // Verify entry is due, but not early
+            clock.set(due.plusMillis(1));
+            Iterator<Map.Entry<UUID, Instant>> iterator = entries.iterator();
+            entry = iterator.next();
+            Assert.assertSame(keys[i], entry.getKey());
+            Assert.assertFalse(entry.getValue().isAfter(clock.get()));
+            Assert.assertFalse(entry.getValue().isBefore(due));
+            iterator.remove();
+            if (iterator.hasNext()) {
+                Assert.assertTrue(iterator.next().getValue().isAfter(clock.get()));
+            }
+        }
+        Assert.assertFalse(entries.iterator().hasNext());
+    }
+}
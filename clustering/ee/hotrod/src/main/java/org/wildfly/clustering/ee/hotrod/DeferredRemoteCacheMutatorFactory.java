@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ee.hotrod;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+import org.infinispan.client.hotrod.RemoteCache;
+import org.jboss.as.clustering.context.DefaultExecutorService;
+import org.jboss.as.clustering.context.DefaultThreadFactory;
+import org.jboss.logging.Logger;
+import org.wildfly.clustering.ee.Mutator;
+import org.wildfly.clustering.ee.MutatorFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Factory for creating a {@link Mutator} that defers writes of a remote cache entry.
+ * Mutations of the same entry are coalesced, such that only the most recent value is written.
+ * Pending values are written to the remote cache in bulk, at a fixed interval, and when this factory is closed.
+ * Each mutation defers a copy of its value, such that a pending value is never modified while it is written.
+ * Intended for entries, e.g. access meta data, whose loss upon failure is tolerable.
+ * @author agent
+ */
+public class DeferredRemoteCacheMutatorFactory<K, V> implements MutatorFactory<K, V>, Runnable, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(DeferredRemoteCacheMutatorFactory.class);
+
+    private final RemoteCache<K, V> cache;
+    private final UnaryOperator<V> copier;
+    private final Map<K, V> pending = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * Creates a new mutator factory.
+     * @param cache the remote cache to which deferred values are written
+     * @param interval the interval at which pending values are written
+     * @param copier creates a copy of a value
+     */
+    public DeferredRemoteCacheMutatorFactory(RemoteCache<K, V> cache, Duration interval, UnaryOperator<V> copier) {
+        this.cache = cache;
+        this.copier = copier;
+        this.executor = new ScheduledThreadPoolExecutor(1, new DefaultThreadFactory(this.getClass()));
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        long millis = Math.max(interval.toMillis(), 1L);
+        this.executor.scheduleWithFixedDelay(this, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Mutator createMutator(K key, V value) {
+        Map<K, V> pending = this.pending;
+        UnaryOperator<V> copier = this.copier;
+        return new Mutator() {
+            @Override
+            public void mutate() {
+                pending.put(key, copier.apply(value));
+            }
+        };
+    }
+
+    /**
+     * Returns a copy of the value of the specified entry not yet written to the remote cache.
+     * @param key a cache key
+     * @return the pending value of the specified entry, or null, if there is none
+     */
+    public V getPendingValue(K key) {
+        V value = this.pending.get(key);
+        return (value != null) ? this.copier.apply(value) : null;
+    }
+
+    /**
+     * Discards any pending write of the specified entry, e.g. because it was removed.
+     * @param key a cache key
+     */
+    public void cancel(K key) {
+        this.pending.remove(key);
+    }
+
+    @Override
+    public synchronized void run() {
+        if (this.pending.isEmpty()) return;
+        Map<K, V> values = new HashMap<>(this.pending);
+        try {
+            this.cache.putAll(values);
+            // Only discard the values written, i.e. not those mutated in the interim
+            for (Map.Entry<K, V> entry : values.entrySet()) {
+                V value = entry.getValue();
+                this.pending.computeIfPresent(entry.getKey(), (key, current) -> (current == value) ? null : current);
+            }
+        } catch (RuntimeException e) {
+            // Values remain pending, and will be retried
+            LOGGER.warn(e.getLocalizedMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        WildFlySecurityManager.doUnchecked(this.executor, DefaultExecutorService.SHUTDOWN_ACTION);
+        // Flush remaining values, once any in-progress flush completes
+        this.run();
+    }
+}
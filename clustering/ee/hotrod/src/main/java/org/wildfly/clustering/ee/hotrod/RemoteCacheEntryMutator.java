@@ -29,6 +29,7 @@ import java.util.function.Function;
 
 import org.infinispan.client.hotrod.RemoteCache;
 import org.wildfly.clustering.ee.Mutator;
+import org.wildfly.clustering.ee.cache.FingerprintMutationFilter;
 
 /**
  * Mutates a given cache entry.
@@ -40,6 +41,7 @@ public class RemoteCacheEntryMutator<K, V> implements Mutator {
     private final K id;
     private final V value;
     private final Function<V, Duration> maxIdle;
+    private final FingerprintMutationFilter filter;
 
     public RemoteCacheEntryMutator(RemoteCache<K, V> cache, Map.Entry<K, V> entry) {
         this(cache, entry, null);
@@ -54,14 +56,21 @@ public class RemoteCacheEntryMutator<K, V> implements Mutator {
     }
 
     public RemoteCacheEntryMutator(RemoteCache<K, V> cache, K id, V value, Function<V, Duration> maxIdle) {
+        this(cache, id, value, maxIdle, null);
+    }
+
+    public RemoteCacheEntryMutator(RemoteCache<K, V> cache, K id, V value, Function<V, Duration> maxIdle, FingerprintMutationFilter filter) {
         this.cache = cache;
         this.id = id;
         this.value = value;
         this.maxIdle = maxIdle;
+        this.filter = filter;
     }
 
     @Override
     public void mutate() {
+        // The remote value is not available locally, so compare against the form of this value when it was read
+        if ((this.filter != null) && !this.filter.test(this.value, null)) return;
         Duration maxIdleDuration = (this.maxIdle != null) ? this.maxIdle.apply(this.value) : Duration.ZERO;
         long seconds = maxIdleDuration.getSeconds();
         int nanos = maxIdleDuration.getNano();
@@ -69,5 +78,8 @@ public class RemoteCacheEntryMutator<K, V> implements Mutator {
             seconds += 1;
         }
         this.cache.put(this.id, this.value, 0, TimeUnit.SECONDS, seconds, TimeUnit.SECONDS);
+        if (this.filter != null) {
+            this.filter.written(this.value, this.cache.getTransactionManager());
+        }
     }
 }
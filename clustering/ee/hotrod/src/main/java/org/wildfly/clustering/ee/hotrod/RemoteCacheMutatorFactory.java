@@ -28,6 +28,7 @@ import java.util.function.Function;
 import org.infinispan.client.hotrod.RemoteCache;
 import org.wildfly.clustering.ee.Mutator;
 import org.wildfly.clustering.ee.MutatorFactory;
+import org.wildfly.clustering.ee.cache.FingerprintMutationFilter;
 
 /**
  * Factory for creating a {@link Mutator} for a remote cache entry.
@@ -37,18 +38,30 @@ public class RemoteCacheMutatorFactory<K, V> implements MutatorFactory<K, V> {
 
     private final RemoteCache<K, V> cache;
     private final Function<V, Duration> maxIdle;
+    private final FingerprintMutationFilter filter;
 
     public RemoteCacheMutatorFactory(RemoteCache<K, V> cache) {
         this(cache, null);
     }
 
     public RemoteCacheMutatorFactory(RemoteCache<K, V> cache, Function<V, Duration> maxIdle) {
+        this(cache, maxIdle, null);
+    }
+
+    /**
+     * Creates a mutator factory whose mutators skip the cache write of values whose serialized form is unchanged.
+     * @param cache a remote cache
+     * @param maxIdle an optional function returning the max idle duration of a given value
+     * @param filter an optional filter of redundant cache writes
+     */
+    public RemoteCacheMutatorFactory(RemoteCache<K, V> cache, Function<V, Duration> maxIdle, FingerprintMutationFilter filter) {
         this.cache = cache;
         this.maxIdle = maxIdle;
+        this.filter = filter;
     }
 
     @Override
     public Mutator createMutator(K key, V value) {
-        return new RemoteCacheEntryMutator<>(this.cache, key, value, this.maxIdle);
+        return new RemoteCacheEntryMutator<>(this.cache, key, value, this.maxIdle, this.filter);
     }
 }
@@ -0,0 +1,178 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ee.hotrod;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.infinispan.client.hotrod.RemoteCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Unit test for {@link DeferredRemoteCacheMutatorFactory}.
+ * @author agent
+ */
+public class DeferredRemoteCacheMutatorFactoryTestCase {
+
+    private final RemoteCache<String, AtomicReference<String>> cache = mock(RemoteCache.class);
+    private DeferredRemoteCacheMutatorFactory<String, AtomicReference<String>> factory;
+
+    @Before
+    public void init() {
+        // Use an interval long enough that values are only flushed explicitly
+        this.factory = new DeferredRemoteCacheMutatorFactory<>(this.cache, Duration.ofHours(1), value -> new AtomicReference<>(value.get()));
+    }
+
+    @After
+    public void destroy() {
+        this.factory.close();
+    }
+
+    @Test
+    public void defer() {
+        AtomicReference<String> value = new AtomicReference<>("foo");
+
+        this.factory.createMutator("key", value).mutate();
+
+        verify(this.cache, never()).putAll(any());
+
+        AtomicReference<String> pending = this.factory.getPendingValue("key");
+        assertNotNull(pending);
+        assertNotSame(value, pending);
+        assertEquals("foo", pending.get());
+
+        // Subsequent modification of the value must not modify the pending copy
+        value.set("bar");
+        assertEquals("foo", this.factory.getPendingValue("key").get());
+
+        // Modification of the returned pending value must not modify the pending copy either
+        pending.set("baz");
+        assertEquals("foo", this.factory.getPendingValue("key").get());
+
+        assertNull(this.factory.getPendingValue("missing"));
+    }
+
+    @Test
+    public void flush() {
+        AtomicReference<String> value = new AtomicReference<>("foo");
+        this.factory.createMutator("key", value).mutate();
+        value.set("bar");
+        this.factory.createMutator("key", value).mutate();
+        this.factory.createMutator("other", new AtomicReference<>("qux")).mutate();
+
+        ArgumentCaptor<Map<String, AtomicReference<String>>> captor = ArgumentCaptor.forClass(Map.class);
+
+        this.factory.run();
+
+        // Mutations of the same entry are coalesced
+        verify(this.cache).putAll(captor.capture());
+        Map<String, AtomicReference<String>> values = captor.getValue();
+        assertEquals(2, values.size());
+        assertEquals("bar", values.get("key").get());
+        assertEquals("qux", values.get("other").get());
+
+        assertNull(this.factory.getPendingValue("key"));
+        assertNull(this.factory.getPendingValue("other"));
+
+        // Nothing to flush
+        this.factory.run();
+
+        verify(this.cache, times(1)).putAll(any());
+    }
+
+    @Test
+    public void mutateDuringFlush() {
+        AtomicReference<String> value = new AtomicReference<>("foo");
+        this.factory.createMutator("key", value).mutate();
+
+        doAnswer(invocation -> {
+            // Simulate a concurrent mutation while values are written
+            value.set("bar");
+            this.factory.createMutator("key", value).mutate();
+            return null;
+        }).when(this.cache).putAll(any());
+
+        this.factory.run();
+
+        // Written value must not be affected by the concurrent mutation
+        ArgumentCaptor<Map<String, AtomicReference<String>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(this.cache).putAll(captor.capture());
+        assertEquals("foo", captor.getValue().get("key").get());
+
+        // Only the written value is discarded
+        AtomicReference<String> pending = this.factory.getPendingValue("key");
+        assertNotNull(pending);
+        assertEquals("bar", pending.get());
+    }
+
+    @Test
+    public void flushFailure() {
+        this.factory.createMutator("key", new AtomicReference<>("foo")).mutate();
+
+        doThrow(new IllegalStateException()).when(this.cache).putAll(any());
+
+        this.factory.run();
+
+        // Values remain pending, to be retried
+        assertEquals("foo", this.factory.getPendingValue("key").get());
+
+        reset(this.cache);
+
+        this.factory.run();
+
+        verify(this.cache).putAll(any());
+        assertNull(this.factory.getPendingValue("key"));
+    }
+
+    @Test
+    public void cancel() {
+        this.factory.createMutator("key", new AtomicReference<>("foo")).mutate();
+
+        this.factory.cancel("key");
+
+        assertNull(this.factory.getPendingValue("key"));
+
+        this.factory.run();
+
+        verify(this.cache, never()).putAll(any());
+    }
+
+    @Test
+    public void close() {
+        this.factory.createMutator("key", new AtomicReference<>("foo")).mutate();
+
+        this.factory.close();
+
+        ArgumentCaptor<Map<String, AtomicReference<String>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(this.cache).putAll(captor.capture());
+        assertEquals("foo", captor.getValue().get("key").get());
+        assertNull(this.factory.getPendingValue("key"));
+    }
+}
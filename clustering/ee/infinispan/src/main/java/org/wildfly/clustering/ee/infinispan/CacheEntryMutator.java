@@ -26,8 +26,10 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.infinispan.Cache;
+import org.infinispan.commons.CacheException;
 import org.infinispan.context.Flag;
 import org.wildfly.clustering.ee.Mutator;
+import org.wildfly.clustering.ee.cache.FingerprintMutationFilter;
 
 /**
  * Mutates a given cache entry.
@@ -39,15 +41,21 @@ public class CacheEntryMutator<K, V> implements Mutator {
     private final K id;
     private final V value;
     private final AtomicBoolean mutated;
+    private final FingerprintMutationFilter filter;
 
     public CacheEntryMutator(Cache<K, V> cache, Map.Entry<K, V> entry) {
         this(cache, entry.getKey(), entry.getValue());
     }
 
     public CacheEntryMutator(Cache<K, V> cache, K id, V value) {
+        this(cache, id, value, null);
+    }
+
+    public CacheEntryMutator(Cache<K, V> cache, K id, V value, FingerprintMutationFilter filter) {
         this.cache = cache;
         this.id = id;
         this.value = value;
+        this.filter = filter;
         this.mutated = cache.getCacheConfiguration().transaction().transactionMode().isTransactional() ? new AtomicBoolean(false) : null;
     }
 
@@ -55,8 +63,30 @@ public class CacheEntryMutator<K, V> implements Mutator {
     public void mutate() {
         // We only ever have to perform a replace once within a batch
         if ((this.mutated == null) || this.mutated.compareAndSet(false, true)) {
-            // Use FAIL_SILENTLY to prevent mutation from failing locally due to remote exceptions
+            if (this.filter != null) {
+                this.filteredMutate();
+            } else {
+                // Use FAIL_SILENTLY to prevent mutation from failing locally due to remote exceptions
+                this.cache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES, Flag.FAIL_SILENTLY).put(this.id, this.value);
+            }
+        }
+    }
+
+    private void filteredMutate() {
+        // Compare against the locally available value, i.e. the value read by the current transaction, or the value held by this owner
+        if (!this.filter.test(this.value, this.cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD).get(this.id))) return;
+        if (this.mutated != null) {
+            // Failure of a transactional write is reported when its transaction commits
             this.cache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES, Flag.FAIL_SILENTLY).put(this.id, this.value);
+            this.filter.written(this.value, this.cache.getAdvancedCache().getTransactionManager());
+        } else {
+            // FAIL_SILENTLY would conceal whether this write succeeded, so tolerate remote exceptions explicitly
+            try {
+                this.cache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).put(this.id, this.value);
+                this.filter.written(this.value, null);
+            } catch (CacheException e) {
+                // Fingerprint remains uncommitted, so the next mutation of this value will be written
+            }
         }
     }
 }
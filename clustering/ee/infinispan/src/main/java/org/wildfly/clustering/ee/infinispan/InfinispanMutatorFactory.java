@@ -4,6 +4,7 @@ import org.infinispan.Cache;
 import org.wildfly.clustering.ee.Mutator;
 import org.wildfly.clustering.ee.MutatorFactory;
 import org.wildfly.clustering.ee.cache.CacheProperties;
+import org.wildfly.clustering.ee.cache.FingerprintMutationFilter;
 
 /**
  * Factory for creating {@link Mutator} objects for an Infinispan cache.
@@ -13,18 +14,30 @@ public class InfinispanMutatorFactory<K, V> implements MutatorFactory<K, V> {
 
     private final Cache<K, V> cache;
     private final CacheProperties properties;
+    private final FingerprintMutationFilter filter;
 
     public InfinispanMutatorFactory(Cache<K, V> cache) {
         this(cache, new InfinispanCacheProperties(cache.getCacheConfiguration()));
     }
 
     public InfinispanMutatorFactory(Cache<K, V> cache, CacheProperties properties) {
+        this(cache, properties, null);
+    }
+
+    /**
+     * Creates a mutator factory whose mutators skip the cache write of values whose serialized form is unchanged.
+     * @param cache an embedded cache
+     * @param properties the properties of the cache
+     * @param filter an optional filter of redundant cache writes
+     */
+    public InfinispanMutatorFactory(Cache<K, V> cache, CacheProperties properties, FingerprintMutationFilter filter) {
         this.cache = cache;
         this.properties = properties;
+        this.filter = filter;
     }
 
     @Override
     public Mutator createMutator(K key, V value) {
-        return this.properties.isPersistent() ? new CacheEntryMutator<>(this.cache, key, value) : Mutator.PASSIVE;
+        return this.properties.isPersistent() ? new CacheEntryMutator<>(this.cache, key, value, this.filter) : Mutator.PASSIVE;
     }
 }
@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ee.infinispan.scheduler;
+
+import java.util.function.Function;
+
+import org.infinispan.Cache;
+import org.infinispan.distribution.DistributionManager;
+import org.wildfly.clustering.ee.Batch;
+import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.ee.cache.scheduler.BatchConfiguration;
+import org.wildfly.clustering.ee.cache.scheduler.RecordableBatchStatistics;
+
+/**
+ * {@link BatchConfiguration} that groups scheduled entries by the segment of their cache key.
+ * The entries of each segment are processed within a single batch.
+ * @author agent
+ * @param <I> the scheduled entry type
+ * @param <K> the cache key type
+ */
+public class SegmentBatchConfiguration<I, K> implements BatchConfiguration<I>, Function<I, Object> {
+    private static final Integer LOCAL_SEGMENT = 0;
+
+    private final DistributionManager distribution;
+    private final Function<I, K> keyFactory;
+    private final int maxThreads;
+    private final Batcher<? extends Batch> batcher;
+    private final RecordableBatchStatistics statistics;
+
+    public SegmentBatchConfiguration(Cache<? super K, ?> cache, Function<I, K> keyFactory, int maxThreads, Batcher<? extends Batch> batcher, RecordableBatchStatistics statistics) {
+        this.distribution = cache.getAdvancedCache().getDistributionManager();
+        this.keyFactory = keyFactory;
+        this.maxThreads = maxThreads;
+        this.batcher = batcher;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Function<I, Object> getBatchFunction() {
+        return this;
+    }
+
+    @Override
+    public int getMaxThreads() {
+        return this.maxThreads;
+    }
+
+    @Override
+    public Batcher<? extends Batch> getBatcher() {
+        return this.batcher;
+    }
+
+    @Override
+    public RecordableBatchStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    @Override
+    public Object apply(I id) {
+        return (this.distribution != null) ? this.distribution.getCacheTopology().getSegment(this.keyFactory.apply(id)) : LOCAL_SEGMENT;
+    }
+}
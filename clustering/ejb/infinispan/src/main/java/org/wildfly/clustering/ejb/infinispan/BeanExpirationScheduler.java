@@ -27,6 +27,7 @@ import java.util.function.Predicate;
 
 import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.ee.cache.scheduler.BatchConfiguration;
 import org.wildfly.clustering.ee.cache.scheduler.LocalScheduler;
 import org.wildfly.clustering.ee.cache.scheduler.ScheduledEntries;
 import org.wildfly.clustering.ee.cache.scheduler.LinkedScheduledEntries;
@@ -55,8 +56,11 @@ public class BeanExpirationScheduler<I, T> implements Scheduler<I, ImmutableBean
     private final BeanRemover<I, T> remover;
 
     public BeanExpirationScheduler(Group group, Batcher<TransactionBatch> batcher, BeanFactory<I, T> factory, ExpirationConfiguration<T> expiration, BeanRemover<I, T> remover, Duration closeTimeout) {
-        ScheduledEntries<I, Instant> entries = group.isSingleton() ? new LinkedScheduledEntries<>() : new SortedScheduledEntries<>();
-        this.scheduler = new LocalScheduler<>(entries, this, closeTimeout);
+        this(batcher, factory, expiration, remover, closeTimeout, group.isSingleton() ? new LinkedScheduledEntries<>() : new SortedScheduledEntries<>(), null);
+    }
+
+    public BeanExpirationScheduler(Batcher<TransactionBatch> batcher, BeanFactory<I, T> factory, ExpirationConfiguration<T> expiration, BeanRemover<I, T> remover, Duration closeTimeout, ScheduledEntries<I, Instant> entries, BatchConfiguration<I> batchConfiguration) {
+        this.scheduler = new LocalScheduler<>(entries, this, closeTimeout, batchConfiguration);
         this.batcher = batcher;
         this.factory = factory;
         this.expiration = expiration;
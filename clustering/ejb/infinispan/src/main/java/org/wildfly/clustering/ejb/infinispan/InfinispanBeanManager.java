@@ -22,6 +22,7 @@
 package org.wildfly.clustering.ejb.infinispan;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +43,11 @@ import org.jboss.ejb.client.ClusterAffinity;
 import org.jboss.ejb.client.NodeAffinity;
 import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.cache.CacheProperties;
+import org.wildfly.clustering.ee.cache.scheduler.BatchConfiguration;
+import org.wildfly.clustering.ee.cache.scheduler.LinkedScheduledEntries;
+import org.wildfly.clustering.ee.cache.scheduler.ScheduledEntries;
+import org.wildfly.clustering.ee.cache.scheduler.SortedScheduledEntries;
+import org.wildfly.clustering.ee.cache.scheduler.TimingWheelScheduledEntries;
 import org.wildfly.clustering.ee.cache.tx.TransactionBatch;
 import org.wildfly.clustering.ee.infinispan.PrimaryOwnerLocator;
 import org.wildfly.clustering.ee.infinispan.scheduler.PrimaryOwnerScheduler;
@@ -49,6 +55,7 @@ import org.wildfly.clustering.ee.infinispan.scheduler.ScheduleLocalEntriesTask;
 import org.wildfly.clustering.ee.infinispan.scheduler.Scheduler;
 import org.wildfly.clustering.ee.infinispan.scheduler.SchedulerListener;
 import org.wildfly.clustering.ee.infinispan.scheduler.SchedulerTopologyChangeListener;
+import org.wildfly.clustering.ee.infinispan.scheduler.SegmentBatchConfiguration;
 import org.wildfly.clustering.ee.infinispan.tx.InfinispanBatcher;
 import org.wildfly.clustering.ejb.Bean;
 import org.wildfly.clustering.ejb.BeanManager;
@@ -76,6 +83,8 @@ import org.wildfly.security.manager.WildFlySecurityManager;
 public class InfinispanBeanManager<I, T, C> implements BeanManager<I, T, TransactionBatch> {
 
     private static final String IDLE_TIMEOUT_PROPERTY = "jboss.ejb.stateful.%s.idle-timeout";
+    private static final String EXPIRATION_TICK_PROPERTY = "jboss.ejb.stateful.%s.expiration-tick";
+    private static final String EXPIRATION_BATCH_THREADS_PROPERTY = "jboss.ejb.stateful.%s.expiration-batch-threads";
 
     private final String name;
     private final Cache<BeanKey<I>, BeanEntry<I>> cache;
@@ -123,7 +132,13 @@ public class InfinispanBeanManager<I, T, C> implements BeanManager<I, T, Transac
         List<Scheduler<I, ImmutableBeanEntry<I>>> schedulers = new ArrayList<>(2);
         Duration timeout = this.expiration.getTimeout();
         if ((timeout != null) && !timeout.isNegative()) {
-            schedulers.add(new BeanExpirationScheduler<>(this.dispatcherFactory.getGroup(), this.batcher, this.beanFactory, this.expiration, new ExpiredBeanRemover<>(this.beanFactory, this.expiration), stopTimeout));
+            String globalExpirationTick = WildFlySecurityManager.getPropertyPrivileged("jboss.ejb.stateful.expiration-tick", null);
+            String expirationTick = WildFlySecurityManager.getPropertyPrivileged(String.format(EXPIRATION_TICK_PROPERTY, this.name), globalExpirationTick);
+            ScheduledEntries<I, Instant> entries = (expirationTick != null) ? new TimingWheelScheduledEntries<>(Duration.parse(expirationTick)) : (this.group.isSingleton() ? new LinkedScheduledEntries<>() : new SortedScheduledEntries<>());
+            String globalExpirationBatchThreads = WildFlySecurityManager.getPropertyPrivileged("jboss.ejb.stateful.expiration-batch-threads", null);
+            String expirationBatchThreads = WildFlySecurityManager.getPropertyPrivileged(String.format(EXPIRATION_BATCH_THREADS_PROPERTY, this.name), globalExpirationBatchThreads);
+            BatchConfiguration<I> batchConfiguration = (expirationBatchThreads != null) ? new SegmentBatchConfiguration<>(this.cache, InfinispanBeanKey::new, Integer.parseInt(expirationBatchThreads), this.batcher, null) : null;
+            schedulers.add(new BeanExpirationScheduler<>(this.batcher, this.beanFactory, this.expiration, new ExpiredBeanRemover<>(this.beanFactory, this.expiration), stopTimeout, entries, batchConfiguration));
         }
 
         String dispatcherName = String.join("/", this.cache.getName(), this.filter.toString());
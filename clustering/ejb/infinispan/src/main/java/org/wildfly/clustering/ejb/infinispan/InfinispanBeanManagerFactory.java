@@ -28,6 +28,7 @@ import java.util.function.Predicate;
 import org.infinispan.Cache;
 import org.infinispan.remoting.transport.Address;
 import org.wildfly.clustering.ee.cache.CacheProperties;
+import org.wildfly.clustering.ee.cache.FingerprintMutationFilter;
 import org.wildfly.clustering.ee.cache.tx.TransactionBatch;
 import org.wildfly.clustering.ee.infinispan.InfinispanCacheProperties;
 import org.wildfly.clustering.ejb.BeanManager;
@@ -45,6 +46,7 @@ import org.wildfly.clustering.marshalling.spi.ByteBufferMarshalledValueFactory;
 import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
 import org.wildfly.clustering.spi.dispatcher.CommandDispatcherFactory;
 import org.wildfly.clustering.spi.group.Group;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Factory for creating an infinispan-based {@link BeanManager}.
@@ -56,6 +58,9 @@ import org.wildfly.clustering.spi.group.Group;
  */
 public class InfinispanBeanManagerFactory<I, T> implements BeanManagerFactory<I, T, TransactionBatch> {
 
+    // If true, writes of bean groups whose serialized form is unchanged since last replicated are suppressed
+    private static final String WRITE_SUPPRESSION_PROPERTY = "jboss.ejb.stateful.write-suppression";
+
     private final InfinispanBeanManagerFactoryConfiguration configuration;
 
     public InfinispanBeanManagerFactory(InfinispanBeanManagerFactoryConfiguration configuration) {
@@ -83,7 +88,8 @@ public class InfinispanBeanManagerFactory<I, T> implements BeanManagerFactory<I,
             }
         };
         Predicate<Map.Entry<? super BeanKey<I>, ? super BeanEntry<I>>> beanFilter = new BeanFilter<>(beanName);
-        BeanGroupFactory<I, T, ByteBufferMarshaller> groupFactory = new InfinispanBeanGroupFactory<>(groupCache, beanCache, beanFilter, factory, properties, passivation);
+        FingerprintMutationFilter mutationFilter = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(WRITE_SUPPRESSION_PROPERTY, Boolean.FALSE.toString())) ? new FingerprintMutationFilter() : null;
+        BeanGroupFactory<I, T, ByteBufferMarshaller> groupFactory = new InfinispanBeanGroupFactory<>(groupCache, beanCache, beanFilter, factory, properties, passivation, mutationFilter);
         Configuration<BeanGroupKey<I>, BeanGroupEntry<I, T, ByteBufferMarshaller>, BeanGroupFactory<I, T, ByteBufferMarshaller>> groupConfiguration = new SimpleConfiguration<>(groupCache, groupFactory);
         BeanFactory<I, T> beanFactory = new InfinispanBeanFactory<>(beanName, groupFactory, beanCache, properties, this.configuration.getBeanContext().getTimeout(), properties.isPersistent() ? passivationListener : null);
         Configuration<BeanKey<I>, BeanEntry<I>, BeanFactory<I, T>> beanConfiguration = new SimpleConfiguration<>(beanCache, beanFactory);
@@ -21,12 +21,15 @@
  */
 package org.wildfly.clustering.ejb.infinispan.group;
 
+import java.io.IOException;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import org.wildfly.clustering.ejb.infinispan.BeanGroupEntry;
+import org.wildfly.clustering.marshalling.spi.Fingerprinted;
 import org.wildfly.clustering.marshalling.spi.MarshalledValue;
 
 /**
@@ -37,7 +40,7 @@ import org.wildfly.clustering.marshalling.spi.MarshalledValue;
  * @param <I> the bean identifier type
  * @param <T> the bean type
  */
-public class InfinispanBeanGroupEntry<I, T, C> implements BeanGroupEntry<I, T, C>, Function<I, AtomicInteger> {
+public class InfinispanBeanGroupEntry<I, T, C> implements BeanGroupEntry<I, T, C>, Function<I, AtomicInteger>, Fingerprinted {
 
     private final MarshalledValue<Map<I, T>, C> beans;
     private final Map<I, AtomicInteger> usage = new ConcurrentHashMap<>();
@@ -71,6 +74,24 @@ public class InfinispanBeanGroupEntry<I, T, C> implements BeanGroupEntry<I, T, C
         return total;
     }
 
+    @Override
+    public OptionalLong getFingerprint() {
+        // The serialized form of this entry is that of its beans
+        return (this.beans instanceof Fingerprinted) ? ((Fingerprinted) this.beans).getFingerprint() : OptionalLong.empty();
+    }
+
+    @Override
+    public OptionalLong computeFingerprint() throws IOException {
+        return (this.beans instanceof Fingerprinted) ? ((Fingerprinted) this.beans).computeFingerprint() : OptionalLong.empty();
+    }
+
+    @Override
+    public void commitFingerprint() {
+        if (this.beans instanceof Fingerprinted) {
+            ((Fingerprinted) this.beans).commitFingerprint();
+        }
+    }
+
     @Override
     public AtomicInteger apply(I key) {
         return new AtomicInteger(0);
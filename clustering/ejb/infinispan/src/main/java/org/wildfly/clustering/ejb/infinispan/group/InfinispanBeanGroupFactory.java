@@ -49,6 +49,7 @@ import org.wildfly.clustering.ee.Mutator;
 import org.wildfly.clustering.ee.MutatorFactory;
 import org.wildfly.clustering.ee.Remover;
 import org.wildfly.clustering.ee.cache.CacheProperties;
+import org.wildfly.clustering.ee.cache.FingerprintMutationFilter;
 import org.wildfly.clustering.ee.infinispan.InfinispanMutatorFactory;
 import org.wildfly.clustering.ejb.PassivationListener;
 import org.wildfly.clustering.ejb.infinispan.BeanEntry;
@@ -86,6 +87,10 @@ public class InfinispanBeanGroupFactory<I, T, C> implements BeanGroupFactory<I,
     private final ExecutorService executor = new DefaultExecutorService(this.getClass(), ExecutorServiceFactory.CACHED_THREAD);
 
     public InfinispanBeanGroupFactory(Cache<BeanGroupKey<I>, BeanGroupEntry<I, T, C>> cache, Cache<BeanKey<I>, BeanEntry<I>> beanCache, Predicate<Map.Entry<? super BeanKey<I>, ? super BeanEntry<I>>> beanFilter, MarshalledValueFactory<C> factory, CacheProperties properties, PassivationConfiguration<T> passivation) {
+        this(cache, beanCache, beanFilter, factory, properties, passivation, null);
+    }
+
+    public InfinispanBeanGroupFactory(Cache<BeanGroupKey<I>, BeanGroupEntry<I, T, C>> cache, Cache<BeanKey<I>, BeanEntry<I>> beanCache, Predicate<Map.Entry<? super BeanKey<I>, ? super BeanEntry<I>>> beanFilter, MarshalledValueFactory<C> factory, CacheProperties properties, PassivationConfiguration<T> passivation, FingerprintMutationFilter mutationFilter) {
         this.cache = cache;
         this.findCache = properties.isLockOnRead() ? cache.getAdvancedCache().withFlags(Flag.FORCE_WRITE_LOCK) : cache;
         this.beanCache = beanCache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_LISTENER_NOTIFICATION);
@@ -93,7 +98,7 @@ public class InfinispanBeanGroupFactory<I, T, C> implements BeanGroupFactory<I,
         this.factory = factory;
         this.passivationListener = !properties.isPersistent() ? passivation.getPassivationListener() : null;
         this.cache.addListener(this, BeanGroupFilter.INSTANCE, null);
-        this.mutatorFactory = new InfinispanMutatorFactory<>(cache, properties);
+        this.mutatorFactory = new InfinispanMutatorFactory<>(cache, properties, mutationFilter);
     }
 
     @Override
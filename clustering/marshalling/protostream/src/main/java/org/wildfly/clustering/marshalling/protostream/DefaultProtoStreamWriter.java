@@ -24,15 +24,14 @@ package org.wildfly.clustering.marshalling.protostream;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.OptionalInt;
 
-import org.infinispan.protostream.BaseMarshaller;
 import org.infinispan.protostream.ImmutableSerializationContext;
 import org.infinispan.protostream.ProtobufUtil;
 import org.infinispan.protostream.RawProtoStreamWriter;
 import org.infinispan.protostream.impl.RawProtoStreamWriterImpl;
 import org.infinispan.protostream.impl.WireFormat;
 import org.wildfly.clustering.marshalling.spi.ByteBufferOutputStream;
+import org.wildfly.clustering.marshalling.spi.ByteBufferOutputStreamPool;
 
 import protostream.com.google.protobuf.CodedOutputStream;
 
@@ -67,16 +66,16 @@ public class DefaultProtoStreamWriter implements ProtoStreamWriter {
 
     @Override
     public void writeObjectNoTag(Object value) throws IOException {
-        BaseMarshaller<?> marshaller = this.context.getMarshaller(value.getClass());
-        @SuppressWarnings("unchecked")
-        OptionalInt size = (marshaller instanceof Marshallable) ? ((Marshallable<Object>) marshaller).size(this.context, value) : OptionalInt.empty();
-        try (ByteBufferOutputStream output = new ByteBufferOutputStream(size)) {
+        // Nested object is copied to this writer immediately, so marshal via a reusable buffer
+        ByteBufferOutputStreamPool pool = ByteBufferOutputStreamPool.INSTANCE;
+        ByteBufferOutputStream output = pool.acquire();
+        try {
             ProtobufUtil.writeTo(this.context, output, value);
-            ByteBuffer buffer = output.getBuffer();
-            int offset = buffer.arrayOffset();
-            int length = buffer.limit() - offset;
+            int length = output.size();
             this.output.writeUInt32NoTag(length);
-            this.output.writeRawBytes(buffer.array(), offset, length);
+            this.output.writeRawBytes(output.getBuffer().array(), 0, length);
+        } finally {
+            pool.release(output);
         }
     }
 
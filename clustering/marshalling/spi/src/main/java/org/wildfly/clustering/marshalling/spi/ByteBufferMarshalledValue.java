@@ -27,17 +27,24 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.OptionalLong;
 
 /**
  * @author Paul Ferraro
  * @param <T> the type wrapped by this marshalled value
  */
-public class ByteBufferMarshalledValue<T> implements MarshalledValue<T, ByteBufferMarshaller>, Serializable {
+public class ByteBufferMarshalledValue<T> implements MarshalledValue<T, ByteBufferMarshaller>, Fingerprinted, Serializable {
     private static final long serialVersionUID = -8419893544424515905L;
 
     private transient volatile ByteBufferMarshaller marshaller;
     private transient volatile T object;
     private transient volatile ByteBuffer buffer;
+    // Fingerprint of the serialized form of this value, as last unmarshalled or committed
+    private transient volatile OptionalLong fingerprint;
+    // Fingerprint computed by computeFingerprint(), pending its commit
+    private transient volatile OptionalLong computedFingerprint;
+    // Serialized form computed by computeFingerprint(), retained for the subsequent write of this value
+    private transient volatile ByteBuffer computedBuffer;
 
     public ByteBufferMarshalledValue(T object, ByteBufferMarshaller marshaller) {
         this.marshaller = marshaller;
@@ -65,15 +72,53 @@ public class ByteBufferMarshalledValue<T> implements MarshalledValue<T, ByteBuff
         ByteBuffer buffer = this.buffer;
         if (buffer != null) return buffer;
         if (this.object == null) return null;
+        ByteBuffer computed = this.computedBuffer;
+        if (computed != null) {
+            // Reuse the serialized form from which the fingerprint was computed, rather than marshalling this value again
+            this.computedBuffer = null;
+            return computed;
+        }
         return this.marshaller.write(this.object);
     }
 
+    @Override
+    public OptionalLong getFingerprint() {
+        OptionalLong fingerprint = this.fingerprint;
+        if (fingerprint != null) return fingerprint;
+        // Fingerprint of a value not yet unmarshalled is that of its buffer
+        ByteBuffer buffer = this.buffer;
+        return (buffer != null) ? OptionalLong.of(FingerprintOutputStream.fingerprint(buffer)) : OptionalLong.empty();
+    }
+
+    @Override
+    public synchronized OptionalLong computeFingerprint() throws IOException {
+        ByteBuffer buffer = this.buffer;
+        if ((buffer == null) && (this.object != null)) {
+            buffer = this.marshaller.write(this.object);
+            this.computedBuffer = buffer;
+        }
+        this.computedFingerprint = OptionalLong.of((buffer != null) ? FingerprintOutputStream.fingerprint(buffer) : 0L);
+        return this.computedFingerprint;
+    }
+
+    @Override
+    public synchronized void commitFingerprint() {
+        OptionalLong fingerprint = this.computedFingerprint;
+        if (fingerprint != null) {
+            this.fingerprint = fingerprint;
+            this.computedFingerprint = null;
+        }
+        // Never reuse a serialized form that was not consumed by the write that committed it
+        this.computedBuffer = null;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public synchronized T get(ByteBufferMarshaller marshaller) throws IOException {
         if (this.object == null) {
             this.marshaller = marshaller;
             if (this.buffer != null) {
+                this.fingerprint = OptionalLong.of(FingerprintOutputStream.fingerprint(this.buffer));
                 this.object = (T) this.marshaller.read(this.buffer);
                 this.buffer = null;
             }
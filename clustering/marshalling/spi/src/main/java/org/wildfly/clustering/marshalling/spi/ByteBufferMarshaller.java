@@ -22,6 +22,7 @@
 
 package org.wildfly.clustering.marshalling.spi;
 
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -51,22 +52,49 @@ public interface ByteBufferMarshaller extends Marshaller<Object, ByteBuffer> {
     @Override
     default ByteBuffer write(Object object) throws IOException {
         OptionalInt size = this.size(object);
+        if (!size.isPresent()) {
+            LOGGER.tracef("Buffer size prediction missing for %s (%s)", object, (object != null) ? object.getClass().getCanonicalName() : null);
+            // Marshal to a reusable buffer, then copy to a buffer of the exact size
+            ByteBufferOutputStreamPool pool = ByteBufferOutputStreamPool.INSTANCE;
+            ByteBufferOutputStream output = pool.acquire();
+            try {
+                this.writeTo(output, object);
+                return ByteBuffer.wrap(output.toByteArray());
+            } finally {
+                pool.release(output);
+            }
+        }
         try (ByteBufferOutputStream output = new ByteBufferOutputStream(size)) {
             this.writeTo(output, object);
             ByteBuffer buffer = output.getBuffer();
-            if (size.isPresent()) {
-                int predictedSize = size.getAsInt();
-                int actualSize = buffer.limit() - buffer.arrayOffset();
-                if (predictedSize < actualSize) {
-                    LOGGER.debugf("Buffer size prediction too small for %s (%s), predicted = %d, actual = %d", object, (object != null) ? object.getClass().getCanonicalName() : null, predictedSize, actualSize);
-                }
-            } else {
-                LOGGER.tracef("Buffer size prediction missing for %s (%s)", object, (object != null) ? object.getClass().getCanonicalName() : null);
+            int predictedSize = size.getAsInt();
+            int actualSize = buffer.limit() - buffer.arrayOffset();
+            if (predictedSize < actualSize) {
+                LOGGER.debugf("Buffer size prediction too small for %s (%s), predicted = %d, actual = %d", object, (object != null) ? object.getClass().getCanonicalName() : null, predictedSize, actualSize);
             }
             return buffer;
         }
     }
 
+    /**
+     * Marshals the specified object to the specified output, prefixed by its length, without allocating a buffer for the marshalled object.
+     * @param output a data output
+     * @param object the object to marshal
+     * @throws IOException if the object could not be marshalled
+     */
+    default void writeLengthPrefixed(DataOutput output, Object object) throws IOException {
+        ByteBufferOutputStreamPool pool = ByteBufferOutputStreamPool.INSTANCE;
+        ByteBufferOutputStream buffer = pool.acquire();
+        try {
+            this.writeTo(buffer, object);
+            int length = buffer.size();
+            IndexSerializer.VARIABLE.writeInt(output, length);
+            output.write(buffer.getBuffer().array(), 0, length);
+        } finally {
+            pool.release(buffer);
+        }
+    }
+
     default OptionalInt size(Object object) {
         return OptionalInt.empty();
     }
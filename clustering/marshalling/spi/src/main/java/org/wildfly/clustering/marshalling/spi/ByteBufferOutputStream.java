@@ -44,6 +44,14 @@ public final class ByteBufferOutputStream extends ByteArrayOutputStream {
         super(size);
     }
 
+    /**
+     * Returns the capacity of the internal buffer of this output stream.
+     * @return the length of the internal byte array
+     */
+    public int capacity() {
+        return this.buf.length;
+    }
+
     /**
      * Returns the internal buffer of this output stream.
      * @return the internal byte buffer.
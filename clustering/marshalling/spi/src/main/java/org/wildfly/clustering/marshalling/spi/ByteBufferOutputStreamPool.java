@@ -0,0 +1,89 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.marshalling.spi;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of reusable {@link ByteBufferOutputStream} instances, used as scratch space by marshalling operations whose output is transient, or whose size cannot be predicted.
+ * Each thread retains a bounded stack of idle streams, such that nested marshalling operations each reuse a distinct stream.
+ * Streams whose capacity grew beyond a threshold are not retained, to bound the memory retained by each thread.
+ * @author agent
+ */
+public enum ByteBufferOutputStreamPool {
+    INSTANCE;
+
+    private static final int INITIAL_CAPACITY = 512;
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+    private static final int MAX_IDLE_STREAMS = 4;
+
+    private final ThreadLocal<Deque<ByteBufferOutputStream>> idleStreams = ThreadLocal.withInitial(ArrayDeque::new);
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder reuses = new LongAdder();
+
+    /**
+     * Returns an empty output stream for exclusive use by the current thread, until it is {@link #release(ByteBufferOutputStream) released}.
+     * @return an empty output stream
+     */
+    public ByteBufferOutputStream acquire() {
+        ByteBufferOutputStream stream = this.idleStreams.get().pollFirst();
+        if (stream != null) {
+            this.reuses.increment();
+            return stream;
+        }
+        this.allocations.increment();
+        return new ByteBufferOutputStream(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns the specified output stream to this pool.
+     * The caller must not reference the stream, nor its buffer, after this method returns.
+     * @param stream a stream previously obtained via {@link #acquire()}.
+     */
+    public void release(ByteBufferOutputStream stream) {
+        if (stream.capacity() <= MAX_RETAINED_CAPACITY) {
+            Deque<ByteBufferOutputStream> streams = this.idleStreams.get();
+            if (streams.size() < MAX_IDLE_STREAMS) {
+                stream.reset();
+                streams.addFirst(stream);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of output streams allocated by this pool.
+     * @return a number of allocations
+     */
+    public long getAllocationCount() {
+        return this.allocations.sum();
+    }
+
+    /**
+     * Returns the number of times an output stream was reused, instead of allocated.
+     * @return a number of reuses
+     */
+    public long getReuseCount() {
+        return this.reuses.sum();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.spi;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Output stream that computes a 64-bit FNV-1a hash of the bytes written to it, without retaining them.
+ * @author agent
+ */
+class FingerprintOutputStream extends OutputStream {
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private long hash = OFFSET_BASIS;
+    private long size = 0;
+
+    static long fingerprint(ByteBuffer buffer) {
+        FingerprintOutputStream output = new FingerprintOutputStream();
+        for (int i = buffer.position(); i < buffer.limit(); ++i) {
+            output.write(buffer.get(i));
+        }
+        return output.getFingerprint();
+    }
+
+    @Override
+    public void write(int b) {
+        this.hash = (this.hash ^ (b & 0xff)) * PRIME;
+        this.size += 1;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        long hash = this.hash;
+        for (int i = offset; i < offset + length; ++i) {
+            hash = (hash ^ (bytes[i] & 0xff)) * PRIME;
+        }
+        this.hash = hash;
+        this.size += length;
+    }
+
+    long getFingerprint() {
+        // Mix in the size, to further reduce the likelihood of collisions between values of different sizes
+        return (this.hash ^ this.size) * PRIME;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.spi;
+
+import java.io.IOException;
+import java.util.OptionalLong;
+
+/**
+ * Implemented by values that retain a fingerprint of their serialized form, so that writes of an unchanged value can be detected.
+ * @author agent
+ */
+public interface Fingerprinted {
+
+    /**
+     * Returns the fingerprint of the serialized form of this value, as of the last time it was unmarshalled or its fingerprint was committed.
+     * @return a fingerprint, or empty, if unknown
+     */
+    OptionalLong getFingerprint();
+
+    /**
+     * Computes the fingerprint of the current serialized form of this value.
+     * The computed fingerprint does not become the fingerprint of this value until it is {@link #commitFingerprint() committed}.
+     * @return a fingerprint, or empty, if this value cannot compute a fingerprint
+     * @throws IOException if this value could not be marshalled
+     */
+    OptionalLong computeFingerprint() throws IOException;
+
+    /**
+     * Commits the fingerprint most recently computed via {@link #computeFingerprint()}, once its serialized form was replicated.
+     */
+    void commitFingerprint();
+}
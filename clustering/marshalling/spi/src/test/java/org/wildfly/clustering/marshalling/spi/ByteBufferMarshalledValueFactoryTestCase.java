@@ -31,6 +31,9 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
 import java.util.UUID;
 
 import org.junit.Test;
@@ -121,6 +124,54 @@ public class ByteBufferMarshalledValueFactoryTestCase {
         assertEquals(0, mv.hashCode());
     }
 
+    @Test
+    public void fingerprint() throws Exception {
+        List<UUID> list = new ArrayList<>();
+        list.add(UUID.randomUUID());
+        ByteBufferMarshalledValue<List<UUID>> mv = this.factory.createMarshalledValue(list);
+
+        assertFalse(mv.getFingerprint().isPresent());
+
+        OptionalLong fingerprint = mv.computeFingerprint();
+        assertTrue(fingerprint.isPresent());
+        // Computed fingerprint is not committed until replicated
+        assertFalse(mv.getFingerprint().isPresent());
+
+        // Write reuses the serialized form from which the fingerprint was computed
+        ByteBuffer buffer = mv.getBuffer();
+        assertEquals(fingerprint.getAsLong(), FingerprintOutputStream.fingerprint(buffer));
+        // ... but only once
+        assertNotSame(buffer, mv.getBuffer());
+
+        // Replication does not commit the fingerprint
+        ByteBufferMarshalledValue<List<UUID>> copy = replicate(mv);
+        assertFalse(mv.getFingerprint().isPresent());
+        mv.commitFingerprint();
+        assertEquals(fingerprint, mv.getFingerprint());
+        // Replica derives its fingerprint from its buffer
+        assertEquals(fingerprint, copy.getFingerprint());
+
+        // Unmarshalling retains the fingerprint of the unmarshalled form
+        List<UUID> copyList = copy.get(this.marshaller);
+        assertEquals(fingerprint, copy.getFingerprint());
+        assertEquals(fingerprint, copy.computeFingerprint());
+
+        // Fingerprint changes when the value is mutated
+        copyList.add(UUID.randomUUID());
+        OptionalLong mutatedFingerprint = copy.computeFingerprint();
+        assertFalse(fingerprint.equals(mutatedFingerprint));
+        assertEquals(fingerprint, copy.getFingerprint());
+        copy.commitFingerprint();
+        assertEquals(mutatedFingerprint, copy.getFingerprint());
+
+        // Committing discards any unused serialized form, which could become stale
+        copyList.add(UUID.randomUUID());
+        OptionalLong stale = copy.computeFingerprint();
+        copy.commitFingerprint();
+        copyList.add(UUID.randomUUID());
+        assertFalse(stale.getAsLong() == FingerprintOutputStream.fingerprint(copy.getBuffer()));
+    }
+
     @SuppressWarnings("unchecked")
     <V> ByteBufferMarshalledValue<V> replicate(ByteBufferMarshalledValue<V> value) throws IOException {
         ByteBuffer buffer = this.marshaller.write(value);
@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.spi;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ByteBufferOutputStreamPool}.
+ * @author agent
+ */
+public class ByteBufferOutputStreamPoolTestCase {
+
+    @Test
+    public void reuse() {
+        ByteBufferOutputStreamPool pool = ByteBufferOutputStreamPool.INSTANCE;
+        ByteBufferOutputStream stream = pool.acquire();
+        stream.write(1);
+        pool.release(stream);
+
+        long allocations = pool.getAllocationCount();
+        ByteBufferOutputStream reused = pool.acquire();
+        try {
+            assertSame(stream, reused);
+            assertEquals(0, reused.size());
+            assertEquals(allocations, pool.getAllocationCount());
+
+            // Nested acquisition must not return the same stream
+            ByteBufferOutputStream nested = pool.acquire();
+            assertNotSame(reused, nested);
+            pool.release(nested);
+        } finally {
+            pool.release(reused);
+        }
+    }
+
+    @Test
+    public void discardLarge() {
+        ByteBufferOutputStreamPool pool = ByteBufferOutputStreamPool.INSTANCE;
+        ByteBufferOutputStream stream = pool.acquire();
+        stream.write(new byte[1024 * 1024], 0, 1024 * 1024);
+        pool.release(stream);
+
+        ByteBufferOutputStream next = pool.acquire();
+        try {
+            assertNotSame(stream, next);
+        } finally {
+            pool.release(next);
+        }
+    }
+
+    @Test
+    public void write() throws IOException {
+        ByteBufferMarshaller marshaller = JavaByteBufferMarshaller.INSTANCE;
+        UUID value = UUID.randomUUID();
+
+        ByteBuffer buffer = marshaller.write(value);
+        // Buffer size must be exact
+        assertEquals(0, buffer.arrayOffset());
+        assertEquals(buffer.array().length, buffer.limit());
+        assertEquals(value, marshaller.read(buffer));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            marshaller.writeLengthPrefixed(output, value);
+        }
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            byte[] result = new byte[IndexSerializer.VARIABLE.readInt(input)];
+            input.readFully(result);
+            assertEquals(value, marshaller.read(ByteBuffer.wrap(result)));
+        }
+    }
+}
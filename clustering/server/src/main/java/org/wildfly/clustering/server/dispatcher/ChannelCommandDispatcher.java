@@ -45,6 +45,7 @@ import org.wildfly.clustering.dispatcher.Command;
 import org.wildfly.clustering.dispatcher.CommandDispatcher;
 import org.wildfly.clustering.dispatcher.CommandDispatcherException;
 import org.wildfly.clustering.group.Node;
+import org.wildfly.clustering.spi.dispatcher.CommandBatchStatistics;
 import org.wildfly.clustering.spi.group.Group;
 
 /**
@@ -53,7 +54,7 @@ import org.wildfly.clustering.spi.group.Group;
  *
  * @param <CC> command execution context
  */
-public class ChannelCommandDispatcher<CC, MC> implements CommandDispatcher<CC> {
+public class ChannelCommandDispatcher<CC, MC> implements CommandDispatcher<CC>, CommandBatchStatistics {
 
     private static final RspFilter FILTER = new RspFilter() {
         @Override
@@ -76,8 +77,17 @@ public class ChannelCommandDispatcher<CC, MC> implements CommandDispatcher<CC> {
     private final Runnable closeTask;
     private final Address localAddress;
     private final RequestOptions options;
+    private final CommandBatcher batcher;
 
     public ChannelCommandDispatcher(MessageDispatcher dispatcher, CommandMarshaller<CC> marshaller, MC context, Group<Address> group, Duration timeout, CommandDispatcher<CC> localDispatcher, Runnable closeTask) {
+        this(dispatcher, marshaller, context, group, timeout, localDispatcher, closeTask, null);
+    }
+
+    /**
+     * Creates a command dispatcher that optionally coalesces commands destined for the same member into batches.
+     * @param batcher a command batcher, or null, if commands should not be batched
+     */
+    public ChannelCommandDispatcher(MessageDispatcher dispatcher, CommandMarshaller<CC> marshaller, MC context, Group<Address> group, Duration timeout, CommandDispatcher<CC> localDispatcher, Runnable closeTask, CommandBatcher batcher) {
         this.dispatcher = dispatcher;
         this.marshaller = marshaller;
         this.context = context;
@@ -86,7 +96,12 @@ public class ChannelCommandDispatcher<CC, MC> implements CommandDispatcher<CC> {
         this.localDispatcher = localDispatcher;
         this.closeTask = closeTask;
         this.localAddress = dispatcher.getChannel().getAddress();
-        this.options = new RequestOptions(ResponseMode.GET_ALL, this.timeout.toMillis(), false, FILTER, Message.Flag.DONT_BUNDLE, Message.Flag.OOB);
+        this.options = createRequestOptions(timeout);
+        this.batcher = batcher;
+    }
+
+    static RequestOptions createRequestOptions(Duration timeout) {
+        return new RequestOptions(ResponseMode.GET_ALL, timeout.toMillis(), false, FILTER, Message.Flag.DONT_BUNDLE, Message.Flag.OOB);
     }
 
     @Override
@@ -99,6 +114,21 @@ public class ChannelCommandDispatcher<CC, MC> implements CommandDispatcher<CC> {
         this.closeTask.run();
     }
 
+    @Override
+    public long getCommandCount() {
+        return (this.batcher != null) ? this.batcher.getCommandCount() : 0L;
+    }
+
+    @Override
+    public long getBatchCount() {
+        return (this.batcher != null) ? this.batcher.getBatchCount() : 0L;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return (this.batcher != null) ? this.batcher.getMaxBatchSize() : 0;
+    }
+
     @Override
     public <R> CompletionStage<R> executeOnMember(Command<R, ? super CC> command, Node member) throws CommandDispatcherException {
         // Bypass MessageDispatcher if target node is local
@@ -106,6 +136,9 @@ public class ChannelCommandDispatcher<CC, MC> implements CommandDispatcher<CC> {
         if (this.localAddress.equals(address)) {
             return this.localDispatcher.executeOnMember(command, member);
         }
+        if (this.batcher != null) {
+            return this.batcher.submit(this.batcher.marshal(command), address);
+        }
         Buffer buffer = this.createBuffer(command);
         ServiceRequest<R, MC> request = new ServiceRequest<>(this.dispatcher.getCorrelator(), this.group.getAddress(member), this.options, this.context);
         return request.send(buffer);
@@ -115,6 +148,22 @@ public class ChannelCommandDispatcher<CC, MC> implements CommandDispatcher<CC> {
     public <R> Map<Node, CompletionStage<R>> executeOnGroup(Command<R, ? super CC> command, Node... excludedMembers) throws CommandDispatcherException {
         Set<Node> excluded = (excludedMembers != null) ? new HashSet<>(Arrays.asList(excludedMembers)) : Collections.emptySet();
         Map<Node, CompletionStage<R>> results = new ConcurrentHashMap<>();
+        if (this.batcher != null) {
+            ByteBuffer batchCommand = this.batcher.marshal(command);
+            for (Node member : this.group.getMembership().getMembers()) {
+                if (!excluded.contains(member)) {
+                    Address address = this.group.getAddress(member);
+                    if (this.localAddress.equals(address)) {
+                        results.put(member, this.localDispatcher.executeOnMember(command, member));
+                    } else {
+                        CompletionStage<R> future = this.batcher.submit(batchCommand, address);
+                        results.put(member, future);
+                        future.whenComplete(new PruneCancellationTask<>(results, member));
+                    }
+                }
+            }
+            return results;
+        }
         Buffer buffer = this.createBuffer(command);
         for (Node member : this.group.getMembership().getMembers()) {
             if (!excluded.contains(member)) {
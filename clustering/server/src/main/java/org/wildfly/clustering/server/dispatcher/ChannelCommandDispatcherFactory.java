@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -33,6 +34,8 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
@@ -96,6 +99,9 @@ public class ChannelCommandDispatcherFactory implements AutoCloseableCommandDisp
     private final Duration timeout;
     private final Function<ClassLoader, ByteBufferMarshaller> marshallerFactory;
     private final Function<ClassLoader, Contextualizer> contextualizerFactory;
+    private final Duration batchWindow;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService batchExecutor;
 
     @SuppressWarnings("resource")
     public ChannelCommandDispatcherFactory(ChannelCommandDispatcherFactoryConfiguration config) {
@@ -103,6 +109,11 @@ public class ChannelCommandDispatcherFactory implements AutoCloseableCommandDisp
         this.timeout = config.getTimeout();
         this.marshallerFactory = config.getMarshallerFactory();
         this.contextualizerFactory = config.getContextualizerFactory();
+        this.batchWindow = config.getBatchWindow();
+        this.maxBatchSize = config.getMaxBatchSize();
+        ScheduledThreadPoolExecutor batchExecutor = new ScheduledThreadPoolExecutor(1, new DefaultThreadFactory(CommandBatcher.class));
+        batchExecutor.setRemoveOnCancelPolicy(true);
+        this.batchExecutor = batchExecutor;
         JChannel channel = config.getChannel();
         RequestCorrelator correlator = new RequestCorrelator(channel.getProtocolStack(), this, channel.getAddress()).setMarshaller(new CommandResponseMarshaller(config));
         this.dispatcher = new MessageDispatcher()
@@ -119,6 +130,7 @@ public class ChannelCommandDispatcherFactory implements AutoCloseableCommandDisp
     @Override
     public void run() {
         this.shutdown(this.executorService);
+        this.shutdown(this.batchExecutor);
         this.dispatcher.stop();
         this.dispatcher.getChannel().setUpHandler(null);
         // Cleanup any stray listeners
@@ -150,6 +162,11 @@ public class ChannelCommandDispatcherFactory implements AutoCloseableCommandDisp
     @Override
     public void handle(Message request, Response response) throws Exception {
         ExceptionSupplier<Object, Exception> commandTask = this.read(request);
+        if (commandTask instanceof CommandBatchTask) {
+            // Execute the commands of a batch concurrently
+            ((CommandBatchTask) commandTask).execute(this.executorService, results -> response.send(results, false));
+            return;
+        }
         Runnable responseTask = new Runnable() {
             @Override
             public void run() {
@@ -170,14 +187,36 @@ public class ChannelCommandDispatcherFactory implements AutoCloseableCommandDisp
     private ExceptionSupplier<Object, Exception> read(Message message) throws IOException {
         ByteBuffer buffer = ByteBuffer.wrap(message.getRawBuffer(), message.getOffset(), message.getLength());
         @SuppressWarnings("unchecked")
-        Map.Entry<Object, MarshalledValue<Command<Object, Object>, Object>> entry = (Map.Entry<Object, MarshalledValue<Command<Object, Object>, Object>>) this.marshaller.read(buffer);
+        Map.Entry<Object, Object> entry = (Map.Entry<Object, Object>) this.marshaller.read(buffer);
         Object clientId = entry.getKey();
         CommandDispatcherContext<?, ?> context = this.contexts.get(clientId);
         if (context == null) return NO_SUCH_SERVICE_SUPPLIER;
+        Object value = entry.getValue();
+        if (value instanceof List) {
+            // Batch of commands from a batching command dispatcher
+            List<?> commands = (List<?>) value;
+            List<ExceptionSupplier<Object, Exception>> tasks = new ArrayList<>(commands.size());
+            for (Object command : commands) {
+                try {
+                    tasks.add(this.read(context, command));
+                } catch (IOException e) {
+                    // Only fail the command that could not be read
+                    tasks.add(() -> {
+                        throw e;
+                    });
+                }
+            }
+            return new CommandBatchTask(tasks);
+        }
+        return this.read(context, value);
+    }
+
+    private ExceptionSupplier<Object, Exception> read(CommandDispatcherContext<?, ?> context, Object value) throws IOException {
         Object commandContext = context.getCommandContext();
         Contextualizer contextualizer = context.getContextualizer();
-        MarshalledValue<Command<Object, Object>, Object> value = entry.getValue();
-        Command<Object, Object> command = value.get(context.getMarshalledValueFactory().getMarshallingContext());
+        @SuppressWarnings("unchecked")
+        MarshalledValue<Command<Object, Object>, Object> marshalledCommand = (MarshalledValue<Command<Object, Object>, Object>) value;
+        Command<Object, Object> command = marshalledCommand.get(context.getMarshalledValueFactory().getMarshallingContext());
         ExceptionSupplier<Object, Exception> commandExecutionTask = new ExceptionSupplier<Object, Exception>() {
             @Override
             public Object get() throws Exception {
@@ -200,6 +239,11 @@ public class ChannelCommandDispatcherFactory implements AutoCloseableCommandDisp
 
     @Override
     public <C> CommandDispatcher<C> createCommandDispatcher(Object id, C commandContext, ClassLoader loader) {
+        return this.createCommandDispatcher(id, commandContext, loader, this.batchWindow, this.maxBatchSize);
+    }
+
+    @Override
+    public <C> CommandDispatcher<C> createCommandDispatcher(Object id, C commandContext, ClassLoader loader, Duration window, int maxBatchSize) {
         ByteBufferMarshaller dispatcherMarshaller = this.marshallerFactory.apply(loader);
         MarshalledValueFactory<ByteBufferMarshaller> factory = new ByteBufferMarshalledValueFactory(dispatcherMarshaller);
         Contextualizer contextualizer = this.contextualizerFactory.apply(loader);
@@ -224,10 +268,14 @@ public class ChannelCommandDispatcherFactory implements AutoCloseableCommandDisp
         }
         CommandMarshaller<C> marshaller = new CommandDispatcherMarshaller<>(this.marshaller, id, factory);
         CommandDispatcher<C> localDispatcher = new LocalCommandDispatcher<>(this.getLocalMember(), commandContext);
+        CommandBatcher batcher = (!window.isZero() && !window.isNegative()) ? new CommandBatcher(this.dispatcher, this.marshaller, id, dispatcherMarshaller, ChannelCommandDispatcher.createRequestOptions(this.timeout), window, maxBatchSize, this.batchExecutor) : null;
         return new ChannelCommandDispatcher<>(this.dispatcher, marshaller, dispatcherMarshaller, this, this.timeout, localDispatcher, () -> {
+            if (batcher != null) {
+                batcher.close();
+            }
             localDispatcher.close();
             this.contexts.remove(id);
-        });
+        }, batcher);
     }
 
     @Override
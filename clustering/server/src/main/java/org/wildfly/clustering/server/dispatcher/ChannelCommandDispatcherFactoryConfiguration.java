@@ -41,4 +41,22 @@ public interface ChannelCommandDispatcherFactoryConfiguration {
     Duration getTimeout();
     Function<ClassLoader, ByteBufferMarshaller> getMarshallerFactory();
     Function<ClassLoader, Contextualizer> getContextualizerFactory();
+
+    /**
+     * Returns the maximum duration that a command may wait to be coalesced with other commands destined for the same member.
+     * Batching is disabled if this duration is zero.
+     * N.B. Batched commands are not understood by members that do not support batching.
+     * @return a duration
+     */
+    default Duration getBatchWindow() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * Returns the maximum number of commands coalesced into a single message, if batching is enabled.
+     * @return a number of commands
+     */
+    default int getMaxBatchSize() {
+        return 64;
+    }
 }
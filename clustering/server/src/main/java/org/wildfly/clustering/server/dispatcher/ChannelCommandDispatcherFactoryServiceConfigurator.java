@@ -60,6 +60,7 @@ import org.wildfly.clustering.marshalling.protostream.ModuleClassLoaderMarshalle
 import org.wildfly.clustering.marshalling.protostream.ProtoStreamByteBufferMarshaller;
 import org.wildfly.clustering.marshalling.protostream.SerializationContextBuilder;
 import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
+import org.wildfly.clustering.server.logging.ClusteringServerLogger;
 import org.wildfly.clustering.service.AsyncServiceConfigurator;
 import org.wildfly.clustering.service.CompositeDependency;
 import org.wildfly.clustering.service.FunctionalService;
@@ -93,6 +94,9 @@ public class ChannelCommandDispatcherFactoryServiceConfigurator extends SimpleSe
         static final MarshallingVersion CURRENT = VERSION_1;
     }
 
+    private static final String BATCH_WINDOW_PROPERTY = "jboss.clustering.dispatcher.batch-window";
+    private static final String MAX_BATCH_SIZE_PROPERTY = "jboss.clustering.dispatcher.max-batch-size";
+
     private final String group;
     private final Function<ClassLoader, Contextualizer> contextualizerFactory = DefaultContextualizer::new;
 
@@ -101,10 +105,32 @@ public class ChannelCommandDispatcherFactoryServiceConfigurator extends SimpleSe
     private volatile SupplierDependency<Module> module;
     private volatile Supplier<ModuleLoader> loader;
     private volatile Duration timeout = Duration.ofMinutes(1);
+    private volatile Duration batchWindow;
+    private volatile int maxBatchSize;
 
     public ChannelCommandDispatcherFactoryServiceConfigurator(ServiceName name, String group) {
         super(name);
         this.group = group;
+        // Batching of all command dispatchers is disabled by default
+        this.batchWindow = Duration.ofMillis(parseProperty(BATCH_WINDOW_PROPERTY, 0, 0));
+        this.maxBatchSize = (int) parseProperty(MAX_BATCH_SIZE_PROPERTY, 64, 1);
+    }
+
+    private static long parseProperty(String name, long defaultValue, long minValue) {
+        String value = WildFlySecurityManager.getPropertyPrivileged(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            long result = Long.parseLong(value.trim());
+            if ((result < minValue) || (result > Integer.MAX_VALUE)) {
+                throw new IllegalArgumentException(value);
+            }
+            return result;
+        } catch (IllegalArgumentException e) {
+            ClusteringServerLogger.ROOT_LOGGER.invalidSystemProperty(e, name, value);
+            return defaultValue;
+        }
     }
 
     @Override
@@ -134,6 +160,18 @@ public class ChannelCommandDispatcherFactoryServiceConfigurator extends SimpleSe
         return this;
     }
 
+    /**
+     * Enables coalescing of commands destined for the same member into batches.
+     * @param window the maximum duration that a command may wait to be sent
+     * @param maxSize the maximum number of commands per batch
+     * @return a reference to this configurator
+     */
+    public ChannelCommandDispatcherFactoryServiceConfigurator batch(Duration window, int maxSize) {
+        this.batchWindow = window;
+        this.maxBatchSize = maxSize;
+        return this;
+    }
+
     @Override
     public Function<ClassLoader, ByteBufferMarshaller> getMarshallerFactory() {
         return this;
@@ -169,6 +207,16 @@ public class ChannelCommandDispatcherFactoryServiceConfigurator extends SimpleSe
         return this.timeout;
     }
 
+    @Override
+    public Duration getBatchWindow() {
+        return this.batchWindow;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return this.maxBatchSize;
+    }
+
     @Override
     public Predicate<ByteBuffer> getUnknownForkPredicate() {
         return this;
@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.server.dispatcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.wildfly.common.function.ExceptionSupplier;
+
+/**
+ * Executes the commands of a batch received from a batching command dispatcher.
+ * The response to a batch contains the result, or exception, of each command, in order.
+ * @author agent
+ */
+class CommandBatchTask implements ExceptionSupplier<Object, Exception> {
+
+    private final List<ExceptionSupplier<Object, Exception>> tasks;
+
+    CommandBatchTask(List<ExceptionSupplier<Object, Exception>> tasks) {
+        this.tasks = tasks;
+    }
+
+    /**
+     * Executes the commands of this batch sequentially.
+     * @return the result, or exception, of each command, in order
+     */
+    @Override
+    public Object get() {
+        List<Object> results = new ArrayList<>(this.tasks.size());
+        for (ExceptionSupplier<Object, Exception> task : this.tasks) {
+            results.add(execute(task));
+        }
+        return results;
+    }
+
+    /**
+     * Executes the commands of this batch concurrently using the specified executor, such that a slow command does not delay the others.
+     * The specified response is sent once all commands have completed.
+     * A command rejected by the executor responds with {@link NoSuchService}.
+     * @param executor an executor of commands
+     * @param response a consumer of the result, or exception, of each command, in order
+     */
+    void execute(Executor executor, Consumer<List<Object>> response) {
+        int size = this.tasks.size();
+        Object[] results = new Object[size];
+        AtomicInteger remaining = new AtomicInteger(size);
+        if (size == 0) {
+            response.accept(Arrays.asList(results));
+            return;
+        }
+        for (int i = 0; i < size; ++i) {
+            int index = i;
+            ExceptionSupplier<Object, Exception> task = this.tasks.get(i);
+            Runnable commandTask = new Runnable() {
+                @Override
+                public void run() {
+                    complete(results, index, execute(task), remaining, response);
+                }
+            };
+            try {
+                executor.execute(commandTask);
+            } catch (RejectedExecutionException e) {
+                complete(results, index, NoSuchService.INSTANCE, remaining, response);
+            }
+        }
+    }
+
+    private static void complete(Object[] results, int index, Object result, AtomicInteger remaining, Consumer<List<Object>> response) {
+        results[index] = result;
+        // Respond once the last command completes
+        if (remaining.decrementAndGet() == 0) {
+            response.accept(Arrays.asList(results));
+        }
+    }
+
+    private static Object execute(ExceptionSupplier<Object, Exception> task) {
+        try {
+            return task.get();
+        } catch (Exception e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.server.dispatcher;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jgroups.Address;
+import org.jgroups.SuspectedException;
+import org.jgroups.blocks.MessageDispatcher;
+import org.jgroups.blocks.RequestCorrelator;
+import org.jgroups.blocks.RequestOptions;
+import org.jgroups.blocks.UnicastRequest;
+import org.jgroups.util.Buffer;
+import org.wildfly.clustering.dispatcher.Command;
+import org.wildfly.clustering.dispatcher.CommandDispatcherException;
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshalledValue;
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.spi.MarshalledValue;
+import org.wildfly.clustering.spi.dispatcher.CommandBatchStatistics;
+
+/**
+ * Coalesces the commands of a command dispatcher destined for the same member into a single message.
+ * A batch is sent once it reaches a maximum size, or once its window elapses, whichever comes first.
+ * The response to a batch contains the response to each of its commands, in order, which are used to complete the stage of each command.
+ * A batch containing a single command is sent as a regular command message.
+ * @author agent
+ */
+public class CommandBatcher implements CommandBatchStatistics, AutoCloseable {
+
+    private final MessageDispatcher dispatcher;
+    private final ByteBufferMarshaller marshaller;
+    private final Object id;
+    private final ByteBufferMarshaller commandMarshaller;
+    private final RequestOptions options;
+    private final long windowNanos;
+    private final int maxSize;
+    private final ScheduledExecutorService executor;
+    private final Map<Address, Batch> batches = new ConcurrentHashMap<>();
+    private final LongAdder commandCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final AtomicInteger maxBatchSize = new AtomicInteger();
+
+    /**
+     * Creates a command batcher.
+     * @param dispatcher the message dispatcher used to send batches
+     * @param marshaller the marshaller of the batch envelope
+     * @param id the identifier of the associated command dispatcher
+     * @param commandMarshaller the marshaller of commands and their results
+     * @param options the options of each batch request
+     * @param window the maximum duration a command may wait for its batch to be sent
+     * @param maxSize the maximum number of commands per batch
+     * @param executor an executor used to schedule the sending of a batch
+     */
+    public CommandBatcher(MessageDispatcher dispatcher, ByteBufferMarshaller marshaller, Object id, ByteBufferMarshaller commandMarshaller, RequestOptions options, Duration window, int maxSize, ScheduledExecutorService executor) {
+        this.dispatcher = dispatcher;
+        this.marshaller = marshaller;
+        this.id = id;
+        this.commandMarshaller = commandMarshaller;
+        this.options = options;
+        this.windowNanos = window.toNanos();
+        this.maxSize = maxSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Marshals the specified command, such that it can be submitted to any number of members.
+     * @param command a command
+     * @return the marshalled command
+     */
+    public ByteBuffer marshal(Command<?, ?> command) {
+        try {
+            return this.commandMarshaller.write(command);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Adds the specified marshalled command to the current batch for the specified member.
+     * @param command a marshalled command
+     * @param address the address of the target member
+     * @return a stage that completes with the result of the command
+     */
+    public <R> CompletionStage<R> submit(ByteBuffer command, Address address) {
+        // Each submission requires its own buffer, since writing a buffer may change its position
+        MarshalledValue<Object, ByteBufferMarshaller> value = new ByteBufferMarshalledValue<>(command.duplicate());
+        CompletableFuture<R> future = new CompletableFuture<>();
+        while (true) {
+            Batch batch = this.batches.computeIfAbsent(address, Batch::new);
+            boolean full;
+            synchronized (batch) {
+                if (batch.closed) continue;
+                batch.add(value, future);
+                full = batch.size() >= this.maxSize;
+                if (full) {
+                    batch.close();
+                } else if (batch.size() == 1) {
+                    try {
+                        batch.schedule();
+                    } catch (RejectedExecutionException e) {
+                        // Dispatcher was closed, so this batch would never be sent
+                        batch.close();
+                        cancel(batch.futures);
+                    }
+                }
+            }
+            if (full) {
+                this.send(batch);
+            }
+            return future;
+        }
+    }
+
+    @Override
+    public void close() {
+        // Send any pending batches
+        for (Batch batch : this.batches.values()) {
+            batch.run();
+        }
+    }
+
+    @Override
+    public long getCommandCount() {
+        return this.commandCount.sum();
+    }
+
+    @Override
+    public long getBatchCount() {
+        return this.batchCount.sum();
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return this.maxBatchSize.get();
+    }
+
+    void send(Batch batch) {
+        batch.cancel();
+        int size = batch.size();
+        this.commandCount.add(size);
+        this.batchCount.increment();
+        this.maxBatchSize.accumulateAndGet(size, Math::max);
+        try {
+            ByteBuffer buffer = this.write(batch.commands);
+            Buffer data = new Buffer(buffer.array(), buffer.arrayOffset(), buffer.limit() - buffer.arrayOffset());
+            if (size == 1) {
+                @SuppressWarnings("unchecked")
+                CompletableFuture<Object> future = (CompletableFuture<Object>) batch.futures.get(0);
+                ServiceRequest<Object, ByteBufferMarshaller> request = new ServiceRequest<>(this.dispatcher.getCorrelator(), batch.address, this.options, this.commandMarshaller);
+                CompletionStage<Object> response = request.send(data);
+                // Auto-cancel on timeout, otherwise a dropped message would leave its command incomplete forever
+                Future<?> timeoutFuture = this.executor.schedule(() -> request.cancel(true), this.options.timeout(), TimeUnit.MILLISECONDS);
+                response.whenComplete((result, exception) -> {
+                    timeoutFuture.cancel(false);
+                    if (exception != null) {
+                        future.completeExceptionally(exception);
+                    } else {
+                        future.complete(result);
+                    }
+                });
+            } else {
+                BatchRequest request = new BatchRequest(this.dispatcher.getCorrelator(), batch.address, this.options, batch.futures, this.commandMarshaller);
+                request.send(data);
+                // Auto-cancel on timeout, otherwise a dropped message would leave its commands incomplete forever
+                request.timeoutFuture = this.executor.schedule(request::timeout, this.options.timeout(), TimeUnit.MILLISECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            // Dispatcher was closed
+            cancel(batch.futures);
+        } catch (Exception e) {
+            CommandDispatcherException exception = (e instanceof CommandDispatcherException) ? (CommandDispatcherException) e : new CommandDispatcherException(e);
+            for (CompletableFuture<?> future : batch.futures) {
+                future.completeExceptionally(exception);
+            }
+        }
+    }
+
+    private static void cancel(List<CompletableFuture<?>> futures) {
+        CancellationException exception = new CancellationException();
+        for (CompletableFuture<?> future : futures) {
+            future.completeExceptionally(exception);
+        }
+    }
+
+    /**
+     * Writes the message for the specified marshalled commands.
+     * A single command is written as a regular command message, so that it is understood by members that do not support batching.
+     * @param commands a non-empty list of marshalled commands
+     * @return the marshalled message
+     * @throws IOException if the message could not be marshalled
+     */
+    ByteBuffer write(List<MarshalledValue<Object, ByteBufferMarshaller>> commands) throws IOException {
+        Object value = (commands.size() == 1) ? commands.get(0) : commands;
+        return this.marshaller.write(new AbstractMap.SimpleImmutableEntry<>(this.id, value));
+    }
+
+    /**
+     * Completes the specified stages using the corresponding response of a batch.
+     * Translates a {@link NoSuchService} response to a {@link CancellationException}.
+     * @param futures the stages of each command of a batch
+     * @param responses the response to each command of a batch, in order
+     * @param marshaller the marshaller of command results
+     */
+    static void complete(List<CompletableFuture<?>> futures, List<?> responses, ByteBufferMarshaller marshaller) {
+        for (int i = 0; i < futures.size(); ++i) {
+            complete(futures.get(i), responses.get(i), marshaller);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void complete(CompletableFuture<T> future, Object response, ByteBufferMarshaller marshaller) {
+        if (response instanceof Throwable) {
+            future.completeExceptionally((Throwable) response);
+        } else if (response instanceof NoSuchService) {
+            future.completeExceptionally(new CancellationException());
+        } else {
+            try {
+                future.complete(((MarshalledValue<T, ByteBufferMarshaller>) response).get(marshaller));
+            } catch (IOException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * The pending commands destined for a given member.
+     * Guarded by its own monitor.
+     */
+    private class Batch implements Runnable {
+        final Address address;
+        final List<MarshalledValue<Object, ByteBufferMarshaller>> commands = new ArrayList<>();
+        final List<CompletableFuture<?>> futures = new ArrayList<>();
+        boolean closed = false;
+        private Future<?> future = null;
+
+        Batch(Address address) {
+            this.address = address;
+        }
+
+        void add(MarshalledValue<Object, ByteBufferMarshaller> command, CompletableFuture<?> future) {
+            this.commands.add(command);
+            this.futures.add(future);
+        }
+
+        int size() {
+            return this.commands.size();
+        }
+
+        void schedule() {
+            this.future = CommandBatcher.this.executor.schedule(this, CommandBatcher.this.windowNanos, TimeUnit.NANOSECONDS);
+        }
+
+        void cancel() {
+            Future<?> future = this.future;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        void close() {
+            this.closed = true;
+            CommandBatcher.this.batches.remove(this.address, this);
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (this.closed) return;
+                this.close();
+            }
+            CommandBatcher.this.send(this);
+        }
+    }
+
+    /**
+     * Demultiplexes the response to a batch of commands.
+     * Translates a {@link NoSuchService} response to a {@link CancellationException}.
+     */
+    private static class BatchRequest extends UnicastRequest<Void> {
+        private final List<CompletableFuture<?>> futures;
+        private final ByteBufferMarshaller marshaller;
+        volatile Future<?> timeoutFuture = null;
+
+        BatchRequest(RequestCorrelator correlator, Address target, RequestOptions options, List<CompletableFuture<?>> futures, ByteBufferMarshaller marshaller) {
+            super(correlator, target, options);
+            this.futures = futures;
+            this.marshaller = marshaller;
+        }
+
+        void send(Buffer data) throws Exception {
+            this.sendRequest(data);
+        }
+
+        void timeout() {
+            if (this.completeExceptionally(new CancellationException())) {
+                this.corrDone();
+            }
+        }
+
+        @Override
+        public void receiveResponse(Object value, Address sender, boolean exceptional) {
+            if (this.isDone()) return;
+
+            if (exceptional) {
+                this.completeExceptionally((Throwable) value);
+            } else if (value instanceof NoSuchService) {
+                this.completeExceptionally(new CancellationException());
+            } else {
+                CommandBatcher.complete(this.futures, (List<?>) value, this.marshaller);
+                this.complete(null);
+            }
+            Future<?> timeoutFuture = this.timeoutFuture;
+            if (timeoutFuture != null) {
+                timeoutFuture.cancel(false);
+            }
+            this.corrDone();
+        }
+
+        @Override
+        public boolean completeExceptionally(Throwable exception) {
+            Throwable result = (exception instanceof SuspectedException) ? new CancellationException() : exception;
+            for (CompletableFuture<?> future : this.futures) {
+                future.completeExceptionally(result);
+            }
+            return super.completeExceptionally(result);
+        }
+    }
+}
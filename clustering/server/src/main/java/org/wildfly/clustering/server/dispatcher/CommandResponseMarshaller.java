@@ -45,11 +45,8 @@ public class CommandResponseMarshaller implements org.jgroups.blocks.Marshaller
 
     @Override
     public void objectToStream(Object object, DataOutput stream) throws IOException {
-        ByteBuffer buffer = this.marshaller.write(object);
-
-        int length = buffer.limit() - buffer.arrayOffset();
-        IndexSerializer.VARIABLE.writeInt(stream, length);
-        stream.write(buffer.array(), buffer.arrayOffset(), length);
+        // Response is written immediately, so marshal via a reusable buffer
+        this.marshaller.writeLengthPrefixed(stream, object);
     }
 
     @Override
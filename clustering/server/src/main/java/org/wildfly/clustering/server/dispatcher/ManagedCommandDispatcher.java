@@ -29,12 +29,14 @@ import org.wildfly.clustering.dispatcher.Command;
 import org.wildfly.clustering.dispatcher.CommandDispatcher;
 import org.wildfly.clustering.dispatcher.CommandDispatcherException;
 import org.wildfly.clustering.group.Node;
+import org.wildfly.clustering.spi.dispatcher.CommandBatchStatistics;
 
 /**
  * Decorates a command dispatcher with custom {@link #close()} logic.
+ * Exposes the batching statistics of the decorated dispatcher, if any.
  * @author Paul Ferraro
  */
-public class ManagedCommandDispatcher<C> implements CommandDispatcher<C> {
+public class ManagedCommandDispatcher<C> implements CommandDispatcher<C>, CommandBatchStatistics {
     private final CommandDispatcher<C> dispatcher;
     private final Runnable closeTask;
 
@@ -62,4 +64,19 @@ public class ManagedCommandDispatcher<C> implements CommandDispatcher<C> {
     public void close() {
         this.closeTask.run();
     }
+
+    @Override
+    public long getCommandCount() {
+        return (this.dispatcher instanceof CommandBatchStatistics) ? ((CommandBatchStatistics) this.dispatcher).getCommandCount() : 0L;
+    }
+
+    @Override
+    public long getBatchCount() {
+        return (this.dispatcher instanceof CommandBatchStatistics) ? ((CommandBatchStatistics) this.dispatcher).getBatchCount() : 0L;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return (this.dispatcher instanceof CommandBatchStatistics) ? ((CommandBatchStatistics) this.dispatcher).getMaxBatchSize() : 0;
+    }
 }
\ No newline at end of file
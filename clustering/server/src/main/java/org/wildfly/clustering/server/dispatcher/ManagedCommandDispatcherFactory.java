@@ -22,9 +22,11 @@
 
 package org.wildfly.clustering.server.dispatcher;
 
+import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.wildfly.clustering.dispatcher.CommandDispatcher;
 import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
@@ -56,13 +58,22 @@ public class ManagedCommandDispatcherFactory implements AutoCloseableCommandDisp
         return this.factory.getGroup();
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public <C> CommandDispatcher<C> createCommandDispatcher(Object id, C context, ClassLoader loader) {
+        return this.createCommandDispatcher(id, context, () -> this.factory.createCommandDispatcher(id, context, loader));
+    }
+
+    @Override
+    public <C> CommandDispatcher<C> createCommandDispatcher(Object id, C context, ClassLoader loader, Duration window, int maxBatchSize) {
+        return this.createCommandDispatcher(id, context, () -> this.factory.createCommandDispatcher(id, context, loader, window, maxBatchSize));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <C> CommandDispatcher<C> createCommandDispatcher(Object id, C context, Supplier<CommandDispatcher<C>> factory) {
         synchronized (this.dispatchers) {
             Map.Entry<CommandDispatcher<?>, Integer> existingEntry = this.dispatchers.get(id);
             if (existingEntry == null) {
-                CommandDispatcher<C> dispatcher = this.factory.createCommandDispatcher(id, context, loader);
+                CommandDispatcher<C> dispatcher = factory.get();
                 CommandDispatcher<C> result = new ManagedCommandDispatcher<>(dispatcher, () -> {
                     synchronized (this.dispatchers) {
                         Map.Entry<CommandDispatcher<?>, Integer> entry = this.dispatchers.get(id);
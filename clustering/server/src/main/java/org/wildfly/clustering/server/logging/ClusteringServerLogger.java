@@ -113,4 +113,8 @@ public interface ClusteringServerLogger extends BasicLogger {
 
     @Message(id = 17, value ="A command dispatcher for %s already exists, but with a different command context")
     IllegalArgumentException commandDispatcherContextMismatch(Object id);
+
+    @LogMessage(level = WARN)
+    @Message(id = 18, value = "Ignoring invalid value '%2$s' of system property %1$s")
+    void invalidSystemProperty(@Cause Throwable cause, String name, String value);
 }
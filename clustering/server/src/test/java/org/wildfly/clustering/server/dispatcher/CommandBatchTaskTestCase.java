@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.server.dispatcher;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.wildfly.common.function.ExceptionSupplier;
+
+/**
+ * Unit test for {@link CommandBatchTask}.
+ * @author agent
+ */
+public class CommandBatchTaskTestCase {
+
+    @Test
+    public void get() {
+        Exception exception = new Exception();
+        CommandBatchTask task = new CommandBatchTask(Arrays.asList(() -> "foo", () -> {
+            throw exception;
+        }, () -> "bar"));
+
+        assertEquals(Arrays.asList("foo", exception, "bar"), task.get());
+    }
+
+    @Test
+    public void execute() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        Exception exception = new Exception();
+        // The first command blocks until the last command completes
+        ExceptionSupplier<Object, Exception> slow = () -> {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            return "slow";
+        };
+        ExceptionSupplier<Object, Exception> failing = () -> {
+            throw exception;
+        };
+        ExceptionSupplier<Object, Exception> fast = () -> {
+            latch.countDown();
+            return "fast";
+        };
+        CommandBatchTask task = new CommandBatchTask(Arrays.asList(slow, failing, fast));
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            CompletableFuture<List<Object>> response = new CompletableFuture<>();
+
+            task.execute(executor, response::complete);
+
+            // Results are in command order, regardless of completion order
+            assertEquals(Arrays.asList("slow", exception, "fast"), response.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void rejected() throws Exception {
+        CommandBatchTask task = new CommandBatchTask(Arrays.asList(() -> "foo", () -> "bar"));
+        CompletableFuture<List<Object>> response = new CompletableFuture<>();
+
+        task.execute(command -> {
+            throw new RejectedExecutionException();
+        }, response::complete);
+
+        assertEquals(Arrays.asList(NoSuchService.INSTANCE, NoSuchService.INSTANCE), response.get(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.server.dispatcher;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.jgroups.Address;
+import org.jgroups.util.UUID;
+import org.junit.Test;
+import org.wildfly.clustering.dispatcher.Command;
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshalledValue;
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.spi.JavaByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.spi.MarshalledValue;
+
+/**
+ * Unit test for the wire format of {@link CommandBatcher}.
+ * @author agent
+ */
+public class CommandBatcherTestCase {
+
+    private final ByteBufferMarshaller marshaller = JavaByteBufferMarshaller.INSTANCE;
+
+    @Test
+    public void writeBatch() throws Exception {
+        try (CommandBatcher batcher = new CommandBatcher(null, this.marshaller, "id", this.marshaller, null, Duration.ofMillis(10), 64, null)) {
+            List<MarshalledValue<Object, ByteBufferMarshaller>> commands = Arrays.asList(new ByteBufferMarshalledValue<>(batcher.marshal(new ValueCommand("foo"))), new ByteBufferMarshalledValue<>(batcher.marshal(new ValueCommand("bar"))));
+
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) this.marshaller.read(batcher.write(commands));
+
+            assertEquals("id", entry.getKey());
+            // Commands of a batch are sent as a list
+            assertTrue(entry.getValue() instanceof List);
+            List<?> values = (List<?>) entry.getValue();
+            assertEquals(2, values.size());
+            assertEquals("foo", execute(values.get(0)));
+            assertEquals("bar", execute(values.get(1)));
+        }
+    }
+
+    @Test
+    public void writeSingleCommand() throws Exception {
+        try (CommandBatcher batcher = new CommandBatcher(null, this.marshaller, "id", this.marshaller, null, Duration.ofMillis(10), 64, null)) {
+            ByteBuffer command = batcher.marshal(new ValueCommand("foo"));
+
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) this.marshaller.read(batcher.write(Collections.singletonList(new ByteBufferMarshalledValue<>(command))));
+
+            assertEquals("id", entry.getKey());
+            // A single command is sent as a regular command message
+            assertTrue(entry.getValue() instanceof MarshalledValue);
+            assertEquals("foo", execute(entry.getValue()));
+        }
+    }
+
+    @Test
+    public void complete() throws Exception {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        CompletableFuture<Object> failure = new CompletableFuture<>();
+        CompletableFuture<Object> missing = new CompletableFuture<>();
+        List<CompletableFuture<?>> futures = Arrays.asList(result, failure, missing);
+        List<Object> responses = Arrays.asList(new ByteBufferMarshalledValue<>("foo", this.marshaller), new IllegalStateException(), NoSuchService.INSTANCE);
+
+        // Simulate response sent over the wire
+        List<?> received = (List<?>) this.marshaller.read(this.marshaller.write(responses));
+
+        CommandBatcher.complete(futures, received, this.marshaller);
+
+        assertEquals("foo", result.join());
+        try {
+            failure.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        try {
+            missing.get();
+            fail();
+        } catch (CancellationException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void submitRejected() throws Exception {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        // Emulate a closed dispatcher
+        executor.shutdown();
+        Address address = UUID.randomUUID();
+        try (CommandBatcher batcher = new CommandBatcher(null, this.marshaller, "id", this.marshaller, null, Duration.ofMillis(10), 64, executor)) {
+            ByteBuffer command = batcher.marshal(new ValueCommand("foo"));
+
+            // Verify that a command whose batch cannot be scheduled is cancelled, rather than left incomplete forever
+            CompletionStage<Object> stage = batcher.submit(command, address);
+            try {
+                stage.toCompletableFuture().get();
+                fail();
+            } catch (CancellationException e) {
+                // Expected
+            }
+
+            // Verify that subsequent commands are not added to the rejected batch
+            stage = batcher.submit(command, address);
+            try {
+                stage.toCompletableFuture().get();
+                fail();
+            } catch (CancellationException e) {
+                // Expected
+            }
+            assertEquals(0L, batcher.getBatchCount());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object execute(Object value) throws IOException {
+        MarshalledValue<Command<Object, Object>, ByteBufferMarshaller> marshalledCommand = (MarshalledValue<Command<Object, Object>, ByteBufferMarshaller>) value;
+        try {
+            return marshalledCommand.get(this.marshaller).execute(null);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static class ValueCommand implements Command<Object, Object> {
+        private static final long serialVersionUID = -2950312929768010745L;
+
+        private final Object value;
+
+        ValueCommand(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object execute(Object context) {
+            return this.value;
+        }
+    }
+}
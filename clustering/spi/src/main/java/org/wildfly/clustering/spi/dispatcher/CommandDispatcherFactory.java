@@ -22,6 +22,8 @@
 
 package org.wildfly.clustering.spi.dispatcher;
 
+import java.time.Duration;
+
 import org.wildfly.clustering.dispatcher.CommandDispatcher;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
@@ -36,4 +38,20 @@ public interface CommandDispatcherFactory extends org.wildfly.clustering.dispatc
     }
 
     <C> CommandDispatcher<C> createCommandDispatcher(Object id, C context, ClassLoader loader);
+
+    /**
+     * Creates a command dispatcher that coalesces commands destined for the same member into a single message, if supported by this factory.
+     * A batch of commands is sent once it reaches the specified size, or once the specified window elapses, whichever comes first.
+     * The batching statistics of the returned dispatcher are available via {@link CommandBatchStatistics}, if implemented.
+     * N.B. A batch of multiple commands is not understood by members that do not support batching.
+     * @param id a unique identifier for this dispatcher
+     * @param context the context used for executing commands
+     * @param loader the class loader used to marshal commands and their results
+     * @param window the maximum duration that a command may wait to be sent
+     * @param maxBatchSize the maximum number of commands per batch
+     * @return a new command dispatcher
+     */
+    default <C> CommandDispatcher<C> createCommandDispatcher(Object id, C context, ClassLoader loader, Duration window, int maxBatchSize) {
+        return this.createCommandDispatcher(id, context, loader);
+    }
 }
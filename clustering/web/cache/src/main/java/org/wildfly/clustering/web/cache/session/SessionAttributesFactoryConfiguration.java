@@ -24,6 +24,7 @@ package org.wildfly.clustering.web.cache.session;
 
 import org.wildfly.clustering.ee.Immutability;
 import org.wildfly.clustering.ee.cache.CacheProperties;
+import org.wildfly.clustering.ee.cache.FingerprintMutationFilter;
 import org.wildfly.clustering.marshalling.spi.Marshaller;
 import org.wildfly.clustering.web.session.HttpSessionActivationListenerProvider;
 
@@ -41,4 +42,12 @@ public interface SessionAttributesFactoryConfiguration<S, C, L, V, SV> {
     CacheProperties getCacheProperties();
     Immutability getImmutability();
     HttpSessionActivationListenerProvider<S, C, L> getHttpSessionActivationListenerProvider();
+
+    /**
+     * Returns the filter used to suppress redundant writes of session attributes, if enabled.
+     * @return a mutation filter, or null, if redundant writes should not be suppressed
+     */
+    default FingerprintMutationFilter getMutationFilter() {
+        return null;
+    }
 }
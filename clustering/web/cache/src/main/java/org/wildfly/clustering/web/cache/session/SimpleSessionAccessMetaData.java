@@ -32,6 +32,18 @@ public class SimpleSessionAccessMetaData implements SessionAccessMetaData {
     private volatile Duration sinceCreation = Duration.ZERO;
     private volatile Duration lastAccess = Duration.ZERO;
 
+    public SimpleSessionAccessMetaData() {
+    }
+
+    /**
+     * Creates a copy of the specified access meta data, whose precision was already truncated.
+     * @param metaData the access meta data to copy
+     */
+    public SimpleSessionAccessMetaData(ImmutableSessionAccessMetaData metaData) {
+        this.sinceCreation = metaData.getSinceCreationDuration();
+        this.lastAccess = metaData.getLastAccessDuration();
+    }
+
     @Override
     public Duration getSinceCreationDuration() {
         return this.sinceCreation;
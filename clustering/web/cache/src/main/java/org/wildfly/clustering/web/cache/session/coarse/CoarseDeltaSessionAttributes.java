@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.cache.session.coarse;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.wildfly.clustering.ee.Immutability;
+import org.wildfly.clustering.ee.cache.CacheProperties;
+import org.wildfly.clustering.ee.cache.function.ConcurrentMapComputeFunction;
+import org.wildfly.clustering.ee.cache.function.CopyOnWriteMapComputeFunction;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.cache.session.SessionActivationNotifier;
+import org.wildfly.clustering.web.cache.session.SessionAttributes;
+
+/**
+ * Exposes session attributes for a coarse granularity session whose attributes are marshalled individually.
+ * Rather than replicating the entire attribute map on close, only those attributes that were added, replaced, removed,
+ * or retrieved as mutable values are written, via a single compute operation against the attribute map.
+ * @author agent
+ * @param <K> the cache key type
+ * @param <V> the marshalled attribute value type
+ */
+public class CoarseDeltaSessionAttributes<K, V> extends CoarseImmutableSessionAttributes implements SessionAttributes {
+    private final K key;
+    private final Map<String, Object> attributes;
+    private final Map<K, Map<String, V>> cache;
+    private final Marshaller<Object, V> marshaller;
+    private final Immutability immutability;
+    private final CacheProperties properties;
+    private final SessionActivationNotifier notifier;
+    // Names of attributes to replicate on close
+    private final Set<String> mutations = ConcurrentHashMap.newKeySet();
+
+    public CoarseDeltaSessionAttributes(K key, Map<String, Object> attributes, Map<K, Map<String, V>> cache, Marshaller<Object, V> marshaller, Immutability immutability, CacheProperties properties, SessionActivationNotifier notifier) {
+        super(attributes);
+        this.key = key;
+        this.attributes = attributes;
+        this.cache = cache;
+        this.marshaller = marshaller;
+        this.immutability = immutability;
+        this.properties = properties;
+        this.notifier = notifier;
+        if (this.notifier != null) {
+            this.notifier.postActivate();
+        }
+    }
+
+    @Override
+    public Object removeAttribute(String name) {
+        Object value = this.attributes.remove(name);
+        if (value != null) {
+            this.mutations.add(name);
+        }
+        return value;
+    }
+
+    @Override
+    public Object setAttribute(String name, Object value) {
+        if (value == null) {
+            return this.removeAttribute(name);
+        }
+        if (this.properties.isMarshalling() && !this.marshaller.isMarshallable(value)) {
+            throw new IllegalArgumentException(new NotSerializableException(value.getClass().getName()));
+        }
+        Object old = this.attributes.put(name, value);
+        // An immutable value equal to the previous value need not be replicated
+        // Mutable values always trigger replication, since the caller may have modified the previous value in place
+        if ((old == null) || !this.immutability.test(value) || (value.hashCode() != old.hashCode()) || !value.equals(old)) {
+            this.mutations.add(name);
+        }
+        return old;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        Object value = this.attributes.get(name);
+        if (!this.immutability.test(value)) {
+            this.mutations.add(name);
+        }
+        return value;
+    }
+
+    @Override
+    public void close() {
+        if (this.notifier != null) {
+            this.notifier.prePassivate();
+        }
+        if (!this.mutations.isEmpty()) {
+            Map<String, V> changes = new HashMap<>();
+            Iterator<String> names = this.mutations.iterator();
+            while (names.hasNext()) {
+                String name = names.next();
+                names.remove();
+                Object value = this.attributes.get(name);
+                // A null value indicates a removed attribute
+                changes.put(name, (value != null) ? this.write(value) : null);
+            }
+            this.cache.compute(this.key, this.properties.isTransactional() ? new CopyOnWriteMapComputeFunction<>(changes) : new ConcurrentMapComputeFunction<>(changes));
+        }
+    }
+
+    private V write(Object value) {
+        try {
+            return this.marshaller.write(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.cache.session.coarse;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.junit.Test;
+import org.wildfly.clustering.ee.Immutability;
+import org.wildfly.clustering.ee.cache.CacheProperties;
+import org.wildfly.clustering.ee.cache.function.ConcurrentMapComputeFunction;
+import org.wildfly.clustering.ee.cache.function.CopyOnWriteMapComputeFunction;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.cache.session.SessionAttributes;
+
+/**
+ * Unit test for {@link CoarseDeltaSessionAttributes}, verifying that only modified attributes are replicated.
+ * @author agent
+ */
+public class CoarseDeltaSessionAttributesTestCase {
+    private static final String KEY = "session";
+
+    // Treats AtomicInteger as the only mutable type
+    private final Immutability immutability = object -> !(object instanceof AtomicInteger);
+    private final Marshaller<Object, String> marshaller = new Marshaller<Object, String>() {
+        @Override
+        public boolean isMarshallable(Object object) {
+            return true;
+        }
+
+        @Override
+        public Object read(String value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String write(Object value) {
+            return String.valueOf(value);
+        }
+    };
+    private final CountingMap cache = new CountingMap();
+
+    @Test
+    public void putAttribute() {
+        Map<String, Object> attributes = this.createAttributes();
+        // A stale replicated value reveals whether an attribute was written
+        this.cache.put(KEY, this.replicate(Collections.singletonMap("immutable", "stale")));
+
+        try (SessionAttributes subject = this.createSessionAttributes(attributes, false)) {
+            assertNull(subject.setAttribute("foo", "bar"));
+            assertEquals("value", subject.setAttribute("immutable", "other"));
+        }
+
+        Map<String, String> result = this.cache.get(KEY);
+        assertEquals("bar", result.get("foo"));
+        assertEquals("other", result.get("immutable"));
+        assertEquals(1, this.cache.computeCount.get());
+    }
+
+    @Test
+    public void putEqualImmutableAttribute() {
+        Map<String, Object> attributes = this.createAttributes();
+        this.cache.put(KEY, this.replicate(Collections.singletonMap("immutable", "stale")));
+
+        try (SessionAttributes subject = this.createSessionAttributes(attributes, false)) {
+            assertEquals("value", subject.setAttribute("immutable", new String("value")));
+            assertEquals("value", subject.getAttribute("immutable"));
+        }
+
+        // Nothing to replicate
+        assertEquals(0, this.cache.computeCount.get());
+        assertEquals("stale", this.cache.get(KEY).get("immutable"));
+    }
+
+    @Test
+    public void removeAttribute() {
+        Map<String, Object> attributes = this.createAttributes();
+        this.cache.put(KEY, this.replicate(attributes));
+
+        try (SessionAttributes subject = this.createSessionAttributes(attributes, false)) {
+            assertEquals("value", subject.removeAttribute("immutable"));
+            assertNull(subject.removeAttribute("missing"));
+            assertNotNull(subject.setAttribute("mutable", null));
+        }
+
+        assertEquals(1, this.cache.computeCount.get());
+        // An empty attribute map is retained, since its presence signifies the session's attributes
+        assertEquals(Collections.emptyMap(), this.cache.get(KEY));
+    }
+
+    @Test
+    public void mutableAttribute() {
+        Map<String, Object> attributes = this.createAttributes();
+        this.cache.put(KEY, this.replicate(Collections.singletonMap("immutable", "stale")));
+        AtomicInteger mutable = (AtomicInteger) attributes.get("mutable");
+
+        try (SessionAttributes subject = this.createSessionAttributes(attributes, false)) {
+            assertEquals("value", subject.getAttribute("immutable"));
+            // Retrieving a mutable attribute triggers replication, since it may be modified in place
+            assertSame(mutable, subject.getAttribute("mutable"));
+            mutable.incrementAndGet();
+        }
+
+        Map<String, String> result = this.cache.get(KEY);
+        assertEquals("1", result.get("mutable"));
+        assertEquals("stale", result.get("immutable"));
+
+        this.cache.computeCount.set(0);
+        try (SessionAttributes subject = this.createSessionAttributes(attributes, false)) {
+            // Setting an equal mutable value still triggers replication
+            assertSame(mutable, subject.setAttribute("mutable", mutable));
+        }
+        assertEquals(1, this.cache.computeCount.get());
+    }
+
+    @Test
+    public void concurrentCompute() {
+        Map<String, Object> attributes = this.createAttributes();
+        Map<String, String> replicated = new ConcurrentHashMap<>(this.replicate(attributes));
+        this.cache.put(KEY, replicated);
+
+        try (SessionAttributes subject = this.createSessionAttributes(attributes, false)) {
+            subject.setAttribute("foo", "bar");
+            subject.removeAttribute("immutable");
+        }
+
+        assertEquals(1, this.cache.computeCount.get());
+        assertTrue(this.cache.function instanceof ConcurrentMapComputeFunction);
+        // Non-transactional caches apply changes to the cached map directly
+        assertSame(replicated, this.cache.get(KEY));
+        assertEquals("bar", replicated.get("foo"));
+        assertFalse(replicated.containsKey("immutable"));
+        assertEquals("0", replicated.get("mutable"));
+    }
+
+    @Test
+    public void copyOnWriteCompute() {
+        Map<String, Object> attributes = this.createAttributes();
+        Map<String, String> replicated = this.replicate(attributes);
+        Map<String, String> original = new HashMap<>(replicated);
+        this.cache.put(KEY, replicated);
+
+        try (SessionAttributes subject = this.createSessionAttributes(attributes, true)) {
+            subject.setAttribute("foo", "bar");
+            subject.removeAttribute("immutable");
+        }
+
+        assertEquals(1, this.cache.computeCount.get());
+        assertTrue(this.cache.function instanceof CopyOnWriteMapComputeFunction);
+        // Transactional caches apply changes to a copy of the cached map
+        Map<String, String> result = this.cache.get(KEY);
+        assertNotSame(replicated, result);
+        assertEquals(original, replicated);
+        assertEquals("bar", result.get("foo"));
+        assertFalse(result.containsKey("immutable"));
+        assertEquals("0", result.get("mutable"));
+    }
+
+    private Map<String, Object> createAttributes() {
+        Map<String, Object> attributes = new ConcurrentHashMap<>();
+        attributes.put("immutable", "value");
+        attributes.put("mutable", new AtomicInteger());
+        return attributes;
+    }
+
+    private Map<String, String> replicate(Map<String, ?> attributes) {
+        Map<String, String> result = new HashMap<>();
+        for (Map.Entry<String, ?> entry : attributes.entrySet()) {
+            result.put(entry.getKey(), String.valueOf(entry.getValue()));
+        }
+        return result;
+    }
+
+    private SessionAttributes createSessionAttributes(Map<String, Object> attributes, boolean transactional) {
+        CacheProperties properties = mock(CacheProperties.class);
+        when(properties.isTransactional()).thenReturn(transactional);
+        return new CoarseDeltaSessionAttributes<>(KEY, attributes, this.cache, this.marshaller, this.immutability, properties, null);
+    }
+
+    @SuppressWarnings("serial")
+    private static class CountingMap extends ConcurrentHashMap<String, Map<String, String>> {
+        final AtomicInteger computeCount = new AtomicInteger();
+        volatile BiFunction<?, ?, ?> function;
+
+        @Override
+        public Map<String, String> compute(String key, BiFunction<? super String, ? super Map<String, String>, ? extends Map<String, String>> function) {
+            this.computeCount.incrementAndGet();
+            this.function = function;
+            return super.compute(key, function);
+        }
+    }
+}
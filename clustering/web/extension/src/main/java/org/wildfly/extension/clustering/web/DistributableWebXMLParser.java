@@ -24,6 +24,8 @@ package org.wildfly.extension.clustering.web;
 
 import static org.jboss.as.controller.PersistentResourceXMLDescription.builder;
 
+import java.util.EnumSet;
+
 import org.jboss.as.clustering.controller.Schema;
 import org.jboss.as.clustering.controller.persistence.AttributeXMLBuilderOperator;
 import org.jboss.as.controller.PersistentResourceXMLDescription;
@@ -60,7 +62,7 @@ public class DistributableWebXMLParser extends PersistentResourceXMLParser {
 
     private PersistentResourceXMLBuilder getInfinispanSessionManagementResourceXMLBuilder() {
         PersistentResourceXMLBuilder builder = new AttributeXMLBuilderOperator()
-                .addAttributes(InfinispanSessionManagementResourceDefinition.Attribute.class)
+                .addAttributes(this.schema.since(DistributableWebSchema.VERSION_3_0) ? EnumSet.allOf(InfinispanSessionManagementResourceDefinition.Attribute.class) : EnumSet.of(InfinispanSessionManagementResourceDefinition.Attribute.CACHE_CONTAINER, InfinispanSessionManagementResourceDefinition.Attribute.CACHE))
                 .addAttributes(SessionManagementResourceDefinition.Attribute.class)
                 .apply(builder(InfinispanSessionManagementResourceDefinition.WILDCARD_PATH));
         this.addAffinityChildren(builder)
@@ -73,7 +75,7 @@ public class DistributableWebXMLParser extends PersistentResourceXMLParser {
 
     private PersistentResourceXMLBuilder getHotRodSessionManagementResourceXMLBuilder() {
         PersistentResourceXMLBuilder builder = new AttributeXMLBuilderOperator()
-                .addAttributes(HotRodSessionManagementResourceDefinition.Attribute.class)
+                .addAttributes(this.schema.since(DistributableWebSchema.VERSION_3_0) ? EnumSet.allOf(HotRodSessionManagementResourceDefinition.Attribute.class) : EnumSet.of(HotRodSessionManagementResourceDefinition.Attribute.REMOTE_CACHE_CONTAINER, HotRodSessionManagementResourceDefinition.Attribute.CACHE_CONFIGURATION))
                 .addAttributes(SessionManagementResourceDefinition.Attribute.class)
                 .apply(builder(HotRodSessionManagementResourceDefinition.WILDCARD_PATH));
         return this.addAffinityChildren(builder);
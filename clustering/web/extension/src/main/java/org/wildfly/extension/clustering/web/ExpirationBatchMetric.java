@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.clustering.web;
+
+import org.jboss.as.clustering.controller.Metric;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.wildfly.clustering.ee.cache.scheduler.BatchStatistics;
+
+/**
+ * Enumeration of management metrics for batched session expiration.
+ * @author agent
+ */
+public enum ExpirationBatchMetric implements Metric<BatchStatistics> {
+
+    BATCH_COUNT("expiration-batch-count", ModelType.LONG, AttributeAccess.Flag.COUNTER_METRIC) {
+        @Override
+        public ModelNode execute(BatchStatistics statistics) {
+            return new ModelNode(statistics.getBatchCount());
+        }
+    },
+    SUCCEEDED_COUNT("expiration-batch-succeeded-count", ModelType.LONG, AttributeAccess.Flag.COUNTER_METRIC) {
+        @Override
+        public ModelNode execute(BatchStatistics statistics) {
+            return new ModelNode(statistics.getSucceededCount());
+        }
+    },
+    FAILED_COUNT("expiration-batch-failed-count", ModelType.LONG, AttributeAccess.Flag.COUNTER_METRIC) {
+        @Override
+        public ModelNode execute(BatchStatistics statistics) {
+            return new ModelNode(statistics.getFailedCount());
+        }
+    },
+    MAX_BATCH_SIZE("expiration-batch-max-size", ModelType.INT, AttributeAccess.Flag.GAUGE_METRIC) {
+        @Override
+        public ModelNode execute(BatchStatistics statistics) {
+            return new ModelNode(statistics.getMaxBatchSize());
+        }
+    },
+    BATCH_TIME("expiration-batch-time", ModelType.LONG, AttributeAccess.Flag.COUNTER_METRIC, MeasurementUnit.MILLISECONDS) {
+        @Override
+        public ModelNode execute(BatchStatistics statistics) {
+            return new ModelNode(statistics.getBatchTime().toMillis());
+        }
+    },
+    SATURATED_COUNT("expiration-batch-saturated-count", ModelType.LONG, AttributeAccess.Flag.COUNTER_METRIC) {
+        @Override
+        public ModelNode execute(BatchStatistics statistics) {
+            return new ModelNode(statistics.getSaturatedCount());
+        }
+    },
+    ;
+    private final AttributeDefinition definition;
+
+    ExpirationBatchMetric(String name, ModelType type, AttributeAccess.Flag metricType) {
+        this(name, type, metricType, null);
+    }
+
+    ExpirationBatchMetric(String name, ModelType type, AttributeAccess.Flag metricType, MeasurementUnit unit) {
+        this.definition = new SimpleAttributeDefinitionBuilder(name, type)
+                .setFlags(metricType)
+                .setMeasurementUnit(unit)
+                .setStorageRuntime()
+                .build();
+    }
+
+    @Override
+    public AttributeDefinition getDefinition() {
+        return this.definition;
+    }
+}
@@ -26,12 +26,18 @@ import java.util.function.UnaryOperator;
 
 import org.jboss.as.clustering.controller.CapabilityReference;
 import org.jboss.as.clustering.controller.SimpleResourceDescriptorConfigurator;
+import org.jboss.as.clustering.controller.validation.EnumValidator;
+import org.jboss.as.clustering.controller.validation.IntRangeValidatorBuilder;
+import org.jboss.as.clustering.controller.validation.LongRangeValidatorBuilder;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.registry.AttributeAccess.Flag;
+import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.wildfly.clustering.infinispan.client.InfinispanClientRequirement;
+import org.wildfly.clustering.web.hotrod.session.NearCacheEviction;
 
 /**
  * @author Paul Ferraro
@@ -51,7 +57,30 @@ public class HotRodSessionManagementResourceDefinition extends SessionManagement
             }
         },
         CACHE_CONFIGURATION("cache-configuration", ModelType.STRING),
-         ;
+        NEAR_CACHE_MAX_SIZE("near-cache-max-size", ModelType.INT) {
+            @Override
+            public SimpleAttributeDefinitionBuilder apply(SimpleAttributeDefinitionBuilder builder) {
+                return builder.setValidator(new IntRangeValidatorBuilder().min(0).configure(builder).build());
+            }
+        },
+        NEAR_CACHE_EVICTION("near-cache-eviction", ModelType.STRING) {
+            @Override
+            public SimpleAttributeDefinitionBuilder apply(SimpleAttributeDefinitionBuilder builder) {
+                return builder.setDefaultValue(new ModelNode(NearCacheEviction.SESSION.name()))
+                        .setValidator(new EnumValidator<>(NearCacheEviction.class))
+                        ;
+            }
+        },
+        ACCESS_METADATA_FLUSH_INTERVAL("access-metadata-flush-interval", ModelType.LONG) {
+            @Override
+            public SimpleAttributeDefinitionBuilder apply(SimpleAttributeDefinitionBuilder builder) {
+                return builder.setDefaultValue(new ModelNode(0L))
+                        .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                        .setValidator(new LongRangeValidatorBuilder().min(0L).configure(builder).build())
+                        ;
+            }
+        },
+        ;
         private final AttributeDefinition definition;
 
         Attribute(String name, ModelType type) {
@@ -22,9 +22,14 @@
 
 package org.wildfly.extension.clustering.web;
 
+import static org.wildfly.extension.clustering.web.HotRodSessionManagementResourceDefinition.Attribute.ACCESS_METADATA_FLUSH_INTERVAL;
 import static org.wildfly.extension.clustering.web.HotRodSessionManagementResourceDefinition.Attribute.CACHE_CONFIGURATION;
+import static org.wildfly.extension.clustering.web.HotRodSessionManagementResourceDefinition.Attribute.NEAR_CACHE_EVICTION;
+import static org.wildfly.extension.clustering.web.HotRodSessionManagementResourceDefinition.Attribute.NEAR_CACHE_MAX_SIZE;
 import static org.wildfly.extension.clustering.web.HotRodSessionManagementResourceDefinition.Attribute.REMOTE_CACHE_CONTAINER;
 
+import java.time.Duration;
+
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
@@ -32,6 +37,7 @@ import org.jboss.dmr.ModelNode;
 import org.wildfly.clustering.service.ServiceConfigurator;
 import org.wildfly.clustering.web.hotrod.session.HotRodSessionManagementConfiguration;
 import org.wildfly.clustering.web.hotrod.session.HotRodSessionManagementProvider;
+import org.wildfly.clustering.web.hotrod.session.NearCacheEviction;
 import org.wildfly.clustering.web.session.DistributableSessionManagementConfiguration;
 import org.wildfly.clustering.web.session.DistributableSessionManagementProvider;
 
@@ -42,6 +48,9 @@ public class HotRodSessionManagementServiceConfigurator extends SessionManagemen
 
     private volatile String containerName;
     private volatile String configurationName;
+    private volatile Integer nearCacheMaxSize;
+    private volatile NearCacheEviction nearCacheEviction;
+    private volatile Duration accessMetaDataFlushInterval;
 
     HotRodSessionManagementServiceConfigurator(PathAddress address) {
         super(address);
@@ -51,6 +60,10 @@ public class HotRodSessionManagementServiceConfigurator extends SessionManagemen
     public ServiceConfigurator configure(OperationContext context, ModelNode model) throws OperationFailedException {
         this.containerName = REMOTE_CACHE_CONTAINER.resolveModelAttribute(context, model).asString();
         this.configurationName = CACHE_CONFIGURATION.resolveModelAttribute(context, model).asStringOrNull();
+        ModelNode nearCacheMaxSize = NEAR_CACHE_MAX_SIZE.resolveModelAttribute(context, model);
+        this.nearCacheMaxSize = nearCacheMaxSize.isDefined() ? nearCacheMaxSize.asInt() : null;
+        this.nearCacheEviction = NearCacheEviction.valueOf(NEAR_CACHE_EVICTION.resolveModelAttribute(context, model).asString());
+        this.accessMetaDataFlushInterval = Duration.ofMillis(ACCESS_METADATA_FLUSH_INTERVAL.resolveModelAttribute(context, model).asLong());
         return super.configure(context, model);
     }
 
@@ -68,4 +81,19 @@ public class HotRodSessionManagementServiceConfigurator extends SessionManagemen
     public String getConfigurationName() {
         return this.configurationName;
     }
+
+    @Override
+    public Integer getNearCacheMaxSize() {
+        return this.nearCacheMaxSize;
+    }
+
+    @Override
+    public NearCacheEviction getNearCacheEviction() {
+        return this.nearCacheEviction;
+    }
+
+    @Override
+    public Duration getAccessMetaDataFlushInterval() {
+        return this.accessMetaDataFlushInterval;
+    }
 }
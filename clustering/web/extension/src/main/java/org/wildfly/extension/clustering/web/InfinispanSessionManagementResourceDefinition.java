@@ -25,15 +25,19 @@ package org.wildfly.extension.clustering.web;
 import java.util.function.UnaryOperator;
 
 import org.jboss.as.clustering.controller.CapabilityReference;
+import org.jboss.as.clustering.controller.MetricHandler;
 import org.jboss.as.clustering.controller.ResourceDescriptor;
+import org.jboss.as.clustering.controller.ServiceValueExecutorRegistry;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.registry.AttributeAccess.Flag;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.wildfly.clustering.infinispan.spi.InfinispanCacheRequirement;
 import org.wildfly.clustering.infinispan.spi.InfinispanDefaultCacheRequirement;
+import org.wildfly.clustering.web.infinispan.session.InfinispanSessionManagementProvider;
 
 /**
  * Definition of the /subsystem=distributable-web/infinispan-session-management=* resource.
@@ -61,6 +65,18 @@ public class InfinispanSessionManagementResourceDefinition extends SessionManage
                         ;
             }
         },
+        DELTA_REPLICATION("delta-replication", ModelType.BOOLEAN) {
+            @Override
+            public SimpleAttributeDefinitionBuilder apply(SimpleAttributeDefinitionBuilder builder) {
+                return builder.setDefaultValue(ModelNode.FALSE);
+            }
+        },
+        WRITE_SUPPRESSION("write-suppression", ModelType.BOOLEAN) {
+            @Override
+            public SimpleAttributeDefinitionBuilder apply(SimpleAttributeDefinitionBuilder builder) {
+                return builder.setDefaultValue(ModelNode.FALSE);
+            }
+        },
         ;
         private final AttributeDefinition definition;
 
@@ -87,14 +103,26 @@ public class InfinispanSessionManagementResourceDefinition extends SessionManage
         }
     };
 
+    private final ServiceValueExecutorRegistry<InfinispanSessionManagementProvider> executors;
+
     InfinispanSessionManagementResourceDefinition() {
-        super(WILDCARD_PATH, CONFIGURATOR, InfinispanSessionManagementServiceConfigurator::new);
+        this(new ServiceValueExecutorRegistry<>());
+    }
+
+    private InfinispanSessionManagementResourceDefinition(ServiceValueExecutorRegistry<InfinispanSessionManagementProvider> executors) {
+        super(WILDCARD_PATH, CONFIGURATOR, new InfinispanSessionManagementServiceHandler(executors));
+        this.executors = executors;
     }
 
     @Override
     public ManagementResourceRegistration register(ManagementResourceRegistration parent) {
         ManagementResourceRegistration registration = super.register(parent);
 
+        if (registration.isRuntimeOnlyRegistrationValid()) {
+            new MetricHandler<>(new ExpirationBatchMetricExecutor(this.executors), ExpirationBatchMetric.class).register(registration);
+            new MetricHandler<>(new MutationMetricExecutor(this.executors), MutationMetric.class).register(registration);
+        }
+
         new PrimaryOwnerAffinityResourceDefinition().register(registration);
         new RankedAffinityResourceDefinition().register(registration);
 
@@ -25,7 +25,10 @@ package org.wildfly.extension.clustering.web;
 import java.util.function.Consumer;
 
 import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
+import org.jboss.as.controller.transform.description.RejectAttributeChecker;
 import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.wildfly.extension.clustering.web.InfinispanSessionManagementResourceDefinition.Attribute;
 
 /**
  * @author Paul Ferraro
@@ -42,6 +45,13 @@ public class InfinispanSessionManagementResourceTransformer implements Consumer<
     public void accept(ModelVersion version) {
         ResourceTransformationDescriptionBuilder builder = this.parent.addChildResource(InfinispanSessionManagementResourceDefinition.WILDCARD_PATH);
 
+        if (DistributableWebModel.VERSION_3_0_0.requiresTransformation(version)) {
+            builder.getAttributeBuilder()
+                    .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, Attribute.DELTA_REPLICATION.getDefinition(), Attribute.WRITE_SUPPRESSION.getDefinition())
+                    .addRejectCheck(RejectAttributeChecker.DEFINED, Attribute.DELTA_REPLICATION.getDefinition(), Attribute.WRITE_SUPPRESSION.getDefinition())
+                    .end();
+        }
+
         new RankedAffinityResourceTransformer(builder).accept(version);
     }
 }
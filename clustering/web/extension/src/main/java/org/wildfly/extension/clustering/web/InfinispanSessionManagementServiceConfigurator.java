@@ -24,11 +24,15 @@ package org.wildfly.extension.clustering.web;
 
 import static org.wildfly.extension.clustering.web.InfinispanSessionManagementResourceDefinition.Attribute.CACHE;
 import static org.wildfly.extension.clustering.web.InfinispanSessionManagementResourceDefinition.Attribute.CACHE_CONTAINER;
+import static org.wildfly.extension.clustering.web.InfinispanSessionManagementResourceDefinition.Attribute.DELTA_REPLICATION;
+import static org.wildfly.extension.clustering.web.InfinispanSessionManagementResourceDefinition.Attribute.WRITE_SUPPRESSION;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.dmr.ModelNode;
+import org.wildfly.clustering.ee.cache.FingerprintMutationFilter;
+import org.wildfly.clustering.ee.cache.scheduler.RecordableBatchStatistics;
 import org.wildfly.clustering.service.ServiceConfigurator;
 import org.wildfly.clustering.web.infinispan.session.InfinispanSessionManagementConfiguration;
 import org.wildfly.clustering.web.infinispan.session.InfinispanSessionManagementProvider;
@@ -40,8 +44,12 @@ import org.wildfly.clustering.web.session.DistributableSessionManagementProvider
  */
 public class InfinispanSessionManagementServiceConfigurator extends SessionManagementServiceConfigurator<InfinispanSessionManagementConfiguration> implements InfinispanSessionManagementConfiguration {
 
+    private final RecordableBatchStatistics expirationBatchStatistics = new RecordableBatchStatistics();
+
     private volatile String containerName;
     private volatile String cacheName;
+    private volatile boolean deltaReplication;
+    private volatile FingerprintMutationFilter mutationFilter;
 
     public InfinispanSessionManagementServiceConfigurator(PathAddress address) {
         super(address);
@@ -51,6 +59,8 @@ public class InfinispanSessionManagementServiceConfigurator extends SessionManag
     public ServiceConfigurator configure(OperationContext context, ModelNode model) throws OperationFailedException {
         this.containerName = CACHE_CONTAINER.resolveModelAttribute(context, model).asString();
         this.cacheName = CACHE.resolveModelAttribute(context, model).asStringOrNull();
+        this.deltaReplication = DELTA_REPLICATION.resolveModelAttribute(context, model).asBoolean();
+        this.mutationFilter = WRITE_SUPPRESSION.resolveModelAttribute(context, model).asBoolean() ? new FingerprintMutationFilter() : null;
         return super.configure(context, model);
     }
 
@@ -68,4 +78,19 @@ public class InfinispanSessionManagementServiceConfigurator extends SessionManag
     public String getCacheName() {
         return this.cacheName;
     }
+
+    @Override
+    public boolean isDeltaReplication() {
+        return this.deltaReplication;
+    }
+
+    @Override
+    public RecordableBatchStatistics getExpirationBatchStatistics() {
+        return this.expirationBatchStatistics;
+    }
+
+    @Override
+    public FingerprintMutationFilter getMutationFilter() {
+        return this.mutationFilter;
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.clustering.web;
+
+import org.jboss.as.clustering.controller.ServiceValueCaptorServiceConfigurator;
+import org.jboss.as.clustering.controller.ServiceValueRegistry;
+import org.jboss.as.clustering.controller.SimpleResourceServiceHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceName;
+import org.wildfly.clustering.web.infinispan.session.InfinispanSessionManagementProvider;
+
+/**
+ * Installs the services of an Infinispan session management provider, capturing the provider for use by runtime metrics.
+ * @author agent
+ */
+public class InfinispanSessionManagementServiceHandler extends SimpleResourceServiceHandler {
+
+    private final ServiceValueRegistry<InfinispanSessionManagementProvider> registry;
+
+    InfinispanSessionManagementServiceHandler(ServiceValueRegistry<InfinispanSessionManagementProvider> registry) {
+        super(InfinispanSessionManagementServiceConfigurator::new);
+        this.registry = registry;
+    }
+
+    @Override
+    public void installServices(OperationContext context, ModelNode model) throws OperationFailedException {
+        super.installServices(context, model);
+
+        ServiceName name = SessionManagementResourceDefinition.Capability.SESSION_MANAGEMENT_PROVIDER.getServiceName(context.getCurrentAddress());
+        new ServiceValueCaptorServiceConfigurator<>(this.registry.add(name)).build(context.getServiceTarget()).install();
+    }
+
+    @Override
+    public void removeServices(OperationContext context, ModelNode model) throws OperationFailedException {
+        ServiceName name = SessionManagementResourceDefinition.Capability.SESSION_MANAGEMENT_PROVIDER.getServiceName(context.getCurrentAddress());
+        context.removeService(new ServiceValueCaptorServiceConfigurator<>(this.registry.remove(name)).getServiceName());
+
+        super.removeServices(context, model);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.clustering.web;
+
+import org.jboss.as.clustering.controller.Metric;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.wildfly.clustering.ee.MutationStatistics;
+
+/**
+ * Enumeration of management metrics for the suppression of unchanged session attribute writes.
+ * @author agent
+ */
+public enum MutationMetric implements Metric<MutationStatistics> {
+
+    MUTATION_COUNT("mutation-count") {
+        @Override
+        public ModelNode execute(MutationStatistics statistics) {
+            return new ModelNode(statistics.getMutationCount());
+        }
+    },
+    SUPPRESSED_MUTATION_COUNT("suppressed-mutation-count") {
+        @Override
+        public ModelNode execute(MutationStatistics statistics) {
+            return new ModelNode(statistics.getSuppressedMutationCount());
+        }
+    },
+    ;
+    private final AttributeDefinition definition;
+
+    MutationMetric(String name) {
+        this.definition = new SimpleAttributeDefinitionBuilder(name, ModelType.LONG)
+                .setFlags(AttributeAccess.Flag.COUNTER_METRIC)
+                .setStorageRuntime()
+                .build();
+    }
+
+    @Override
+    public AttributeDefinition getDefinition() {
+        return this.definition;
+    }
+}
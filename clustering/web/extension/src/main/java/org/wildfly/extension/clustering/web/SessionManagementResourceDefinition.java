@@ -97,12 +97,16 @@ public class SessionManagementResourceDefinition extends ChildResourceDefinition
     }
 
     private final UnaryOperator<ResourceDescriptor> configurator;
-    private final ResourceServiceConfiguratorFactory factory;
+    private final ResourceServiceHandler handler;
 
     public SessionManagementResourceDefinition(PathElement path, UnaryOperator<ResourceDescriptor> configurator, ResourceServiceConfiguratorFactory factory) {
+        this(path, configurator, new SimpleResourceServiceHandler(factory));
+    }
+
+    public SessionManagementResourceDefinition(PathElement path, UnaryOperator<ResourceDescriptor> configurator, ResourceServiceHandler handler) {
         super(path, DistributableWebExtension.SUBSYSTEM_RESOLVER.createChildResolver(path, PathElement.pathElement("session-management")));
         this.configurator = configurator;
-        this.factory = factory;
+        this.handler = handler;
     }
 
     @Override
@@ -112,8 +116,7 @@ public class SessionManagementResourceDefinition extends ChildResourceDefinition
                 .addAttributes(Attribute.class)
                 .addCapabilities(Capability.class)
                 ;
-        ResourceServiceHandler handler = new SimpleResourceServiceHandler(this.factory);
-        new SimpleResourceRegistration(descriptor, handler).register(registration);
+        new SimpleResourceRegistration(descriptor, this.handler).register(registration);
 
         new NoAffinityResourceDefinition().register(registration);
         new LocalAffinityResourceDefinition().register(registration);
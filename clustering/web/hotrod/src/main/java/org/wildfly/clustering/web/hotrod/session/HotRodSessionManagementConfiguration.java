@@ -22,6 +22,8 @@
 
 package org.wildfly.clustering.web.hotrod.session;
 
+import java.time.Duration;
+
 import org.wildfly.clustering.web.hotrod.HotRodConfiguration;
 import org.wildfly.clustering.web.session.DistributableSessionManagementConfiguration;
 
@@ -30,4 +32,28 @@ import org.wildfly.clustering.web.session.DistributableSessionManagementConfigur
  * @author Paul Ferraro
  */
 public interface HotRodSessionManagementConfiguration extends DistributableSessionManagementConfiguration, HotRodConfiguration {
+
+    /**
+     * Returns the maximum size of the near cache, measured according to {@link #getNearCacheEviction()}.
+     * @return the maximum size of the near cache, or null, if bounded by the max-active-sessions of the deployment.
+     */
+    default Integer getNearCacheMaxSize() {
+        return null;
+    }
+
+    /**
+     * Returns the measure of the maximum size of the near cache.
+     * @return a near cache eviction policy
+     */
+    default NearCacheEviction getNearCacheEviction() {
+        return NearCacheEviction.SESSION;
+    }
+
+    /**
+     * Returns the interval at which updates of session access meta data are written to the remote cache.
+     * @return a flush interval, or {@link Duration#ZERO}, if access meta data is written upon every request.
+     */
+    default Duration getAccessMetaDataFlushInterval() {
+        return Duration.ZERO;
+    }
 }
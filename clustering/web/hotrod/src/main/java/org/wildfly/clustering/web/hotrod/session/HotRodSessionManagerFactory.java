@@ -36,7 +36,6 @@ import org.wildfly.clustering.web.cache.session.ConcurrentSessionManager;
 import org.wildfly.clustering.web.cache.session.MarshalledValueSessionAttributesFactoryConfiguration;
 import org.wildfly.clustering.web.cache.session.SessionAttributesFactory;
 import org.wildfly.clustering.web.cache.session.SessionFactory;
-import org.wildfly.clustering.web.cache.session.SessionMetaDataFactory;
 import org.wildfly.clustering.web.hotrod.session.coarse.CoarseSessionAttributesFactory;
 import org.wildfly.clustering.web.hotrod.session.fine.FineSessionAttributesFactory;
 import org.wildfly.clustering.web.session.SessionExpirationListener;
@@ -59,9 +58,11 @@ public class HotRodSessionManagerFactory<S, SC, AL, MC, LC> implements SessionMa
     private final Batcher<TransactionBatch> batcher;
     private final Duration transactionTimeout;
     private final SessionFactory<SC, CompositeSessionMetaDataEntry<LC>, ?, LC> factory;
+    private final HotRodSessionMetaDataFactory<LC> metaDataFactory;
 
     public HotRodSessionManagerFactory(HotRodSessionManagerFactoryConfiguration<S, SC, AL, MC, LC> config) {
-        SessionMetaDataFactory<CompositeSessionMetaDataEntry<LC>> metaDataFactory = new HotRodSessionMetaDataFactory<>(config);
+        HotRodSessionMetaDataFactory<LC> metaDataFactory = new HotRodSessionMetaDataFactory<>(config);
+        this.metaDataFactory = metaDataFactory;
         HotRodSessionFactory<SC, ?, LC> sessionFactory = new HotRodSessionFactory<>(config, metaDataFactory, this.createSessionAttributesFactory(config), config.getLocalContextFactory());
         this.factory = sessionFactory;
         this.expirationRegistrar = sessionFactory;
@@ -111,6 +112,7 @@ public class HotRodSessionManagerFactory<S, SC, AL, MC, LC> implements SessionMa
     @Override
     public void close() {
         this.factory.close();
+        this.metaDataFactory.close();
     }
 
     private SessionAttributesFactory<SC, ?> createSessionAttributesFactory(HotRodSessionManagerFactoryConfiguration<S, SC, AL, MC, LC> configuration) {
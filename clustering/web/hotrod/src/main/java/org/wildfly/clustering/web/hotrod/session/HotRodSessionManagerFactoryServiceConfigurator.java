@@ -22,6 +22,7 @@
 
 package org.wildfly.clustering.web.hotrod.session;
 
+import java.time.Duration;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -75,11 +76,16 @@ public class HotRodSessionManagerFactoryServiceConfigurator<S, SC, AL, MC, LC>
 
     @Override
     public ServiceConfigurator configure(CapabilityServiceSupport support) {
-        this.cacheConfigurator = new RemoteCacheServiceConfigurator<>(this.getServiceName().append("cache"), this.configuration.getContainerName(), this.getDeploymentName(), this.configuration.getConfigurationName(), new SessionManagerNearCacheFactory<>(this.getMaxActiveSessions(), this.getAttributePersistenceStrategy())).configure(support);
+        this.cacheConfigurator = new RemoteCacheServiceConfigurator<>(this.getServiceName().append("cache"), this.configuration.getContainerName(), this.getDeploymentName(), this.configuration.getConfigurationName(), this.createNearCacheFactory()).configure(support);
         this.cache = new ServiceSupplierDependency<>(this.cacheConfigurator.getServiceName());
         return this;
     }
 
+    private <K, V> SessionManagerNearCacheFactory<K, V> createNearCacheFactory() {
+        Integer maxSize = this.configuration.getNearCacheMaxSize();
+        return new SessionManagerNearCacheFactory<>((maxSize != null) ? maxSize : this.getMaxActiveSessions(), this.configuration.getNearCacheEviction(), this.getAttributePersistenceStrategy());
+    }
+
     @Override
     public ServiceBuilder<?> build(ServiceTarget target) {
         this.cacheConfigurator.build(target).install();
@@ -100,6 +106,11 @@ public class HotRodSessionManagerFactoryServiceConfigurator<S, SC, AL, MC, LC>
         return this.configuration.getAttributePersistenceStrategy();
     }
 
+    @Override
+    public Duration getAccessMetaDataFlushInterval() {
+        return this.configuration.getAccessMetaDataFlushInterval();
+    }
+
     @Override
     public Integer getMaxActiveSessions() {
         return this.factoryConfiguration.getMaxActiveSessions();
@@ -31,6 +31,7 @@ import org.infinispan.client.hotrod.RemoteCache;
 import org.wildfly.clustering.ee.Mutator;
 import org.wildfly.clustering.ee.MutatorFactory;
 import org.wildfly.clustering.ee.cache.CacheProperties;
+import org.wildfly.clustering.ee.hotrod.DeferredRemoteCacheMutatorFactory;
 import org.wildfly.clustering.ee.hotrod.RemoteCacheMutatorFactory;
 import org.wildfly.clustering.web.cache.session.CompositeSessionMetaData;
 import org.wildfly.clustering.web.cache.session.CompositeSessionMetaDataEntry;
@@ -48,12 +49,13 @@ import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
 /**
  * @author Paul Ferraro
  */
-public class HotRodSessionMetaDataFactory<L> implements SessionMetaDataFactory<CompositeSessionMetaDataEntry<L>> {
+public class HotRodSessionMetaDataFactory<L> implements SessionMetaDataFactory<CompositeSessionMetaDataEntry<L>>, AutoCloseable {
 
     private final RemoteCache<SessionCreationMetaDataKey, SessionCreationMetaDataEntry<L>> creationMetaDataCache;
     private final MutatorFactory<SessionCreationMetaDataKey, SessionCreationMetaDataEntry<L>> creationMetaDataMutatorFactory;
     private final RemoteCache<SessionAccessMetaDataKey, SessionAccessMetaData> accessMetaDataCache;
     private final MutatorFactory<SessionAccessMetaDataKey, SessionAccessMetaData> accessMetaDataMutatorFactory;
+    private final DeferredRemoteCacheMutatorFactory<SessionAccessMetaDataKey, SessionAccessMetaData> deferredAccessMetaDataMutatorFactory;
     private final CacheProperties properties;
 
     public HotRodSessionMetaDataFactory(HotRodSessionMetaDataFactoryConfiguration configuration) {
@@ -65,7 +67,10 @@ public class HotRodSessionMetaDataFactory<L> implements SessionMetaDataFactory<C
             }
         });
         this.accessMetaDataCache = configuration.getCache();
-        this.accessMetaDataMutatorFactory = new RemoteCacheMutatorFactory<>(this.accessMetaDataCache);
+        Duration flushInterval = configuration.getAccessMetaDataFlushInterval();
+        // Coalesce access meta data updates, if so configured
+        this.deferredAccessMetaDataMutatorFactory = !flushInterval.isZero() ? new DeferredRemoteCacheMutatorFactory<>(this.accessMetaDataCache, flushInterval, SimpleSessionAccessMetaData::new) : null;
+        this.accessMetaDataMutatorFactory = (this.deferredAccessMetaDataMutatorFactory != null) ? this.deferredAccessMetaDataMutatorFactory : new RemoteCacheMutatorFactory<>(this.accessMetaDataCache);
         this.properties = configuration.getCacheProperties();
     }
 
@@ -84,9 +89,14 @@ public class HotRodSessionMetaDataFactory<L> implements SessionMetaDataFactory<C
     public CompositeSessionMetaDataEntry<L> findValue(String id) {
         SessionCreationMetaDataKey key = new SessionCreationMetaDataKey(id);
         MetadataValue<SessionCreationMetaDataEntry<L>> value = this.creationMetaDataCache.getWithMetadata(key);
-        SessionCreationMetaDataEntry<L> creationMetaDataEntry = this.creationMetaDataCache.get(key);
-        if (creationMetaDataEntry != null) {
-            SessionAccessMetaData accessMetaData = this.accessMetaDataCache.get(new SessionAccessMetaDataKey(id));
+        if (value != null) {
+            SessionCreationMetaDataEntry<L> creationMetaDataEntry = value.getValue();
+            SessionAccessMetaDataKey accessMetaDataKey = new SessionAccessMetaDataKey(id);
+            // Prefer access meta data not yet written to the remote cache
+            SessionAccessMetaData accessMetaData = (this.deferredAccessMetaDataMutatorFactory != null) ? this.deferredAccessMetaDataMutatorFactory.getPendingValue(accessMetaDataKey) : null;
+            if (accessMetaData == null) {
+                accessMetaData = this.accessMetaDataCache.get(accessMetaDataKey);
+            }
             if (accessMetaData != null) {
                 return new CompositeSessionMetaDataEntry<>(creationMetaDataEntry, accessMetaData);
             }
@@ -120,7 +130,18 @@ public class HotRodSessionMetaDataFactory<L> implements SessionMetaDataFactory<C
         SessionCreationMetaDataKey key = new SessionCreationMetaDataKey(id);
         SessionCreationMetaDataEntry<L> creationMetaData = this.creationMetaDataCache.withFlags(Flag.FORCE_RETURN_VALUE).remove(key);
         if (creationMetaData == null) return false;
-        this.accessMetaDataCache.remove(new SessionAccessMetaDataKey(id));
+        SessionAccessMetaDataKey accessMetaDataKey = new SessionAccessMetaDataKey(id);
+        if (this.deferredAccessMetaDataMutatorFactory != null) {
+            this.deferredAccessMetaDataMutatorFactory.cancel(accessMetaDataKey);
+        }
+        this.accessMetaDataCache.remove(accessMetaDataKey);
         return true;
     }
+
+    @Override
+    public void close() {
+        if (this.deferredAccessMetaDataMutatorFactory != null) {
+            this.deferredAccessMetaDataMutatorFactory.close();
+        }
+    }
 }
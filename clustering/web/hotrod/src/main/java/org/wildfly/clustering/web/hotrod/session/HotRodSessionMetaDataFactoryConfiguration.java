@@ -22,6 +22,8 @@
 
 package org.wildfly.clustering.web.hotrod.session;
 
+import java.time.Duration;
+
 import org.infinispan.client.hotrod.RemoteCache;
 import org.wildfly.clustering.ee.cache.CacheProperties;
 import org.wildfly.clustering.ee.hotrod.RemoteCacheProperties;
@@ -36,4 +38,8 @@ public interface HotRodSessionMetaDataFactoryConfiguration {
     default CacheProperties getCacheProperties() {
         return new RemoteCacheProperties(this.getCache());
     }
+
+    default Duration getAccessMetaDataFlushInterval() {
+        return Duration.ZERO;
+    }
 }
@@ -47,17 +47,24 @@ import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.github.benmanes.caffeine.cache.RemovalListener;
 
 /**
- * A near-cache factory based on max-active-sessions.
+ * A near-cache factory bounded by either a number of sessions or a number of cache entries.
+ * Entries are invalidated by remote cache events, and the eviction of a session cascades to all of its entries.
  * @author Paul Ferraro
  */
 public class SessionManagerNearCacheFactory<K, V> implements NearCacheFactory<K, V>, Supplier<Cache<K, MetadataValue<V>>>, RemovalListener<Object, Object> {
 
-    private final Integer maxActiveSessions;
+    private final Integer maxSize;
+    private final NearCacheEviction eviction;
     private final SessionAttributePersistenceStrategy strategy;
     private final AtomicReference<Cache<K, MetadataValue<V>>> cache = new AtomicReference<>();
 
     public SessionManagerNearCacheFactory(Integer maxActiveSessions, SessionAttributePersistenceStrategy strategy) {
-        this.maxActiveSessions = maxActiveSessions;
+        this(maxActiveSessions, NearCacheEviction.SESSION, strategy);
+    }
+
+    public SessionManagerNearCacheFactory(Integer maxSize, NearCacheEviction eviction, SessionAttributePersistenceStrategy strategy) {
+        this.maxSize = maxSize;
+        this.eviction = eviction;
         this.strategy = strategy;
     }
 
@@ -68,17 +75,25 @@ public class SessionManagerNearCacheFactory<K, V> implements NearCacheFactory<K,
 
     @Override
     public NearCacheMode getMode() {
-        return (this.maxActiveSessions == null) || (this.maxActiveSessions.intValue() == 0) ? NearCacheMode.DISABLED : NearCacheMode.INVALIDATED;
+        return (this.maxSize == null) || (this.maxSize.intValue() == 0) ? NearCacheMode.DISABLED : NearCacheMode.INVALIDATED;
     }
 
     @Override
     public Cache<K, MetadataValue<V>> get() {
         Caffeine<Object, Object> builder = Caffeine.newBuilder();
-        if (this.maxActiveSessions != null) {
-            builder.executor(Runnable::run)
-                    .maximumWeight(this.maxActiveSessions.longValue())
-                    .weigher(new SimpleKeyWeigher(SessionCreationMetaDataKey.class::isInstance))
-                    .removalListener(this);
+        if (this.maxSize != null) {
+            builder.executor(Runnable::run).removalListener(this);
+            switch (this.eviction) {
+                case SESSION: {
+                    builder.maximumWeight(this.maxSize.longValue())
+                            .weigher(new SimpleKeyWeigher(SessionCreationMetaDataKey.class::isInstance));
+                    break;
+                }
+                case ENTRY: {
+                    builder.maximumSize(this.maxSize.longValue());
+                    break;
+                }
+            }
         }
         Cache<K, MetadataValue<V>> cache = builder.build();
         // Set reference for use by removal listener
@@ -49,13 +49,12 @@ import org.wildfly.clustering.spi.NodeFactory;
 import org.wildfly.clustering.web.WebDeploymentConfiguration;
 import org.wildfly.clustering.web.cache.routing.RouteLocatorServiceNameProvider;
 import org.wildfly.clustering.web.infinispan.session.InfinispanSessionManagementConfiguration;
-import org.wildfly.clustering.web.routing.RouteLocator;
 
 /**
  * Configures a service providing a primary owner route locator.
  * @author Paul Ferraro
  */
-public class PrimaryOwnerRouteLocatorServiceConfigurator extends RouteLocatorServiceNameProvider implements CapabilityServiceConfigurator, PrimaryOwnerRouteLocatorConfiguration, Supplier<RouteLocator> {
+public class PrimaryOwnerRouteLocatorServiceConfigurator extends RouteLocatorServiceNameProvider implements CapabilityServiceConfigurator, PrimaryOwnerRouteLocatorConfiguration, Supplier<SegmentedRouteLocator> {
 
     private final InfinispanSessionManagementConfiguration managementConfiguration;
     private final WebDeploymentConfiguration deploymentConfiguration;
@@ -71,7 +70,7 @@ public class PrimaryOwnerRouteLocatorServiceConfigurator extends RouteLocatorSer
     }
 
     @Override
-    public RouteLocator get() {
+    public SegmentedRouteLocator get() {
         return new PrimaryOwnerRouteLocator(this);
     }
 
@@ -79,8 +78,8 @@ public class PrimaryOwnerRouteLocatorServiceConfigurator extends RouteLocatorSer
     public ServiceBuilder<?> build(ServiceTarget target) {
         ServiceName name = this.getServiceName();
         ServiceBuilder<?> builder = new AsyncServiceConfigurator(name).build(target);
-        Consumer<RouteLocator> locator = new CompositeDependency(this.registry, this.cache, this.factory).register(builder).provides(name);
-        Service service = new FunctionalService<>(locator, Function.identity(), this);
+        Consumer<SegmentedRouteLocator> locator = new CompositeDependency(this.registry, this.cache, this.factory).register(builder).provides(name);
+        Service service = new FunctionalService<>(locator, Function.identity(), this, SegmentedRouteLocator::close);
         return builder.setInstance(service).setInitialMode(ServiceController.Mode.ON_DEMAND);
     }
 
@@ -24,7 +24,6 @@ package org.wildfly.clustering.web.infinispan.routing;
 
 import org.wildfly.clustering.web.WebDeploymentConfiguration;
 import org.wildfly.clustering.web.infinispan.session.InfinispanSessionManagementConfiguration;
-import org.wildfly.clustering.web.routing.RouteLocator;
 
 /**
  * Configures a service providing a ranked route locator.
@@ -40,7 +39,7 @@ public class RankedRouteLocatorServiceConfigurator extends PrimaryOwnerRouteLoca
     }
 
     @Override
-    public RouteLocator get() {
+    public SegmentedRouteLocator get() {
         return new RankedRouteLocator(this);
     }
 
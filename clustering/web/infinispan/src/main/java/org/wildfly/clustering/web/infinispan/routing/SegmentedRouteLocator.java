@@ -0,0 +1,160 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.infinispan.routing;
+
+import java.util.List;
+import java.util.Map;
+
+import org.infinispan.Cache;
+import org.infinispan.distribution.DistributionInfo;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.LocalizedCacheTopology;
+import org.infinispan.remoting.transport.Address;
+import org.wildfly.clustering.Registration;
+import org.wildfly.clustering.ee.infinispan.GroupedKey;
+import org.wildfly.clustering.registry.Registry;
+import org.wildfly.clustering.registry.RegistryListener;
+import org.wildfly.clustering.spi.NodeFactory;
+import org.wildfly.clustering.web.routing.RouteLocator;
+
+/**
+ * A route locator that caches the route of each segment of the current cache topology.
+ * Locating the route of a session requires only the computation of its segment and an array read.
+ * The route table is recomputed on topology change, reusing the routes of any segment whose owners did not change,
+ * and fully recomputed whenever the route registry changes.
+ * @author agent
+ */
+public abstract class SegmentedRouteLocator implements RouteLocator, RegistryListener<String, Void>, AutoCloseable {
+
+    private static class RouteTable {
+        final int topologyId;
+        final Address[] primaries;
+        final List<Address>[] owners;
+        final String[] routes;
+
+        RouteTable(int topologyId, Address[] primaries, List<Address>[] owners, String[] routes) {
+            this.topologyId = topologyId;
+            this.primaries = primaries;
+            this.owners = owners;
+            this.routes = routes;
+        }
+    }
+
+    private final DistributionManager distribution;
+    private final NodeFactory<Address> factory;
+    private final Registry<String, Void> registry;
+    private final String localRoute;
+    private final Registration registration;
+
+    private volatile RouteTable table = null;
+
+    protected SegmentedRouteLocator(PrimaryOwnerRouteLocatorConfiguration config) {
+        Cache<GroupedKey<String>, ?> cache = config.getCache();
+        this.registry = config.getRegistry();
+        this.factory = config.getMemberFactory();
+        this.localRoute = this.registry.getEntry(this.registry.getGroup().getLocalMember()).getKey();
+        boolean preferPrimary = cache.getCacheConfiguration().clustering().cacheMode().isClustered();
+        this.distribution = preferPrimary ? cache.getAdvancedCache().getDistributionManager() : null;
+        this.registration = (this.distribution != null) ? this.registry.register(this) : null;
+    }
+
+    @Override
+    public String locate(String sessionId) {
+        if (this.distribution == null) return this.localRoute;
+        LocalizedCacheTopology topology = this.distribution.getCacheTopology();
+        RouteTable table = this.table;
+        if ((table == null) || (table.topologyId != topology.getTopologyId())) {
+            table = this.update(topology);
+        }
+        return table.routes[topology.getSegment(new GroupedKey<>(sessionId))];
+    }
+
+    private synchronized RouteTable update(LocalizedCacheTopology topology) {
+        RouteTable previous = this.table;
+        if ((previous != null) && (previous.topologyId == topology.getTopologyId())) {
+            // Updated by another thread
+            return previous;
+        }
+        int segments = topology.getNumSegments();
+        boolean reusable = (previous != null) && (previous.routes.length == segments);
+        Address[] primaries = new Address[segments];
+        @SuppressWarnings("unchecked")
+        List<Address>[] owners = new List[segments];
+        String[] routes = new String[segments];
+        for (int segment = 0; segment < segments; ++segment) {
+            DistributionInfo info = topology.getSegmentDistribution(segment);
+            primaries[segment] = info.primary();
+            owners[segment] = info.writeOwners();
+            boolean unchanged = reusable && equals(previous.primaries[segment], primaries[segment]) && owners[segment].equals(previous.owners[segment]);
+            routes[segment] = unchanged ? previous.routes[segment] : this.locate(info);
+        }
+        RouteTable table = new RouteTable(topology.getTopologyId(), primaries, owners, routes);
+        this.table = table;
+        return table;
+    }
+
+    private static boolean equals(Address address1, Address address2) {
+        return (address1 != null) ? address1.equals(address2) : (address2 == null);
+    }
+
+    /**
+     * Computes the route for the segment with the specified distribution.
+     * @param info the distribution of a segment
+     * @return a route
+     */
+    protected abstract String locate(DistributionInfo info);
+
+    protected NodeFactory<Address> getMemberFactory() {
+        return this.factory;
+    }
+
+    protected Registry<String, Void> getRegistry() {
+        return this.registry;
+    }
+
+    protected String getLocalRoute() {
+        return this.localRoute;
+    }
+
+    @Override
+    public synchronized void addedEntries(Map<String, Void> added) {
+        this.table = null;
+    }
+
+    @Override
+    public synchronized void updatedEntries(Map<String, Void> updated) {
+        this.table = null;
+    }
+
+    @Override
+    public synchronized void removedEntries(Map<String, Void> removed) {
+        this.table = null;
+    }
+
+    @Override
+    public void close() {
+        if (this.registration != null) {
+            this.registration.close();
+        }
+    }
+}
@@ -22,6 +22,8 @@
 
 package org.wildfly.clustering.web.infinispan.session;
 
+import org.wildfly.clustering.ee.cache.FingerprintMutationFilter;
+import org.wildfly.clustering.ee.cache.scheduler.RecordableBatchStatistics;
 import org.wildfly.clustering.web.infinispan.InfinispanCacheConfiguration;
 import org.wildfly.clustering.web.session.DistributableSessionManagementConfiguration;
 
@@ -30,4 +32,29 @@ import org.wildfly.clustering.web.session.DistributableSessionManagementConfigur
  * @author Paul Ferraro
  */
 public interface InfinispanSessionManagementConfiguration extends DistributableSessionManagementConfiguration, InfinispanCacheConfiguration {
+
+    /**
+     * Indicates whether the attributes of a session of {@link org.wildfly.clustering.web.session.SessionAttributePersistenceStrategy#COARSE} granularity are marshalled individually,
+     * such that only those attributes modified by a request are replicated.
+     * @return true, if only modified attributes should be replicated, false otherwise.
+     */
+    default boolean isDeltaReplication() {
+        return false;
+    }
+
+    /**
+     * Returns the statistics to which batched session expiration is recorded, shared by all session managers using this configuration.
+     * @return batch statistics, or null, if batched session expiration should not be recorded.
+     */
+    default RecordableBatchStatistics getExpirationBatchStatistics() {
+        return null;
+    }
+
+    /**
+     * Returns the filter that suppresses the cache writes of unchanged session attributes, shared by all session managers using this configuration.
+     * @return a mutation filter, or null, if every mutated session attribute should be written.
+     */
+    default FingerprintMutationFilter getMutationFilter() {
+        return null;
+    }
 }
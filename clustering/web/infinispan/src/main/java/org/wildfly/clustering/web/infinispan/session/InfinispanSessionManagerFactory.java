@@ -22,6 +22,8 @@
 package org.wildfly.clustering.web.infinispan.session;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.function.BiConsumer;
 
 import org.infinispan.Cache;
@@ -30,8 +32,13 @@ import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.Recordable;
 import org.wildfly.clustering.ee.cache.CacheProperties;
 import org.wildfly.clustering.ee.cache.ConcurrentManager;
+import org.wildfly.clustering.ee.cache.FingerprintMutationFilter;
 import org.wildfly.clustering.ee.cache.Key;
 import org.wildfly.clustering.ee.cache.SimpleManager;
+import org.wildfly.clustering.ee.cache.scheduler.BatchConfiguration;
+import org.wildfly.clustering.ee.cache.scheduler.ScheduledEntries;
+import org.wildfly.clustering.ee.cache.scheduler.SortedScheduledEntries;
+import org.wildfly.clustering.ee.cache.scheduler.TimingWheelScheduledEntries;
 import org.wildfly.clustering.ee.cache.tx.TransactionBatch;
 import org.wildfly.clustering.ee.infinispan.PrimaryOwnerLocator;
 import org.wildfly.clustering.ee.infinispan.scheduler.PrimaryOwnerScheduler;
@@ -39,6 +46,7 @@ import org.wildfly.clustering.ee.infinispan.scheduler.ScheduleLocalKeysTask;
 import org.wildfly.clustering.ee.infinispan.scheduler.Scheduler;
 import org.wildfly.clustering.ee.infinispan.scheduler.SchedulerListener;
 import org.wildfly.clustering.ee.infinispan.scheduler.SchedulerTopologyChangeListener;
+import org.wildfly.clustering.ee.infinispan.scheduler.SegmentBatchConfiguration;
 import org.wildfly.clustering.ee.infinispan.tx.InfinispanBatcher;
 import org.wildfly.clustering.group.Group;
 import org.wildfly.clustering.infinispan.spi.affinity.KeyAffinityServiceFactory;
@@ -56,6 +64,8 @@ import org.wildfly.clustering.web.cache.session.SessionAttributesFactory;
 import org.wildfly.clustering.web.cache.session.SessionFactory;
 import org.wildfly.clustering.web.cache.session.SessionMetaDataFactory;
 import org.wildfly.clustering.web.infinispan.AffinityIdentifierFactory;
+import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
+import org.wildfly.clustering.web.infinispan.session.coarse.CoarseDeltaSessionAttributesFactory;
 import org.wildfly.clustering.web.infinispan.session.coarse.CoarseSessionAttributesFactory;
 import org.wildfly.clustering.web.infinispan.session.fine.FineSessionAttributesFactory;
 import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
@@ -64,6 +74,7 @@ import org.wildfly.clustering.web.session.SessionManager;
 import org.wildfly.clustering.web.session.SessionManagerConfiguration;
 import org.wildfly.clustering.web.session.SessionManagerFactory;
 import org.wildfly.clustering.web.session.SpecificationProvider;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Factory for creating session managers.
@@ -76,6 +87,11 @@ import org.wildfly.clustering.web.session.SpecificationProvider;
  */
 public class InfinispanSessionManagerFactory<S, SC, AL, MC, LC> implements SessionManagerFactory<SC, LC, TransactionBatch>, Runnable {
 
+    // If defined, expiration uses a timing wheel with the specified tick duration, e.g. PT1S
+    private static final String EXPIRATION_TICK_PROPERTY = "jboss.web.session.expiration-tick";
+    // If defined, expired sessions are removed in per-segment batches using the specified number of threads
+    private static final String EXPIRATION_BATCH_THREADS_PROPERTY = "jboss.web.session.expiration-batch-threads";
+
     final Batcher<TransactionBatch> batcher;
     final Registrar<SessionExpirationListener> expirationRegistrar;
     final CacheProperties properties;
@@ -87,6 +103,7 @@ public class InfinispanSessionManagerFactory<S, SC, AL, MC, LC> implements Sessi
     private final SessionFactory<SC, CompositeSessionMetaDataEntry<LC>, ?, LC> factory;
     private final BiConsumer<Locality, Locality> scheduleTask;
     private final SchedulerListener listener;
+    private final FingerprintMutationFilter mutationFilter;
 
     public InfinispanSessionManagerFactory(InfinispanSessionManagerFactoryConfiguration<S, SC, AL, MC, LC> config) {
         this.affinityFactory = config.getKeyAffinityServiceFactory();
@@ -94,11 +111,16 @@ public class InfinispanSessionManagerFactory<S, SC, AL, MC, LC> implements Sessi
         this.batcher = new InfinispanBatcher(this.cache);
         this.properties = config.getCacheProperties();
         this.provider = config.getSpecificationProvider();
+        this.mutationFilter = config.getMutationFilter();
         SessionMetaDataFactory<CompositeSessionMetaDataEntry<LC>> metaDataFactory = new InfinispanSessionMetaDataFactory<>(config);
         this.factory = new CompositeSessionFactory<>(metaDataFactory, this.createSessionAttributesFactory(config), config.getLocalContextFactory());
         ExpiredSessionRemover<SC, ?, ?, LC> remover = new ExpiredSessionRemover<>(this.factory);
         this.expirationRegistrar = remover;
-        Scheduler<String, ImmutableSessionMetaData> localScheduler = new SessionExpirationScheduler<>(this.batcher, this.factory.getMetaDataFactory(), remover, Duration.ofMillis(this.cache.getCacheConfiguration().transaction().cacheStopTimeout()));
+        Duration expirationTick = parseExpirationTick();
+        ScheduledEntries<String, Instant> entries = (expirationTick != null) ? new TimingWheelScheduledEntries<>(expirationTick) : new SortedScheduledEntries<>();
+        int expirationBatchThreads = parseExpirationBatchThreads();
+        BatchConfiguration<String> batchConfiguration = (expirationBatchThreads > 0) ? new SegmentBatchConfiguration<>(this.cache, SessionCreationMetaDataKey::new, expirationBatchThreads, this.batcher, config.getExpirationBatchStatistics()) : null;
+        Scheduler<String, ImmutableSessionMetaData> localScheduler = new SessionExpirationScheduler<>(this.batcher, this.factory.getMetaDataFactory(), remover, Duration.ofMillis(this.cache.getCacheConfiguration().transaction().cacheStopTimeout()), entries, batchConfiguration);
         CommandDispatcherFactory dispatcherFactory = config.getCommandDispatcherFactory();
         Group group = dispatcherFactory.getGroup();
         this.scheduler = group.isSingleton() ? localScheduler : new PrimaryOwnerScheduler<>(dispatcherFactory, this.cache.getName(), localScheduler, new PrimaryOwnerLocator<>(this.cache, config.getMemberFactory(), group), SessionCreationMetaDataKey::new);
@@ -107,6 +129,40 @@ public class InfinispanSessionManagerFactory<S, SC, AL, MC, LC> implements Sessi
         this.listener = new SchedulerTopologyChangeListener<>(this.cache, localScheduler, this.scheduleTask);
     }
 
+    private static Duration parseExpirationTick() {
+        String value = WildFlySecurityManager.getPropertyPrivileged(EXPIRATION_TICK_PROPERTY, null);
+        if (value == null) {
+            return null;
+        }
+        try {
+            Duration tick = Duration.parse(value);
+            if (tick.isNegative() || tick.isZero()) {
+                throw new IllegalArgumentException(value);
+            }
+            return tick;
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            InfinispanWebLogger.ROOT_LOGGER.invalidSystemProperty(e, EXPIRATION_TICK_PROPERTY, value);
+            return null;
+        }
+    }
+
+    private static int parseExpirationBatchThreads() {
+        String value = WildFlySecurityManager.getPropertyPrivileged(EXPIRATION_BATCH_THREADS_PROPERTY, null);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            int threads = Integer.parseInt(value.trim());
+            if (threads <= 0) {
+                throw new IllegalArgumentException(value);
+            }
+            return threads;
+        } catch (IllegalArgumentException e) {
+            InfinispanWebLogger.ROOT_LOGGER.invalidSystemProperty(e, EXPIRATION_BATCH_THREADS_PROPERTY, value);
+            return 0;
+        }
+    }
+
     @Override
     public void run() {
         this.scheduleTask.accept(new SimpleLocality(false), new CacheLocality(this.cache));
@@ -177,10 +233,13 @@ public class InfinispanSessionManagerFactory<S, SC, AL, MC, LC> implements Sessi
     private SessionAttributesFactory<SC, ?> createSessionAttributesFactory(InfinispanSessionManagerFactoryConfiguration<S, SC, AL, MC, LC> configuration) {
         switch (configuration.getAttributePersistenceStrategy()) {
             case FINE: {
-                return new FineSessionAttributesFactory<>(new InfinispanMarshalledValueSessionAttributesFactoryConfiguration<>(configuration));
+                return new FineSessionAttributesFactory<>(new InfinispanMarshalledValueSessionAttributesFactoryConfiguration<>(configuration, this.mutationFilter));
             }
             case COARSE: {
-                return new CoarseSessionAttributesFactory<>(new InfinispanMarshalledValueSessionAttributesFactoryConfiguration<>(configuration));
+                if (configuration.isDeltaReplication()) {
+                    return new CoarseDeltaSessionAttributesFactory<>(new InfinispanMarshalledValueSessionAttributesFactoryConfiguration<>(configuration, this.mutationFilter));
+                }
+                return new CoarseSessionAttributesFactory<>(new InfinispanMarshalledValueSessionAttributesFactoryConfiguration<>(configuration, this.mutationFilter));
             }
             default: {
                 // Impossible
@@ -198,10 +257,17 @@ public class InfinispanSessionManagerFactory<S, SC, AL, MC, LC> implements Sessi
 
     private static class InfinispanMarshalledValueSessionAttributesFactoryConfiguration<S, SC, AL, V, MC, LC> extends MarshalledValueSessionAttributesFactoryConfiguration<S, SC, AL, V, MC, LC> implements InfinispanSessionAttributesFactoryConfiguration<S, SC, AL, V, MarshalledValue<V, MC>> {
         private final InfinispanSessionManagerFactoryConfiguration<S, SC, AL, MC, LC> configuration;
+        private final FingerprintMutationFilter mutationFilter;
 
-        InfinispanMarshalledValueSessionAttributesFactoryConfiguration(InfinispanSessionManagerFactoryConfiguration<S, SC, AL, MC, LC> configuration) {
+        InfinispanMarshalledValueSessionAttributesFactoryConfiguration(InfinispanSessionManagerFactoryConfiguration<S, SC, AL, MC, LC> configuration, FingerprintMutationFilter mutationFilter) {
             super(configuration);
             this.configuration = configuration;
+            this.mutationFilter = mutationFilter;
+        }
+
+        @Override
+        public FingerprintMutationFilter getMutationFilter() {
+            return this.mutationFilter;
         }
 
         @Override
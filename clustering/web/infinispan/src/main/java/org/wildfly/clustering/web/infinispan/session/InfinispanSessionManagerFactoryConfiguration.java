@@ -22,6 +22,8 @@
 package org.wildfly.clustering.web.infinispan.session;
 
 import org.infinispan.remoting.transport.Address;
+import org.wildfly.clustering.ee.cache.FingerprintMutationFilter;
+import org.wildfly.clustering.ee.cache.scheduler.RecordableBatchStatistics;
 import org.wildfly.clustering.infinispan.spi.affinity.KeyAffinityServiceFactory;
 import org.wildfly.clustering.spi.NodeFactory;
 import org.wildfly.clustering.spi.dispatcher.CommandDispatcherFactory;
@@ -43,4 +45,10 @@ public interface InfinispanSessionManagerFactoryConfiguration<S, SC, AL, MC, LC>
     CommandDispatcherFactory getCommandDispatcherFactory();
 
     NodeFactory<Address> getMemberFactory();
+
+    RecordableBatchStatistics getExpirationBatchStatistics();
+
+    boolean isDeltaReplication();
+
+    FingerprintMutationFilter getMutationFilter();
 }
@@ -46,6 +46,8 @@ import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
 import org.wildfly.clustering.ee.Immutability;
+import org.wildfly.clustering.ee.cache.FingerprintMutationFilter;
+import org.wildfly.clustering.ee.cache.scheduler.RecordableBatchStatistics;
 import org.wildfly.clustering.ee.cache.tx.TransactionBatch;
 import org.wildfly.clustering.infinispan.spi.DataContainerConfigurationBuilder;
 import org.wildfly.clustering.infinispan.spi.InfinispanCacheRequirement;
@@ -190,6 +192,21 @@ public class InfinispanSessionManagerFactoryServiceConfigurator<S, SC, AL, MC, L
         return this.group.get();
     }
 
+    @Override
+    public RecordableBatchStatistics getExpirationBatchStatistics() {
+        return this.configuration.getExpirationBatchStatistics();
+    }
+
+    @Override
+    public boolean isDeltaReplication() {
+        return this.configuration.isDeltaReplication();
+    }
+
+    @Override
+    public FingerprintMutationFilter getMutationFilter() {
+        return this.configuration.getMutationFilter();
+    }
+
     @Override
     public SessionAttributePersistenceStrategy getAttributePersistenceStrategy() {
         return this.configuration.getAttributePersistenceStrategy();
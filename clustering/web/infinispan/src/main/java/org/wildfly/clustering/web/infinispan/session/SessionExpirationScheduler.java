@@ -22,12 +22,15 @@
 package org.wildfly.clustering.web.infinispan.session;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.function.Predicate;
 
 import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.Remover;
+import org.wildfly.clustering.ee.cache.scheduler.BatchConfiguration;
 import org.wildfly.clustering.ee.cache.scheduler.LocalScheduler;
+import org.wildfly.clustering.ee.cache.scheduler.ScheduledEntries;
 import org.wildfly.clustering.ee.cache.scheduler.SortedScheduledEntries;
 import org.wildfly.clustering.ee.cache.tx.TransactionBatch;
 import org.wildfly.clustering.ee.infinispan.GroupedKey;
@@ -50,7 +53,11 @@ public class SessionExpirationScheduler<MV> implements Scheduler<String, Immutab
     private final ImmutableSessionMetaDataFactory<MV> metaDataFactory;
 
     public SessionExpirationScheduler(Batcher<TransactionBatch> batcher, ImmutableSessionMetaDataFactory<MV> metaDataFactory, Remover<String> remover, Duration closeTimeout) {
-        this.scheduler = new LocalScheduler<>(new SortedScheduledEntries<>(), this, closeTimeout);
+        this(batcher, metaDataFactory, remover, closeTimeout, new SortedScheduledEntries<>(), null);
+    }
+
+    public SessionExpirationScheduler(Batcher<TransactionBatch> batcher, ImmutableSessionMetaDataFactory<MV> metaDataFactory, Remover<String> remover, Duration closeTimeout, ScheduledEntries<String, Instant> entries, BatchConfiguration<String> batchConfiguration) {
+        this.scheduler = new LocalScheduler<>(entries, this, closeTimeout, batchConfiguration);
         this.batcher = batcher;
         this.metaDataFactory = metaDataFactory;
         this.remover = remover;
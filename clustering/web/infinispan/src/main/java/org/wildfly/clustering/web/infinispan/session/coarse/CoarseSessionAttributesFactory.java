@@ -73,7 +73,7 @@ public class CoarseSessionAttributesFactory<S, C, L, V> implements SessionAttrib
         this.marshaller = configuration.getMarshaller();
         this.immutability = configuration.getImmutability();
         this.properties = configuration.getCacheProperties();
-        this.mutatorFactory = new InfinispanMutatorFactory<>(this.cache, this.properties);
+        this.mutatorFactory = new InfinispanMutatorFactory<>(this.cache, this.properties, configuration.getMutationFilter());
         this.provider = configuration.getHttpSessionActivationListenerProvider();
     }
 
@@ -80,7 +80,7 @@ public class FineSessionAttributesFactory<S, C, L, V> implements SessionAttribut
         this.marshaller = configuration.getMarshaller();
         this.immutability = configuration.getImmutability();
         this.properties = configuration.getCacheProperties();
-        this.mutatorFactory = new InfinispanMutatorFactory<>(this.attributeCache, this.properties);
+        this.mutatorFactory = new InfinispanMutatorFactory<>(this.attributeCache, this.properties, configuration.getMutationFilter());
         this.provider = configuration.getHttpSessionActivationListenerProvider();
     }
 
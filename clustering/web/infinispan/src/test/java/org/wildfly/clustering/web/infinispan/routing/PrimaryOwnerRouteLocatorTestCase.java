@@ -26,6 +26,7 @@ import static org.mockito.Mockito.*;
 
 import java.util.AbstractMap;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.stream.Collectors;
 
@@ -136,6 +137,19 @@ public class PrimaryOwnerRouteLocatorTestCase {
                 when(this.partitioner.getSegment(new GroupedKey<>("session"))).thenReturn(2);
                 result = locator.locate("session");
                 Assert.assertEquals("2", result);
+
+                // Routes are computed once per topology
+                for (Address address : this.addresses) {
+                    verify(this.factory).createNode(address);
+                }
+
+                // Registry changes invalidate computed routes
+                ((SegmentedRouteLocator) locator).addedEntries(Collections.emptyMap());
+                result = locator.locate("session");
+                Assert.assertEquals("2", result);
+                for (Address address : this.addresses) {
+                    verify(this.factory, times(2)).createNode(address);
+                }
                 break;
             }
             default: {
@@ -23,6 +23,7 @@
 package org.jboss.as.ee.component;
 
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import org.jboss.as.ee.component.deployers.EEResourceReferenceProcessorRegistry;
 import org.jboss.as.ee.component.deployers.MessageDestinationInjectionSource;
@@ -93,4 +94,9 @@ public class Attachments {
     public static final AttachmentKey<AttachmentList<ContextHandleFactory>> ADDITIONAL_FACTORIES = AttachmentKey.createList(ContextHandleFactory.class);
 
     public static final AttachmentKey<ConcurrentContextSetupAction> CONCURRENT_CONTEXT_SETUP_ACTION = AttachmentKey.create(ConcurrentContextSetupAction.class);
+
+    /**
+     * The executor on which annotations are processed concurrently. Absent if annotations are processed sequentially.
+     */
+    public static final AttachmentKey<ExecutorService> ANNOTATION_PROCESSING_EXECUTOR = AttachmentKey.create(ExecutorService.class);
 }
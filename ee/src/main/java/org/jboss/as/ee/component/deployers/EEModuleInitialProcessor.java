@@ -26,6 +26,7 @@ import java.util.HashMap;
 
 import org.jboss.as.ee.component.Attachments;
 import org.jboss.as.ee.component.EEModuleDescription;
+import org.jboss.as.ee.metadata.AnnotationProcessingExecutorService;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
@@ -64,6 +65,9 @@ public final class EEModuleInitialProcessor implements DeploymentUnitProcessor {
         }
         deploymentUnit.putAttachment(Attachments.EE_MODULE_DESCRIPTION, new EEModuleDescription(appName, moduleName, earApplicationName, appClient));
         deploymentUnit.putAttachment(org.jboss.as.server.deployment.Attachments.COMPONENT_JNDI_DEPENDENCIES, new HashMap<>());
+        if (AnnotationProcessingExecutorService.isEnabled()) {
+            phaseContext.addDeploymentDependency(AnnotationProcessingExecutorService.SERVICE_NAME, Attachments.ANNOTATION_PROCESSING_EXECUTOR);
+        }
     }
 
     public void undeploy(final DeploymentUnit context) {
@@ -1204,4 +1204,13 @@ public interface EeLogger extends BasicLogger {
     @LogMessage(level = INFO)
     @Message(id = 130, value = "%s hung task %s not cancelled")
     void hungTaskNotCancelled(String executorName, String taskName);
+
+    /**
+     * Logs a warning message indicating that the value of a system property is invalid and will be ignored.
+     * @param name the name of the system property.
+     * @param value the invalid value.
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 131, value = "Ignoring invalid value '%2$s' of system property %1$s")
+    void invalidSystemProperty(String name, String value);
 }
@@ -21,8 +21,12 @@
  */
 package org.jboss.as.ee.metadata;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.jboss.as.ee.component.Attachments;
 import org.jboss.as.ee.component.EEModuleClassDescription;
@@ -34,6 +38,7 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.annotation.CompositeIndex;
 import org.jboss.metadata.property.PropertyReplacer;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Superclass for EE annotation processors that attach their information to the EEClassDescription via {@link ClassAnnotationInformation}
@@ -53,8 +58,7 @@ public abstract class AbstractEEAnnotationProcessor implements DeploymentUnitPro
         }
 
         final List<ClassAnnotationInformationFactory> factories = annotationInformationFactories();
-        for (final ClassAnnotationInformationFactory factory : factories) {
-            final Map<String, ClassAnnotationInformation<?, ?>> data = factory.createAnnotationInformation(index, propertyReplacer);
+        for (final Map<String, ClassAnnotationInformation<?, ?>> data : createAnnotationInformation(factories, index, propertyReplacer, deploymentUnit.getAttachment(Attachments.ANNOTATION_PROCESSING_EXECUTOR))) {
             for (Map.Entry<String, ClassAnnotationInformation<?, ?>> entry : data.entrySet()) {
                 EEModuleClassDescription clazz = eeModuleDescription.addOrGetLocalClassDescription(entry.getKey());
                 clazz.addAnnotationInformation(entry.getValue());
@@ -64,6 +68,55 @@ public abstract class AbstractEEAnnotationProcessor implements DeploymentUnitPro
         afterAnnotationsProcessed(phaseContext, deploymentUnit);
     }
 
+    /**
+     * Scans the index using each of the specified factories.
+     * The factories only read from the index, so their scans may run concurrently using the specified executor, if any.
+     * The results are returned in the order of the factories, so that they are merged into the module description as if scanned sequentially.
+     */
+    private static List<Map<String, ClassAnnotationInformation<?, ?>>> createAnnotationInformation(final List<ClassAnnotationInformationFactory> factories, final CompositeIndex index, final PropertyReplacer propertyReplacer, final ExecutorService executor) throws DeploymentUnitProcessingException {
+        final List<Map<String, ClassAnnotationInformation<?, ?>>> result = new ArrayList<>(factories.size());
+        if ((executor == null) || (factories.size() <= 1)) {
+            for (final ClassAnnotationInformationFactory factory : factories) {
+                result.add(factory.createAnnotationInformation(index, propertyReplacer));
+            }
+            return result;
+        }
+        final ClassLoader loader = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
+        final List<Future<Map<String, ClassAnnotationInformation<?, ?>>>> futures = new ArrayList<>(factories.size());
+        for (final ClassAnnotationInformationFactory factory : factories) {
+            futures.add(executor.submit(() -> {
+                final ClassLoader original = WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(loader);
+                try {
+                    return factory.createAnnotationInformation(index, propertyReplacer);
+                } finally {
+                    WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(original);
+                }
+            }));
+        }
+        try {
+            for (final Future<Map<String, ClassAnnotationInformation<?, ?>>> future : futures) {
+                result.add(future.get());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeploymentUnitProcessingException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new DeploymentUnitProcessingException(cause);
+        } finally {
+            for (final Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
     /**
      * Method that can be overridden to do any additional processing
      * @param phaseContext The phase context
@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.metadata;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.ee.logging.EeLogger;
+import org.jboss.msc.Service;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Provides the executor on which {@link AbstractEEAnnotationProcessor} runs the index scans of its annotation information factories concurrently.
+ * Only installed if the parallelism configured via the jboss.ee.annotation-processing.parallelism system property is greater than 1.
+ * @author agent
+ */
+public class AnnotationProcessingExecutorService implements Service {
+
+    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ee", "annotation-processing", "executor");
+
+    /**
+     * The maximum number of threads on which the index scans of the annotation information factories of a deployment unit may run concurrently.
+     */
+    private static final int PARALLELISM = parseParallelism("jboss.ee.annotation-processing.parallelism");
+
+    private static int parseParallelism(String property) {
+        String value = WildFlySecurityManager.getPropertyPrivileged(property, null);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            int parallelism = Integer.parseInt(value.trim());
+            if (parallelism >= 0) {
+                return parallelism;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through
+        }
+        EeLogger.ROOT_LOGGER.invalidSystemProperty(property, value);
+        return 0;
+    }
+
+    /**
+     * Indicates whether annotations are processed concurrently, or sequentially on the deployment thread.
+     * @return true, if this service should be installed, false otherwise
+     */
+    public static boolean isEnabled() {
+        return PARALLELISM > 1;
+    }
+
+    private volatile Consumer<ExecutorService> consumer;
+    private volatile ExecutorService executor;
+
+    public void install(OperationContext context) {
+        ServiceBuilder<?> builder = context.getServiceTarget().addService(SERVICE_NAME).setInstance(this);
+        this.consumer = builder.provides(SERVICE_NAME);
+        builder.install();
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(PARALLELISM, PARALLELISM, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new ThreadFactory());
+        // Threads expire when idle, since annotations are only processed while deploying
+        executor.allowCoreThreadTimeOut(true);
+        this.executor = executor;
+        this.consumer.accept(executor);
+    }
+
+    @Override
+    public void stop(StopContext context) {
+        this.consumer.accept(null);
+        this.executor.shutdownNow();
+        this.executor = null;
+    }
+
+    /**
+     * Wrapper of default thread factory, that names its threads and clears their context class loader.
+     */
+    private static class ThreadFactory implements java.util.concurrent.ThreadFactory {
+        private final java.util.concurrent.ThreadFactory threadFactory = Executors.defaultThreadFactory();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = this.threadFactory.newThread(task);
+            thread.setName("ee-annotation-processing-" + thread.getName());
+            // Tasks run with the class loader of the deployment that submitted them, so make sure no deployment class loader lingers on idle threads
+            if (WildFlySecurityManager.isChecking()) {
+                AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                    @Override
+                    public Void run() {
+                        thread.setContextClassLoader(null);
+                        return null;
+                    }
+                });
+            } else {
+                thread.setContextClassLoader(null);
+            }
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.structure;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
+
+import org.jboss.as.ee.logging.EeLogger;
+import org.jboss.as.ee.subsystem.EeDeploymentDefinition;
+import org.jboss.as.ee.subsystem.EeExtension;
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentPhaseContext;
+import org.jboss.as.server.deployment.DeploymentResourceSupport;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Decorates a deployment unit processor, recording the time it spends processing each deployment unit
+ * within the processing-time attribute of the EE subsystem resource of that deployment or subdeployment.
+ *
+ * @author agent
+ */
+public class TimedDeploymentUnitProcessor implements DeploymentUnitProcessor {
+
+    private static final boolean ENABLED = parseEnabled("jboss.ee.deployment-processing-statistics");
+
+    private static boolean parseEnabled(String property) {
+        String value = WildFlySecurityManager.getPropertyPrivileged(property, null);
+        if (value == null) {
+            return false;
+        }
+        String trimmedValue = value.trim();
+        if (!Boolean.TRUE.toString().equalsIgnoreCase(trimmedValue) && !Boolean.FALSE.toString().equalsIgnoreCase(trimmedValue)) {
+            EeLogger.ROOT_LOGGER.invalidSystemProperty(property, value);
+            return false;
+        }
+        return Boolean.parseBoolean(trimmedValue);
+    }
+
+    /**
+     * Decorates the specified processor, if deployment processing statistics are enabled.
+     * @param processor a deployment unit processor
+     * @return a processor that records its processing time, or the specified processor if statistics are disabled
+     */
+    public static DeploymentUnitProcessor decorate(DeploymentUnitProcessor processor) {
+        return ENABLED ? new TimedDeploymentUnitProcessor(processor) : processor;
+    }
+
+    private final DeploymentUnitProcessor processor;
+    private final ObjLongConsumer<DeploymentUnit> recorder;
+
+    private TimedDeploymentUnitProcessor(DeploymentUnitProcessor processor) {
+        this(processor, new ProcessingTimeRecorder(processor.getClass().getSimpleName()));
+    }
+
+    TimedDeploymentUnitProcessor(DeploymentUnitProcessor processor, ObjLongConsumer<DeploymentUnit> recorder) {
+        this.processor = processor;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+        long start = System.nanoTime();
+        try {
+            this.processor.deploy(phaseContext);
+        } finally {
+            this.recorder.accept(phaseContext.getDeploymentUnit(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    @Override
+    public void undeploy(DeploymentUnit unit) {
+        this.processor.undeploy(unit);
+    }
+
+    /**
+     * Records the processing time of a given processor within the EE subsystem resource of a deployment unit.
+     */
+    private static class ProcessingTimeRecorder implements ObjLongConsumer<DeploymentUnit> {
+        private final String name;
+
+        ProcessingTimeRecorder(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void accept(DeploymentUnit unit, long elapsed) {
+            DeploymentResourceSupport support = unit.getAttachment(Attachments.DEPLOYMENT_RESOURCE_SUPPORT);
+            if (support != null) {
+                support.getDeploymentSubsystemModel(EeExtension.SUBSYSTEM_NAME).get(EeDeploymentDefinition.PROCESSING_TIME.getName(), this.name).set(elapsed);
+            }
+        }
+    }
+}
@@ -76,6 +76,10 @@ public class EeExtension implements Extension {
         rootResource.registerSubModel(new DefaultBindingsResourceDefinition(new DefaultBindingsConfigurationProcessor()));
         rootResource.registerSubModel(GlobalDirectoryResourceDefinition.INSTANCE);
 
+        if (runtimeOnlyRegistrationValid) {
+            subsystem.registerDeploymentModel(EeDeploymentDefinition.INSTANCE);
+        }
+
         subsystem.registerXMLElementWriter(EESubsystemXmlPersister.INSTANCE);
 
     }
@@ -0,0 +1,199 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jboss.as.ee.component.Attachments;
+import org.jboss.as.ee.component.EEModuleClassDescription;
+import org.jboss.as.ee.component.EEModuleDescription;
+import org.jboss.as.server.deployment.DeploymentPhaseContext;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.annotation.CompositeIndex;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.metadata.property.PropertyReplacer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Verifies that annotations processed concurrently by {@link AbstractEEAnnotationProcessor} yield the same module description as if processed sequentially.
+ * @author agent
+ */
+public class AbstractEEAnnotationProcessorTestCase {
+
+    private static final List<Class<? extends Annotation>> ANNOTATION_TYPES = Arrays.asList(Deprecated.class, FunctionalInterface.class, SafeVarargs.class);
+
+    private ExecutorService executor;
+
+    @Before
+    public void init() {
+        this.executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void parallel() throws DeploymentUnitProcessingException {
+        // Factories that finish first are not necessarily first in the list, and later factories override earlier factories of the same annotation type
+        List<ClassAnnotationInformationFactory> factories = Arrays.asList(
+                new TestFactory<>(Deprecated.class, "first", 100, "A", "B", "C"),
+                new TestFactory<>(FunctionalInterface.class, "second", 50, "B", "D"),
+                new TestFactory<>(Deprecated.class, "third", 0, "A", "E"),
+                new TestFactory<>(SafeVarargs.class, "fourth", 25, "C", "D", "E"));
+
+        EEModuleDescription sequential = deploy(factories, null);
+        EEModuleDescription parallel = deploy(factories, this.executor);
+
+        Map<String, EEModuleClassDescription> expected = classDescriptions(sequential);
+        Map<String, EEModuleClassDescription> actual = classDescriptions(parallel);
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, EEModuleClassDescription> entry : expected.entrySet()) {
+            for (Class<? extends Annotation> annotationType : ANNOTATION_TYPES) {
+                ClassAnnotationInformation<?, ?> expectedInformation = entry.getValue().getAnnotationInformation(annotationType);
+                ClassAnnotationInformation<?, ?> actualInformation = actual.get(entry.getKey()).getAnnotationInformation(annotationType);
+                if (expectedInformation == null) {
+                    assertEquals(null, actualInformation);
+                } else {
+                    assertNotNull(actualInformation);
+                    assertEquals(expectedInformation.getClassLevelAnnotations(), actualInformation.getClassLevelAnnotations());
+                    assertEquals(expectedInformation.getMethodLevelAnnotations(), actualInformation.getMethodLevelAnnotations());
+                    assertEquals(expectedInformation.getFieldLevelAnnotations(), actualInformation.getFieldLevelAnnotations());
+                }
+            }
+        }
+
+        assertEquals(Collections.singletonList("third"), actual.get("A").getAnnotationInformation(Deprecated.class).getClassLevelAnnotations());
+        assertEquals(Collections.singletonList("first"), actual.get("B").getAnnotationInformation(Deprecated.class).getClassLevelAnnotations());
+    }
+
+    @Test
+    public void contextClassLoader() throws DeploymentUnitProcessingException {
+        ClassLoader loader = new ClassLoader(null) {
+        };
+        TestFactory<Deprecated> factory = new TestFactory<>(Deprecated.class, "first", 0, "A");
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            deploy(Arrays.asList(factory, new TestFactory<>(FunctionalInterface.class, "second", 0, "A")), this.executor);
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+        // Index scans run with the class loader of the deployment thread
+        assertSame(loader, factory.loader);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failure() throws DeploymentUnitProcessingException {
+        deploy(Arrays.asList(new TestFactory<>(Deprecated.class, "first", 0, "A"), new TestFactory<Deprecated>(Deprecated.class, "second", 0, "A") {
+            @Override
+            public Map<String, ClassAnnotationInformation<Deprecated, String>> createAnnotationInformation(CompositeIndex index, PropertyReplacer propertyReplacer) {
+                throw new IllegalStateException();
+            }
+        }), this.executor);
+    }
+
+    private static EEModuleDescription deploy(List<ClassAnnotationInformationFactory> factories, ExecutorService executor) throws DeploymentUnitProcessingException {
+        DeploymentPhaseContext context = mock(DeploymentPhaseContext.class);
+        DeploymentUnit unit = mock(DeploymentUnit.class);
+        EEModuleDescription description = new EEModuleDescription(null, "test", null, false);
+
+        when(context.getDeploymentUnit()).thenReturn(unit);
+        when(unit.getAttachment(Attachments.EE_MODULE_DESCRIPTION)).thenReturn(description);
+        when(unit.getAttachment(org.jboss.as.server.deployment.Attachments.COMPOSITE_ANNOTATION_INDEX)).thenReturn(new CompositeIndex(Collections.emptyList()));
+        when(unit.getAttachment(Attachments.ANNOTATION_PROCESSING_EXECUTOR)).thenReturn(executor);
+
+        new AbstractEEAnnotationProcessor() {
+            @Override
+            protected List<ClassAnnotationInformationFactory> annotationInformationFactories() {
+                return factories;
+            }
+        }.deploy(context);
+
+        return description;
+    }
+
+    private static Map<String, EEModuleClassDescription> classDescriptions(EEModuleDescription description) {
+        Map<String, EEModuleClassDescription> result = new HashMap<>();
+        for (EEModuleClassDescription classDescription : description.getClassDescriptions()) {
+            result.put(classDescription.getClassName(), classDescription);
+        }
+        return result;
+    }
+
+    /**
+     * Factory that, after the specified delay, returns the specified value as the class level annotation of each of the specified classes.
+     */
+    private static class TestFactory<A extends Annotation> extends ClassAnnotationInformationFactory<A, String> {
+        private final Class<A> annotationType;
+        private final String value;
+        private final long delay;
+        private final List<String> classNames;
+        volatile ClassLoader loader;
+
+        TestFactory(Class<A> annotationType, String value, long delay, String... classNames) {
+            super(annotationType, null);
+            this.annotationType = annotationType;
+            this.value = value;
+            this.delay = delay;
+            this.classNames = Arrays.asList(classNames);
+        }
+
+        @Override
+        public Map<String, ClassAnnotationInformation<A, String>> createAnnotationInformation(CompositeIndex index, PropertyReplacer propertyReplacer) {
+            this.loader = Thread.currentThread().getContextClassLoader();
+            try {
+                Thread.sleep(this.delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Map<String, ClassAnnotationInformation<A, String>> result = new HashMap<>();
+            for (String className : this.classNames) {
+                result.put(className, new ClassAnnotationInformation<>(this.annotationType, Collections.singletonList(this.value), Collections.emptyMap(), Collections.emptyMap()));
+            }
+            return result;
+        }
+
+        @Override
+        protected String fromAnnotation(AnnotationInstance annotationInstance, PropertyReplacer propertyReplacer) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
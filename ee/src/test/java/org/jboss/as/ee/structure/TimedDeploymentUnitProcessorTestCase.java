@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.structure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.as.server.deployment.DeploymentPhaseContext;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TimedDeploymentUnitProcessor}.
+ * @author agent
+ */
+public class TimedDeploymentUnitProcessorTestCase {
+
+    @Test
+    public void decorate() {
+        DeploymentUnitProcessor processor = mock(DeploymentUnitProcessor.class);
+
+        // Deployment processing statistics are disabled by default
+        assertSame(processor, TimedDeploymentUnitProcessor.decorate(processor));
+    }
+
+    @Test
+    public void deploy() throws DeploymentUnitProcessingException {
+        DeploymentPhaseContext context = mock(DeploymentPhaseContext.class);
+        DeploymentUnit unit = mock(DeploymentUnit.class);
+        List<DeploymentUnit> units = new ArrayList<>();
+        List<Long> times = new ArrayList<>();
+        DeploymentUnitProcessor processor = new TimedDeploymentUnitProcessor(new SleepingProcessor(20), (u, elapsed) -> {
+            units.add(u);
+            times.add(elapsed);
+        });
+
+        when(context.getDeploymentUnit()).thenReturn(unit);
+
+        processor.deploy(context);
+
+        assertEquals(1, units.size());
+        assertSame(unit, units.get(0));
+        assertTrue(times.toString(), times.get(0) >= 20);
+    }
+
+    @Test
+    public void deployFailure() throws DeploymentUnitProcessingException {
+        DeploymentPhaseContext context = mock(DeploymentPhaseContext.class);
+        DeploymentUnit unit = mock(DeploymentUnit.class);
+        DeploymentUnitProcessor failingProcessor = mock(DeploymentUnitProcessor.class);
+        DeploymentUnitProcessingException exception = new DeploymentUnitProcessingException("failed");
+        List<Long> times = new ArrayList<>();
+        DeploymentUnitProcessor processor = new TimedDeploymentUnitProcessor(failingProcessor, (u, elapsed) -> times.add(elapsed));
+
+        when(context.getDeploymentUnit()).thenReturn(unit);
+        doThrow(exception).when(failingProcessor).deploy(context);
+
+        try {
+            processor.deploy(context);
+            throw new AssertionError();
+        } catch (DeploymentUnitProcessingException e) {
+            assertSame(exception, e);
+        }
+
+        // Time spent by a failed processor is still recorded
+        assertEquals(1, times.size());
+    }
+
+    @Test
+    public void undeploy() {
+        DeploymentUnit unit = mock(DeploymentUnit.class);
+        DeploymentUnitProcessor decorated = mock(DeploymentUnitProcessor.class);
+        List<Long> times = new ArrayList<>();
+        DeploymentUnitProcessor processor = new TimedDeploymentUnitProcessor(decorated, (u, elapsed) -> times.add(elapsed));
+
+        processor.undeploy(unit);
+
+        verify(decorated).undeploy(unit);
+        assertTrue(times.isEmpty());
+    }
+
+    private static class SleepingProcessor implements DeploymentUnitProcessor {
+        private final long millis;
+
+        SleepingProcessor(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public void deploy(DeploymentPhaseContext context) {
+            try {
+                Thread.sleep(this.millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void undeploy(DeploymentUnit unit) {
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.subsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelType;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link EeDeploymentDefinition}.
+ * @author agent
+ */
+public class EeDeploymentDefinitionTestCase {
+
+    @Test
+    public void processingTime() {
+        assertEquals("processing-time", EeDeploymentDefinition.PROCESSING_TIME.getName());
+        assertEquals(ModelType.OBJECT, EeDeploymentDefinition.PROCESSING_TIME.getType());
+        assertEquals(MeasurementUnit.MILLISECONDS, EeDeploymentDefinition.PROCESSING_TIME.getMeasurementUnit());
+        assertFalse(EeDeploymentDefinition.PROCESSING_TIME.isRequired());
+        assertTrue(EeDeploymentDefinition.PROCESSING_TIME.getFlags().contains(AttributeAccess.Flag.STORAGE_RUNTIME));
+    }
+
+    @Test
+    public void registerAttributes() {
+        ManagementResourceRegistration registration = mock(ManagementResourceRegistration.class);
+
+        EeDeploymentDefinition.INSTANCE.registerAttributes(registration);
+
+        verify(registration).registerReadOnlyAttribute(EeDeploymentDefinition.PROCESSING_TIME, null);
+    }
+
+    @Test
+    public void descriptions() {
+        ResourceDescriptionResolver resolver = EeExtension.getResourceDescriptionResolver("deployment");
+        ResourceBundle bundle = resolver.getResourceBundle(Locale.ENGLISH);
+
+        assertTrue(resolver.getResourceDescription(Locale.ENGLISH, bundle).contains("EJB3"));
+        // Processors of the EJB3 subsystem also record their processing time within the EE subsystem resource of a deployment
+        assertTrue(resolver.getResourceAttributeDescription(EeDeploymentDefinition.PROCESSING_TIME.getName(), Locale.ENGLISH, bundle).contains("EJB3"));
+    }
+}
@@ -94,6 +94,23 @@ public interface Cache<K, V extends Identifiable<K>> extends AffinitySupport<K>,
 
     int getTotalSize();
 
+    /**
+     * Returns the number of idle objects evicted from memory in order to keep this cache within its bounds.
+     * @return a number of evicted objects
+     */
+    default long getEvictionCount() {
+        return 0L;
+    }
+
+    /**
+     * Returns the time spent passivating an evicted object at the specified percentile.
+     * @param percentile a percentile between 0 and 100
+     * @return a duration in microseconds, or 0 if this cache does not track passivation latency
+     */
+    default long getPassivationTimePercentile(double percentile) {
+        return 0L;
+    }
+
     /**
      * Checks whether the supplied {@link Throwable} is remotable meaning it can be safely sent to the client over the wire.
      */
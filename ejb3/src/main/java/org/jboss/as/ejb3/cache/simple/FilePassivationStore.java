@@ -0,0 +1,183 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.cache.simple;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
+
+/**
+ * Passivates bean instances to files within a local directory, using the same marshaller as a distributable cache.
+ *
+ * @param <K> the bean identifier type
+ * @param <V> the bean instance type
+ * @author agent
+ */
+public class FilePassivationStore<K, V> implements AutoCloseable {
+
+    static class Passivation {
+        private final Path file;
+        private final long expiration;
+
+        Passivation(Path file, long expiration) {
+            this.file = file;
+            this.expiration = expiration;
+        }
+
+        Path getFile() {
+            return this.file;
+        }
+
+        long getExpiration() {
+            return this.expiration;
+        }
+    }
+
+    private final Path parent;
+    private final ByteBufferMarshaller marshaller;
+    private final Map<K, Passivation> passivations = new ConcurrentHashMap<>();
+    private volatile Path directory;
+
+    public FilePassivationStore(Path parent, ByteBufferMarshaller marshaller) {
+        this.parent = parent;
+        this.marshaller = marshaller;
+    }
+
+    /**
+     * Passivates the specified bean instance.
+     * @param id a bean identifier
+     * @param value a bean instance
+     * @param expiration the time, in milliseconds since the epoch, at which the passivated bean expires
+     * @throws IOException if the bean instance could not be written
+     */
+    public void store(K id, V value, long expiration) throws IOException {
+        Path file = this.getDirectory().resolve(UUID.randomUUID().toString());
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(file))) {
+            this.marshaller.writeTo(output, value);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        this.passivations.put(id, new Passivation(file, expiration));
+    }
+
+    /**
+     * Activates the bean instance with the specified identifier, removing it from this store.
+     * @param id a bean identifier
+     * @return the activated bean instance, or null if no such bean was passivated
+     * @throws IOException if the bean instance could not be read, e.g. if a class of the bean instance could not be resolved
+     */
+    public V load(K id) throws IOException {
+        Passivation passivation = this.passivations.remove(id);
+        if (passivation == null) return null;
+        Path file = passivation.getFile();
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(file))) {
+            @SuppressWarnings("unchecked")
+            V value = (V) this.marshaller.readFrom(input);
+            return value;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Returns the passivation details of the bean with the specified identifier.
+     * @param id a bean identifier
+     * @return the passivation details, or null if no such bean was passivated
+     */
+    Passivation get(K id) {
+        return this.passivations.get(id);
+    }
+
+    /**
+     * Indicates whether a bean with the specified identifier is passivated.
+     * @param id a bean identifier
+     * @return true, if the bean is passivated, false otherwise
+     */
+    public boolean contains(K id) {
+        return this.passivations.containsKey(id);
+    }
+
+    /**
+     * Removes the passivated bean with the specified identifier, if it exists.
+     * @param id a bean identifier
+     * @return true, if a passivated bean was removed, false otherwise
+     */
+    public boolean remove(K id) {
+        Passivation passivation = this.passivations.remove(id);
+        if (passivation == null) return false;
+        try {
+            Files.deleteIfExists(passivation.getFile());
+        } catch (IOException e) {
+            passivation.getFile().toFile().deleteOnExit();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of passivated beans.
+     * @return a number of beans
+     */
+    public int size() {
+        return this.passivations.size();
+    }
+
+    @Override
+    public void close() {
+        for (K id : this.passivations.keySet()) {
+            this.remove(id);
+        }
+        Path directory = this.directory;
+        if (directory != null) {
+            try {
+                Files.deleteIfExists(directory);
+            } catch (IOException e) {
+                directory.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    private Path getDirectory() throws IOException {
+        Path directory = this.directory;
+        if (directory == null) {
+            synchronized (this) {
+                directory = this.directory;
+                if (directory == null) {
+                    Files.createDirectories(this.parent);
+                    directory = Files.createTempDirectory(this.parent, "sfsb");
+                    this.directory = directory;
+                }
+            }
+        }
+        return directory;
+    }
+}
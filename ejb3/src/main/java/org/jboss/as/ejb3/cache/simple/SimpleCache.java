@@ -21,70 +21,124 @@
  */
 package org.jboss.as.ejb3.cache.simple;
 
-import java.time.Duration;
-import java.time.Instant;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.jboss.as.ejb3.cache.Cache;
 import org.jboss.as.ejb3.cache.Identifiable;
 import org.jboss.as.ejb3.cache.StatefulObjectFactory;
+import org.jboss.as.ejb3.component.invocationmetrics.LatencyHistogram;
 import org.jboss.as.ejb3.component.stateful.StatefulTimeoutInfo;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.server.ServerEnvironment;
 import org.jboss.ejb.client.Affinity;
 import org.jboss.ejb.client.NodeAffinity;
-import org.wildfly.clustering.ee.Scheduler;
-import org.wildfly.clustering.ee.cache.scheduler.LinkedScheduledEntries;
-import org.wildfly.clustering.ee.cache.scheduler.LocalScheduler;
 import org.wildfly.clustering.ejb.IdentifierFactory;
+import org.wildfly.clustering.ejb.PassivationListener;
 
 /**
- * Simple {@link Cache} implementation using in-memory storage and eager expiration.
+ * Simple {@link Cache} implementation using in-memory storage, optionally bounded by a maximum size and/or heap occupancy.
+ * <p>
+ * Idle beans expire via a timing wheel, i.e. a map of buckets of bean identifiers keyed by the tick of their expiration.
+ * Accessing a bean does not cancel its expiration; the sweeper instead re-files any bean that was used since it was bucketed.
+ * The sweeper runs on an executor shared by all caches of a given cache factory builder.
+ * When a bound is exceeded, the least recently used of a sample of idle beans is evicted, and either passivated to a local {@link FilePassivationStore}, or removed.
  *
  * @param <K> the cache key type
  * @param <V> the cache value type
  * @author Paul Ferraro
  */
-public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V>, Predicate<K> {
+public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
+
+    // The maximum number of idle beans considered when choosing an eviction victim
+    private static final int EVICTION_SAMPLE_SIZE = 16;
+    private static final long MAX_TICK_MILLIS = TimeUnit.SECONDS.toMillis(1);
 
     private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Queue<K>> buckets = new ConcurrentHashMap<>();
     private final StatefulObjectFactory<V> factory;
     private final IdentifierFactory<K> identifierFactory;
-    private final Duration timeout;
+    private final PassivationListener<V> passivationListener;
+    // Timeout in milliseconds, or -1 if beans never expire
+    private final long timeout;
+    private final long tick;
+    private final int maxSize;
+    private final float maxMemoryUsage;
+    private final FilePassivationStore<K, V> store;
     private final ServerEnvironment environment;
-    private final Scheduler<K, Instant> scheduler = new LocalScheduler<>(new LinkedScheduledEntries<>(), this, Duration.ZERO);
+    private final ScheduledExecutorService executor;
+    private final LongAdder evictions = new LongAdder();
+    private final LatencyHistogram passivationTime = new LatencyHistogram();
+    // The last tick whose bucket was swept
+    private volatile long sweptTick;
+    private volatile ScheduledFuture<?> sweeper;
+
+    public SimpleCache(StatefulObjectFactory<V> factory, IdentifierFactory<K> identifierFactory, StatefulTimeoutInfo timeout, ServerEnvironment environment, ScheduledExecutorService executor) {
+        this(factory, identifierFactory, null, timeout, environment, executor, SimpleCacheConfiguration.UNBOUNDED);
+    }
 
-    public SimpleCache(StatefulObjectFactory<V> factory, IdentifierFactory<K> identifierFactory, StatefulTimeoutInfo timeout, ServerEnvironment environment) {
+    public SimpleCache(StatefulObjectFactory<V> factory, IdentifierFactory<K> identifierFactory, PassivationListener<V> passivationListener, StatefulTimeoutInfo timeout, ServerEnvironment environment, ScheduledExecutorService executor, SimpleCacheConfiguration configuration) {
         this.factory = factory;
         this.identifierFactory = identifierFactory;
+        this.passivationListener = passivationListener;
 
         // A value of -1 means the bean will never be removed due to timeout
         if (timeout == null || timeout.getValue() < 0) {
-            this.timeout = null;
+            this.timeout = -1L;
         } else {
-            this.timeout = Duration.ofMillis(TimeUnit.MILLISECONDS.convert(timeout.getValue(), timeout.getTimeUnit()));
+            this.timeout = TimeUnit.MILLISECONDS.convert(timeout.getValue(), timeout.getTimeUnit());
         }
+        this.tick = Math.max(1L, Math.min(this.timeout, MAX_TICK_MILLIS));
 
         this.environment = environment;
+        this.executor = executor;
+        this.maxSize = configuration.getMaxSize();
+        this.maxMemoryUsage = configuration.getMaxMemoryUsage();
+        this.store = (configuration.getPassivationDirectory() != null) ? new FilePassivationStore<>(configuration.getPassivationDirectory(), configuration.getMarshaller()) : null;
     }
 
     @Override
     public void start() {
-        // Do nothing
+        // Expiration is only scheduled for non-zero timeouts, since beans with a 0 timeout are removed on release
+        if (this.timeout > 0) {
+            this.sweptTick = this.tick(System.currentTimeMillis()) - 1;
+            this.sweeper = this.executor.scheduleWithFixedDelay(this::sweep, this.tick, this.tick, TimeUnit.MILLISECONDS);
+        }
     }
 
     @Override
     public void stop() {
-        this.scheduler.close();
-        for (Map.Entry<K, Entry<V>> entry : this.entries.entrySet()) {
-            this.factory.destroyInstance(entry.getValue().getValue());
+        ScheduledFuture<?> sweeper = this.sweeper;
+        if (sweeper != null) {
+            sweeper.cancel(false);
+            this.sweeper = null;
+        }
+        // Remove each entry individually, so that a sweep that is still in progress cannot destroy the same bean
+        for (K id : this.entries.keySet()) {
+            Entry<V> entry = this.entries.remove(id);
+            if (entry != null) {
+                entry.invalidate();
+                this.factory.destroyInstance(entry.getValue());
+            }
+        }
+        this.buckets.clear();
+        if (this.store != null) {
+            this.store.close();
         }
-        this.entries.clear();
     }
 
     @Override
@@ -108,6 +162,9 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V>, P
             // An SFSB that uses a distributable cache cannot contain an SFSB that uses a simple cache
             throw EjbLogger.ROOT_LOGGER.incompatibleCaches();
         }
+        if (((this.maxSize > 0) && (this.entries.size() >= this.maxSize)) || ((this.maxMemoryUsage > 0) && (HeapUsage.get() > this.maxMemoryUsage))) {
+            this.evict();
+        }
         V bean = this.factory.createInstance();
         this.entries.put(bean.getId(), new Entry<>(bean));
         return bean;
@@ -123,31 +180,42 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V>, P
         Entry<V> entry = this.entries.remove(key);
         if (entry != null) {
             this.factory.destroyInstance(entry.getValue());
+        } else if (this.store != null) {
+            this.store.remove(key);
         }
     }
 
     @Override
     public V get(K key) {
-        Entry<V> entry = this.entries.get(key);
-        if (entry == null) return null;
-        this.scheduler.cancel(key);
-        entry.use();
-        return entry.getValue();
+        while (true) {
+            Entry<V> entry = this.entries.get(key);
+            if (entry == null) {
+                entry = this.activate(key);
+                if (entry == null) return null;
+            }
+            int usage = entry.tryUse();
+            if (usage > 0) return entry.getValue();
+            // Entry is being expired, evicted, or activated, so wait until it is either unlocked or removed
+            entry.await();
+        }
     }
 
     @Override
     public boolean contains(K key) {
-        return this.entries.containsKey(key);
+        return this.entries.containsKey(key) || ((this.store != null) && this.store.contains(key));
     }
 
     @Override
     public void release(V bean) {
         K id = bean.getId();
         Entry<V> entry = this.entries.get(id);
-        if ((entry != null) && entry.done()) {
-            if (this.timeout != null) {
-                if (!this.timeout.isZero()) {
-                    this.scheduler.schedule(id, Instant.now().plus(this.timeout));
+        if (entry != null) {
+            // Record last use before releasing, so that a concurrent sweep observes it
+            long now = System.currentTimeMillis();
+            entry.setLastUsed(now);
+            if (entry.done() && (this.timeout >= 0)) {
+                if (this.timeout > 0) {
+                    this.schedule(id, entry, now + this.timeout);
                 } else {
                     // The Jakarta Enterprise Beans specification allows a 0 timeout, which means the bean is immediately eligible for removal.
                     // However, removing it directly is faster than scheduling it for immediate removal.
@@ -164,38 +232,307 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V>, P
 
     @Override
     public int getPassivatedCount() {
-        return 0;
+        return (this.store != null) ? this.store.size() : 0;
     }
 
     @Override
     public int getTotalSize() {
-        return this.getCacheSize();
+        return this.getCacheSize() + this.getPassivatedCount();
     }
 
     @Override
-    public boolean test(K key) {
-        this.remove(key);
-        return true;
+    public long getEvictionCount() {
+        return this.evictions.sum();
+    }
+
+    @Override
+    public long getPassivationTimePercentile(double percentile) {
+        return this.passivationTime.getValueAtPercentile(percentile);
+    }
+
+    private long tick(long time) {
+        return time / this.tick;
+    }
+
+    private void schedule(K id, Entry<V> entry, long expiration) {
+        long tick = Math.max(this.tick(expiration), this.sweptTick + 1);
+        if (entry != null) {
+            entry.setTick(tick);
+        }
+        this.buckets.computeIfAbsent(tick, key -> new ConcurrentLinkedQueue<>()).add(id);
+        // If the sweeper overtook us, our bucket may already have been drained, so re-file into the next bucket
+        // Duplicates are harmless, since only the bucket matching the entry's tick is honored
+        if (tick <= this.sweptTick) {
+            this.schedule(id, entry, expiration);
+        }
+    }
+
+    private void sweep() {
+        try {
+            long now = System.currentTimeMillis();
+            long current = this.tick(now);
+            // Sweep all elapsed ticks
+            for (long tick = this.sweptTick + 1; tick < current; ++tick) {
+                this.sweptTick = tick;
+                Queue<K> bucket = this.buckets.remove(tick);
+                if (bucket != null) {
+                    for (K id : bucket) {
+                        this.expire(id, tick, now);
+                    }
+                }
+            }
+        } catch (Throwable e) {
+            EjbLogger.ROOT_LOGGER.failedToRunTimeoutTask(e, this::sweep);
+        }
+    }
+
+    private void expire(K id, long tick, long now) {
+        Entry<V> entry = this.entries.get(id);
+        if (entry == null) {
+            FilePassivationStore.Passivation passivation = (this.store != null) ? this.store.get(id) : null;
+            if (passivation != null) {
+                if (passivation.getExpiration() <= now) {
+                    // A passivated bean that times out is removed without invoking its callbacks, per section 4.6.3 of the specification
+                    this.store.remove(id);
+                } else {
+                    this.schedule(id, null, passivation.getExpiration());
+                }
+            }
+            return;
+        }
+        // Ignore stale bucket entries, and entries in use, which will be re-scheduled on release
+        if ((entry.getTick() != tick) || (entry.getUsage() != 0)) return;
+        long expiration = entry.getLastUsed() + this.timeout;
+        if (expiration > now) {
+            // Bean was used since it was scheduled
+            this.schedule(id, entry, expiration);
+        } else if (entry.tryLock()) {
+            // Re-check last use, since the bean may have been used and released since our first read
+            expiration = entry.getLastUsed() + this.timeout;
+            if (expiration > now) {
+                entry.unlock();
+                this.schedule(id, entry, expiration);
+            } else if (this.entries.remove(id, entry)) {
+                entry.invalidate();
+                this.factory.destroyInstance(entry.getValue());
+            }
+        }
+    }
+
+    private void evict() {
+        K victim = null;
+        Entry<V> victimEntry = null;
+        int sampled = 0;
+        Iterator<Map.Entry<K, Entry<V>>> entries = this.entries.entrySet().iterator();
+        while (entries.hasNext() && (sampled < EVICTION_SAMPLE_SIZE)) {
+            Map.Entry<K, Entry<V>> candidate = entries.next();
+            Entry<V> entry = candidate.getValue();
+            if (entry.getUsage() == 0) {
+                sampled += 1;
+                if ((victimEntry == null) || (entry.getLastUsed() < victimEntry.getLastUsed())) {
+                    victim = candidate.getKey();
+                    victimEntry = entry;
+                }
+            }
+        }
+        // If every bean is in use, let the cache temporarily exceed its bounds
+        if ((victimEntry == null) || !victimEntry.tryLock()) return;
+
+        V bean = victimEntry.getValue();
+        if ((this.store != null) && (this.passivationListener != null)) {
+            long start = System.nanoTime();
+            try {
+                this.passivationListener.prePassivate(bean);
+            } catch (RuntimeException e) {
+                // A bean whose passivation callback fails is discarded
+                EjbLogger.ROOT_LOGGER.failedToPassivateEvictedBean(e, victim);
+                this.discard(victim, victimEntry);
+                return;
+            }
+            try {
+                long expiration = (this.timeout > 0) ? victimEntry.getLastUsed() + this.timeout : Long.MAX_VALUE;
+                this.store.store(victim, bean, expiration);
+                this.entries.remove(victim, victimEntry);
+                victimEntry.invalidate();
+                if (this.timeout > 0) {
+                    // Bean may not yet have been scheduled for expiration
+                    this.schedule(victim, null, expiration);
+                }
+                this.passivationTime.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                this.evictions.increment();
+            } catch (IOException | RuntimeException e) {
+                // Retain a bean that could not be stored, letting the cache temporarily exceed its bounds
+                EjbLogger.ROOT_LOGGER.failedToPassivateEvictedBean(e, victim);
+                try {
+                    this.passivationListener.postActivate(bean);
+                    victimEntry.unlock();
+                } catch (RuntimeException ex) {
+                    this.discard(victim, victimEntry);
+                }
+            }
+            return;
+        }
+        this.discard(victim, victimEntry);
+    }
+
+    private void discard(K victim, Entry<V> victimEntry) {
+        if (this.entries.remove(victim, victimEntry)) {
+            victimEntry.invalidate();
+            this.factory.destroyInstance(victimEntry.getValue());
+            this.evictions.increment();
+        }
+    }
+
+    private Entry<V> activate(K id) {
+        if ((this.store == null) || !this.store.contains(id)) return null;
+        Entry<V> entry = this.entries.computeIfAbsent(id, key -> {
+            try {
+                V bean = this.store.load(key);
+                return (bean != null) ? new Entry<>(bean, -1) : null;
+            } catch (IOException e) {
+                throw EjbLogger.ROOT_LOGGER.activationFailed(e, key);
+            }
+        });
+        // Only the activating thread observes an unreleased lock
+        if ((entry != null) && (entry.getUsage() < 0) && (this.entries.get(id) == entry) && entry.tryActivate()) {
+            try {
+                this.passivationListener.postActivate(entry.getValue());
+            } finally {
+                entry.unlock();
+            }
+        }
+        return entry;
     }
 
     static class Entry<V> {
+        private static final int LOCKED = -1;
+        private static final int ACTIVATING = -2;
+
         private final V value;
-        private final AtomicInteger usage = new AtomicInteger();
+        // Number of concurrent users, or LOCKED if being expired or evicted, or ACTIVATING if awaiting activation
+        private final AtomicInteger usage;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile long tick;
+        // Indicates that this entry was removed from the cache while locked
+        private volatile boolean invalid = false;
 
         Entry(V value) {
+            this(value, 0);
+        }
+
+        Entry(V value, int usage) {
             this.value = value;
+            this.usage = new AtomicInteger((usage < 0) ? ACTIVATING : usage);
         }
 
-        void use() {
-            this.usage.incrementAndGet();
+        int tryUse() {
+            int usage = this.usage.get();
+            while (usage >= 0) {
+                if (this.usage.compareAndSet(usage, usage + 1)) return usage + 1;
+                usage = this.usage.get();
+            }
+            return usage;
         }
 
         boolean done() {
             return this.usage.decrementAndGet() == 0;
         }
 
+        int getUsage() {
+            return this.usage.get();
+        }
+
+        boolean tryLock() {
+            return this.usage.compareAndSet(0, LOCKED);
+        }
+
+        boolean tryActivate() {
+            return this.usage.compareAndSet(ACTIVATING, LOCKED);
+        }
+
+        void unlock() {
+            this.usage.set(0);
+            this.signal();
+        }
+
+        void invalidate() {
+            this.invalid = true;
+            this.signal();
+        }
+
+        private synchronized void signal() {
+            this.notifyAll();
+        }
+
+        /**
+         * Waits until this entry is either unlocked or invalidated.
+         */
+        synchronized void await() {
+            boolean interrupted = false;
+            try {
+                while ((this.usage.get() < 0) && !this.invalid) {
+                    try {
+                        this.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        long getLastUsed() {
+            return this.lastUsed;
+        }
+
+        void setLastUsed(long lastUsed) {
+            this.lastUsed = lastUsed;
+        }
+
+        long getTick() {
+            return this.tick;
+        }
+
+        void setTick(long tick) {
+            this.tick = tick;
+        }
+
         V getValue() {
             return this.value;
         }
     }
+
+    /**
+     * Tracks the occupancy of the heap, as measured after the most recent garbage collection of each heap memory pool.
+     * Post-collection usage is insensitive to garbage awaiting collection, and is cached briefly since it changes only on collection.
+     */
+    static class HeapUsage {
+        private static final long REFRESH_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+        private static volatile long timestamp = Long.MIN_VALUE;
+        private static volatile float usage;
+
+        static float get() {
+            long now = System.currentTimeMillis();
+            if (now - timestamp > REFRESH_INTERVAL_MILLIS) {
+                long used = 0;
+                long max = 0;
+                for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                    if ((pool.getType() == MemoryType.HEAP) && pool.isCollectionUsageThresholdSupported()) {
+                        MemoryUsage collectionUsage = pool.getCollectionUsage();
+                        if ((collectionUsage != null) && (collectionUsage.getMax() > 0)) {
+                            used += collectionUsage.getUsed();
+                            max += collectionUsage.getMax();
+                        }
+                    }
+                }
+                usage = (max > 0) ? (float) used / max : 0f;
+                timestamp = now;
+            }
+            return usage;
+        }
+    }
 }
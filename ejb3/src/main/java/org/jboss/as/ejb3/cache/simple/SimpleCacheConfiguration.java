@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.cache.simple;
+
+import java.nio.file.Path;
+
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
+
+/**
+ * Configures the bounds of a {@link SimpleCache}.
+ *
+ * @author agent
+ */
+public interface SimpleCacheConfiguration {
+
+    /**
+     * A configuration of an unbounded cache.
+     */
+    SimpleCacheConfiguration UNBOUNDED = new SimpleCacheConfiguration() {
+        @Override
+        public int getMaxSize() {
+            return 0;
+        }
+
+        @Override
+        public float getMaxMemoryUsage() {
+            return 0f;
+        }
+
+        @Override
+        public Path getPassivationDirectory() {
+            return null;
+        }
+
+        @Override
+        public ByteBufferMarshaller getMarshaller() {
+            return null;
+        }
+    };
+
+    /**
+     * Returns the maximum number of bean instances retained in memory, beyond which idle instances are evicted.
+     * @return a number of bean instances, or a non-positive value if unbounded
+     */
+    int getMaxSize();
+
+    /**
+     * Returns the fraction of the maximum heap, as measured after the most recent garbage collection, beyond which the cache stops growing by evicting an idle instance per created instance.
+     * @return a fraction between 0 and 1, or a non-positive value if the cache is not memory-aware
+     */
+    float getMaxMemoryUsage();
+
+    /**
+     * Returns the directory beneath which evicted bean instances are passivated.
+     * @return a directory, or null if evicted bean instances are to be removed
+     */
+    Path getPassivationDirectory();
+
+    /**
+     * Returns the marshaller of passivated bean instances, i.e. the versioned marshalling configuration of the deployment also used by distributable caches.
+     * @return a marshaller, or null if evicted bean instances are to be removed
+     */
+    ByteBufferMarshaller getMarshaller();
+}
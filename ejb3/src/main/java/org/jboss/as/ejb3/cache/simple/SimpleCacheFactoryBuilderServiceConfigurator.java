@@ -22,8 +22,14 @@
 package org.jboss.as.ejb3.cache.simple;
 
 import java.util.Collections;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+import org.jboss.as.clustering.context.DefaultExecutorService;
+import org.jboss.as.clustering.context.DefaultThreadFactory;
 import org.jboss.as.clustering.controller.CapabilityServiceConfigurator;
 import org.jboss.as.ee.component.ComponentConfiguration;
 import org.jboss.as.ejb3.cache.CacheFactoryBuilder;
@@ -36,28 +42,51 @@ import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
+import org.wildfly.clustering.service.FunctionalService;
 import org.wildfly.clustering.service.ServiceConfigurator;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Service that provides a simple {@link CacheFactoryBuilder}.
+ * Expiration of the beans of every cache created via this builder is scheduled using a single shared executor.
  *
  * @author Paul Ferraro
  *
  * @param <K> the cache key type
  * @param <V> the cache value type
  */
-public class SimpleCacheFactoryBuilderServiceConfigurator<K, V extends Identifiable<K>> extends CacheFactoryBuilderServiceNameProvider implements ServiceConfigurator, CacheFactoryBuilder<K, V> {
+public class SimpleCacheFactoryBuilderServiceConfigurator<K, V extends Identifiable<K>> extends CacheFactoryBuilderServiceNameProvider implements ServiceConfigurator, CacheFactoryBuilder<K, V>, Function<ScheduledExecutorService, CacheFactoryBuilder<K, V>>, Supplier<ScheduledExecutorService>, Consumer<ScheduledExecutorService> {
+
+    private volatile ScheduledExecutorService executor;
 
     public SimpleCacheFactoryBuilderServiceConfigurator(String name) {
         super(name);
     }
 
+    @Override
+    public ScheduledExecutorService get() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new DefaultThreadFactory(SimpleCache.class));
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    @Override
+    public CacheFactoryBuilder<K, V> apply(ScheduledExecutorService executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    @Override
+    public void accept(ScheduledExecutorService executor) {
+        WildFlySecurityManager.doUnchecked(executor, DefaultExecutorService.SHUTDOWN_NOW_ACTION);
+    }
+
     @Override
     public ServiceBuilder<?> build(ServiceTarget target) {
         ServiceName name = this.getServiceName();
         ServiceBuilder<?> builder = target.addService(name);
         Consumer<CacheFactoryBuilder<K, V>> cacheFactoryBuilder = builder.provides(name);
-        Service service = Service.newInstance(cacheFactoryBuilder, this);
+        Service service = new FunctionalService<>(cacheFactoryBuilder, this, this, this);
         return builder.setInstance(service).setInitialMode(ServiceController.Mode.ON_DEMAND);
     }
 
@@ -68,7 +97,7 @@ public class SimpleCacheFactoryBuilderServiceConfigurator<K, V extends Identifia
 
     @Override
     public CapabilityServiceConfigurator getServiceConfigurator(ServiceName name, StatefulComponentDescription description, ComponentConfiguration configuration) {
-        return new SimpleCacheFactoryServiceConfigurator<>(name, description);
+        return new SimpleCacheFactoryServiceConfigurator<>(name, description, configuration.getModuleClassLoader(), this.getServiceName(), this.executor);
     }
 
     @Override
@@ -21,6 +21,8 @@
  */
 package org.jboss.as.ejb3.cache.simple;
 
+import java.nio.file.Path;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 
 import org.jboss.as.clustering.controller.CapabilityServiceConfigurator;
@@ -38,9 +40,16 @@ import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
 import org.wildfly.clustering.ejb.IdentifierFactory;
 import org.wildfly.clustering.ejb.PassivationListener;
+import org.wildfly.clustering.marshalling.jboss.JBossByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.jboss.MarshallingConfigurationRepository;
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
+import org.wildfly.clustering.service.CompositeDependency;
+import org.wildfly.clustering.service.Dependency;
+import org.wildfly.clustering.service.ServiceDependency;
 import org.wildfly.clustering.service.ServiceSupplierDependency;
 import org.wildfly.clustering.service.SimpleServiceNameProvider;
 import org.wildfly.clustering.service.SupplierDependency;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Service that provides a simple {@link CacheFactory}.
@@ -49,21 +58,35 @@ import org.wildfly.clustering.service.SupplierDependency;
  * @param <V> the cache value type
  * @author Paul Ferraro
  */
-public class SimpleCacheFactoryServiceConfigurator<K, V extends Identifiable<K>> extends SimpleServiceNameProvider implements CapabilityServiceConfigurator, CacheFactory<K, V> {
+public class SimpleCacheFactoryServiceConfigurator<K, V extends Identifiable<K>> extends SimpleServiceNameProvider implements CapabilityServiceConfigurator, CacheFactory<K, V>, SimpleCacheConfiguration {
+
+    private static final String MAX_SIZE = "jboss.ejb.stateful.simple-cache.max-size";
+    private static final String MAX_MEMORY_USAGE = "jboss.ejb.stateful.simple-cache.max-memory-usage";
+    private static final String PASSIVATION = "jboss.ejb.stateful.simple-cache.passivation";
+    private static final String PASSIVATION_DIRECTORY = "ejb3-simple-cache";
 
     private final StatefulComponentDescription componentDescription;
     private final SupplierDependency<ServerEnvironment> environment = new ServiceSupplierDependency<>(ServerEnvironmentService.SERVICE_NAME);
+    private final SupplierDependency<MarshallingConfigurationRepository> repository;
+    private final ClassLoader loader;
+    // The executor is owned by the cache factory builder service, on which this service depends
+    private final Dependency builder;
+    private final ScheduledExecutorService executor;
 
-    public SimpleCacheFactoryServiceConfigurator(ServiceName name, StatefulComponentDescription description) {
+    public SimpleCacheFactoryServiceConfigurator(ServiceName name, StatefulComponentDescription description, ClassLoader loader, ServiceName builderName, ScheduledExecutorService executor) {
         super(name);
         this.componentDescription = description;
+        this.loader = loader;
+        this.repository = new ServiceSupplierDependency<>(description.getDeploymentUnitServiceName().append("marshalling"));
+        this.builder = new ServiceDependency(builderName);
+        this.executor = executor;
     }
 
     @Override
     public ServiceBuilder<?> build(ServiceTarget target) {
         ServiceName name = this.getServiceName();
         ServiceBuilder<?> builder = target.addService(name);
-        Consumer<CacheFactory<K, V>> factory = this.environment.register(builder).provides(name);
+        Consumer<CacheFactory<K, V>> factory = new CompositeDependency(this.environment, this.repository, this.builder).register(builder).provides(name);
         Service service = Service.newInstance(factory, this);
         return builder.setInstance(service);
     }
@@ -71,6 +94,29 @@ public class SimpleCacheFactoryServiceConfigurator<K, V extends Identifiable<K>>
     @Override
     public Cache<K, V> createCache(IdentifierFactory<K> identifierFactory, StatefulObjectFactory<V> factory, PassivationListener<V> passivationListener) {
         final StatefulTimeoutInfo timeout = this.componentDescription.getStatefulTimeout();
-        return new SimpleCache<>(factory, identifierFactory, this.componentDescription.getStatefulTimeout(), this.environment.get());
+        return new SimpleCache<>(factory, identifierFactory, passivationListener, timeout, this.environment.get(), this.executor, this);
+    }
+
+    @Override
+    public int getMaxSize() {
+        return Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged(MAX_SIZE, "0"));
+    }
+
+    @Override
+    public float getMaxMemoryUsage() {
+        return Float.parseFloat(WildFlySecurityManager.getPropertyPrivileged(MAX_MEMORY_USAGE, "0"));
+    }
+
+    @Override
+    public Path getPassivationDirectory() {
+        // Passivation requires a bound, otherwise beans are never evicted
+        // Beans of a component that is not passivation capable are instead evicted by removal
+        boolean bounded = (this.getMaxSize() > 0) || (this.getMaxMemoryUsage() > 0);
+        return bounded && this.componentDescription.isPassivationApplicable() && Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(PASSIVATION, "false")) ? this.environment.get().getServerTempDir().toPath().resolve(PASSIVATION_DIRECTORY) : null;
+    }
+
+    @Override
+    public ByteBufferMarshaller getMarshaller() {
+        return new JBossByteBufferMarshaller(this.repository.get(), this.loader);
     }
 }
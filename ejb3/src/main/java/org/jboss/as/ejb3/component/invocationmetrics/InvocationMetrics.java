@@ -30,9 +30,14 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * Invocation metrics of an EJB component.
+ * Totals are accumulated via striped {@link LongAdder}s, so that recording an invocation neither contends nor allocates.
+ * Per-method metrics are keyed by the full method signature, so that overloaded methods are tracked separately,
+ * while methods with the same signature, e.g. bridge methods, are tracked together.
+ *
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 public class InvocationMetrics {
@@ -60,38 +65,60 @@ public class InvocationMetrics {
         }
     }
 
-    private final AtomicReference<Values> values = new AtomicReference<Values>(new Values(0, 0, 0));
-    private final AtomicLong concurrent = new AtomicLong(0);
-    private final AtomicLong peakConcurrent = new AtomicLong(0);
+    private static class Accumulator {
+        final LongAdder invocations = new LongAdder();
+        final LongAdder executionTime = new LongAdder();
+        final LongAdder waitTime = new LongAdder();
 
-    private final ConcurrentMap<String, AtomicReference<Values>> methods = new ConcurrentHashMap<String, AtomicReference<Values>>();
+        void add(final long invocationWaitTime, final long invocationExecutionTime) {
+            invocations.increment();
+            waitTime.add(invocationWaitTime);
+            executionTime.add(invocationExecutionTime);
+        }
 
-    void finishInvocation(final Method method, final long invocationWaitTime, final long invocationExecutionTime) {
-        concurrent.decrementAndGet();
-        for(;;) {
-            final Values oldv = values.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (values.compareAndSet(oldv, newv))
-                break;
+        Values getValues() {
+            return new Values(invocations.sum(), waitTime.sum(), executionTime.sum());
         }
-        final AtomicReference<Values> methodValues = ref(methods, method.getName());
-        for (;;) {
-            final Values oldv = methodValues.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (methodValues.compareAndSet(oldv, newv))
-                break;
+    }
+
+    private static class MethodAccumulator extends Accumulator {
+        final String signature;
+
+        MethodAccumulator(final String signature) {
+            this.signature = signature;
+        }
+    }
+
+    private static String signature(final Method method) {
+        final StringBuilder builder = new StringBuilder(method.getName()).append('(');
+        final Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; ++i) {
+            if (i > 0) builder.append(',');
+            builder.append(types[i].getTypeName());
         }
+        return builder.append(')').toString();
     }
 
-    private static AtomicReference<Values> ref(final ConcurrentMap<String, AtomicReference<Values>> map, final String key) {
-        AtomicReference<Values> ref = map.get(key);
-        if (ref == null) {
-            ref = new AtomicReference<Values>(new Values(0, 0, 0));
-            final AtomicReference<Values> prevRef = map.putIfAbsent(key, ref);
-            if (prevRef != null)
-                ref = prevRef;
+    private final Accumulator values = new Accumulator();
+    private final LatencyHistogram executionTimes = new LatencyHistogram();
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    private final AtomicLong concurrent = new AtomicLong(0);
+    private final AtomicLong peakConcurrent = new AtomicLong(0);
+
+    // Distinct methods sharing a signature, e.g. a bridge method and its covariant target, share a single accumulator
+    private final ConcurrentMap<String, MethodAccumulator> signatures = new ConcurrentHashMap<String, MethodAccumulator>();
+    private final ConcurrentMap<Method, MethodAccumulator> methods = new ConcurrentHashMap<Method, MethodAccumulator>();
+
+    void finishInvocation(final Method method, final long invocationWaitTime, final long invocationExecutionTime) {
+        concurrent.decrementAndGet();
+        values.add(invocationWaitTime, invocationExecutionTime);
+        waitTimes.record(invocationWaitTime);
+        executionTimes.record(invocationExecutionTime);
+        MethodAccumulator methodValues = methods.get(method);
+        if (methodValues == null) {
+            methodValues = methods.computeIfAbsent(method, m -> signatures.computeIfAbsent(signature(m), MethodAccumulator::new));
         }
-        return ref;
+        methodValues.add(invocationWaitTime, invocationExecutionTime);
     }
 
     public long getConcurrent() {
@@ -99,11 +126,20 @@ public class InvocationMetrics {
     }
 
     public long getExecutionTime() {
-        return values.get().executionTime;
+        return values.executionTime.sum();
+    }
+
+    /**
+     * Returns the execution time of an invocation at the specified percentile.
+     * @param percentile a percentile between 0 and 100
+     * @return an execution time in milliseconds
+     */
+    public long getExecutionTimePercentile(final double percentile) {
+        return executionTimes.getValueAtPercentile(percentile);
     }
 
     public long getInvocations() {
-        return values.get().invocations;
+        return values.invocations.sum();
     }
 
     public Map<String, Values> getMethods() {
@@ -113,7 +149,7 @@ public class InvocationMetrics {
                 return new AbstractSet<Entry<String, Values>>() {
                     @Override
                     public Iterator<Entry<String, Values>> iterator() {
-                        final Iterator<Entry<String, AtomicReference<Values>>> delegate = methods.entrySet().iterator();
+                        final Iterator<MethodAccumulator> delegate = signatures.values().iterator();
                         return new Iterator<Entry<String, Values>>() {
                             @Override
                             public boolean hasNext() {
@@ -122,16 +158,16 @@ public class InvocationMetrics {
 
                             @Override
                             public Entry<String, Values> next() {
-                                final Entry<String, AtomicReference<Values>> next = delegate.next();
+                                final MethodAccumulator next = delegate.next();
                                 return new Entry<String, Values>() {
                                     @Override
                                     public String getKey() {
-                                        return next.getKey();
+                                        return next.signature;
                                     }
 
                                     @Override
                                     public Values getValue() {
-                                        return next.getValue().get();
+                                        return next.getValues();
                                     }
 
                                     @Override
@@ -150,7 +186,7 @@ public class InvocationMetrics {
 
                     @Override
                     public int size() {
-                        return methods.size();
+                        return signatures.size();
                     }
                 };
             }
@@ -162,7 +198,16 @@ public class InvocationMetrics {
     }
 
     public long getWaitTime() {
-        return values.get().waitTime;
+        return values.waitTime.sum();
+    }
+
+    /**
+     * Returns the time an invocation waited to obtain an instance at the specified percentile.
+     * @param percentile a percentile between 0 and 100
+     * @return a wait time in milliseconds
+     */
+    public long getWaitTimePercentile(final double percentile) {
+        return waitTimes.getValueAtPercentile(percentile);
     }
 
     void startInvocation() {
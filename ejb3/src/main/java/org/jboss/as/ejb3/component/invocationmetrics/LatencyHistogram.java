@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, log-linear histogram of non-negative values, in the style of HdrHistogram.
+ * Values are recorded into buckets whose width doubles every {@value #SUB_BUCKETS_PER_EXPONENT} buckets,
+ * giving a relative error of at most 1/{@value #SUB_BUCKETS_PER_EXPONENT} over the full range of a long.
+ * Recording a value is a single atomic increment and never allocates.
+ *
+ * @author agent
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    // Values below this threshold are recorded exactly
+    private static final int LINEAR_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKETS_PER_EXPONENT = LINEAR_BUCKETS >> 1;
+    private static final int BUCKETS = LINEAR_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS_PER_EXPONENT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Records the specified value.
+     * @param value a non-negative value
+     */
+    public void record(long value) {
+        this.counts.incrementAndGet(index(Math.max(value, 0L)));
+    }
+
+    /**
+     * Returns the value at the specified percentile, i.e. the highest value equivalent to the bucket containing the percentile.
+     * @param percentile a percentile between 0 and 100
+     * @return the value at the specified percentile, or 0 if no values were recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            counts[i] = this.counts.get(i);
+            total += counts[i];
+        }
+        if (total == 0) return 0L;
+        long target = Math.max(1L, (long) Math.ceil(Math.min(percentile, 100d) / 100d * total));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            cumulative += counts[i];
+            if (cumulative >= target) {
+                return highestEquivalentValue(i);
+            }
+        }
+        return highestEquivalentValue(BUCKETS - 1);
+    }
+
+    static int index(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS_PER_EXPONENT;
+        return LINEAR_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS_PER_EXPONENT + subBucket;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int offset = index - LINEAR_BUCKETS;
+        int shift = (offset / SUB_BUCKETS_PER_EXPONENT) + 1;
+        long subBucket = (offset % SUB_BUCKETS_PER_EXPONENT) + SUB_BUCKETS_PER_EXPONENT;
+        long next = (subBucket + 1) << shift;
+        // Guard against overflow of the highest bucket
+        return (next > 0) ? next - 1 : Long.MAX_VALUE;
+    }
+}
@@ -22,15 +22,21 @@
 
 package org.jboss.as.ejb3.component.pool;
 
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import org.jboss.as.clustering.context.DefaultExecutorService;
+import org.jboss.as.clustering.context.DefaultThreadFactory;
 import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.strictmax.AdaptiveStrictMaxPool;
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * User: jpai
@@ -49,14 +55,22 @@ public class StrictMaxPoolConfigService implements Service<StrictMaxPoolConfig>
 
 
     public StrictMaxPoolConfigService(final String poolName, int declaredMaxSize, Derive derive, long timeout, TimeUnit timeUnit) {
+        this(poolName, declaredMaxSize, derive, timeout, timeUnit, false);
+    }
+
+    public StrictMaxPoolConfigService(final String poolName, int declaredMaxSize, Derive derive, long timeout, TimeUnit timeUnit, boolean sharded) {
         this.declaredMaxSize = declaredMaxSize;
         this.derive = derive;
-        this.poolConfig = new StrictMaxPoolConfig(poolName, declaredMaxSize, timeout, timeUnit);
+        this.poolConfig = new StrictMaxPoolConfig(poolName, declaredMaxSize, timeout, timeUnit, sharded);
     }
 
     @Override
     public void start(StartContext context) throws StartException {
         setDerive(derive);
+        // Resizing is cheap and infrequent, so a single thread can service every adaptive pool using this configuration
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new DefaultThreadFactory(AdaptiveStrictMaxPool.class));
+        executor.setRemoveOnCancelPolicy(true);
+        poolConfig.setExecutor(executor);
     }
 
     private int calcMaxFromWorkPools() {
@@ -106,9 +120,19 @@ public class StrictMaxPoolConfigService implements Service<StrictMaxPoolConfig>
         poolConfig.setTimeoutUnit(timeUnit);
     }
 
+    public void setAdaptive(boolean adaptive) {
+        poolConfig.setAdaptive(adaptive);
+    }
+
+    public void setIdleTimeout(long idleTimeout) {
+        poolConfig.setIdleTimeout(idleTimeout);
+    }
+
     @Override
     public void stop(StopContext context) {
-
+        ScheduledExecutorService executor = poolConfig.getExecutor();
+        poolConfig.setExecutor(null);
+        WildFlySecurityManager.doPrivilegedWithParameter(executor, DefaultExecutorService.SHUTDOWN_NOW_ACTION);
     }
 
     @Override
@@ -2740,7 +2740,6 @@ public interface EjbLogger extends BasicLogger {
     @Message(id = 400, value = "Failed to passivate %s")
     RuntimeException passivationFailed(@Cause Throwable cause, Object id);
 
-    @Deprecated
     @Message(id = 401, value = "Failed to activate %s")
     RuntimeException activationFailed(@Cause Throwable cause, Object id);
 
@@ -3238,4 +3237,20 @@ public interface EjbLogger extends BasicLogger {
     @Message(id = 525, value = "The 'mappedName' in Jakarta Enterprise Beans  annotations is not supported. Value of '%s' for Jakarta Enterprise Beans '%s' will be ignored.")
     void mappedNameNotSupported(String mappedName, String ejb);
 
+    @LogMessage(level = WARN)
+    @Message(id = 526, value = "Failed to evict idle instance %s from pool")
+    void failedToEvictIdleInstance(@Cause Throwable cause, Object instance);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 527, value = "Failed to run scheduled timeout task %s")
+    void failedToRunTimeoutTask(@Cause Throwable cause, Runnable task);
+
+    @LogMessage(level = WARN)
+    @Message(id = 528, value = "Discarding unreadable timer journal records in %s beyond offset %d")
+    void timerJournalTruncated(File segment, long offset);
+
+    @LogMessage(level = WARN)
+    @Message(id = 529, value = "Failed to passivate evicted stateful session bean %s; removing it instead")
+    void failedToPassivateEvictedBean(@Cause Throwable cause, Object id);
+
 }
@@ -0,0 +1,49 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool;
+
+/**
+ * A pool whose effective size adapts at runtime to its load.
+ *
+ * @author agent
+ */
+public interface AdaptivePool<T> extends Pool<T> {
+
+    /**
+     * Returns the number of instances that may currently be in use concurrently, which never exceeds {@link #getMaxSize()}.
+     * @return the current target size of this pool
+     */
+    int getTargetSize();
+
+    /**
+     * Returns the number of times the target size of this pool has changed.
+     * @return the number of resize events
+     */
+    long getResizeCount();
+
+    /**
+     * Returns the time, in microseconds, spent acquiring an instance from this pool at the specified percentile.
+     * @param percentile a percentile between 0 and 100
+     * @return an acquisition time in microseconds
+     */
+    long getAcquireTimePercentile(double percentile);
+}
@@ -0,0 +1,331 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.strictmax;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.as.ejb3.component.invocationmetrics.LatencyHistogram;
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.AdaptivePool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool with a maximum size, whose number of permits adapts to its load.
+ * The pool starts with a small number of permits, which grows towards the maximum size whenever acquisitions were observed to wait for a permit,
+ * and which shrinks again as instances, or permits never used to create an instance, remain idle for longer than the idle timeout.
+ * Resizing and eviction of idle instances are performed periodically by a background task, using the specified executor.
+ *
+ * @author agent
+ */
+public class AdaptiveStrictMaxPool<T> extends AbstractPool<T> implements AdaptivePool<T> {
+
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    static final long DEFAULT_RESIZE_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    // An acquisition that waited at least this long for a permit is considered contended
+    private static final long CONTENDED_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int MIN_SIZE = 1;
+
+    // Exposes Semaphore.reducePermits(...)
+    private static class ResizableSemaphore extends Semaphore {
+        private static final long serialVersionUID = 5452893414917018340L;
+
+        ResizableSemaphore(int permits) {
+            super(permits, false);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+
+    private static class IdleInstance<T> {
+        final T instance;
+        final long timestamp = System.nanoTime();
+
+        IdleInstance(T instance) {
+            this.instance = instance;
+        }
+    }
+
+    private final ResizableSemaphore semaphore;
+    // LIFO, so that the most recently used instances are reused first, and the least recently used instances are evicted first
+    private final Deque<IdleInstance<T>> pool = new ConcurrentLinkedDeque<>();
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    private final long idleTimeoutNanos;
+    private final long resizeIntervalMillis;
+    private final ScheduledExecutorService executor;
+
+    private final LatencyHistogram acquireTime = new LatencyHistogram();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final AtomicInteger waiting = new AtomicInteger(0);
+    private final AtomicLong resizes = new AtomicLong(0);
+    private volatile long lastContended = System.nanoTime();
+
+    // Modified only while holding the monitor of this pool
+    private volatile int maxSize;
+    private volatile int targetSize;
+
+    private volatile Future<?> resizeTask;
+
+    public AdaptiveStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit, long idleTimeout, TimeUnit idleTimeUnit, ScheduledExecutorService executor) {
+        this(factory, maxSize, Math.min(maxSize, Runtime.getRuntime().availableProcessors()), timeout, timeUnit, idleTimeout, idleTimeUnit, executor, DEFAULT_RESIZE_INTERVAL_MILLIS);
+    }
+
+    AdaptiveStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, int initialSize, long timeout, TimeUnit timeUnit, long idleTimeout, TimeUnit idleTimeUnit, ScheduledExecutorService executor, long resizeIntervalMillis) {
+        super(factory);
+        this.executor = executor;
+        this.maxSize = maxSize;
+        this.targetSize = Math.max(MIN_SIZE, Math.min(initialSize, maxSize));
+        this.semaphore = new ResizableSemaphore(this.targetSize);
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        this.idleTimeoutNanos = idleTimeUnit.toNanos(idleTimeout);
+        this.resizeIntervalMillis = resizeIntervalMillis;
+    }
+
+    public void discard(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, ctx);
+        }
+
+        this.semaphore.release();
+
+        // Let the super do any other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public int getCurrentSize() {
+        return getCreateCount() - getRemoveCount();
+    }
+
+    public int getAvailableCount() {
+        // Permits may be temporarily negative following a reduction in size
+        return Math.max(0, this.semaphore.availablePermits());
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    public synchronized void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        int reduction = this.targetSize - maxSize;
+        if (reduction > 0) {
+            this.resize(-reduction);
+        }
+    }
+
+    @Override
+    public int getTargetSize() {
+        return this.targetSize;
+    }
+
+    @Override
+    public long getResizeCount() {
+        return this.resizes.get();
+    }
+
+    @Override
+    public long getAcquireTimePercentile(double percentile) {
+        return this.acquireTime.getValueAtPercentile(percentile);
+    }
+
+    /**
+     * Get an instance without identity.
+     * Can be used by finders,create-methods, and activation
+     *
+     * @return Context /w instance
+     */
+    public T get() {
+        long start = System.nanoTime();
+        try {
+            this.acquirePermit();
+        } catch (InterruptedException e) {
+            throw EjbLogger.ROOT_LOGGER.acquireSemaphoreInterrupted();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            this.acquireTime.record(TimeUnit.NANOSECONDS.toMicros(elapsed));
+            if (elapsed >= CONTENDED_THRESHOLD_NANOS) {
+                this.contended.increment();
+            }
+        }
+
+        IdleInstance<T> idle = this.pool.poll();
+
+        if (idle != null) {
+            //we found a bean instance in the pool, return it
+            return idle.instance;
+        }
+
+        T bean = null;
+        try {
+            // Pool is empty, create an instance
+            bean = create();
+        } finally {
+            if (bean == null) {
+                this.semaphore.release();
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Return an instance after invocation.
+     * <p/>
+     * Called in 2 cases:
+     * a) Done with finder method
+     * b) Just removed
+     *
+     * @param obj
+     */
+    public void release(T obj) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", this.pool.size(), this.targetSize, this);
+        }
+
+        this.pool.push(new IdleInstance<>(obj));
+
+        this.semaphore.release();
+    }
+
+    @Override
+    @Deprecated
+    public void remove(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Removing instance: %s#%s", this, ctx);
+        }
+
+        this.semaphore.release();
+        // let the super do the other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public void start() {
+        this.resizeTask = this.executor.scheduleWithFixedDelay(this::adapt, this.resizeIntervalMillis, this.resizeIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        Future<?> task = this.resizeTask;
+        if (task != null) {
+            task.cancel(false);
+        }
+        for (IdleInstance<T> idle = this.pool.poll(); idle != null; idle = this.pool.poll()) {
+            destroy(idle.instance);
+        }
+    }
+
+    /**
+     * Grows this pool if any acquisitions waited for a permit since the previous invocation,
+     * otherwise evicts any expired idle instances and reclaims any permits unused since the idle timeout.
+     */
+    void adapt() {
+        long contended = this.contended.sumThenReset();
+        long timeouts = this.timeouts.sumThenReset();
+        int waiting = this.waiting.get();
+        long now = System.nanoTime();
+        if ((contended > 0) || (timeouts > 0) || (waiting > 0)) {
+            this.lastContended = now;
+            // Grow by at least half again, or enough to satisfy all currently waiting threads
+            this.grow(Math.max(waiting, this.targetSize / 2));
+        } else {
+            this.evict(now);
+            if (now - this.lastContended >= this.idleTimeoutNanos) {
+                this.shrink();
+            }
+        }
+    }
+
+    private synchronized void grow(int increment) {
+        int growth = Math.min(Math.max(1, increment), this.maxSize - this.targetSize);
+        if (growth > 0) {
+            this.resize(growth);
+        }
+    }
+
+    private void evict(long now) {
+        for (IdleInstance<T> idle = this.pool.peekLast(); (idle != null) && (now - idle.timestamp >= this.idleTimeoutNanos); idle = this.pool.peekLast()) {
+            synchronized (this) {
+                if (this.targetSize <= MIN_SIZE) return;
+                // Idle instance may have been reacquired concurrently
+                if (!this.pool.removeLastOccurrence(idle)) continue;
+                this.resize(-1);
+            }
+            try {
+                destroy(idle.instance);
+            } catch (RuntimeException e) {
+                ROOT_LOGGER.failedToEvictIdleInstance(e, idle.instance);
+            }
+        }
+    }
+
+    /**
+     * Reduces the available permits not backed by an idle instance, i.e. permits granted by a previous growth, but not needed since.
+     */
+    private synchronized void shrink() {
+        int unused = this.semaphore.availablePermits() - this.pool.size();
+        int reduction = Math.min(unused, this.targetSize - MIN_SIZE);
+        if (reduction > 0) {
+            this.resize(-reduction);
+        }
+    }
+
+    // Must be called while holding the monitor of this pool
+    private void resize(int delta) {
+        if (delta > 0) {
+            this.semaphore.release(delta);
+        } else {
+            this.semaphore.reducePermits(-delta);
+        }
+        this.targetSize += delta;
+        this.resizes.incrementAndGet();
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Resized %s to %d permits (max %d)", this, this.targetSize, this.maxSize);
+        }
+    }
+
+    private void acquirePermit() throws InterruptedException {
+        if (this.semaphore.tryAcquire()) return;
+        this.waiting.incrementAndGet();
+        try {
+            if (this.semaphore.tryAcquire(this.timeout, this.timeUnit)) return;
+        } finally {
+            this.waiting.decrementAndGet();
+        }
+        this.timeouts.increment();
+        throw EjbLogger.ROOT_LOGGER.failedToAcquirePermit(this.timeout, this.timeUnit);
+    }
+}
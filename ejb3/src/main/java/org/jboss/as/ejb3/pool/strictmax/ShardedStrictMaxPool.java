@@ -0,0 +1,251 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.strictmax;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool with a maximum size, partitioned into thread-affine shards to avoid a single point of contention.
+ * Each shard holds a share of the permits and its own stack of idle instances.
+ * A thread first acquires a permit and an instance from its own shard, and steals from other shards when its own is exhausted.
+ * Permits may migrate between shards, but their total never exceeds the maximum size of the pool.
+ *
+ * @author agent
+ */
+public class ShardedStrictMaxPool<T> extends AbstractPool<T> {
+
+    // Upper bound on the time a blocked thread waits before re-scanning other shards for a permit
+    private static final long MAX_WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static class Shard<T> {
+        final Semaphore semaphore;
+        // LIFO, so that the most recently used (i.e. warmest) instance is reused first
+        final Deque<T> pool = new ConcurrentLinkedDeque<>();
+
+        Shard(int permits) {
+            this.semaphore = new Semaphore(permits, false);
+        }
+    }
+
+    private final Shard<T>[] shards;
+    /**
+     * The maximum number of instances allowed in the pool
+     */
+    private final int maxSize;
+    /**
+     * The time to wait for a permit.
+     */
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    /**
+     * The number of threads blocked waiting for a permit, used to avoid scanning every shard on release.
+     */
+    private final AtomicInteger waiting = new AtomicInteger(0);
+
+    public ShardedStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(factory, maxSize, Runtime.getRuntime().availableProcessors(), timeout, timeUnit);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ShardedStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, int shards, long timeout, TimeUnit timeUnit) {
+        super(factory);
+        this.maxSize = maxSize;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        // Each shard must own at least one permit
+        int count = Math.max(1, Math.min(shards, maxSize));
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; ++i) {
+            this.shards[i] = new Shard<>((maxSize / count) + ((i < maxSize % count) ? 1 : 0));
+        }
+    }
+
+    private int home() {
+        long id = Thread.currentThread().getId();
+        return (int) ((id ^ (id >>> 32)) & Integer.MAX_VALUE) % this.shards.length;
+    }
+
+    public void discard(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, ctx);
+        }
+
+        this.releasePermit(this.home());
+
+        // Let the super do any other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public int getCurrentSize() {
+        return getCreateCount() - getRemoveCount();
+    }
+
+    public int getAvailableCount() {
+        int available = 0;
+        for (Shard<T> shard : this.shards) {
+            available += shard.semaphore.availablePermits();
+        }
+        return available;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        throw EjbLogger.ROOT_LOGGER.methodNotImplemented();
+    }
+
+    /**
+     * Get an instance without identity.
+     * Can be used by finders,create-methods, and activation
+     *
+     * @return Context /w instance
+     */
+    public T get() {
+        int home = this.home();
+        try {
+            this.acquirePermit(home);
+        } catch (InterruptedException e) {
+            throw EjbLogger.ROOT_LOGGER.acquireSemaphoreInterrupted();
+        }
+
+        T bean = this.poll(home);
+
+        if (bean != null) {
+            //we found a bean instance in the pool, return it
+            return bean;
+        }
+
+        try {
+            // Pool is empty, create an instance
+            bean = create();
+        } finally {
+            if (bean == null) {
+                this.releasePermit(home);
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Return an instance after invocation.
+     * <p/>
+     * Called in 2 cases:
+     * a) Done with finder method
+     * b) Just removed
+     *
+     * @param obj
+     */
+    public void release(T obj) {
+        int home = this.home();
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", this.shards[home].pool.size(), maxSize, this);
+        }
+
+        this.shards[home].pool.push(obj);
+
+        this.releasePermit(home);
+    }
+
+    @Override
+    @Deprecated
+    public void remove(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Removing instance: %s#%s", this, ctx);
+        }
+
+        this.releasePermit(this.home());
+        // let the super do the other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public void start() {
+    }
+
+    public void stop() {
+        for (Shard<T> shard : this.shards) {
+            for (T obj = shard.pool.poll(); obj != null; obj = shard.pool.poll()) {
+                destroy(obj);
+            }
+        }
+    }
+
+    private void acquirePermit(int home) throws InterruptedException {
+        if (this.tryAcquirePermit(home)) return;
+        // All shards are exhausted, so wait on our own shard, periodically re-scanning the others
+        long remaining = this.timeUnit.toNanos(this.timeout);
+        long deadline = System.nanoTime() + remaining;
+        Semaphore semaphore = this.shards[home].semaphore;
+        this.waiting.incrementAndGet();
+        try {
+            while (remaining > 0) {
+                if (semaphore.tryAcquire(Math.min(remaining, MAX_WAIT_SLICE_NANOS), TimeUnit.NANOSECONDS)) return;
+                if (this.tryAcquirePermit(home)) return;
+                remaining = deadline - System.nanoTime();
+            }
+        } finally {
+            this.waiting.decrementAndGet();
+        }
+        throw EjbLogger.ROOT_LOGGER.failedToAcquirePermit(this.timeout, this.timeUnit);
+    }
+
+    private boolean tryAcquirePermit(int home) {
+        int length = this.shards.length;
+        for (int i = 0; i < length; ++i) {
+            if (this.shards[(home + i) % length].semaphore.tryAcquire()) return true;
+        }
+        return false;
+    }
+
+    private void releasePermit(int home) {
+        // Hand the permit to a shard with waiting threads, if any, preferring our own
+        int length = this.shards.length;
+        for (int i = 0; (i < length) && (this.waiting.get() > 0); ++i) {
+            Semaphore semaphore = this.shards[(home + i) % length].semaphore;
+            if (semaphore.hasQueuedThreads()) {
+                semaphore.release();
+                return;
+            }
+        }
+        this.shards[home].semaphore.release();
+    }
+
+    private T poll(int home) {
+        int length = this.shards.length;
+        for (int i = 0; i < length; ++i) {
+            T bean = this.shards[(home + i) % length].pool.poll();
+            if (bean != null) return bean;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.subsystem;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
+import org.jboss.as.ejb3.timerservice.persistence.database.DatabaseTimerPersistence;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * Reads the refresh metrics of a database-data-store.
+ *
+ * @author agent
+ */
+public class DatabaseDataStoreRuntimeHandler extends AbstractRuntimeOnlyHandler {
+
+    @Override
+    protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final String storeName = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR)).getLastElement().getValue();
+        final String name = operation.require(ModelDescriptionConstants.NAME).asString();
+
+        ServiceName serviceName = context.getCapabilityServiceName(DatabaseDataStoreResourceDefinition.TIMER_PERSISTENCE_CAPABILITY_NAME, storeName, TimerPersistence.class);
+        ServiceController<?> controller = context.getServiceRegistry(false).getService(serviceName);
+        if (controller == null || !(controller.getService() instanceof DatabaseTimerPersistence)) {
+            return;
+        }
+        DatabaseTimerPersistence persistence = (DatabaseTimerPersistence) controller.getService();
+        if (DatabaseDataStoreResourceDefinition.REFRESH_COUNT.getName().equals(name)) {
+            context.getResult().set(persistence.getRefreshCount());
+        } else if (DatabaseDataStoreResourceDefinition.LAST_REFRESH_DURATION.getName().equals(name)) {
+            context.getResult().set(persistence.getLastRefreshDuration());
+        } else if (DatabaseDataStoreResourceDefinition.ROWS_SCANNED.getName().equals(name)) {
+            context.getResult().set(persistence.getRowsScanned());
+        } else if (DatabaseDataStoreResourceDefinition.ROWS_LOADED.getName().equals(name)) {
+            context.getResult().set(persistence.getRowsLoaded());
+        }
+    }
+}
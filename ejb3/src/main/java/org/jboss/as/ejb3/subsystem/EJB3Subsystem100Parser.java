@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.subsystem;
+
+import static org.jboss.as.controller.parsing.ParseUtils.requireNoAttributes;
+import static org.jboss.as.controller.parsing.ParseUtils.unexpectedAttribute;
+import static org.jboss.as.controller.parsing.ParseUtils.unexpectedElement;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.SHARDED_MAX_BEAN_INSTANCE_POOL;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL;
+
+import java.util.List;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+
+/**
+ * Parser for ejb3:10.0 namespace.
+ */
+public class EJB3Subsystem100Parser extends EJB3Subsystem90Parser {
+
+    EJB3Subsystem100Parser() {
+    }
+
+    @Override
+    protected EJB3SubsystemNamespace getExpectedNamespace() {
+        return EJB3SubsystemNamespace.EJB3_10_0;
+    }
+
+    @Override
+    protected void parseBeanInstancePools(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+        // no attributes expected
+        requireNoAttributes(reader);
+
+        while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
+            switch (EJB3SubsystemXMLElement.forName(reader.getLocalName())) {
+                case STRICT_MAX_POOL: {
+                    this.parseStrictMaxPool(reader, operations);
+                    break;
+                }
+                case SHARDED_MAX_POOL: {
+                    this.parseMaxPool(reader, operations, SHARDED_MAX_BEAN_INSTANCE_POOL);
+                    break;
+                }
+                default: {
+                    throw unexpectedElement(reader);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void parseMaxPoolAttribute(final XMLExtendedStreamReader reader, int index, String poolType, ModelNode operation) throws XMLStreamException {
+        if (!poolType.equals(STRICT_MAX_BEAN_INSTANCE_POOL)) {
+            throw unexpectedAttribute(reader, index);
+        }
+        final String value = reader.getAttributeValue(index);
+        switch (EJB3SubsystemXMLAttribute.forName(reader.getAttributeLocalName(index))) {
+            case ADAPTIVE:
+                StrictMaxPoolResourceDefinition.ADAPTIVE.parseAndSetParameter(value, operation, reader);
+                break;
+            case INSTANCE_IDLE_TIMEOUT:
+                StrictMaxPoolResourceDefinition.INSTANCE_IDLE_TIMEOUT.parseAndSetParameter(value, operation, reader);
+                break;
+            default:
+                throw unexpectedAttribute(reader, index);
+        }
+    }
+
+    @Override
+    protected void parseDatabaseDataStoreAttribute(final XMLExtendedStreamReader reader, int index, ModelNode operation) throws XMLStreamException {
+        final String value = reader.getAttributeValue(index);
+        switch (EJB3SubsystemXMLAttribute.forName(reader.getAttributeLocalName(index))) {
+            case REFRESH_MODE:
+                DatabaseDataStoreResourceDefinition.REFRESH_MODE.parseAndSetParameter(value, operation, reader);
+                break;
+            default:
+                throw unexpectedAttribute(reader, index);
+        }
+    }
+
+    @Override
+    protected void parseFileDataStoreAttribute(final XMLExtendedStreamReader reader, int index, ModelNode operation) throws XMLStreamException {
+        final String value = reader.getAttributeValue(index);
+        switch (EJB3SubsystemXMLAttribute.forName(reader.getAttributeLocalName(index))) {
+            case FORMAT:
+                FileDataStoreResourceDefinition.FORMAT.parseAndSetParameter(value, operation, reader);
+                break;
+            default:
+                throw unexpectedAttribute(reader, index);
+        }
+    }
+}
@@ -199,6 +199,7 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
     }
 
     private void parseFileDataStore(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
+        final ModelNode fileDataStoreAdd = new ModelNode();
         String dataStorePath = null;
         String dataStorePathRelativeTo = null;
         String name = null;
@@ -229,7 +230,7 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
                     dataStorePathRelativeTo = FileDataStoreResourceDefinition.RELATIVE_TO.parse(value, reader).asString();
                     break;
                 default:
-                    throw unexpectedAttribute(reader, i);
+                    this.parseFileDataStoreAttribute(reader, i, fileDataStoreAdd);
             }
         }
         if (!required.isEmpty()) {
@@ -239,7 +240,6 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
         address.add(SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME);
         address.add(SERVICE, TIMER_SERVICE);
         address.add(FILE_DATA_STORE, name);
-        final ModelNode fileDataStoreAdd = new ModelNode();
         fileDataStoreAdd.get(OP).set(ADD);
         fileDataStoreAdd.get(ADDRESS).set(address);
         fileDataStoreAdd.get(PATH).set(dataStorePath);
@@ -250,6 +250,13 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
         requireNoContent(reader);
     }
 
+    /**
+     * Parses a file-data-store attribute not supported by this schema version.
+     */
+    protected void parseFileDataStoreAttribute(final XMLExtendedStreamReader reader, int index, ModelNode operation) throws XMLStreamException {
+        throw unexpectedAttribute(reader, index);
+    }
+
 
     protected void parseDatabaseDataStore(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
         String name = null;
@@ -137,7 +137,7 @@ public class EJB3Subsystem30Parser extends EJB3Subsystem20Parser {
                     DatabaseDataStoreResourceDefinition.ALLOW_EXECUTION.parseAndSetParameter(value, databaseDataStore, reader);
                     break;
                 default:
-                    throw unexpectedAttribute(reader, i);
+                    this.parseDatabaseDataStoreAttribute(reader, i, databaseDataStore);
             }
         }
         if (!required.isEmpty()) {
@@ -153,6 +153,13 @@ public class EJB3Subsystem30Parser extends EJB3Subsystem20Parser {
         requireNoContent(reader);
     }
 
+    /**
+     * Parses a database-data-store attribute not supported by this schema version.
+     */
+    protected void parseDatabaseDataStoreAttribute(final XMLExtendedStreamReader reader, int index, ModelNode operation) throws XMLStreamException {
+        throw unexpectedAttribute(reader, index);
+    }
+
     protected void parseRemote(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
         final int count = reader.getAttributeCount();
         final PathAddress ejb3RemoteServiceAddress = SUBSYSTEM_PATH.append(SERVICE, REMOTE);
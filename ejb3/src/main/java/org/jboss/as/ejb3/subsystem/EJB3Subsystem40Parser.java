@@ -195,6 +195,10 @@ public class EJB3Subsystem40Parser extends EJB3Subsystem30Parser {
     }
 
     void parseStrictMaxPool(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+        this.parseMaxPool(reader, operations, STRICT_MAX_BEAN_INSTANCE_POOL);
+    }
+
+    void parseMaxPool(final XMLExtendedStreamReader reader, List<ModelNode> operations, String poolType) throws XMLStreamException {
         final int count = reader.getAttributeCount();
         String poolName = null;
         final ModelNode operation = Util.createAddOperation();
@@ -228,7 +232,7 @@ public class EJB3Subsystem40Parser extends EJB3Subsystem30Parser {
                     StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.parseAndSetParameter(value, operation, reader);
                     break;
                 default:
-                    throw unexpectedAttribute(reader, i);
+                    this.parseMaxPoolAttribute(reader, i, poolType, operation);
             }
         }
         requireNoContent(reader);
@@ -236,12 +240,19 @@ public class EJB3Subsystem40Parser extends EJB3Subsystem30Parser {
             throw missingRequired(reader, Collections.singleton(EJB3SubsystemXMLAttribute.NAME.getLocalName()));
         }
         // create and add the operation
-        // create /subsystem=ejb3/strict-max-bean-instance-pool=name:add(...)
-        final PathAddress address = this.getEJB3SubsystemAddress().append(STRICT_MAX_BEAN_INSTANCE_POOL, poolName);
+        // create /subsystem=ejb3/<pool-type>=name:add(...)
+        final PathAddress address = this.getEJB3SubsystemAddress().append(poolType, poolName);
         operation.get(OP_ADDR).set(address.toModelNode());
         operations.add(operation);
     }
 
+    /**
+     * Parses a pool attribute not recognized by this namespace version.
+     */
+    protected void parseMaxPoolAttribute(final XMLExtendedStreamReader reader, int index, String poolType, ModelNode operation) throws XMLStreamException {
+        throw unexpectedAttribute(reader, index);
+    }
+
     private XMLStreamException mutuallyExclusiveAttributes(XMLExtendedStreamReader reader) {
         return EjbLogger.ROOT_LOGGER.mutuallyExclusiveAttributes(reader.getLocation(), MAX_POOL_SIZE, DERIVE_SIZE);
     }
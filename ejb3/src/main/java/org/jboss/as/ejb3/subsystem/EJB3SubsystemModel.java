@@ -33,6 +33,7 @@ import org.jboss.msc.service.ServiceName;
 public interface EJB3SubsystemModel {
     String LITE = "lite";
     String ABSTACT_TYPE = "abstract-type";
+    String ADAPTIVE = "adaptive";
     String ABSTACT_TYPE_AUTHORITY = "abstract-type-authority";
     String ALIASES = "aliases";
     String ATTRIBUTES = "attributes";
@@ -58,6 +59,7 @@ public interface EJB3SubsystemModel {
     String DEFAULT_SLSB_INSTANCE_POOL = "default-slsb-instance-pool";
     String INSTANCE_ACQUISITION_TIMEOUT = "timeout";
     String INSTANCE_ACQUISITION_TIMEOUT_UNIT = "timeout-unit";
+    String INSTANCE_IDLE_TIMEOUT = "instance-idle-timeout";
     String DEFAULT_ENTITY_BEAN_INSTANCE_POOL = "default-entity-bean-instance-pool";
     String DEFAULT_ENTITY_BEAN_OPTIMISTIC_LOCKING = "default-entity-bean-optimistic-locking";
     String DISABLE_DEFAULT_EJB_PERMISSIONS = "disable-default-ejb-permissions";
@@ -76,12 +78,14 @@ public interface EJB3SubsystemModel {
     String DERIVED_SIZE = "derived-size";
 
     String STRICT_MAX_BEAN_INSTANCE_POOL = "strict-max-bean-instance-pool";
+    String SHARDED_MAX_BEAN_INSTANCE_POOL = "sharded-max-bean-instance-pool";
 
     String MAX_THREADS = "max-threads";
     String KEEPALIVE_TIME = "keepalive-time";
 
     String RELATIVE_TO = "relative-to";
     String PATH = "path";
+    String FORMAT = "format";
 
     String DEFAULT_SINGLETON_BEAN_ACCESS_TIMEOUT = "default-singleton-bean-access-timeout";
     String DEFAULT_STATEFUL_BEAN_ACCESS_TIMEOUT = "default-stateful-bean-access-timeout";
@@ -137,6 +141,7 @@ public interface EJB3SubsystemModel {
     String DATABASE_DATA_STORE = "database-data-store";
     String PARTITION  = "partition";
     String REFRESH_INTERVAL = "refresh-interval";
+    String REFRESH_MODE = "refresh-mode";
     String ALLOW_EXECUTION = "allow-execution";
 
     String STATIC_URLS = "static-urls";
@@ -151,6 +156,7 @@ public interface EJB3SubsystemModel {
     PathElement DATABASE_DATA_STORE_PATH = PathElement.pathElement(DATABASE_DATA_STORE);
     PathElement MDB_DELIVERY_GROUP_PATH = PathElement.pathElement(MDB_DELIVERY_GROUP);
     PathElement STRICT_MAX_BEAN_INSTANCE_POOL_PATH = PathElement.pathElement(STRICT_MAX_BEAN_INSTANCE_POOL);
+    PathElement SHARDED_MAX_BEAN_INSTANCE_POOL_PATH = PathElement.pathElement(SHARDED_MAX_BEAN_INSTANCE_POOL);
     PathElement REMOTING_PROFILE_PATH = PathElement.pathElement(REMOTING_PROFILE);
 
     String BASE_EJB_THREAD_POOL_NAME = "ejb3";
@@ -394,6 +394,8 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
 
         // subsystem=ejb3/strict-max-bean-instance-pool=*
         subsystemRegistration.registerSubModel(StrictMaxPoolResourceDefinition.INSTANCE);
+        // subsystem=ejb3/sharded-max-bean-instance-pool=*
+        subsystemRegistration.registerSubModel(StrictMaxPoolResourceDefinition.SHARDED_INSTANCE);
 
         subsystemRegistration.registerSubModel(CacheFactoryResourceDefinition.INSTANCE);
         subsystemRegistration.registerSubModel(PassivationStoreResourceDefinition.INSTANCE);
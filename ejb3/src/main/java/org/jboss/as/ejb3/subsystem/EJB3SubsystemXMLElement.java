@@ -84,6 +84,7 @@ public enum EJB3SubsystemXMLElement {
     RESOURCE_ADAPTER_REF("resource-adapter-ref"),
 
     SESSION_BEAN("session-bean"),
+    SHARDED_MAX_POOL("sharded-max-pool"),
     SINGLETON("singleton"),
     STATEFUL("stateful"),
     STATELESS("stateless"),
@@ -39,7 +39,7 @@ import org.jboss.as.ejb3.component.pool.StrictMaxPoolConfigService;
 import org.jboss.dmr.ModelNode;
 
 /**
- * Adds a strict-max-pool to the EJB3 subsystem's bean-instance-pools. The {#performRuntime runtime action}
+ * Adds a strict-max-pool or sharded-max-pool to the EJB3 subsystem's bean-instance-pools. The {#performRuntime runtime action}
  * will create and install a {@link org.jboss.as.ejb3.component.pool.StrictMaxPoolConfigService}
  * <p/>
  * User: Jaikiran Pai
@@ -48,8 +48,11 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
 
     static final String IO_MAX_THREADS_RUNTIME_CAPABILITY_NAME = "org.wildfly.io.max-threads";
 
-    StrictMaxPoolAdd(AttributeDefinition... attributes) {
+    private final boolean sharded;
+
+    StrictMaxPoolAdd(boolean sharded, AttributeDefinition... attributes) {
         super(attributes);
+        this.sharded = sharded;
     }
 
     @Override
@@ -62,7 +65,11 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
         final String unit = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.resolveModelAttribute(context, strictMaxPoolModel).asString();
 
         // create and install the service
-        final StrictMaxPoolConfigService poolConfigService = new StrictMaxPoolConfigService(poolName, maxPoolSize, derive, timeout, TimeUnit.valueOf(unit));
+        final StrictMaxPoolConfigService poolConfigService = new StrictMaxPoolConfigService(poolName, maxPoolSize, derive, timeout, TimeUnit.valueOf(unit), this.sharded);
+        if (!this.sharded) {
+            poolConfigService.setAdaptive(StrictMaxPoolResourceDefinition.ADAPTIVE.resolveModelAttribute(context, strictMaxPoolModel).asBoolean());
+            poolConfigService.setIdleTimeout(StrictMaxPoolResourceDefinition.INSTANCE_IDLE_TIMEOUT.resolveModelAttribute(context, strictMaxPoolModel).asLong());
+        }
 
         CapabilityServiceTarget capabilityServiceTarget = context.getCapabilityServiceTarget();
         CapabilityServiceBuilder<StrictMaxPoolConfig> capabilityServiceBuilder = capabilityServiceTarget.addCapability(StrictMaxPoolResourceDefinition.STRICT_MAX_POOL_CONFIG_CAPABILITY, poolConfigService);
@@ -30,11 +30,13 @@ import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ServiceRemoveStepHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.LongRangeValidator;
@@ -48,7 +50,7 @@ import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
 /**
- * {@link org.jboss.as.controller.ResourceDefinition} for the strict-max-bean-pool resource.
+ * {@link org.jboss.as.controller.ResourceDefinition} for the strict-max-bean-pool and sharded-max-bean-pool resources.
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
@@ -93,14 +95,29 @@ public class StrictMaxPoolResourceDefinition extends SimpleResourceDefinition {
                     .setFlags(AttributeAccess.Flag.RESTART_NONE)
                     .setAllowExpression(true)
                     .build();
+    public static final SimpleAttributeDefinition ADAPTIVE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.ADAPTIVE, ModelType.BOOLEAN, true)
+                    .setDefaultValue(ModelNode.FALSE)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
+    public static final SimpleAttributeDefinition INSTANCE_IDLE_TIMEOUT =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.INSTANCE_IDLE_TIMEOUT, ModelType.LONG, true)
+                    .setDefaultValue(new ModelNode().set(StrictMaxPoolConfig.DEFAULT_IDLE_TIMEOUT))
+                    .setAllowExpression(true)
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
     public static final SimpleAttributeDefinition DERIVED_SIZE =
             new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.DERIVED_SIZE, ModelType.INT, true)
                     .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
                     .build();
 
-    private static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] { MAX_POOL_SIZE, DERIVE_SIZE, INSTANCE_ACQUISITION_TIMEOUT, INSTANCE_ACQUISITION_TIMEOUT_UNIT };
-    private static final StrictMaxPoolAdd ADD_HANDLER = new StrictMaxPoolAdd(ATTRIBUTES);
-    public static final StrictMaxPoolResourceDefinition INSTANCE = new StrictMaxPoolResourceDefinition();
+    private static final AttributeDefinition[] SHARDED_ATTRIBUTES = new AttributeDefinition[] { MAX_POOL_SIZE, DERIVE_SIZE, INSTANCE_ACQUISITION_TIMEOUT, INSTANCE_ACQUISITION_TIMEOUT_UNIT };
+    private static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] { MAX_POOL_SIZE, DERIVE_SIZE, INSTANCE_ACQUISITION_TIMEOUT, INSTANCE_ACQUISITION_TIMEOUT_UNIT, ADAPTIVE, INSTANCE_IDLE_TIMEOUT };
+    public static final StrictMaxPoolResourceDefinition INSTANCE = new StrictMaxPoolResourceDefinition(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL_PATH, false);
+    public static final StrictMaxPoolResourceDefinition SHARDED_INSTANCE = new StrictMaxPoolResourceDefinition(EJB3SubsystemModel.SHARDED_MAX_BEAN_INSTANCE_POOL_PATH, true);
 
     private static final String NONE_VALUE = "none";
     private static final String FROM_WORKER_POOLS_VALUE = "from-worker-pools";
@@ -148,19 +165,30 @@ public class StrictMaxPoolResourceDefinition extends SimpleResourceDefinition {
         return Derive.NONE;
     }
 
-    private StrictMaxPoolResourceDefinition() {
-        super(new SimpleResourceDefinition.Parameters(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL_PATH, EJB3Extension.getResourceDescriptionResolver(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL))
-                .setAddHandler(ADD_HANDLER)
-                .setRemoveHandler(new ServiceRemoveStepHandler(null, ADD_HANDLER, STRICT_MAX_POOL_CONFIG_CAPABILITY))
+    private final AttributeDefinition[] attributes;
+
+    private StrictMaxPoolResourceDefinition(PathElement path, boolean sharded) {
+        this(path, sharded ? SHARDED_ATTRIBUTES : ATTRIBUTES, sharded);
+    }
+
+    private StrictMaxPoolResourceDefinition(PathElement path, AttributeDefinition[] attributes, boolean sharded) {
+        this(path, attributes, new StrictMaxPoolAdd(sharded, attributes));
+    }
+
+    private StrictMaxPoolResourceDefinition(PathElement path, AttributeDefinition[] attributes, StrictMaxPoolAdd addHandler) {
+        super(new SimpleResourceDefinition.Parameters(path, EJB3Extension.getResourceDescriptionResolver(path.getKey()))
+                .setAddHandler(addHandler)
+                .setRemoveHandler(new ServiceRemoveStepHandler(null, addHandler, STRICT_MAX_POOL_CONFIG_CAPABILITY))
                 .setAddRestartLevel(OperationEntry.Flag.RESTART_NONE)
                 .setRemoveRestartLevel(OperationEntry.Flag.RESTART_RESOURCE_SERVICES)
                 .setCapabilities(STRICT_MAX_POOL_CONFIG_CAPABILITY));
+        this.attributes = attributes;
     }
 
     @Override
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
-        OperationStepHandler osh = new StrictMaxPoolWriteHandler(ATTRIBUTES);
-        for (AttributeDefinition attr : ATTRIBUTES) {
+        OperationStepHandler osh = new StrictMaxPoolWriteHandler(this.attributes);
+        for (AttributeDefinition attr : this.attributes) {
             resourceRegistration.registerReadWriteAttribute(attr, null, osh);
         }
         resourceRegistration.registerReadOnlyAttribute(DERIVED_SIZE, new StrictMaxPoolDerivedSizeReadHandler());
@@ -79,6 +79,12 @@ class StrictMaxPoolWriteHandler extends AbstractWriteAttributeHandler<Void> {
                 } else if (StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.getName().equals(attributeName)) {
                     String timeoutUnit = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.resolveModelAttribute(context, model).asString();
                     smpc.setTimeoutUnit(TimeUnit.valueOf(timeoutUnit));
+                } else if (StrictMaxPoolResourceDefinition.ADAPTIVE.getName().equals(attributeName)) {
+                    boolean adaptive = StrictMaxPoolResourceDefinition.ADAPTIVE.resolveModelAttribute(context, model).asBoolean();
+                    smpc.setAdaptive(adaptive);
+                } else if (StrictMaxPoolResourceDefinition.INSTANCE_IDLE_TIMEOUT.getName().equals(attributeName)) {
+                    long idleTimeout = StrictMaxPoolResourceDefinition.INSTANCE_IDLE_TIMEOUT.resolveModelAttribute(context, model).asLong();
+                    smpc.setIdleTimeout(idleTimeout);
                 }
             }
         }
@@ -27,6 +27,7 @@ import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
 import java.util.Timer;
 import java.util.concurrent.Executor;
 
+import org.jboss.as.clustering.context.DefaultThreadFactory;
 import org.jboss.as.controller.AbstractBoottimeAddStepHandler;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -34,6 +35,8 @@ import org.jboss.as.ejb3.deployment.processors.AroundTimeoutAnnotationParsingPro
 import org.jboss.as.ejb3.deployment.processors.TimerServiceDeploymentProcessor;
 import org.jboss.as.ejb3.deployment.processors.annotation.TimerServiceAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.merging.TimerMethodMergingProcessor;
+import org.jboss.as.ejb3.timerservice.TimingWheelTimeoutScheduler;
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
 import org.jboss.as.server.deployment.Phase;
@@ -77,6 +80,28 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
         }, OperationContext.Stage.RUNTIME);
 
         context.getCapabilityServiceTarget().addCapability(TimerServiceResourceDefinition.TIMER_SERVICE_CAPABILITY, new TimerValueService()).install();
+        context.getCapabilityServiceTarget().addCapability(TimerServiceResourceDefinition.TIMEOUT_SCHEDULER_CAPABILITY, new TimeoutSchedulerService()).install();
+    }
+
+    private static final class TimeoutSchedulerService implements Service<TimeoutScheduler> {
+
+        private TimingWheelTimeoutScheduler scheduler;
+
+        @Override
+        public synchronized void start(final StartContext context) throws StartException {
+            scheduler = new TimingWheelTimeoutScheduler(new DefaultThreadFactory(TimingWheelTimeoutScheduler.class));
+        }
+
+        @Override
+        public synchronized void stop(final StopContext context) {
+            scheduler.close();
+            scheduler = null;
+        }
+
+        @Override
+        public synchronized TimeoutScheduler getValue() throws IllegalStateException, IllegalArgumentException {
+            return scheduler;
+        }
     }
 
     private static final class TimerValueService implements Service<Timer> {
@@ -33,6 +33,7 @@ import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
 import org.jboss.as.threads.ThreadsServices;
 import org.jboss.dmr.ModelType;
 
@@ -53,6 +54,9 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
     public static final String TIMER_SERVICE_CAPABILITY_NAME = "org.wildfly.ejb3.timer-service";
     public static final RuntimeCapability<Void> TIMER_SERVICE_CAPABILITY =
             RuntimeCapability.Builder.of(TIMER_SERVICE_CAPABILITY_NAME, java.util.Timer.class).build();
+    public static final String TIMEOUT_SCHEDULER_CAPABILITY_NAME = "org.wildfly.ejb3.timer-service.timeout-scheduler";
+    public static final RuntimeCapability<Void> TIMEOUT_SCHEDULER_CAPABILITY =
+            RuntimeCapability.Builder.of(TIMEOUT_SCHEDULER_CAPABILITY_NAME, TimeoutScheduler.class).build();
 
     static final SimpleAttributeDefinition THREAD_POOL_NAME =
             new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.THREAD_POOL_NAME, ModelType.STRING, false)
@@ -78,7 +82,7 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
                 .setRemoveHandler(ReloadRequiredRemoveStepHandler.INSTANCE)
                 .setAddRestartLevel(OperationEntry.Flag.RESTART_ALL_SERVICES)
                 .setRemoveRestartLevel(OperationEntry.Flag.RESTART_ALL_SERVICES)
-                .setCapabilities(TIMER_SERVICE_CAPABILITY));
+                .setCapabilities(TIMER_SERVICE_CAPABILITY, TIMEOUT_SCHEDULER_CAPABILITY));
         this.pathManager = pathManager;
     }
 
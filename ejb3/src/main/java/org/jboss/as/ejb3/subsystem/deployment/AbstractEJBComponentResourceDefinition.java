@@ -23,6 +23,8 @@
 package org.jboss.as.ejb3.subsystem.deployment;
 
 import java.util.Map;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.Function;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ObjectMapAttributeDefinition;
@@ -104,6 +106,13 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC)
             .build();
 
+    private static final AttributeDefinition EXECUTION_TIME_P50 = createPercentileMetric("execution-time-p50");
+    private static final AttributeDefinition EXECUTION_TIME_P99 = createPercentileMetric("execution-time-p99");
+    private static final AttributeDefinition EXECUTION_TIME_P999 = createPercentileMetric("execution-time-p999");
+    private static final AttributeDefinition WAIT_TIME_P50 = createPercentileMetric("wait-time-p50");
+    private static final AttributeDefinition WAIT_TIME_P99 = createPercentileMetric("wait-time-p99");
+    private static final AttributeDefinition WAIT_TIME_P999 = createPercentileMetric("wait-time-p999");
+
     private static final AttributeDefinition METHODS = ObjectMapAttributeDefinition.Builder.of(
             "methods",
             ObjectTypeAttributeDefinition.Builder.of("complex", EXECUTION_TIME, INVOCATIONS, WAIT_TIME)
@@ -139,6 +148,14 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
+    private static final AttributeDefinition CACHE_EVICTION_COUNT = new SimpleAttributeDefinitionBuilder("cache-eviction-count", ModelType.LONG)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC)
+            .build();
+
+    private static final AttributeDefinition CACHE_PASSIVATION_TIME_P50 = createPercentileMetric("cache-passivation-time-p50");
+    private static final AttributeDefinition CACHE_PASSIVATION_TIME_P99 = createPercentileMetric("cache-passivation-time-p99");
+
     // Pool attributes
 
     public static final SimpleAttributeDefinition POOL_AVAILABLE_COUNT = new SimpleAttributeDefinitionBuilder("pool-available-count", ModelType.INT, false)
@@ -154,9 +171,23 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC).build();
     public static final SimpleAttributeDefinition POOL_MAX_SIZE = new SimpleAttributeDefinitionBuilder("pool-max-size", ModelType.INT, false)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition POOL_TARGET_SIZE = new SimpleAttributeDefinitionBuilder("pool-target-size", ModelType.INT, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.GAUGE_METRIC).build();
+    public static final SimpleAttributeDefinition POOL_RESIZE_COUNT = new SimpleAttributeDefinitionBuilder("pool-resize-count", ModelType.LONG, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC).build();
+    public static final AttributeDefinition POOL_ACQUIRE_TIME_P50 = createPercentileMetric("pool-acquire-time-p50");
+    public static final AttributeDefinition POOL_ACQUIRE_TIME_P99 = createPercentileMetric("pool-acquire-time-p99");
+    public static final AttributeDefinition POOL_ACQUIRE_TIME_P999 = createPercentileMetric("pool-acquire-time-p999");
 
     final EJBComponentType componentType;
 
+    private static AttributeDefinition createPercentileMetric(final String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG)
+                .setUndefinedMetricValue(ModelNode.ZERO)
+                .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.GAUGE_METRIC)
+                .build();
+    }
+
     public AbstractEJBComponentResourceDefinition(final EJBComponentType componentType) {
         super(PathElement.pathElement(componentType.getResourceType()),
                 EJB3Extension.getResourceDescriptionResolver(componentType.getResourceType()));
@@ -191,6 +222,11 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             resourceRegistration.registerReadOnlyAttribute(POOL_REMOVE_COUNT, handler);
             resourceRegistration.registerReadOnlyAttribute(POOL_CURRENT_SIZE, handler);
             resourceRegistration.registerReadWriteAttribute(POOL_MAX_SIZE, handler, handler);
+            resourceRegistration.registerMetric(POOL_TARGET_SIZE, handler);
+            resourceRegistration.registerMetric(POOL_RESIZE_COUNT, handler);
+            resourceRegistration.registerMetric(POOL_ACQUIRE_TIME_P50, handler);
+            resourceRegistration.registerMetric(POOL_ACQUIRE_TIME_P99, handler);
+            resourceRegistration.registerMetric(POOL_ACQUIRE_TIME_P999, handler);
         }
 
         if (componentType.equals(EJBComponentType.STATEFUL)) {
@@ -212,6 +248,15 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                     context.getResult().set(((StatefulSessionComponent) component).getCache().getTotalSize());
                 }
             });
+            resourceRegistration.registerMetric(CACHE_EVICTION_COUNT, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    context.getResult().set(((StatefulSessionComponent) component).getCache().getEvictionCount());
+                }
+            });
+            final Function<EJBComponent, DoubleToLongFunction> passivationTimes = component -> ((StatefulSessionComponent) component).getCache()::getPassivationTimePercentile;
+            registerPercentileMetric(resourceRegistration, CACHE_PASSIVATION_TIME_P50, 50d, passivationTimes);
+            registerPercentileMetric(resourceRegistration, CACHE_PASSIVATION_TIME_P99, 99d, passivationTimes);
         }
 
         resourceRegistration.registerMetric(EXECUTION_TIME, new AbstractRuntimeMetricsHandler() {
@@ -238,6 +283,14 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                 context.getResult().set(component.getInvocationMetrics().getWaitTime());
             }
         });
+        final Function<EJBComponent, DoubleToLongFunction> executionTimes = component -> component.getInvocationMetrics()::getExecutionTimePercentile;
+        registerPercentileMetric(resourceRegistration, EXECUTION_TIME_P50, 50d, executionTimes);
+        registerPercentileMetric(resourceRegistration, EXECUTION_TIME_P99, 99d, executionTimes);
+        registerPercentileMetric(resourceRegistration, EXECUTION_TIME_P999, 99.9d, executionTimes);
+        final Function<EJBComponent, DoubleToLongFunction> waitTimes = component -> component.getInvocationMetrics()::getWaitTimePercentile;
+        registerPercentileMetric(resourceRegistration, WAIT_TIME_P50, 50d, waitTimes);
+        registerPercentileMetric(resourceRegistration, WAIT_TIME_P99, 99d, waitTimes);
+        registerPercentileMetric(resourceRegistration, WAIT_TIME_P999, 99.9d, waitTimes);
         resourceRegistration.registerMetric(METHODS, new AbstractRuntimeMetricsHandler() {
             @Override
             protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
@@ -254,6 +307,15 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
         });
     }
 
+    private static void registerPercentileMetric(final ManagementResourceRegistration resourceRegistration, final AttributeDefinition attribute, final double percentile, final Function<EJBComponent, DoubleToLongFunction> percentiles) {
+        resourceRegistration.registerMetric(attribute, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                context.getResult().set(percentiles.apply(component).applyAsLong(percentile));
+            }
+        });
+    }
+
     /* (non-Javadoc)
      * @see org.jboss.as.controller.SimpleResourceDefinition#registerChildren(org.jboss.as.controller.registry.ManagementResourceRegistration)
      */
@@ -29,12 +29,17 @@ import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourc
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.COMPONENT_CLASS_NAME;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.DECLARED_ROLES;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.JNDI_NAMES;
+import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_ACQUIRE_TIME_P50;
+import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_ACQUIRE_TIME_P99;
+import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_ACQUIRE_TIME_P999;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_AVAILABLE_COUNT;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_CREATE_COUNT;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_CURRENT_SIZE;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_MAX_SIZE;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_NAME;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_REMOVE_COUNT;
+import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_RESIZE_COUNT;
+import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_TARGET_SIZE;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.RUN_AS_ROLE;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.SECURITY_DOMAIN;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.TIMEOUT_METHOD;
@@ -62,6 +67,7 @@ import org.jboss.as.ejb3.component.EJBViewDescription;
 import org.jboss.as.ejb3.component.MethodIntf;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentDescription;
 import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.AdaptivePool;
 import org.jboss.as.ejb3.pool.Pool;
 import org.jboss.as.ejb3.security.EJBSecurityMetaData;
 import org.jboss.dmr.ModelNode;
@@ -206,12 +212,31 @@ public abstract class AbstractEJBComponentRuntimeHandler<T extends EJBComponent>
             if (pool != null) {
                 result.set(pool.getMaxSize());
             }
+        } else if (hasPool && POOL_TARGET_SIZE.getName().equals(attributeName)) {
+            final Pool<?> pool = componentType.getPool(component);
+            if (pool != null) {
+                result.set((pool instanceof AdaptivePool) ? ((AdaptivePool<?>) pool).getTargetSize() : pool.getMaxSize());
+            }
+        } else if (hasPool && POOL_RESIZE_COUNT.getName().equals(attributeName)) {
+            final Pool<?> pool = componentType.getPool(component);
+            result.set((pool instanceof AdaptivePool) ? ((AdaptivePool<?>) pool).getResizeCount() : 0L);
+        } else if (hasPool && POOL_ACQUIRE_TIME_P50.getName().equals(attributeName)) {
+            result.set(getAcquireTimePercentile(componentType.getPool(component), 50d));
+        } else if (hasPool && POOL_ACQUIRE_TIME_P99.getName().equals(attributeName)) {
+            result.set(getAcquireTimePercentile(componentType.getPool(component), 99d));
+        } else if (hasPool && POOL_ACQUIRE_TIME_P999.getName().equals(attributeName)) {
+            result.set(getAcquireTimePercentile(componentType.getPool(component), 99.9d));
         } else {
             // Bug; we were registered for an attribute but there is no code for handling it
             throw EjbLogger.ROOT_LOGGER.unknownAttribute(attributeName);
         }
     }
 
+    private static long getAcquireTimePercentile(final Pool<?> pool, final double percentile) {
+        // Acquisition times are only recorded by adaptive pools
+        return (pool instanceof AdaptivePool) ? ((AdaptivePool<?>) pool).getAcquireTimePercentile(percentile) : 0L;
+    }
+
     protected void executeWriteAttribute(String attributeName, OperationContext context, ModelNode operation, T component,
                                          PathAddress address) throws OperationFailedException {
         if (componentType.hasPool() && POOL_MAX_SIZE.getName().equals(attributeName)) {
@@ -22,12 +22,21 @@
 
 package org.jboss.as.ejb3.subsystem.deployment;
 
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.subsystem.EJB3Extension;
 import org.jboss.as.ejb3.subsystem.EJB3SubsystemModel;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 
 /**
  * {@link ResourceDefinition} for the timer-service resource for runtime ejb deployment.
@@ -36,6 +45,22 @@ import org.jboss.as.ejb3.subsystem.EJB3SubsystemModel;
  */
 public class TimerServiceResourceDefinition<T extends EJBComponent> extends SimpleResourceDefinition {
 
+    static final AttributeDefinition TIMEOUT_COUNT = new SimpleAttributeDefinitionBuilder("timeout-count", ModelType.LONG)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC)
+            .build();
+    static final AttributeDefinition TIMEOUT_LAG_P50 = createLagMetric("timeout-lag-p50");
+    static final AttributeDefinition TIMEOUT_LAG_P99 = createLagMetric("timeout-lag-p99");
+    static final AttributeDefinition TIMEOUT_LAG_P999 = createLagMetric("timeout-lag-p999");
+    static final AttributeDefinition TIMEOUT_LAG_MAX = createLagMetric("timeout-lag-max");
+
+    private static AttributeDefinition createLagMetric(final String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG)
+                .setUndefinedMetricValue(ModelNode.ZERO)
+                .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.GAUGE_METRIC)
+                .build();
+    }
+
     private final AbstractEJBComponentRuntimeHandler<T> parentHandler;
     TimerServiceResourceDefinition(AbstractEJBComponentRuntimeHandler<T> parentHandler) {
         super(EJB3SubsystemModel.TIMER_SERVICE_PATH,
@@ -43,6 +68,35 @@ public class TimerServiceResourceDefinition<T extends EJBComponent> extends Simp
         this.parentHandler = parentHandler;
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        AbstractRuntimeMetricsHandler handler = new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) {
+                if (!(component.getTimerService() instanceof TimerServiceImpl)) {
+                    return;
+                }
+                final TimerServiceImpl timerService = (TimerServiceImpl) component.getTimerService();
+                final String name = operation.require(NAME).asString();
+                if (TIMEOUT_COUNT.getName().equals(name)) {
+                    context.getResult().set(timerService.getTimeoutCount());
+                } else if (TIMEOUT_LAG_P50.getName().equals(name)) {
+                    context.getResult().set(timerService.getTimeoutLagPercentile(50d));
+                } else if (TIMEOUT_LAG_P99.getName().equals(name)) {
+                    context.getResult().set(timerService.getTimeoutLagPercentile(99d));
+                } else if (TIMEOUT_LAG_P999.getName().equals(name)) {
+                    context.getResult().set(timerService.getTimeoutLagPercentile(99.9d));
+                } else if (TIMEOUT_LAG_MAX.getName().equals(name)) {
+                    context.getResult().set(timerService.getMaxTimeoutLag());
+                }
+            }
+        };
+        for (AttributeDefinition metric : new AttributeDefinition[] { TIMEOUT_COUNT, TIMEOUT_LAG_P50, TIMEOUT_LAG_P99, TIMEOUT_LAG_P999, TIMEOUT_LAG_MAX }) {
+            resourceRegistration.registerMetric(metric, handler);
+        }
+    }
+
     @Override
     public void registerChildren(ManagementResourceRegistration resourceRegistration) {
         super.registerChildren(resourceRegistration);
@@ -38,7 +38,11 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import javax.ejb.EJBException;
 import javax.ejb.ScheduleExpression;
 import javax.ejb.Timer;
@@ -56,6 +60,7 @@ import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.TimerServiceRegistry;
 import org.jboss.as.ejb3.component.allowedmethods.AllowedMethodsInformation;
 import org.jboss.as.ejb3.component.allowedmethods.MethodType;
+import org.jboss.as.ejb3.component.invocationmetrics.LatencyHistogram;
 import org.jboss.as.ejb3.component.singleton.SingletonComponent;
 import org.jboss.as.ejb3.component.stateful.CurrentSynchronizationCallback;
 import org.jboss.as.ejb3.context.CurrentInvocationContext;
@@ -65,6 +70,7 @@ import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
 import org.jboss.as.ejb3.timerservice.persistence.database.DatabaseTimerPersistence;
 import org.jboss.as.ejb3.timerservice.spi.ScheduleTimer;
 import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
 import org.jboss.invocation.InterceptorContext;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
@@ -106,7 +112,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
 
     private final InjectedValue<ExecutorService> executorServiceInjectedValue = new InjectedValue<ExecutorService>();
 
-    private final InjectedValue<java.util.Timer> timerInjectedValue = new InjectedValue<java.util.Timer>();
+    private final InjectedValue<TimeoutScheduler> schedulerInjectedValue = new InjectedValue<TimeoutScheduler>();
 
     private final InjectedValue<TimedObjectInvoker> timedObjectInvoker = new InjectedValue<TimedObjectInvoker>();
 
@@ -123,12 +129,19 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
     /**
      * All timers which were created by this {@link TimerService}
      */
-    private final Map<String, TimerImpl> timers = new HashMap<String, TimerImpl>();
+    private final Map<String, TimerImpl> timers = new ConcurrentHashMap<String, TimerImpl>();
 
     /**
-     * Holds the {@link java.util.concurrent.Future} of each of the timer tasks that have been scheduled
+     * Holds each of the timer tasks that have been scheduled
      */
-    private final Map<String, java.util.TimerTask> scheduledTimerFutures = new HashMap<String, java.util.TimerTask>();
+    private final Map<String, Task> scheduledTimerFutures = new ConcurrentHashMap<String, Task>();
+
+    /**
+     * Measures the lag, in milliseconds, between the scheduled and actual start of each timeout
+     */
+    private final LatencyHistogram timeoutLag = new LatencyHistogram();
+    private final LongAccumulator maxTimeoutLag = new LongAccumulator(Math::max, 0L);
+    private final LongAdder timeouts = new LongAdder();
 
     /**
      * Key that is used to store timers that are waiting on transaction completion in the transaction local
@@ -216,7 +229,6 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         started = false;
         IoUtils.safeClose(listenerHandle);
         listenerHandle = null;
-        timerInjectedValue.getValue().purge(); //WFLY-3823
     }
 
 
@@ -405,13 +417,11 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         Object pk = currentPrimaryKey();
         final Set<Timer> activeTimers = new HashSet<Timer>();
         // get all active timers for this timerservice
-        synchronized (this.timers) {
-            for (final TimerImpl timer : this.timers.values()) {
-                // Less disruptive way to get WFLY-8457 fixed.
-                if (timer.isActive() || (!timer.isActive() && timer.getState() == TimerState.ACTIVE)) {
-                    if (timer.getPrimaryKey() == null || timer.getPrimaryKey().equals(pk)) {
-                        activeTimers.add(timer);
-                    }
+        for (final TimerImpl timer : this.timers.values()) {
+            // Less disruptive way to get WFLY-8457 fixed.
+            if (timer.isActive() || (!timer.isActive() && timer.getState() == TimerState.ACTIVE)) {
+                if (timer.getPrimaryKey() == null || timer.getPrimaryKey().equals(pk)) {
+                    activeTimers.add(timer);
                 }
             }
         }
@@ -571,9 +581,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
     }
 
     public TimerImpl getTimer(final String timerId) {
-        synchronized (this.timers) {
-            return this.timers.get(timerId);
-        }
+        return this.timers.get(timerId);
     }
 
     /**
@@ -592,10 +600,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
      */
     public TimerImpl getTimer(TimerHandle handle) {
         TimerHandleImpl timerHandle = (TimerHandleImpl) handle;
-        TimerImpl timer = null;
-        synchronized (this.timers) {
-            timer = this.timers.get(timerHandle.getId());
-        }
+        TimerImpl timer = this.timers.get(timerHandle.getId());
         if (timer != null) {
             return timer;
         }
@@ -912,43 +917,42 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
      * Creates and schedules a {@link TimerTask} for the next timeout of the passed <code>timer</code>
      */
     protected void scheduleTimeout(TimerImpl timer, boolean newTimer) {
-        synchronized (scheduledTimerFutures) {
-            if (!newTimer && !scheduledTimerFutures.containsKey(timer.getId())) {
+        this.scheduledTimerFutures.compute(timer.getId(), (id, existing) -> {
+            if (!newTimer && existing == null) {
                 //this timer has been cancelled by another thread. We just return
-                return;
+                return null;
             }
 
             Date nextExpiration = timer.getNextExpiration();
             if (nextExpiration == null) {
                 EJB3_TIMER_LOGGER.nextExpirationIsNull(timer);
-                return;
+                return existing;
             }
             // create the timer task
             final TimerTask<?> timerTask = timer.getTimerTask();
             // find out how long is it away from now
-            long delay = nextExpiration.getTime() - System.currentTimeMillis();
+            long now = System.currentTimeMillis();
+            long delay = nextExpiration.getTime() - now;
             // if in past, then trigger immediately
             if (delay < 0) {
                 delay = 0;
             }
             long intervalDuration = timer.getInterval();
-            final Task task = new Task(timerTask, ejbComponentInjectedValue.getValue().getControlPoint());
+            final Task task = new Task(timerTask, ejbComponentInjectedValue.getValue().getControlPoint(), now + delay, intervalDuration);
+            final TimeoutScheduler scheduler = this.schedulerInjectedValue.getValue();
             if (intervalDuration > 0) {
                 EJB3_TIMER_LOGGER.debugv("Scheduling timer {0} at fixed rate, starting at {1} milliseconds from now with repeated interval={2}",
                         timer, delay, intervalDuration);
                 // schedule the task
-                this.timerInjectedValue.getValue().scheduleAtFixedRate(task, delay, intervalDuration);
-                // maintain it in timerservice for future use (like cancellation)
-                this.scheduledTimerFutures.put(timer.getId(), task);
+                task.setTimeout(scheduler.scheduleAtFixedRate(task, delay, intervalDuration, TimeUnit.MILLISECONDS));
             } else {
                 EJB3_TIMER_LOGGER.debugv("Scheduling a single action timer {0} starting at {1} milliseconds from now", timer, delay);
                 // schedule the task
-                this.timerInjectedValue.getValue().schedule(task, delay);
-                // maintain it in timerservice for future use (like cancellation)
-                this.scheduledTimerFutures.put(timer.getId(), task);
-
+                task.setTimeout(scheduler.schedule(task, delay, TimeUnit.MILLISECONDS));
             }
-        }
+            // maintain it in timerservice for future use (like cancellation)
+            return task;
+        });
     }
 
     /**
@@ -957,19 +961,45 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
      * @param timer
      */
     protected void cancelTimeout(final TimerImpl timer) {
-        synchronized (this.scheduledTimerFutures) {
-            java.util.TimerTask timerTask = this.scheduledTimerFutures.remove(timer.getId());
-            if (timerTask != null) {
-                timerTask.cancel();
-            }
+        Task task = this.scheduledTimerFutures.remove(timer.getId());
+        if (task != null) {
+            task.cancel();
         }
     }
 
 
     public boolean isScheduled(final String tid) {
-        synchronized (this.scheduledTimerFutures) {
-            return this.scheduledTimerFutures.containsKey(tid);
-        }
+        return this.scheduledTimerFutures.containsKey(tid);
+    }
+
+    /**
+     * Returns the lag between the scheduled and actual start of a timeout of this timer service, at the specified percentile.
+     *
+     * @param percentile a percentile between 0 and 100
+     * @return a lag in milliseconds
+     */
+    public long getTimeoutLagPercentile(double percentile) {
+        return this.timeoutLag.getValueAtPercentile(percentile);
+    }
+
+    /**
+     * @return the maximum lag, in milliseconds, between the scheduled and actual start of a timeout of this timer service
+     */
+    public long getMaxTimeoutLag() {
+        return this.maxTimeoutLag.get();
+    }
+
+    /**
+     * @return the number of timeouts of this timer service that have started
+     */
+    public long getTimeoutCount() {
+        return this.timeouts.sum();
+    }
+
+    private void recordTimeoutLag(long lag) {
+        this.timeoutLag.record(lag);
+        this.maxTimeoutLag.accumulate(lag);
+        this.timeouts.increment();
     }
 
     /**
@@ -1137,8 +1167,8 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         return executorServiceInjectedValue;
     }
 
-    public InjectedValue<java.util.Timer> getTimerInjectedValue() {
-        return timerInjectedValue;
+    public InjectedValue<TimeoutScheduler> getTimeoutSchedulerInjectedValue() {
+        return schedulerInjectedValue;
     }
 
     public InjectedValue<TimerPersistence> getTimerPersistence() {
@@ -1162,11 +1192,11 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
     }
 
     private boolean registerTimerResource(final TimerImpl timer) {
+        // Lookups need not lock, but registration must be ordered with the corresponding resource notification
         synchronized (this.timers) {
-            if (this.timers.containsKey(timer.getId())) {
+            if (this.timers.putIfAbsent(timer.getId(), timer) != null) {
                 return false;
             }
-            this.timers.put(timer.getId(), timer);
             this.resource.timerCreated(timer.getId());
             return true;
         }
@@ -1266,7 +1296,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         }
     }
 
-    private class TaskPostPersist extends java.util.TimerTask {
+    private class TaskPostPersist implements Runnable {
         private final TimerImpl timer;
         private long delta = 0;
         private long nextExpirationPristine = 0;
@@ -1284,9 +1314,12 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
             this.nextExpirationPristine = nextExpirationPristine;
         }
 
+        /**
+         * Invoked by the timeout scheduler, whose thread is shared by all timer services, so the retry itself runs on the timer executor.
+         */
         @Override
         public void run() {
-            executorServiceInjectedValue.getValue().submit(this::persistTimer);
+            executorServiceInjectedValue.getValue().execute(this::persistTimer);
         }
 
         void persistTimer() {
@@ -1308,9 +1341,9 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
                     if (delta == 0L) {
                         delta = nextExpirationDelay / (1L + MAX_RETRY.longValue());
                     }
-                    timerInjectedValue
+                    schedulerInjectedValue
                             .getValue()
-                            .schedule(new TaskPostPersist(timer, delta, nextExpirationPristine), delta);
+                            .schedule(new TaskPostPersist(timer, delta, nextExpirationPristine), delta, TimeUnit.MILLISECONDS);
                 } else {
                     EJB3_TIMER_LOGGER.exceptionPersistPostTimerState(timer, e);
                 }
@@ -1318,33 +1351,54 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         }
     }
 
-    private class Task extends java.util.TimerTask {
+    private class Task implements Runnable {
 
         private final TimerTask<?> delegate;
         private final ControlPoint controlPoint;
+        private final long interval;
+        /**
+         * The time, in milliseconds since the epoch, at which the next timeout is scheduled to start.
+         * Only accessed by the scheduler.
+         */
+        private long scheduledTime;
+        private volatile TimeoutScheduler.Timeout timeout;
         /**
          * This is true if a task is queued up to be run by the request controller,
          * used to stop timer tasks banking up when the container is suspended.
          */
         private volatile boolean queued = false;
 
-        public Task(final TimerTask<?> delegate, ControlPoint controlPoint) {
+        public Task(final TimerTask<?> delegate, ControlPoint controlPoint, long scheduledTime, long interval) {
             this.delegate = delegate;
             this.controlPoint = controlPoint;
+            this.scheduledTime = scheduledTime;
+            this.interval = interval;
+        }
+
+        void setTimeout(TimeoutScheduler.Timeout timeout) {
+            this.timeout = timeout;
         }
 
         @Override
         public void run() {
+            final long scheduledTime = this.scheduledTime;
+            if (this.interval > 0) {
+                this.scheduledTime += this.interval;
+            }
             final ExecutorService executor = executorServiceInjectedValue.getOptionalValue();
             if (executor != null) {
                 if (controlPoint == null) {
-                    executor.submit(delegate);
+                    executor.submit(() -> {
+                        recordTimeoutLag(System.currentTimeMillis() - scheduledTime);
+                        delegate.run();
+                    });
                 } else if (!queued) {
                     queued = true;
                     controlPoint.queueTask(new Runnable() {
                         @Override
                         public void run() {
                             queued = false;
+                            recordTimeoutLag(System.currentTimeMillis() - scheduledTime);
                             delegate.run();
                         }
                     }, executor, -1, null, false);
@@ -1354,10 +1408,10 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
             }
         }
 
-        @Override
         public boolean cancel() {
             delegate.cancel();
-            return super.cancel();
+            TimeoutScheduler.Timeout timeout = this.timeout;
+            return (timeout != null) && timeout.cancel();
         }
     }
 
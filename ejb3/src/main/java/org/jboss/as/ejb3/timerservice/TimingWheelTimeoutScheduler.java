@@ -0,0 +1,274 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
+
+/**
+ * A {@link TimeoutScheduler} based on a hashed timing wheel.
+ * Unlike {@link java.util.Timer}, scheduling and cancelling a timeout are constant time, lock-free operations:
+ * new and cancelled timeouts are queued and only applied to the wheel by its worker thread, which exclusively owns the wheel.
+ * Every tick, the worker thread runs the tasks of the timeouts that expired within the current bucket.
+ * Consequently, a task never runs early, but may run up to one tick late.
+ *
+ * @author agent
+ */
+public class TimingWheelTimeoutScheduler implements TimeoutScheduler, AutoCloseable {
+
+    public static final long DEFAULT_TICK_DURATION_MILLIS = 10;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    // Bounds the number of new timeouts applied to the wheel per tick, so that a burst of new timeouts cannot delay expiration indefinitely
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startTime = System.nanoTime();
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Entry> cancelled = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private volatile boolean running = true;
+    // Accessed only by the worker thread
+    private long tick = 0;
+
+    public TimingWheelTimeoutScheduler(ThreadFactory factory) {
+        this(factory, DEFAULT_TICK_DURATION_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+    }
+
+    public TimingWheelTimeoutScheduler(ThreadFactory factory, long tickDuration, TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        // Round up to a power of 2
+        int size = (wheelSize > 1) ? Integer.highestOneBit(wheelSize - 1) << 1 : 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; ++i) {
+            this.wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.worker = factory.newThread(this::run);
+        this.worker.start();
+    }
+
+    @Override
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return this.add(new Entry(task, this.deadline(delay, unit), 0L));
+    }
+
+    @Override
+    public Timeout scheduleAtFixedRate(Runnable task, long delay, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException(Long.toString(period));
+        }
+        return this.add(new Entry(task, this.deadline(delay, unit), unit.toNanos(period)));
+    }
+
+    @Override
+    public void close() {
+        this.running = false;
+        LockSupport.unpark(this.worker);
+        if (Thread.currentThread() != this.worker) {
+            try {
+                this.worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        this.pending.clear();
+        this.cancelled.clear();
+    }
+
+    private long deadline(long delay, TimeUnit unit) {
+        long deadline = System.nanoTime() - this.startTime + unit.toNanos(Math.max(delay, 0L));
+        // Guard against overflow
+        return (deadline >= 0) ? deadline : Long.MAX_VALUE;
+    }
+
+    private Entry add(Entry entry) {
+        if (!this.running) {
+            throw new RejectedExecutionException();
+        }
+        this.pending.add(entry);
+        return entry;
+    }
+
+    private void run() {
+        while (this.running) {
+            long current = this.awaitNextTick();
+            if (current < 0) return;
+            this.removeCancelled();
+            this.transferPending();
+            this.wheel[(int) (this.tick & this.mask)].expire(current);
+            this.tick += 1;
+        }
+    }
+
+    /**
+     * Waits for the end of the current tick.
+     * @return the current time, relative to the start time of this scheduler, or -1 if this scheduler was closed.
+     */
+    private long awaitNextTick() {
+        long deadline = this.tickNanos * (this.tick + 1);
+        while (this.running) {
+            long current = System.nanoTime() - this.startTime;
+            long remaining = deadline - current;
+            if (remaining <= 0) return current;
+            LockSupport.parkNanos(this, remaining);
+        }
+        return -1L;
+    }
+
+    private void removeCancelled() {
+        for (Entry entry = this.cancelled.poll(); entry != null; entry = this.cancelled.poll()) {
+            Bucket bucket = entry.bucket;
+            if (bucket != null) {
+                bucket.remove(entry);
+            }
+        }
+    }
+
+    private void transferPending() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; ++i) {
+            Entry entry = this.pending.poll();
+            if (entry == null) return;
+            if (entry.state.get() != PENDING) continue;
+            long ticks = entry.deadline / this.tickNanos;
+            entry.remainingRounds = (ticks - this.tick) / this.wheel.length;
+            // Timeouts already due are expired within the current tick
+            this.wheel[(int) (Math.max(ticks, this.tick) & this.mask)].add(entry);
+        }
+    }
+
+    private void expire(Entry entry) {
+        if (entry.period > 0) {
+            if (entry.state.get() != PENDING) return;
+            // Fixed rate, i.e. relative to the previous deadline, not the current time
+            entry.deadline += entry.period;
+            this.pending.add(entry);
+        } else if (!entry.state.compareAndSet(PENDING, EXPIRED)) {
+            return;
+        }
+        try {
+            entry.task.run();
+        } catch (Throwable e) {
+            EJB3_TIMER_LOGGER.failedToRunTimeoutTask(e, entry.task);
+        }
+    }
+
+    private class Entry implements Timeout {
+        final Runnable task;
+        final long period;
+        final AtomicInteger state = new AtomicInteger(PENDING);
+        // The following are accessed only by the worker thread, except for the initial deadline
+        long deadline;
+        long remainingRounds;
+        Bucket bucket;
+        Entry previous;
+        Entry next;
+
+        Entry(Runnable task, long deadline, long period) {
+            this.task = task;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!this.state.compareAndSet(PENDING, CANCELLED)) return false;
+            TimingWheelTimeoutScheduler.this.cancelled.add(this);
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return this.task.toString();
+        }
+    }
+
+    // A doubly-linked list of entries, accessed only by the worker thread
+    private class Bucket {
+        private Entry head;
+        private Entry tail;
+
+        void add(Entry entry) {
+            entry.bucket = this;
+            if (this.tail == null) {
+                this.head = entry;
+            } else {
+                this.tail.next = entry;
+                entry.previous = this.tail;
+            }
+            this.tail = entry;
+        }
+
+        void remove(Entry entry) {
+            if (entry.previous != null) {
+                entry.previous.next = entry.next;
+            } else {
+                this.head = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.previous = entry.previous;
+            } else {
+                this.tail = entry.previous;
+            }
+            entry.previous = null;
+            entry.next = null;
+            entry.bucket = null;
+        }
+
+        void expire(long current) {
+            Entry entry = this.head;
+            while (entry != null) {
+                Entry next = entry.next;
+                if (entry.remainingRounds <= 0) {
+                    this.remove(entry);
+                    if (entry.deadline <= current) {
+                        TimingWheelTimeoutScheduler.this.expire(entry);
+                    } else {
+                        // Not yet due, e.g. due to a coarse clock, reschedule
+                        TimingWheelTimeoutScheduler.this.pending.add(entry);
+                    }
+                } else {
+                    entry.remainingRounds -= 1;
+                }
+                entry = next;
+            }
+        }
+    }
+}
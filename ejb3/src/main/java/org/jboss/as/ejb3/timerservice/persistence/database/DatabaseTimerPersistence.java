@@ -44,15 +44,19 @@ import java.util.Base64;
 import java.util.Collections;
 import java.util.Date;
 import java.util.EnumSet;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Pattern;
 
 import javax.sql.DataSource;
@@ -101,11 +105,11 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
 
     private final InjectedValue<ManagedReferenceFactory> dataSourceInjectedValue = new InjectedValue<ManagedReferenceFactory>();
     private final InjectedValue<ModuleLoader> moduleLoader = new InjectedValue<ModuleLoader>();
-    private final Map<String, TimerChangeListener> changeListeners = Collections.synchronizedMap(new HashMap<String, TimerChangeListener>());
+    private final Map<String, TimerChangeListener> changeListeners = new ConcurrentHashMap<>();
 
     private final InjectedValue<java.util.Timer> timerInjectedValue = new InjectedValue<java.util.Timer>();
 
-    private final Map<String, Set<String>> knownTimerIds = new HashMap<>();
+    private final ConcurrentMap<String, Set<String>> knownTimerIds = new ConcurrentHashMap<>();
 
     /** Identifier for the database dialect to be used for the timer-sql.properties */
     private String database;
@@ -119,6 +123,13 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private final int refreshInterval;
     /** Flag whether this instance should execute persistent timers*/
     private final boolean allowExecution;
+    /** How to refresh the timers from the persistence store*/
+    private final RefreshMode refreshMode;
+    /** Refresh statistics*/
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder rowsScanned = new LongAdder();
+    private final LongAdder rowsLoaded = new LongAdder();
+    private volatile long lastRefreshDuration;
     private volatile ManagedReference managedReference;
     private volatile DataSource dataSource;
     private volatile Properties sql;
@@ -134,17 +145,43 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private static final String LOAD_TIMER = "load-timer";
     private static final String DELETE_TIMER = "delete-timer";
     private static final String UPDATE_RUNNING = "update-running";
+    private static final String LOAD_TIMER_STATES = "load-timer-states";
+    private static final String REFRESH_TIMERS = "refresh-timers";
+    /** Maximum number of timers loaded by a single refresh-timers query*/
+    private static final int REFRESH_BATCH_SIZE = 100;
     /** The format for scheduler start and end date*/
     private static final String SCHEDULER_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
     /** Pattern to pickout MSSQL */
     private static final Pattern MSSQL_PATTERN = Pattern.compile("(sqlserver|microsoft|mssql)");
+    /** Timer states in which a timer is considered valid*/
+    private static final Set<TimerState> VALID_STATES = EnumSet.of(TimerState.IN_TIMEOUT, TimerState.RETRY_TIMEOUT, TimerState.CREATED, TimerState.ACTIVE);
+
+    /**
+     * Determines how timers are refreshed from the persistence store.
+     */
+    public enum RefreshMode {
+        /**
+         * Loads every timer of each timed object.
+         */
+        FULL,
+        /**
+         * Scans only the id and state of each timer of a timed object,
+         * and loads only those timers that are new or whose state diverged from the in-memory timer.
+         */
+        INCREMENTAL
+    }
 
     public DatabaseTimerPersistence(final String database, String partition, String nodeName, int refreshInterval, boolean allowExecution) {
+        this(database, partition, nodeName, refreshInterval, allowExecution, RefreshMode.FULL);
+    }
+
+    public DatabaseTimerPersistence(final String database, String partition, String nodeName, int refreshInterval, boolean allowExecution, RefreshMode refreshMode) {
         this.database = database;
         this.partition = partition;
         this.nodeName = nodeName;
         this.refreshInterval = refreshInterval;
         this.allowExecution = allowExecution;
+        this.refreshMode = refreshMode;
     }
 
     @Override
@@ -327,19 +364,16 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     @Override
     public void addTimer(final TimerImpl timerEntity) {
         String timedObjectId = timerEntity.getTimedObjectId();
-        synchronized (this) {
-            if(!knownTimerIds.containsKey(timedObjectId)) {
-                throw EjbLogger.EJB3_TIMER_LOGGER.timerCannotBeAdded(timerEntity);
-            }
+        Set<String> ids = knownTimerIds.get(timedObjectId);
+        if (ids == null) {
+            throw EjbLogger.EJB3_TIMER_LOGGER.timerCannotBeAdded(timerEntity);
         }
 
         String createTimer = sql(CREATE_TIMER);
         Connection connection = null;
         PreparedStatement statement = null;
         try {
-            synchronized (this) {
-                knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
-            }
+            ids.add(timerEntity.getId());
             connection = dataSource.getConnection();
             statement = connection.prepareStatement(createTimer);
             statementParameters(timerEntity, statement);
@@ -362,28 +396,14 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
                     timerEntity.getState() == TimerState.EXPIRED) {
                 String deleteTimer = sql(DELETE_TIMER);
                 statement = connection.prepareStatement(deleteTimer);
-                statement.setString(1, timerEntity.getTimedObjectId());
-                statement.setString(2, timerEntity.getId());
-                statement.setString(3, partition);
+                deleteStatementParameters(timerEntity.getTimedObjectId(), timerEntity.getId(), statement);
                 statement.execute();
-                synchronized (this) {
-                    knownTimerIds.get(timerEntity.getTimedObjectId()).remove(timerEntity.getId());
-                }
+                timerRemoved(timerEntity);
             } else {
-                synchronized (this) {
-                    knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
-                }
+                timerUpdated(timerEntity);
                 String updateTimer = sql(UPDATE_TIMER);
                 statement = connection.prepareStatement(updateTimer);
-                statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
-                statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
-                statement.setString(3, timerEntity.getState().name());
-                setNodeName(timerEntity.getState(), statement, 4);
-                // WHERE CLAUSE
-                statement.setString(5, timerEntity.getTimedObjectId());
-                statement.setString(6, timerEntity.getId());
-                statement.setString(7, partition);
-                statement.setString(8, nodeName);   // only persist if this node or empty
+                updateStatementParameters(timerEntity, statement);
                 statement.execute();
             }
         } catch (SQLException e) {
@@ -394,6 +414,65 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         }
     }
 
+    /**
+     * Persists the specified timers using a single connection, batching their updates and deletes.
+     */
+    private void persistTimers(final List<TimerImpl> timers) {
+        if (timers.isEmpty()) {
+            return;
+        }
+        Connection connection = null;
+        PreparedStatement updateStatement = null;
+        PreparedStatement deleteStatement = null;
+        try {
+            connection = dataSource.getConnection();
+            for (TimerImpl timerEntity : timers) {
+                if (timerEntity.getState() == TimerState.CANCELED ||
+                        timerEntity.getState() == TimerState.EXPIRED) {
+                    if (deleteStatement == null) {
+                        deleteStatement = connection.prepareStatement(sql(DELETE_TIMER));
+                    }
+                    deleteStatementParameters(timerEntity.getTimedObjectId(), timerEntity.getId(), deleteStatement);
+                    deleteStatement.addBatch();
+                    timerRemoved(timerEntity);
+                } else {
+                    if (updateStatement == null) {
+                        updateStatement = connection.prepareStatement(sql(UPDATE_TIMER));
+                    }
+                    timerUpdated(timerEntity);
+                    updateStatementParameters(timerEntity, updateStatement);
+                    updateStatement.addBatch();
+                }
+            }
+            if (deleteStatement != null) {
+                deleteStatement.executeBatch();
+            }
+            if (updateStatement != null) {
+                updateStatement.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            safeClose(updateStatement);
+            safeClose(deleteStatement);
+            safeClose(connection);
+        }
+    }
+
+    private void timerRemoved(final TimerImpl timerEntity) {
+        Set<String> ids = knownTimerIds.get(timerEntity.getTimedObjectId());
+        if (ids != null) {
+            ids.remove(timerEntity.getId());
+        }
+    }
+
+    private void timerUpdated(final TimerImpl timerEntity) {
+        Set<String> ids = knownTimerIds.get(timerEntity.getTimedObjectId());
+        if (ids != null) {
+            ids.add(timerEntity.getId());
+        }
+    }
+
     @Override
     public boolean shouldRun(TimerImpl timer, @Deprecated TransactionManager ignored) {
         final ContextTransactionManager tm = ContextTransactionManager.getInstance();
@@ -459,12 +538,17 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
 
     @Override
     public synchronized void timerDeployed(String timedObjectId) {
-        knownTimerIds.put(timedObjectId, new HashSet<>());
+        knownTimerIds.put(timedObjectId, ConcurrentHashMap.newKeySet());
     }
 
     @Override
     public List<TimerImpl> loadActiveTimers(final String timedObjectId, final TimerServiceImpl timerService) {
-        if(!knownTimerIds.containsKey(timedObjectId)) {
+        // Read under the same lock as timerDeployed(...)/timerUndeployed(...), and use the same set throughout
+        final Set<String> ids;
+        synchronized (this) {
+            ids = knownTimerIds.get(timedObjectId);
+        }
+        if (ids == null) {
             // if the timedObjectId has not being deployed
             EjbLogger.EJB3_TIMER_LOGGER.timerNotDeployed(timedObjectId);
             return Collections.emptyList();
@@ -480,45 +564,46 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             statement.setString(2, partition);
             resultSet = statement.executeQuery();
             final List<Holder> timers = new ArrayList<>();
+            final List<String> invalidTimerIds = new ArrayList<>();
             while (resultSet.next()) {
                 try {
                     final Holder timerImpl = timerFromResult(resultSet, timerService);
                     if (timerImpl != null) {
                         timers.add(timerImpl);
                     } else {
-                        final String deleteTimer = sql(DELETE_TIMER);
-                        try (PreparedStatement deleteStatement = connection.prepareStatement(deleteTimer)) {
-                            deleteStatement.setString(1, resultSet.getString(2));
-                            deleteStatement.setString(2, resultSet.getString(1));
-                            deleteStatement.setString(3, partition);
-                            deleteStatement.execute();
-                        }
+                        invalidTimerIds.add(resultSet.getString(1));
                     }
                 } catch (Exception e) {
                     EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
                 }
             }
-            synchronized (this) {
-                // ids should be always be not null
-                Set<String> ids = knownTimerIds.get(timedObjectId);
-                for (Holder timer : timers) {
-                    ids.add(timer.timer.getId());
+            if (!invalidTimerIds.isEmpty()) {
+                try (PreparedStatement deleteStatement = connection.prepareStatement(sql(DELETE_TIMER))) {
+                    for (String id : invalidTimerIds) {
+                        deleteStatementParameters(timedObjectId, id, deleteStatement);
+                        deleteStatement.addBatch();
+                    }
+                    deleteStatement.executeBatch();
                 }
+            }
+            for (Holder timer : timers) {
+                ids.add(timer.timer.getId());
+            }
 
-                for(Holder timer : timers) {
-                    if(timer.requiresReset) {
-                        TimerImpl ret = timer.timer;
-                        EjbLogger.DEPLOYMENT_LOGGER.loadedPersistentTimerInTimeout(ret.getId(), ret.getTimedObjectId());
-                        if(ret.getNextExpiration() == null) {
-                            ret.setTimerState(TimerState.CANCELED);
-                            persistTimer(ret);
-                        } else {
-                            ret.setTimerState(TimerState.ACTIVE);
-                            persistTimer(ret);
-                        }
+            final List<TimerImpl> resetTimers = new ArrayList<>();
+            for(Holder timer : timers) {
+                if(timer.requiresReset) {
+                    TimerImpl ret = timer.timer;
+                    EjbLogger.DEPLOYMENT_LOGGER.loadedPersistentTimerInTimeout(ret.getId(), ret.getTimedObjectId());
+                    if(ret.getNextExpiration() == null) {
+                        ret.setTimerState(TimerState.CANCELED);
+                    } else {
+                        ret.setTimerState(TimerState.ACTIVE);
                     }
+                    resetTimers.add(ret);
                 }
             }
+            persistTimers(resetTimers);
             List<TimerImpl> ret = new ArrayList<>();
             for(Holder timer : timers) {
                 ret.add(timer.timer);
@@ -553,6 +638,34 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         refreshTask.run();
     }
 
+    /**
+     * @return the number of refreshes of the timers from the persistence store
+     */
+    public long getRefreshCount() {
+        return refreshCount.sum();
+    }
+
+    /**
+     * @return the duration of the most recent refresh of the timers from the persistence store, in milliseconds
+     */
+    public long getLastRefreshDuration() {
+        return lastRefreshDuration;
+    }
+
+    /**
+     * @return the number of rows scanned by all refreshes of the timers from the persistence store
+     */
+    public long getRowsScanned() {
+        return rowsScanned.sum();
+    }
+
+    /**
+     * @return the number of timers loaded by all refreshes of the timers from the persistence store
+     */
+    public long getRowsLoaded() {
+        return rowsLoaded.sum();
+    }
+
     private Holder timerFromResult(final ResultSet resultSet, final TimerServiceImpl timerService) throws SQLException {
         boolean calendarTimer = resultSet.getBoolean(24);
         final String nodeName = resultSet.getString(25);
@@ -678,6 +791,24 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         setNodeName(timerEntity.getState(), statement, 26);
     }
 
+    private void updateStatementParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
+        statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
+        statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
+        statement.setString(3, timerEntity.getState().name());
+        setNodeName(timerEntity.getState(), statement, 4);
+        // WHERE CLAUSE
+        statement.setString(5, timerEntity.getTimedObjectId());
+        statement.setString(6, timerEntity.getId());
+        statement.setString(7, partition);
+        statement.setString(8, nodeName);   // only persist if this node or empty
+    }
+
+    private void deleteStatementParameters(final String timedObjectId, final String timerId, final PreparedStatement statement) throws SQLException {
+        statement.setString(1, timedObjectId);
+        statement.setString(2, timerId);
+        statement.setString(3, partition);
+    }
+
     private String serialize(final Serializable serializable) {
         if (serializable == null) {
             return null;
@@ -821,90 +952,181 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         @Override
         public void run() {
             if (running.compareAndSet(false, true)) {
+                final long start = System.nanoTime();
                 try {
-                    Set<String> timedObjects;
-                    synchronized (DatabaseTimerPersistence.this) {
-                        timedObjects = new HashSet<>(knownTimerIds.keySet());
-                    }
-                    for (String timedObjectId : timedObjects) {
+                    for (Map.Entry<String, Set<String>> entry : knownTimerIds.entrySet()) {
+                        final String timedObjectId = entry.getKey();
                         TimerChangeListener listener = changeListeners.get(timedObjectId);
                         if (listener == null) {
                             continue;
                         }
-                        final Set<String> existing;
-                        synchronized (DatabaseTimerPersistence.this) {
-                            existing = new HashSet<>(knownTimerIds.get(timedObjectId));
-                        }
-                        String loadTimer = sql(LOAD_ALL_TIMERS);
+                        final Set<String> ids = entry.getValue();
+                        final Set<String> existing = new HashSet<>(ids);
                         Connection connection = null;
-                        PreparedStatement statement = null;
-                        ResultSet resultSet = null;
                         try {
                             connection = dataSource.getConnection();
-                            statement = connection.prepareStatement(loadTimer);
-                            statement.setString(1, timedObjectId);
-                            statement.setString(2, partition);
-                            resultSet = statement.executeQuery();
-                            final TimerServiceImpl timerService = listener.getTimerService();
-                            while (resultSet.next()) {
-                                try {
-                                    String id = resultSet.getString(1);
-                                    if (!existing.remove(id)) {
-                                        final Holder holder = timerFromResult(resultSet, timerService);
-                                        if(holder != null) {
-                                            synchronized (DatabaseTimerPersistence.this) {
-                                                knownTimerIds.get(timedObjectId).add(id);
-                                                listener.timerAdded(holder.timer);
-                                            }
-                                        }
-                                    } else {
-                                        final Holder holder = timerFromResult(resultSet, listener.getTimerService());
-                                        if (holder != null) {
-                                            TimerImpl oldTimer = listener.getTimerService().getTimer(id);
-                                            // if it is already in memory but it is not in sync we have a problem
-                                            // remove and add -> the probable cause is db glitch
-                                            EnumSet<TimerState> valid = EnumSet.of(TimerState.IN_TIMEOUT, TimerState.RETRY_TIMEOUT, TimerState.CREATED, TimerState.ACTIVE);
-                                            boolean validDBTimer = valid.contains(holder.timer.getState());
-                                            boolean validMemoryTimer = oldTimer != null && !valid.contains(oldTimer.getState());
-                                            // if timers memory - db are in non intersect subsets of valid/invalid states. we put them in sync
-                                            if (validMemoryTimer && validDBTimer) {
-                                                synchronized (DatabaseTimerPersistence.this) {
-                                                    knownTimerIds.get(timedObjectId).add(holder.timer.getId());
-                                                    listener.timerSync(oldTimer, holder.timer);
-                                                }
-
-                                            }
-                                        }
-                                    }
-                                } catch (Exception e) {
-                                    EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
-                                }
+                            if (refreshMode == RefreshMode.INCREMENTAL) {
+                                refreshIncremental(connection, timedObjectId, listener, ids, existing);
+                            } else {
+                                refreshFull(connection, timedObjectId, listener, ids, existing);
                             }
 
-                            synchronized (DatabaseTimerPersistence.this) {
-                                Set<String> timers = knownTimerIds.get(timedObjectId);
-                                for (String timer : existing) {
-                                    TimerImpl timer1 = timerService.getTimer(timer);
-                                    if (timer1 != null && timer1.getState() != TimerState.CREATED) {
-                                        timers.remove(timer);
-                                        listener.timerRemoved(timer);
-                                    }
+                            final TimerServiceImpl timerService = listener.getTimerService();
+                            for (String timer : existing) {
+                                TimerImpl timer1 = timerService.getTimer(timer);
+                                if (timer1 != null && timer1.getState() != TimerState.CREATED) {
+                                    ids.remove(timer);
+                                    listener.timerRemoved(timer);
                                 }
                             }
                         } catch (SQLException e) {
                             EjbLogger.EJB3_TIMER_LOGGER.failedToRefreshTimers(timedObjectId);
                         } finally {
-                            safeClose(resultSet);
-                            safeClose(statement);
                             safeClose(connection);
                         }
                     }
                 } finally {
+                    refreshCount.increment();
+                    lastRefreshDuration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
                     running.set(false);
                 }
             }
 
         }
+
+        /**
+         * Loads every timer of the specified timed object.
+         */
+        private void refreshFull(Connection connection, String timedObjectId, TimerChangeListener listener, Set<String> ids, Set<String> existing) throws SQLException {
+            String loadTimer = sql(LOAD_ALL_TIMERS);
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                statement = connection.prepareStatement(loadTimer);
+                statement.setString(1, timedObjectId);
+                statement.setString(2, partition);
+                resultSet = statement.executeQuery();
+                final TimerServiceImpl timerService = listener.getTimerService();
+                while (resultSet.next()) {
+                    rowsScanned.increment();
+                    try {
+                        String id = resultSet.getString(1);
+                        boolean known = existing.remove(id);
+                        rowsLoaded.increment();
+                        final Holder holder = timerFromResult(resultSet, timerService);
+                        if (holder != null) {
+                            refreshTimer(listener, ids, holder, known);
+                        }
+                    } catch (Exception e) {
+                        EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
+                    }
+                }
+            } finally {
+                safeClose(resultSet);
+                safeClose(statement);
+            }
+        }
+
+        /**
+         * Scans the id and state of every timer of the specified timed object,
+         * but only loads those timers that are unknown to this node, or whose persistent state is valid while the in-memory timer is not.
+         */
+        private void refreshIncremental(Connection connection, String timedObjectId, TimerChangeListener listener, Set<String> ids, Set<String> existing) throws SQLException {
+            final TimerServiceImpl timerService = listener.getTimerService();
+            // Maps the id of each timer to load to whether or not it is already known
+            final Map<String, Boolean> changed = new LinkedHashMap<>();
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                statement = connection.prepareStatement(sql(LOAD_TIMER_STATES));
+                statement.setString(1, timedObjectId);
+                statement.setString(2, partition);
+                resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    rowsScanned.increment();
+                    String id = resultSet.getString(1);
+                    if (!existing.remove(id)) {
+                        changed.put(id, Boolean.FALSE);
+                    } else {
+                        try {
+                            TimerState state = TimerState.valueOf(resultSet.getString(2));
+                            TimerImpl oldTimer = timerService.getTimer(id);
+                            if (VALID_STATES.contains(state) && oldTimer != null && !VALID_STATES.contains(oldTimer.getState())) {
+                                changed.put(id, Boolean.TRUE);
+                            }
+                        } catch (IllegalArgumentException e) {
+                            EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, id, e);
+                        }
+                    }
+                }
+            } finally {
+                safeClose(resultSet);
+                safeClose(statement);
+            }
+            if (changed.isEmpty()) {
+                return;
+            }
+            final List<String> changedIds = new ArrayList<>(changed.keySet());
+            for (int i = 0; i < changedIds.size(); i += REFRESH_BATCH_SIZE) {
+                refreshChanged(connection, timedObjectId, listener, ids, changed, changedIds.subList(i, Math.min(i + REFRESH_BATCH_SIZE, changedIds.size())));
+            }
+        }
+
+        /**
+         * Loads the specified changed timers using a single query.
+         */
+        private void refreshChanged(Connection connection, String timedObjectId, TimerChangeListener listener, Set<String> ids, Map<String, Boolean> changed, List<String> changedIds) throws SQLException {
+            final TimerServiceImpl timerService = listener.getTimerService();
+            final String refreshTimers = String.format(sql(REFRESH_TIMERS), String.join(",", Collections.nCopies(changedIds.size(), "?")));
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                statement = connection.prepareStatement(refreshTimers);
+                statement.setString(1, timedObjectId);
+                statement.setString(2, partition);
+                int index = 3;
+                for (String id : changedIds) {
+                    statement.setString(index++, id);
+                }
+                resultSet = statement.executeQuery();
+                // Timers removed since they were scanned will simply be absent
+                while (resultSet.next()) {
+                    rowsLoaded.increment();
+                    String id = resultSet.getString(1);
+                    try {
+                        final Holder holder = timerFromResult(resultSet, timerService);
+                        if (holder != null) {
+                            refreshTimer(listener, ids, holder, changed.get(id));
+                        }
+                    } catch (Exception e) {
+                        EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, id, e);
+                    }
+                }
+            } finally {
+                safeClose(resultSet);
+                safeClose(statement);
+            }
+        }
+
+        private void refreshTimer(TimerChangeListener listener, Set<String> ids, Holder holder, boolean known) {
+            if (!known) {
+                // Skip timers concurrently added by this node
+                if (ids.add(holder.timer.getId())) {
+                    listener.timerAdded(holder.timer);
+                }
+            } else {
+                TimerImpl oldTimer = listener.getTimerService().getTimer(holder.timer.getId());
+                // if it is already in memory but it is not in sync we have a problem
+                // remove and add -> the probable cause is db glitch
+                boolean validDBTimer = VALID_STATES.contains(holder.timer.getState());
+                boolean validMemoryTimer = oldTimer != null && !VALID_STATES.contains(oldTimer.getState());
+                // if timers memory - db are in non intersect subsets of valid/invalid states. we put them in sync
+                if (validMemoryTimer && validDBTimer) {
+                    ids.add(holder.timer.getId());
+                    listener.timerSync(oldTimer, holder.timer);
+                }
+            }
+        }
     }
 
 
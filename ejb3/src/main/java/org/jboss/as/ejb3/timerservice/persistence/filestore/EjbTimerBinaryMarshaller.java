@@ -0,0 +1,226 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Date;
+
+import javax.ejb.ScheduleExpression;
+
+import org.jboss.as.ejb3.timerservice.CalendarTimer;
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimeoutMethod;
+import org.jboss.marshalling.ByteBufferInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.Unmarshaller;
+
+/**
+ * Compact binary representation of the persistent state of a timer, as stored by a {@link TimerJournal}.
+ * Carries the same state as {@link EjbTimerXmlPersister}, where the timer info and primary key are marshalled using JBoss Marshalling.
+ *
+ * @author agent
+ */
+public class EjbTimerBinaryMarshaller {
+
+    private static final byte VERSION = 1;
+
+    private final MarshallerFactory factory;
+    private final MarshallingConfiguration configuration;
+
+    public EjbTimerBinaryMarshaller(MarshallerFactory factory, MarshallingConfiguration configuration) {
+        this.factory = factory;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Serializes the persistent state of the specified timer.
+     * @param timer a timer
+     * @return the serialized state of the timer
+     * @throws IOException if the timer info or primary key could not be marshalled
+     */
+    public byte[] marshal(TimerImpl timer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream output = new DataOutputStream(bytes);
+        boolean calendar = timer instanceof CalendarTimer;
+        output.writeByte(VERSION);
+        output.writeBoolean(calendar);
+        output.writeUTF(timer.getTimedObjectId());
+        output.writeUTF(timer.getId());
+        writeDate(output, timer.getInitialExpiration());
+        output.writeLong(timer.getInterval());
+        writeDate(output, timer.getNextExpiration());
+        writeDate(output, timer.getPreviousRun());
+        output.writeUTF(timer.getState().name());
+        this.writeObject(output, timer.getTimerInfo());
+        this.writeObject(output, timer.getPrimaryKey());
+        if (calendar) {
+            CalendarTimer calendarTimer = (CalendarTimer) timer;
+            ScheduleExpression schedule = calendarTimer.getScheduleExpression();
+            writeString(output, schedule.getSecond());
+            writeString(output, schedule.getMinute());
+            writeString(output, schedule.getHour());
+            writeString(output, schedule.getDayOfWeek());
+            writeString(output, schedule.getDayOfMonth());
+            writeString(output, schedule.getMonth());
+            writeString(output, schedule.getYear());
+            writeDate(output, schedule.getStart());
+            writeDate(output, schedule.getEnd());
+            writeString(output, schedule.getTimezone());
+            output.writeBoolean(calendarTimer.isAutoTimer());
+            if (calendarTimer.isAutoTimer()) {
+                Method method = calendarTimer.getTimeoutMethod();
+                output.writeUTF(method.getDeclaringClass().getName());
+                output.writeUTF(method.getName());
+                Class<?>[] parameterTypes = method.getParameterTypes();
+                output.writeByte(parameterTypes.length);
+                for (Class<?> parameterType : parameterTypes) {
+                    output.writeUTF(parameterType.getName());
+                }
+            }
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Restores a timer from its serialized state.
+     * @param state the serialized state of a timer
+     * @param timerService the timer service of the timer
+     * @return the restored timer, or null, if the timeout method of an auto timer no longer exists
+     * @throws IOException if the state of the timer could not be read
+     * @throws ClassNotFoundException if the timer info or primary key references a class that could not be loaded
+     */
+    public TimerImpl unmarshal(byte[] state, TimerServiceImpl timerService) throws IOException, ClassNotFoundException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(state));
+        byte version = input.readByte();
+        if (version != VERSION) {
+            throw new StreamCorruptedException(Byte.toString(version));
+        }
+        boolean calendar = input.readBoolean();
+        TimerImpl.Builder builder = calendar ? CalendarTimer.builder() : TimerImpl.builder();
+        builder.setPersistent(true);
+        builder.setTimedObjectId(input.readUTF());
+        builder.setId(input.readUTF());
+        builder.setInitialDate(readDate(input));
+        builder.setRepeatInterval(input.readLong());
+        builder.setNextDate(readDate(input));
+        builder.setPreviousRun(readDate(input));
+        builder.setTimerState(TimerState.valueOf(input.readUTF()));
+        builder.setInfo((Serializable) this.readObject(input));
+        builder.setPrimaryKey(this.readObject(input));
+        if (calendar) {
+            CalendarTimer.Builder calendarBuilder = (CalendarTimer.Builder) builder;
+            calendarBuilder.setScheduleExprSecond(readString(input));
+            calendarBuilder.setScheduleExprMinute(readString(input));
+            calendarBuilder.setScheduleExprHour(readString(input));
+            calendarBuilder.setScheduleExprDayOfWeek(readString(input));
+            calendarBuilder.setScheduleExprDayOfMonth(readString(input));
+            calendarBuilder.setScheduleExprMonth(readString(input));
+            calendarBuilder.setScheduleExprYear(readString(input));
+            calendarBuilder.setScheduleExprStartDate(readDate(input));
+            calendarBuilder.setScheduleExprEndDate(readDate(input));
+            calendarBuilder.setScheduleExprTimezone(readString(input));
+            boolean autoTimer = input.readBoolean();
+            calendarBuilder.setAutoTimer(autoTimer);
+            if (autoTimer) {
+                String declaringClass = input.readUTF();
+                String methodName = input.readUTF();
+                String[] parameterTypes = new String[input.readUnsignedByte()];
+                for (int i = 0; i < parameterTypes.length; ++i) {
+                    parameterTypes[i] = input.readUTF();
+                }
+                Method timeoutMethod = CalendarTimer.getTimeoutMethod(new TimeoutMethod(declaringClass, methodName, parameterTypes), timerService.getTimedObjectInvoker().getValue().getClassLoader());
+                if (timeoutMethod == null) {
+                    return null;
+                }
+                calendarBuilder.setTimeoutMethod(timeoutMethod);
+            }
+        }
+        return builder.build(timerService);
+    }
+
+    private void writeObject(DataOutput output, Object object) throws IOException {
+        if (object == null) {
+            output.writeInt(-1);
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Marshaller marshaller = this.factory.createMarshaller(this.configuration);
+        marshaller.start(new OutputStreamByteOutput(bytes));
+        marshaller.writeObject(object);
+        marshaller.finish();
+        marshaller.flush();
+        output.writeInt(bytes.size());
+        output.write(bytes.toByteArray());
+    }
+
+    private Object readObject(DataInput input) throws IOException, ClassNotFoundException {
+        int length = input.readInt();
+        if (length < 0) return null;
+        byte[] data = new byte[length];
+        input.readFully(data);
+        Unmarshaller unmarshaller = this.factory.createUnmarshaller(this.configuration);
+        unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(data)));
+        try {
+            return unmarshaller.readObject();
+        } finally {
+            unmarshaller.close();
+        }
+    }
+
+    private static void writeDate(DataOutput output, Date date) throws IOException {
+        output.writeBoolean(date != null);
+        if (date != null) {
+            output.writeLong(date.getTime());
+        }
+    }
+
+    private static Date readDate(DataInput input) throws IOException {
+        return input.readBoolean() ? new Date(input.readLong()) : null;
+    }
+
+    private static void writeString(DataOutput output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+}
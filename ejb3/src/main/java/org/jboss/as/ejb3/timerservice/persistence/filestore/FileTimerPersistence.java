@@ -64,6 +64,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
@@ -75,18 +76,37 @@ import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
 /**
  * File based persistent timer store.
  * <p/>
+ * Timers are stored either as one XML file per timer, or in a {@link TimerJournal} per timed object.
+ * Each format transparently migrates any timers found in the other format.
+ * <p/>
  * TODO: this is fairly hackey at the moment, it should be registered as an XA resource to support proper XA semantics
  *
  * @author Stuart Douglas
  */
 public class FileTimerPersistence implements TimerPersistence, Service<FileTimerPersistence> {
 
+    /**
+     * The format in which timers are stored.
+     */
+    public enum Format {
+        /**
+         * One XML file per timer, rewritten on every change.
+         */
+        XML,
+        /**
+         * A segmented, append-only binary journal per timed object, loaded lazily on first use.
+         */
+        JOURNAL
+    }
+
     private static final FilePermission FILE_PERMISSION = new FilePermission("<<ALL FILES>>", "read,write,delete");
     private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
 
     private final boolean createIfNotExists;
+    private final Format format;
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
+    private EjbTimerBinaryMarshaller marshaller;
     private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistry = new InjectedValue<TransactionSynchronizationRegistry>();
     private final InjectedValue<ModuleLoader> moduleLoader = new InjectedValue<ModuleLoader>();
     private final InjectedValue<PathManager> pathManager = new InjectedValue<PathManager>();
@@ -97,13 +117,22 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     private final ConcurrentMap<String, Lock> locks = new ConcurrentHashMap<String, Lock>();
     private final ConcurrentMap<String, String> directories = new ConcurrentHashMap<String, String>();
+    // Journals of the timed objects accessed so far, guarded by the lock of the respective timed object
+    private final ConcurrentMap<String, TimerJournal> journals = new ConcurrentHashMap<String, TimerJournal>();
+    // Timed objects whose directory was already checked for a journal to convert into XML files
+    private final Set<String> migratedJournals = ConcurrentHashMap.newKeySet();
 
     public FileTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo) {
+        this(createIfNotExists, path, pathRelativeTo, Format.XML);
+    }
+
+    public FileTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo, final Format format) {
         final SecurityManager sm = System.getSecurityManager();
         if (sm != null) {
             sm.checkPermission(FILE_PERMISSION);
         }
         this.createIfNotExists = createIfNotExists;
+        this.format = format;
         this.path = path;
         this.pathRelativeTo = pathRelativeTo;
     }
@@ -130,6 +159,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
         this.configuration = configuration;
         this.factory = factory;
+        this.marshaller = new EjbTimerBinaryMarshaller(factory, configuration);
         if (pathRelativeTo != null) {
             callbackHandle = pathManager.getValue().registerCallback(pathRelativeTo, PathManager.ReloadServerCallback.create(), PathManager.Event.UPDATED, PathManager.Event.REMOVED);
         }
@@ -150,6 +180,11 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     @Override
     public void stop(final StopContext context) {
+        for (TimerJournal journal : journals.values()) {
+            closeJournal(journal);
+        }
+        journals.clear();
+        migratedJournals.clear();
         locks.clear();
         directories.clear();
         if (callbackHandle != null) {
@@ -157,6 +192,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         }
         factory = null;
         configuration = null;
+        marshaller = null;
     }
 
     @Override
@@ -213,6 +249,10 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             if (status == Status.STATUS_NO_TRANSACTION ||
                     status == Status.STATUS_UNKNOWN || isBeforeCompletion()
                     || status == Status.STATUS_COMMITTED) {
+                if (format == Format.JOURNAL) {
+                    writeJournal(timer, newTimer);
+                    return;
+                }
                 Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
                 if (timer.getState() == TimerState.CANCELED ||
                         timer.getState() == TimerState.EXPIRED) {
@@ -253,6 +293,10 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             lock.lock();
             locks.remove(timedObjectId);
             directories.remove(timedObjectId);
+            final TimerJournal journal = journals.remove(timedObjectId);
+            if (journal != null) {
+                closeJournal(journal);
+            }
         } finally {
             lock.unlock();
         }
@@ -272,7 +316,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         final Lock lock = getLock(timedObjectId);
         try {
             lock.lock();
-            final Map<String, TimerImpl> timers = getTimers(timedObjectId, timerService);
+            final Map<String, TimerImpl> timers = (format == Format.JOURNAL) ? readJournal(timedObjectId, getJournal(timedObjectId, timerService), timerService) : getTimers(timedObjectId, timerService);
 
             final List<TimerImpl> entities = new ArrayList<TimerImpl>();
             for (Map.Entry<String, TimerImpl> entry : timers.entrySet()) {
@@ -331,9 +375,130 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
      * @return The timers for the object
      */
     private Map<String, TimerImpl> getTimers(final String timedObjectId, final TimerServiceImpl timerService) {
+        migrateJournal(timedObjectId, timerService);
         return loadTimersFromFile(timedObjectId, timerService);
     }
 
+    /**
+     * Gets the journal of a timed object, opening it and migrating any timers stored as XML if necessary. Should be called under lock
+     *
+     * @param timedObjectId The timed object id
+     * @return The journal of the timed object
+     */
+    private TimerJournal getJournal(final String timedObjectId, final TimerServiceImpl timerService) {
+        TimerJournal journal = journals.get(timedObjectId);
+        if (journal == null) {
+            journal = new TimerJournal(new File(getDirectory(timedObjectId)));
+            try {
+                journal.open();
+                final Map<String, TimerImpl> timers = loadTimersFromFile(timedObjectId, timerService);
+                if (!timers.isEmpty()) {
+                    final List<File> migrated = new ArrayList<>(timers.size());
+                    for (TimerImpl timer : timers.values()) {
+                        try {
+                            journal.put(timer.getId(), marshaller.marshal(timer));
+                            migrated.add(fileName(timedObjectId, timer.getId()));
+                        } catch (IOException e) {
+                            EJB3_TIMER_LOGGER.failedToPersistTimer(timer, e);
+                        }
+                    }
+                    //only remove the xml files once their timers are durable in the journal
+                    journal.sync();
+                    for (File file : migrated) {
+                        file.delete();
+                    }
+                }
+            } catch (IOException e) {
+                closeJournal(journal);
+                throw new RuntimeException(e);
+            }
+            journals.put(timedObjectId, journal);
+        }
+        return journal;
+    }
+
+    private void writeJournal(final TimerImpl timer, final boolean newTimer) {
+        final TimerJournal journal = getJournal(timer.getTimedObjectId(), timer.getTimerService());
+        try {
+            if (timer.getState() == TimerState.CANCELED ||
+                    timer.getState() == TimerState.EXPIRED) {
+                journal.remove(timer.getId());
+            } else if (newTimer || journal.contains(timer.getId())) {
+                //if it is not a new timer and is not in the journal then it has
+                //been removed by another thread.
+                final byte[] state;
+                try {
+                    state = marshaller.marshal(timer);
+                } catch (IOException e) {
+                    EJB3_TIMER_LOGGER.failedToPersistTimer(timer, e);
+                    return;
+                }
+                journal.put(timer.getId(), state);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Map<String, TimerImpl> readJournal(final String timedObjectId, final TimerJournal journal, final TimerServiceImpl timerService) {
+        final Map<String, TimerImpl> timers = new HashMap<>();
+        try {
+            for (Map.Entry<String, byte[]> entry : journal.read().entrySet()) {
+                TimerImpl timer = null;
+                Exception exception = null;
+                try {
+                    timer = marshaller.unmarshal(entry.getValue(), timerService);
+                } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                    exception = e;
+                }
+                if (timer != null) {
+                    timers.put(timer.getId(), timer);
+                } else {
+                    EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, entry.getKey(), exception);
+                    journal.remove(entry.getKey());
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return timers;
+    }
+
+    /**
+     * Converts the journal of a timed object, if one exists, into XML files.
+     */
+    private void migrateJournal(final String timedObjectId, final TimerServiceImpl timerService) {
+        // Listing the directory on every access is expensive, and journals are only written when using the journal format
+        if (!migratedJournals.add(timedObjectId)) {
+            return;
+        }
+        final File directory = new File(getDirectory(timedObjectId));
+        if (!TimerJournal.exists(directory)) {
+            return;
+        }
+        final TimerJournal journal = new TimerJournal(directory);
+        try {
+            journal.open();
+            for (TimerImpl timer : readJournal(timedObjectId, journal, timerService).values()) {
+                writeFile(timer);
+            }
+            journal.delete();
+        } catch (IOException e) {
+            closeJournal(journal);
+            // Retry on next access
+            migratedJournals.remove(timedObjectId);
+            EJB3_TIMER_LOGGER.failToRestoreTimersFromFile(directory, e);
+        }
+    }
+
+    private static void closeJournal(final TimerJournal journal) {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            EJB3_TIMER_LOGGER.failToCloseFile(e);
+        }
+    }
+
     private Map<String, TimerImpl> loadTimersFromFile(String timedObjectId, TimerServiceImpl timerService) {
         Map<String, TimerImpl> timers = new HashMap<>();
         String directory = getDirectory(timedObjectId);
@@ -460,6 +625,10 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                     try {
                         lock.lock();
                         if (status == Status.STATUS_COMMITTED) {
+                            if (format == Format.JOURNAL) {
+                                writeJournal(timer, newTimer);
+                                return null;
+                            }
                             final Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
                             if (timer.getState() == TimerState.CANCELED ||
                                     timer.getState() == TimerState.EXPIRED) {
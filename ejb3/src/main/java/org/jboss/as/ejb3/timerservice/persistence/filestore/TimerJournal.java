@@ -0,0 +1,486 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * A segmented, append-only journal of the persistent timers of a single timed object.
+ * Each record either puts the serialized state of a timer, or removes a timer.
+ * Records are appended to the active segment, which rolls over to a new segment once it exceeds a maximum size.
+ * Since segments are memory-mapped, the maximum size of a segment, and of a record, is capped at {@value #MAX_SEGMENT_SIZE} bytes,
+ * so that any offset within a segment fits within an int.
+ * Once superseded records outnumber live records, the live records are compacted into a new snapshot segment, and all prior segments are deleted.
+ * <p/>
+ * An in-memory index locates the most recent record of each live timer.
+ * It is rebuilt when the journal is opened, by scanning memory-mapped segments starting from the most recent snapshot.
+ * Timer state is only read from disk on demand.
+ * <p/>
+ * This class is not thread-safe, callers must serialize access to a given journal.
+ *
+ * @author agent
+ */
+public class TimerJournal implements Closeable {
+
+    static final long DEFAULT_MAX_SEGMENT_SIZE = 16L << 20;
+    static final long MAX_SEGMENT_SIZE = 1L << 30;
+    static final int DEFAULT_COMPACTION_THRESHOLD = 1024;
+
+    private static final String SEGMENT_PREFIX = "timers-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    // Segment header: magic, version, flags
+    private static final int MAGIC = 0x454A4254;
+    private static final byte VERSION = 1;
+    private static final byte SNAPSHOT = 0x1;
+    private static final int SEGMENT_HEADER_SIZE = Integer.BYTES + 2;
+
+    // Record header: body length, body checksum
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    // Record body: type, key length, key, payload
+    private static final int RECORD_BODY_HEADER_SIZE = 1 + Short.BYTES;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    private static class Location {
+        final long segment;
+        final int offset;
+        final int length;
+
+        Location(long segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private final File directory;
+    private final long maxSegmentSize;
+    private final int compactionThreshold;
+    // Segments that contribute to the current state of the journal, by sequence
+    private final NavigableMap<Long, File> segments = new TreeMap<>();
+    private Map<String, Location> index = new HashMap<>();
+    // Total number of records in all live segments
+    private long records = 0;
+    // The active segment, created lazily
+    private FileChannel channel;
+    private long position;
+
+    public TimerJournal(File directory) {
+        this(directory, DEFAULT_MAX_SEGMENT_SIZE, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    TimerJournal(File directory, long maxSegmentSize, int compactionThreshold) {
+        if ((maxSegmentSize <= SEGMENT_HEADER_SIZE) || (maxSegmentSize > MAX_SEGMENT_SIZE)) {
+            throw new IllegalArgumentException(Long.toString(maxSegmentSize));
+        }
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Indicates whether the specified directory contains any journal segments.
+     * @param directory a directory
+     * @return true, if the directory contains a journal, false otherwise
+     */
+    public static boolean exists(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (sequence(file.getName()) != null) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the index of this journal from its segments, discarding any segments superseded by a snapshot, or left by an interrupted compaction.
+     * @throws IOException if the journal could not be read
+     */
+    public void open() throws IOException {
+        NavigableMap<Long, File> segments = new TreeMap<>();
+        File[] files = this.directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX + TEMPORARY_SUFFIX)) {
+                    delete(file);
+                } else {
+                    Long sequence = sequence(name);
+                    if (sequence != null) {
+                        segments.put(sequence, file);
+                    }
+                }
+            }
+        }
+        // Replay from the most recent snapshot
+        Long snapshot = null;
+        for (Map.Entry<Long, File> entry : segments.descendingMap().entrySet()) {
+            if (isSnapshot(entry.getValue())) {
+                snapshot = entry.getKey();
+                break;
+            }
+        }
+        if (snapshot != null) {
+            NavigableMap<Long, File> superseded = segments.headMap(snapshot, false);
+            for (File file : superseded.values()) {
+                delete(file);
+            }
+            superseded.clear();
+        }
+        long end = 0;
+        for (Map.Entry<Long, File> entry : segments.entrySet()) {
+            end = this.scan(entry.getKey(), entry.getValue());
+            this.segments.put(entry.getKey(), entry.getValue());
+        }
+        if (!this.segments.isEmpty()) {
+            // Resume appending to the last segment, truncating any partially written record
+            this.channel = FileChannel.open(this.segments.lastEntry().getValue().toPath(), StandardOpenOption.WRITE);
+            if (end < SEGMENT_HEADER_SIZE) {
+                this.channel.truncate(0);
+                end = writeHeader(this.channel, (byte) 0);
+            } else if (this.channel.size() > end) {
+                this.channel.truncate(end);
+            }
+            this.position = end;
+        }
+    }
+
+    /**
+     * Indicates whether this journal contains a timer with the specified identifier.
+     * @param id a timer identifier
+     * @return true, if this journal contains the specified timer, false otherwise
+     */
+    public boolean contains(String id) {
+        return this.index.containsKey(id);
+    }
+
+    /**
+     * Returns the number of live timers in this journal.
+     * @return the number of live timers
+     */
+    public int size() {
+        return this.index.size();
+    }
+
+    /**
+     * Reads the serialized state of all live timers in this journal.
+     * @return a map of serialized timer state, keyed by timer identifier
+     * @throws IOException if the journal could not be read
+     */
+    public Map<String, byte[]> read() throws IOException {
+        Map<Long, ByteBuffer> buffers = this.map();
+        Map<String, byte[]> result = new HashMap<>();
+        for (Map.Entry<String, Location> entry : this.index.entrySet()) {
+            result.put(entry.getKey(), read(buffers, entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Appends the serialized state of the specified timer.
+     * @param id a timer identifier
+     * @param state the serialized state of the timer
+     * @throws IOException if the record could not be written
+     */
+    public void put(String id, byte[] state) throws IOException {
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        long offset = this.append(record(PUT, key, state));
+        this.index.put(id, new Location(this.segments.lastKey(), Math.toIntExact(offset) + RECORD_HEADER_SIZE + RECORD_BODY_HEADER_SIZE + key.length, state.length));
+        this.records += 1;
+        this.compactIfNecessary();
+    }
+
+    /**
+     * Appends the removal of the specified timer, if it exists.
+     * @param id a timer identifier
+     * @return true, if the timer was removed, false if no such timer exists
+     * @throws IOException if the record could not be written
+     */
+    public boolean remove(String id) throws IOException {
+        if (!this.index.containsKey(id)) return false;
+        this.append(record(REMOVE, id.getBytes(StandardCharsets.UTF_8), new byte[0]));
+        this.index.remove(id);
+        this.records += 1;
+        this.compactIfNecessary();
+        return true;
+    }
+
+    /**
+     * Forces any appended records to the storage device.
+     * @throws IOException if the active segment could not be forced
+     */
+    public void sync() throws IOException {
+        if (this.channel != null) {
+            this.channel.force(false);
+        }
+    }
+
+    /**
+     * Rewrites the live records of this journal into a new snapshot segment, and deletes all prior segments.
+     * @throws IOException if the snapshot could not be written
+     */
+    public void compact() throws IOException {
+        long sequence = this.segments.isEmpty() ? 0L : this.segments.lastKey() + 1;
+        File target = new File(this.directory, name(sequence));
+        File temporary = new File(this.directory, target.getName() + TEMPORARY_SUFFIX);
+        Map<Long, ByteBuffer> buffers = this.map();
+        Map<String, Location> index = new HashMap<>();
+        long position;
+        try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            position = writeHeader(channel, SNAPSHOT);
+            for (Map.Entry<String, Location> entry : this.index.entrySet()) {
+                byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                byte[] state = read(buffers, entry.getValue());
+                index.put(entry.getKey(), new Location(sequence, Math.toIntExact(position) + RECORD_HEADER_SIZE + RECORD_BODY_HEADER_SIZE + key.length, state.length));
+                position = write(channel, record(PUT, key, state), position);
+            }
+            channel.force(true);
+        }
+        this.closeChannel();
+        Files.move(temporary.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        // Once the snapshot exists, prior segments are ignored, even if they cannot be deleted yet
+        for (File file : this.segments.values()) {
+            delete(file);
+        }
+        this.segments.clear();
+        this.segments.put(sequence, target);
+        this.index = index;
+        this.records = index.size();
+        this.channel = FileChannel.open(target.toPath(), StandardOpenOption.WRITE);
+        this.position = position;
+    }
+
+    /**
+     * Closes this journal, forcing any appended records to the storage device.
+     * @throws IOException if the active segment could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.sync();
+        } finally {
+            this.closeChannel();
+        }
+    }
+
+    /**
+     * Closes this journal and deletes all of its segments.
+     * @throws IOException if the active segment could not be closed
+     */
+    public void delete() throws IOException {
+        this.closeChannel();
+        for (File file : this.segments.values()) {
+            delete(file);
+        }
+        this.segments.clear();
+        this.index.clear();
+        this.records = 0;
+    }
+
+    private void compactIfNecessary() throws IOException {
+        long superseded = this.records - this.index.size();
+        if ((superseded >= this.compactionThreshold) && (superseded > this.index.size())) {
+            this.compact();
+        }
+    }
+
+    private long append(ByteBuffer record) throws IOException {
+        if ((this.channel == null) || ((this.position > SEGMENT_HEADER_SIZE) && (this.position + record.remaining() > this.maxSegmentSize))) {
+            this.roll();
+        }
+        long offset = this.position;
+        this.position = write(this.channel, record, offset);
+        return offset;
+    }
+
+    private void roll() throws IOException {
+        this.closeChannel();
+        long sequence = this.segments.isEmpty() ? 0L : this.segments.lastKey() + 1;
+        File file = new File(this.directory, name(sequence));
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.position = writeHeader(this.channel, (byte) 0);
+        this.segments.put(sequence, file);
+    }
+
+    private void closeChannel() throws IOException {
+        FileChannel channel = this.channel;
+        if (channel != null) {
+            this.channel = null;
+            channel.close();
+        }
+    }
+
+    private Map<Long, ByteBuffer> map() throws IOException {
+        Map<Long, ByteBuffer> buffers = new HashMap<>();
+        for (Map.Entry<Long, File> entry : this.segments.entrySet()) {
+            try (FileChannel channel = FileChannel.open(entry.getValue().toPath(), StandardOpenOption.READ)) {
+                buffers.put(entry.getKey(), channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+        return buffers;
+    }
+
+    /**
+     * Replays the records of the specified segment into the index.
+     * @return the offset following the last valid record of the segment
+     */
+    private long scan(long sequence, File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < SEGMENT_HEADER_SIZE) {
+                if (size > 0) {
+                    EJB3_TIMER_LOGGER.timerJournalTruncated(file, 0);
+                }
+                return 0;
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if ((buffer.getInt() != MAGIC) || (buffer.get() != VERSION)) {
+                EJB3_TIMER_LOGGER.timerJournalTruncated(file, 0);
+                return 0;
+            }
+            buffer.get();
+            CRC32 checksum = new CRC32();
+            int end = buffer.position();
+            while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+                int length = buffer.getInt();
+                int crc = buffer.getInt();
+                if ((length < RECORD_BODY_HEADER_SIZE) || (length > buffer.remaining())) break;
+                ByteBuffer body = buffer.duplicate();
+                body.limit(buffer.position() + length);
+                checksum.reset();
+                checksum.update(body);
+                if ((int) checksum.getValue() != crc) break;
+                byte type = buffer.get();
+                int keyLength = Short.toUnsignedInt(buffer.getShort());
+                if (keyLength > length - RECORD_BODY_HEADER_SIZE) break;
+                byte[] key = new byte[keyLength];
+                buffer.get(key);
+                String id = new String(key, StandardCharsets.UTF_8);
+                int offset = buffer.position();
+                int stateLength = length - RECORD_BODY_HEADER_SIZE - keyLength;
+                if (type == PUT) {
+                    this.index.put(id, new Location(sequence, offset, stateLength));
+                } else if (type == REMOVE) {
+                    this.index.remove(id);
+                } else {
+                    break;
+                }
+                buffer.position(offset + stateLength);
+                this.records += 1;
+                end = buffer.position();
+            }
+            if (end < size) {
+                EJB3_TIMER_LOGGER.timerJournalTruncated(file, end);
+            }
+            return end;
+        }
+    }
+
+    private static boolean isSnapshot(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) return false;
+            }
+            header.flip();
+            return (header.getInt() == MAGIC) && (header.get() == VERSION) && ((header.get() & SNAPSHOT) != 0);
+        }
+    }
+
+    private static byte[] read(Map<Long, ByteBuffer> buffers, Location location) {
+        ByteBuffer buffer = buffers.get(location.segment).duplicate();
+        buffer.position(location.offset);
+        byte[] state = new byte[location.length];
+        buffer.get(state);
+        return state;
+    }
+
+    private static ByteBuffer record(byte type, byte[] key, byte[] state) {
+        if (key.length > 0xFFFF) {
+            throw new IllegalArgumentException(new String(key, StandardCharsets.UTF_8));
+        }
+        // Guarantees that the offset of any record within a segment fits within an int
+        if (RECORD_HEADER_SIZE + RECORD_BODY_HEADER_SIZE + key.length + (long) state.length > MAX_SEGMENT_SIZE) {
+            throw new IllegalArgumentException(new String(key, StandardCharsets.UTF_8));
+        }
+        int length = RECORD_BODY_HEADER_SIZE + key.length + state.length;
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + length);
+        buffer.putInt(length).putInt(0).put(type).putShort((short) key.length).put(key).put(state);
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.array(), RECORD_HEADER_SIZE, length);
+        buffer.putInt(Integer.BYTES, (int) checksum.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    private static long writeHeader(FileChannel channel, byte flags) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        header.putInt(MAGIC).put(VERSION).put(flags);
+        header.flip();
+        return write(channel, header, 0);
+    }
+
+    private static long write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return position;
+    }
+
+    private static void delete(File file) {
+        if (!file.delete() && file.exists()) {
+            // Will be retried the next time the journal is opened or compacted
+            EJB3_TIMER_LOGGER.debugf("Failed to delete timer journal segment %s", file);
+        }
+    }
+
+    private static String name(long sequence) {
+        return String.format("%s%016x%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX);
+    }
+
+    private static Long sequence(String name) {
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) return null;
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()), 16);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.spi;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules the timeouts of a timer service.
+ * Scheduled tasks are expected to hand off any real work to an executor, since an implementation may run them on a shared thread.
+ *
+ * @author agent
+ */
+public interface TimeoutScheduler {
+
+    /**
+     * A handle to a scheduled task.
+     */
+    interface Timeout {
+        /**
+         * Cancels any future executions of the scheduled task.
+         * @return true, if this timeout was cancelled, false if it was already cancelled or has already expired
+         */
+        boolean cancel();
+    }
+
+    /**
+     * Schedules the specified task to run once, after the specified delay.
+     * @param task a task
+     * @param delay the delay before the task should run
+     * @param unit the unit of the delay
+     * @return a handle to the scheduled task
+     */
+    Timeout schedule(Runnable task, long delay, TimeUnit unit);
+
+    /**
+     * Schedules the specified task to run repeatedly, at a fixed rate, starting after the specified delay.
+     * @param task a task
+     * @param delay the delay before the task should first run
+     * @param period the period between successive executions
+     * @param unit the unit of the delay and period
+     * @return a handle to the scheduled task
+     */
+    Timeout scheduleAtFixedRate(Runnable task, long delay, long period, TimeUnit unit);
+}
@@ -0,0 +1,472 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.jboss.as.ejb3.cache.Identifiable;
+import org.jboss.as.ejb3.cache.StatefulObjectFactory;
+import org.jboss.as.ejb3.component.stateful.StatefulTimeoutInfo;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.clustering.ejb.PassivationListener;
+import org.wildfly.clustering.marshalling.jboss.JBossByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.jboss.SimpleMarshallingConfigurationRepository;
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
+
+/**
+ * Unit test for {@link SimpleCache} and {@link FilePassivationStore}.
+ * @author agent
+ */
+public class SimpleCacheTestCase {
+
+    private final AtomicInteger identifiers = new AtomicInteger();
+    private final Set<String> destroyed = ConcurrentHashMap.newKeySet();
+    private final Set<String> passivated = ConcurrentHashMap.newKeySet();
+    private final Set<String> activated = ConcurrentHashMap.newKeySet();
+
+    private final StatefulObjectFactory<Bean> factory = new StatefulObjectFactory<Bean>() {
+        @Override
+        public Bean createInstance() {
+            return new Bean(String.valueOf(SimpleCacheTestCase.this.identifiers.incrementAndGet()));
+        }
+
+        @Override
+        public void destroyInstance(Bean bean) {
+            SimpleCacheTestCase.this.destroyed.add(bean.getId());
+        }
+    };
+
+    private final PassivationListener<Bean> listener = new PassivationListener<Bean>() {
+        @Override
+        public void prePassivate(Bean bean) {
+            SimpleCacheTestCase.this.passivated.add(bean.getId());
+        }
+
+        @Override
+        public void postActivate(Bean bean) {
+            SimpleCacheTestCase.this.activated.add(bean.getId());
+        }
+    };
+
+    private final ByteBufferMarshaller marshaller = new ByteBufferMarshaller() {
+        private final ByteBufferMarshaller marshaller = new JBossByteBufferMarshaller(new SimpleMarshallingConfigurationRepository(new MarshallingConfiguration()), Bean.class.getClassLoader());
+
+        @Override
+        public boolean isMarshallable(Object object) {
+            return this.marshaller.isMarshallable(object);
+        }
+
+        @Override
+        public Object readFrom(InputStream input) throws IOException {
+            return this.marshaller.readFrom(input);
+        }
+
+        @Override
+        public void writeTo(OutputStream output, Object object) throws IOException {
+            if (SimpleCacheTestCase.this.failing) {
+                throw new IOException();
+            }
+            this.marshaller.writeTo(output, object);
+        }
+    };
+
+    private ScheduledExecutorService executor;
+    private Path directory;
+    private volatile boolean failing = false;
+
+    @Before
+    public void init() throws IOException {
+        this.executor = new ScheduledThreadPoolExecutor(1);
+        this.directory = Files.createTempDirectory(this.getClass().getSimpleName());
+    }
+
+    @After
+    public void destroy() throws IOException {
+        this.executor.shutdownNow();
+        Files.deleteIfExists(this.directory);
+    }
+
+    private SimpleCache<String, Bean> createCache(long timeout, int maxSize, boolean passivation) {
+        SimpleCacheConfiguration configuration = new SimpleCacheConfiguration() {
+            @Override
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            @Override
+            public float getMaxMemoryUsage() {
+                return 0f;
+            }
+
+            @Override
+            public Path getPassivationDirectory() {
+                return passivation ? SimpleCacheTestCase.this.directory : null;
+            }
+
+            @Override
+            public ByteBufferMarshaller getMarshaller() {
+                return passivation ? SimpleCacheTestCase.this.marshaller : null;
+            }
+        };
+        StatefulTimeoutInfo timeoutInfo = (timeout >= 0) ? new StatefulTimeoutInfo(timeout, TimeUnit.MILLISECONDS) : null;
+        SimpleCache<String, Bean> cache = new SimpleCache<>(this.factory, this.identifiers::toString, this.listener, timeoutInfo, new ServerEnvironment(), this.executor, configuration);
+        cache.start();
+        return cache;
+    }
+
+    /**
+     * Creates a bean and uses it once, such that it is scheduled for expiration.
+     */
+    private static Bean create(SimpleCache<String, Bean> cache) {
+        Bean bean = cache.create();
+        assertSame(bean, cache.get(bean.getId()));
+        cache.release(bean);
+        return bean;
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) return false;
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    @Test
+    public void expire() throws InterruptedException {
+        SimpleCache<String, Bean> cache = this.createCache(100, 0, false);
+        try {
+            Bean idle = create(cache);
+            Bean active = create(cache);
+            Bean busy = cache.create();
+            assertSame(busy, cache.get(busy.getId()));
+
+            // Keep one bean alive by using it more often than its timeout
+            for (int i = 0; i < 6; ++i) {
+                Thread.sleep(50);
+                Bean bean = cache.get(active.getId());
+                assertSame(active, bean);
+                cache.release(bean);
+            }
+            assertTrue(await(() -> this.destroyed.contains(idle.getId())));
+            assertTrue(cache.contains(active.getId()));
+            assertFalse(this.destroyed.contains(active.getId()));
+            // A bean in use never expires
+            assertTrue(cache.contains(busy.getId()));
+
+            cache.release(busy);
+            assertTrue(await(() -> this.destroyed.contains(active.getId()) && this.destroyed.contains(busy.getId())));
+            assertEquals(0, cache.getCacheSize());
+            assertEquals(0L, cache.getEvictionCount());
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void never() throws InterruptedException {
+        SimpleCache<String, Bean> cache = this.createCache(-1, 0, false);
+        Bean bean = create(cache);
+        try {
+            Thread.sleep(50);
+            assertSame(bean, cache.get(bean.getId()));
+            cache.release(bean);
+            assertFalse(this.destroyed.contains(bean.getId()));
+        } finally {
+            cache.stop();
+        }
+        // Stopping the cache destroys remaining beans
+        assertTrue(this.destroyed.contains(bean.getId()));
+    }
+
+    @Test
+    public void immediate() {
+        SimpleCache<String, Bean> cache = this.createCache(0, 0, false);
+        try {
+            Bean bean = create(cache);
+            // A 0 timeout removes the bean on release
+            assertTrue(this.destroyed.contains(bean.getId()));
+            assertFalse(cache.contains(bean.getId()));
+            assertNull(cache.get(bean.getId()));
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void evict() throws InterruptedException {
+        SimpleCache<String, Bean> cache = this.createCache(-1, 2, false);
+        try {
+            Bean first = create(cache);
+            Thread.sleep(5);
+            Bean second = create(cache);
+            Thread.sleep(5);
+            // Refresh the first bean, such that the second is the least recently used
+            cache.release(cache.get(first.getId()));
+
+            Bean third = create(cache);
+
+            assertEquals(1L, cache.getEvictionCount());
+            assertEquals(2, cache.getCacheSize());
+            assertTrue(this.destroyed.contains(second.getId()));
+            assertFalse(cache.contains(second.getId()));
+            assertTrue(cache.contains(first.getId()));
+            assertTrue(cache.contains(third.getId()));
+            // Without a passivation store, evicted beans are removed
+            assertTrue(this.passivated.isEmpty());
+            assertEquals(0, cache.getPassivatedCount());
+
+            // Beans in use are never evicted, so the cache may temporarily exceed its bound
+            Bean a = cache.get(first.getId());
+            Bean b = cache.get(third.getId());
+            Bean c = cache.create();
+            assertEquals(3, cache.getCacheSize());
+            assertEquals(1L, cache.getEvictionCount());
+            assertFalse(this.destroyed.contains(c.getId()));
+            cache.release(a);
+            cache.release(b);
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void passivate() throws InterruptedException {
+        SimpleCache<String, Bean> cache = this.createCache(-1, 1, true);
+        try {
+            Bean first = cache.create();
+            first.setValue(42);
+
+            Bean second = create(cache);
+
+            assertTrue(this.passivated.contains(first.getId()));
+            assertFalse(this.destroyed.contains(first.getId()));
+            assertEquals(1, cache.getCacheSize());
+            assertEquals(1, cache.getPassivatedCount());
+            assertEquals(2, cache.getTotalSize());
+            assertEquals(1L, cache.getEvictionCount());
+            assertTrue(cache.getPassivationTimePercentile(50) >= 0);
+            assertTrue(cache.contains(first.getId()));
+
+            // Activation restores the state of the passivated bean
+            Bean activated = cache.get(first.getId());
+            assertNotNull(activated);
+            assertEquals(first.getId(), activated.getId());
+            assertEquals(42, activated.getValue());
+            assertTrue(this.activated.contains(first.getId()));
+            assertEquals(0, cache.getPassivatedCount());
+            Thread.sleep(5);
+            cache.release(activated);
+
+            // The second bean is now the least recently used
+            Bean third = create(cache);
+            assertTrue(this.passivated.contains(second.getId()));
+            assertEquals(1, cache.getPassivatedCount());
+
+            // Removing a passivated bean removes it from the store
+            cache.remove(second.getId());
+            assertFalse(cache.contains(second.getId()));
+            assertEquals(0, cache.getPassivatedCount());
+        } finally {
+            cache.stop();
+        }
+        assertEquals(0, cache.getPassivatedCount());
+    }
+
+    @Test
+    public void passivationFailure() throws InterruptedException {
+        SimpleCache<String, Bean> cache = this.createCache(-1, 1, true);
+        try {
+            Bean first = create(cache);
+            first.setValue(42);
+
+            this.failing = true;
+            Bean second = create(cache);
+
+            // A bean that could not be stored is reactivated and retained in memory
+            assertTrue(this.passivated.contains(first.getId()));
+            assertTrue(this.activated.contains(first.getId()));
+            assertFalse(this.destroyed.contains(first.getId()));
+            assertEquals(2, cache.getCacheSize());
+            assertEquals(0, cache.getPassivatedCount());
+            assertEquals(0L, cache.getEvictionCount());
+
+            Bean retained = cache.get(first.getId());
+            assertSame(first, retained);
+            assertEquals(42, retained.getValue());
+            Thread.sleep(5);
+            cache.release(retained);
+
+            // Once storing succeeds again, the least recently used bean is passivated
+            this.failing = false;
+            create(cache);
+            assertTrue(this.passivated.contains(second.getId()));
+            assertEquals(1L, cache.getEvictionCount());
+            assertFalse(this.destroyed.contains(second.getId()));
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void expirePassivated() throws InterruptedException {
+        SimpleCache<String, Bean> cache = this.createCache(100, 1, true);
+        try {
+            Bean first = create(cache);
+            Bean second = create(cache);
+            assertEquals(1, cache.getPassivatedCount());
+
+            // Passivated beans expire without being activated or destroyed
+            assertTrue(await(() -> !cache.contains(first.getId()) && !cache.contains(second.getId())));
+            assertEquals(0, cache.getPassivatedCount());
+            assertTrue(this.activated.isEmpty());
+            assertFalse(this.destroyed.contains(first.getId()));
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void concurrent() throws Exception {
+        SimpleCache<String, Bean> cache = this.createCache(20, 4, true);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; ++i) {
+                futures.add(executor.submit(() -> {
+                    int lost = 0;
+                    Bean bean = create(cache);
+                    for (int j = 0; j < 1000; ++j) {
+                        Bean result = cache.get(bean.getId());
+                        if (result == null) {
+                            // Bean expired
+                            lost += 1;
+                            bean = create(cache);
+                        } else {
+                            assertEquals(bean.getId(), result.getId());
+                            cache.release(result);
+                        }
+                    }
+                    return lost;
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                assertTrue(future.get(30, TimeUnit.SECONDS) >= 0);
+            }
+        } finally {
+            executor.shutdownNow();
+            cache.stop();
+        }
+        assertEquals(0, cache.getCacheSize());
+        assertEquals(0, cache.getPassivatedCount());
+    }
+
+    @Test
+    public void store() throws IOException {
+        FilePassivationStore<String, Bean> store = new FilePassivationStore<>(this.directory, this.marshaller);
+        try {
+            Bean bean = new Bean("1");
+            bean.setValue(1);
+            assertFalse(store.contains(bean.getId()));
+            assertNull(store.load(bean.getId()));
+
+            store.store(bean.getId(), bean, 1000L);
+            assertTrue(store.contains(bean.getId()));
+            assertEquals(1, store.size());
+            assertEquals(1000L, store.get(bean.getId()).getExpiration());
+            assertTrue(Files.exists(store.get(bean.getId()).getFile()));
+
+            Bean loaded = store.load(bean.getId());
+            assertEquals(bean.getId(), loaded.getId());
+            assertEquals(1, loaded.getValue());
+            // Loading removes the passivated bean
+            assertFalse(store.contains(bean.getId()));
+            assertEquals(0, store.size());
+
+            store.store(bean.getId(), bean, 1000L);
+            Path file = store.get(bean.getId()).getFile();
+            assertTrue(store.remove(bean.getId()));
+            assertFalse(store.remove(bean.getId()));
+            assertFalse(Files.exists(file));
+
+            store.store(bean.getId(), bean, 1000L);
+        } finally {
+            store.close();
+        }
+        // Closing the store deletes its files
+        assertEquals(0, store.size());
+        assertEquals(0L, Files.list(this.directory).count());
+    }
+
+    static class Bean implements Identifiable<String>, Serializable {
+        private static final long serialVersionUID = 4376263025003937530L;
+
+        private final String id;
+        private volatile int value;
+
+        Bean(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String getId() {
+            return this.id;
+        }
+
+        int getValue() {
+            return this.value;
+        }
+
+        void setValue(int value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class InvocationMetricsTestCase {
+
+    @Test
+    public void methods() throws NoSuchMethodException {
+        InvocationMetrics metrics = new InvocationMetrics();
+        Method valueOfInt = String.class.getMethod("valueOf", int.class);
+        Method valueOfObject = String.class.getMethod("valueOf", Object.class);
+
+        metrics.startInvocation();
+        metrics.finishInvocation(valueOfInt, 1L, 10L);
+        metrics.startInvocation();
+        metrics.finishInvocation(valueOfObject, 2L, 20L);
+        metrics.startInvocation();
+        metrics.finishInvocation(valueOfObject, 3L, 30L);
+
+        assertEquals(3L, metrics.getInvocations());
+        assertEquals(6L, metrics.getWaitTime());
+        assertEquals(60L, metrics.getExecutionTime());
+        assertEquals(0L, metrics.getConcurrent());
+
+        Map<String, InvocationMetrics.Values> methods = metrics.getMethods();
+        // Overloaded methods must not collide
+        assertEquals(2, methods.size());
+        InvocationMetrics.Values values = methods.get("valueOf(int)");
+        assertEquals(1L, values.getInvocations());
+        assertEquals(10L, values.getExecutionTime());
+        values = methods.get("valueOf(java.lang.Object)");
+        assertEquals(2L, values.getInvocations());
+        assertEquals(5L, values.getWaitTime());
+        assertEquals(50L, values.getExecutionTime());
+    }
+
+    @Test
+    public void bridgeMethods() throws NoSuchMethodException {
+        InvocationMetrics metrics = new InvocationMetrics();
+        Method covariant = Covariant.class.getDeclaredMethod("get");
+        Method bridge = null;
+        for (Method method : Covariant.class.getDeclaredMethods()) {
+            if (method.isBridge()) {
+                bridge = method;
+            }
+        }
+        assertNotNull(bridge);
+
+        metrics.startInvocation();
+        metrics.finishInvocation(covariant, 1L, 10L);
+        metrics.startInvocation();
+        metrics.finishInvocation(bridge, 2L, 20L);
+
+        // A bridge method and its target share a signature, and must be tracked together rather than overwrite each other
+        Map<String, InvocationMetrics.Values> methods = metrics.getMethods();
+        assertEquals(1, methods.size());
+        InvocationMetrics.Values values = methods.get("get()");
+        assertEquals(2L, values.getInvocations());
+        assertEquals(3L, values.getWaitTime());
+        assertEquals(30L, values.getExecutionTime());
+    }
+
+    @Test
+    public void histogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0L, histogram.getValueAtPercentile(50d));
+
+        for (long i = 1; i <= 1000; ++i) {
+            histogram.record(i);
+        }
+        assertPercentile(500L, histogram.getValueAtPercentile(50d));
+        assertPercentile(990L, histogram.getValueAtPercentile(99d));
+        assertPercentile(999L, histogram.getValueAtPercentile(99.9d));
+        assertPercentile(1000L, histogram.getValueAtPercentile(100d));
+
+        // Small values are recorded exactly
+        histogram = new LatencyHistogram();
+        histogram.record(3L);
+        assertEquals(3L, histogram.getValueAtPercentile(99.9d));
+
+        // Extreme values do not overflow
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100d));
+    }
+
+    @Test
+    public void buckets() {
+        for (long value = 0; value < 100_000L; ++value) {
+            int index = LatencyHistogram.index(value);
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+            assertTrue(highest >= value);
+            assertEquals(index, LatencyHistogram.index(highest));
+        }
+    }
+
+    static class Base {
+        Object get() {
+            return null;
+        }
+    }
+
+    static class Covariant extends Base {
+        @Override
+        String get() {
+            return null;
+        }
+    }
+
+    private static void assertPercentile(long expected, long actual) {
+        // Buckets have a relative error of at most 1/8
+        assertTrue(String.valueOf(actual), actual >= expected);
+        assertTrue(String.valueOf(actual), actual <= expected + (expected >> 3));
+    }
+}
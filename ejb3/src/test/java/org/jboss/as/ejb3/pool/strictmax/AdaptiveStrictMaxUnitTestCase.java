@@ -0,0 +1,255 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.strictmax;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.as.ejb3.pool.common.MockBean;
+import org.jboss.as.ejb3.pool.common.MockFactory;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class AdaptiveStrictMaxUnitTestCase {
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void test1() {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        AdaptiveStrictMaxPool<MockBean> pool = new AdaptiveStrictMaxPool<MockBean>(factory, 10, 10, 1, TimeUnit.SECONDS, 1, TimeUnit.MINUTES, this.executor, Long.MAX_VALUE);
+        pool.start();
+
+        MockBean[] beans = new MockBean[10];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+
+        pool.stop();
+
+        assertEquals(10, MockBean.getPostConstructs());
+        assertEquals(10, MockBean.getPreDestroys());
+    }
+
+    @Test
+    public void testTooMany() {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        AdaptiveStrictMaxPool<MockBean> pool = new AdaptiveStrictMaxPool<MockBean>(factory, 3, 2, 1, TimeUnit.SECONDS, 1, TimeUnit.MINUTES, this.executor, Long.MAX_VALUE);
+        pool.start();
+
+        MockBean[] beans = new MockBean[3];
+        for (int i = 0; i < 2; i++) {
+            beans[i] = pool.get();
+        }
+
+        try {
+            pool.get();
+            fail("should have thrown an exception");
+        } catch (Exception e) {
+            assertEquals(EjbLogger.ROOT_LOGGER.failedToAcquirePermit(1, TimeUnit.SECONDS).getMessage(), e.getMessage());
+        }
+
+        // A timed out acquisition should grow the pool
+        pool.adapt();
+        assertEquals(3, pool.getTargetSize());
+        assertEquals(1, pool.getResizeCount());
+        assertTrue(pool.getAcquireTimePercentile(100) >= TimeUnit.SECONDS.toMicros(1));
+
+        beans[2] = pool.get();
+
+        try {
+            pool.get();
+            fail("should have thrown an exception");
+        } catch (Exception e) {
+            assertEquals(EjbLogger.ROOT_LOGGER.failedToAcquirePermit(1, TimeUnit.SECONDS).getMessage(), e.getMessage());
+        }
+
+        // The pool must not grow beyond its maximum size
+        pool.adapt();
+        assertEquals(3, pool.getTargetSize());
+        assertEquals(1, pool.getResizeCount());
+
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+
+        pool.stop();
+
+        assertEquals(3, MockBean.getPostConstructs());
+        assertEquals(3, MockBean.getPreDestroys());
+    }
+
+    /**
+     * A thread blocked waiting for a permit must be unblocked when the pool grows.
+     */
+    @Test
+    public void testGrow() throws Exception {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        final AdaptiveStrictMaxPool<MockBean> pool = new AdaptiveStrictMaxPool<MockBean>(factory, 4, 1, 60, TimeUnit.SECONDS, 1, TimeUnit.MINUTES, this.executor, Long.MAX_VALUE);
+        pool.start();
+
+        MockBean bean = pool.get();
+        assertEquals(0, pool.getAvailableCount());
+
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        Future<MockBean> result = service.submit(new Callable<MockBean>() {
+            public MockBean call() throws Exception {
+                return pool.get();
+            }
+        });
+
+        Thread.sleep(100);
+        pool.adapt();
+
+        MockBean other = result.get(5, TimeUnit.SECONDS);
+
+        service.shutdown();
+
+        assertEquals(2, pool.getTargetSize());
+
+        pool.release(bean);
+        pool.release(other);
+        assertEquals(2, pool.getAvailableCount());
+
+        pool.stop();
+    }
+
+    /**
+     * Instances idle for longer than the idle timeout are evicted, shrinking the pool.
+     */
+    @Test
+    public void testEvict() throws Exception {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        AdaptiveStrictMaxPool<MockBean> pool = new AdaptiveStrictMaxPool<MockBean>(factory, 10, 5, 1, TimeUnit.SECONDS, 50, TimeUnit.MILLISECONDS, this.executor, Long.MAX_VALUE);
+        pool.start();
+
+        MockBean[] beans = new MockBean[5];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+
+        // Nothing is idle long enough yet
+        pool.adapt();
+        assertEquals(5, pool.getTargetSize());
+        assertEquals(0, MockBean.getPreDestroys());
+
+        Thread.sleep(100);
+        pool.adapt();
+
+        // All but one instance are evicted
+        assertEquals(1, pool.getTargetSize());
+        assertEquals(4, MockBean.getPreDestroys());
+        assertEquals(1, pool.getCurrentSize());
+        assertEquals(1, pool.getAvailableCount());
+        assertEquals(4, pool.getResizeCount());
+
+        pool.stop();
+
+        assertEquals(5, MockBean.getPostConstructs());
+        assertEquals(5, MockBean.getPreDestroys());
+    }
+
+    /**
+     * Permits granted by a previous growth, but not used to create an instance, are reclaimed once unused for longer than the idle timeout.
+     */
+    @Test
+    public void testShrink() throws Exception {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        AdaptiveStrictMaxPool<MockBean> pool = new AdaptiveStrictMaxPool<MockBean>(factory, 10, 5, 1, TimeUnit.SECONDS, 50, TimeUnit.MILLISECONDS, this.executor, Long.MAX_VALUE);
+        pool.start();
+
+        MockBean bean = pool.get();
+
+        // Not unused long enough yet
+        pool.adapt();
+        assertEquals(5, pool.getTargetSize());
+        assertEquals(4, pool.getAvailableCount());
+
+        Thread.sleep(100);
+        pool.adapt();
+
+        // Unused permits are reclaimed, even though there are no idle instances to evict
+        assertEquals(1, pool.getTargetSize());
+        assertEquals(0, pool.getAvailableCount());
+        assertEquals(0, MockBean.getPreDestroys());
+
+        pool.release(bean);
+        assertEquals(1, pool.getAvailableCount());
+
+        pool.stop();
+
+        assertEquals(1, MockBean.getPostConstructs());
+        assertEquals(1, MockBean.getPreDestroys());
+    }
+
+    @Test
+    public void testSetMaxSize() {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        AdaptiveStrictMaxPool<MockBean> pool = new AdaptiveStrictMaxPool<MockBean>(factory, 10, 8, 1, TimeUnit.SECONDS, 1, TimeUnit.MINUTES, this.executor, Long.MAX_VALUE);
+        pool.start();
+
+        MockBean bean = pool.get();
+        pool.setMaxSize(4);
+        assertEquals(4, pool.getMaxSize());
+        assertEquals(4, pool.getTargetSize());
+        assertEquals(3, pool.getAvailableCount());
+
+        pool.release(bean);
+        assertEquals(4, pool.getAvailableCount());
+
+        pool.stop();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class TimingWheelTimeoutSchedulerTestCase {
+
+    private static final ThreadFactory FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task);
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    @Test
+    public void schedule() throws InterruptedException {
+        try (TimingWheelTimeoutScheduler scheduler = new TimingWheelTimeoutScheduler(FACTORY, 1, TimeUnit.MILLISECONDS, 8)) {
+            CountDownLatch latch = new CountDownLatch(1);
+            long start = System.nanoTime();
+            long[] elapsed = new long[1];
+            // Delay spans several rotations of the wheel
+            scheduler.schedule(() -> {
+                elapsed[0] = System.nanoTime() - start;
+                latch.countDown();
+            }, 50, TimeUnit.MILLISECONDS);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            // Must never run early
+            assertTrue(Long.toString(elapsed[0]), elapsed[0] >= TimeUnit.MILLISECONDS.toNanos(50));
+        }
+    }
+
+    @Test
+    public void scheduleImmediate() throws InterruptedException {
+        try (TimingWheelTimeoutScheduler scheduler = new TimingWheelTimeoutScheduler(FACTORY)) {
+            CountDownLatch latch = new CountDownLatch(10);
+            for (int i = 0; i < 10; ++i) {
+                scheduler.schedule(latch::countDown, (i % 2 == 0) ? 0 : -1, TimeUnit.MILLISECONDS);
+            }
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void scheduleAtFixedRate() throws InterruptedException {
+        try (TimingWheelTimeoutScheduler scheduler = new TimingWheelTimeoutScheduler(FACTORY, 1, TimeUnit.MILLISECONDS, 8)) {
+            CountDownLatch latch = new CountDownLatch(5);
+            AtomicInteger count = new AtomicInteger();
+            long start = System.nanoTime();
+            TimeoutScheduler.Timeout timeout = scheduler.scheduleAtFixedRate(() -> {
+                count.incrementAndGet();
+                latch.countDown();
+            }, 10, 10, TimeUnit.MILLISECONDS);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            long elapsed = System.nanoTime() - start;
+            assertTrue(Long.toString(elapsed), elapsed >= TimeUnit.MILLISECONDS.toNanos(50));
+            assertTrue(timeout.cancel());
+            assertFalse(timeout.cancel());
+            int executed = count.get();
+            Thread.sleep(50);
+            // At most one execution may have been in flight during cancellation
+            assertTrue(count.get() <= executed + 1);
+        }
+    }
+
+    @Test
+    public void cancel() throws InterruptedException {
+        try (TimingWheelTimeoutScheduler scheduler = new TimingWheelTimeoutScheduler(FACTORY, 1, TimeUnit.MILLISECONDS, 8)) {
+            AtomicInteger count = new AtomicInteger();
+            TimeoutScheduler.Timeout[] timeouts = new TimeoutScheduler.Timeout[100];
+            for (int i = 0; i < timeouts.length; ++i) {
+                timeouts[i] = scheduler.schedule(count::incrementAndGet, 20 + i % 20, TimeUnit.MILLISECONDS);
+            }
+            for (int i = 0; i < timeouts.length; i += 2) {
+                assertTrue(timeouts[i].cancel());
+            }
+            CountDownLatch latch = new CountDownLatch(1);
+            scheduler.schedule(latch::countDown, 100, TimeUnit.MILLISECONDS);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(timeouts.length / 2, count.get());
+            // Expired timeouts can no longer be cancelled
+            for (int i = 1; i < timeouts.length; i += 2) {
+                assertFalse(timeouts[i].cancel());
+            }
+        }
+    }
+
+    @Test
+    public void failingTask() throws InterruptedException {
+        try (TimingWheelTimeoutScheduler scheduler = new TimingWheelTimeoutScheduler(FACTORY, 1, TimeUnit.MILLISECONDS, 8)) {
+            scheduler.schedule(() -> {
+                throw new IllegalStateException();
+            }, 0, TimeUnit.MILLISECONDS);
+            CountDownLatch latch = new CountDownLatch(1);
+            scheduler.schedule(latch::countDown, 5, TimeUnit.MILLISECONDS);
+            // A failing task must not kill the worker thread
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence.TimerChangeListener;
+import org.jboss.as.ejb3.timerservice.persistence.database.DatabaseTimerPersistence.RefreshMode;
+import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
+import org.jboss.msc.service.ServiceName;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for the periodic refresh of {@link DatabaseTimerPersistence}, against an in-memory timer table.
+ *
+ * @author agent
+ */
+public class DatabaseTimerPersistenceRefreshTestCase {
+
+    private static final String TIMED_OBJECT_ID = "timed-object";
+    private static final String PARTITION = "partition";
+    private static final String LOAD_TIMER_STATES = "load-timer-states";
+    private static final String REFRESH_TIMERS = "refresh-timers %s";
+
+    // the timer table, i.e. the state of each timer by id
+    private final Map<String, TimerState> table = Collections.synchronizedMap(new LinkedHashMap<>());
+    // the timers in memory, by id
+    private final Map<String, TimerImpl> timers = new ConcurrentHashMap<>();
+    // the number of timers requested by each refresh-timers query
+    private final List<Integer> refreshQueries = Collections.synchronizedList(new ArrayList<>());
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final TimerServiceImpl timerService = mock(TimerServiceImpl.class);
+    private final TimedObjectInvoker invoker = mock(TimedObjectInvoker.class);
+    private final TimerChangeListener listener = mock(TimerChangeListener.class);
+
+    @Before
+    public void init() throws Exception {
+        when(this.dataSource.getConnection()).thenReturn(this.connection);
+        when(this.connection.prepareStatement(anyString())).thenAnswer(invocation -> this.prepareStatement(invocation.getArgument(0)));
+        when(this.invoker.getTimedObjectId()).thenReturn(TIMED_OBJECT_ID);
+        when(this.timerService.getInvoker()).thenReturn(this.invoker);
+        when(this.timerService.getServiceName()).thenReturn(ServiceName.of("timer-service"));
+        when(this.timerService.getTimer(anyString())).thenAnswer(invocation -> this.timers.get(invocation.<String>getArgument(0)));
+        this.initListener();
+    }
+
+    private void initListener() {
+        when(this.listener.getTimerService()).thenReturn(this.timerService);
+        // the timer service retains the timers announced by a refresh
+        doAnswer(invocation -> this.timers.put(invocation.<TimerImpl>getArgument(0).getId(), invocation.getArgument(0))).when(this.listener).timerAdded(any());
+        doAnswer(invocation -> this.timers.put(invocation.<TimerImpl>getArgument(1).getId(), invocation.getArgument(1))).when(this.listener).timerSync(any(), any());
+        doAnswer(invocation -> this.timers.remove(invocation.<String>getArgument(0))).when(this.listener).timerRemoved(anyString());
+    }
+
+    private DatabaseTimerPersistence createPersistence(RefreshMode mode) throws Exception {
+        DatabaseTimerPersistence persistence = new DatabaseTimerPersistence(null, PARTITION, "node", 0, true, mode);
+        Properties sql = new Properties();
+        sql.setProperty("load-all-timers", "load-all-timers");
+        sql.setProperty("load-timer-states", LOAD_TIMER_STATES);
+        sql.setProperty("refresh-timers", REFRESH_TIMERS);
+        set(persistence, "sql", sql);
+        set(persistence, "dataSource", this.dataSource);
+        Constructor<?> constructor = Class.forName(DatabaseTimerPersistence.class.getName() + "$RefreshTask").getDeclaredConstructor(DatabaseTimerPersistence.class);
+        constructor.setAccessible(true);
+        set(persistence, "refreshTask", (TimerTask) constructor.newInstance(persistence));
+        persistence.timerDeployed(TIMED_OBJECT_ID);
+        persistence.registerChangeListener(TIMED_OBJECT_ID, this.listener);
+        return persistence;
+    }
+
+    private static void set(DatabaseTimerPersistence persistence, String name, Object value) throws Exception {
+        Field field = DatabaseTimerPersistence.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(persistence, value);
+    }
+
+    private PreparedStatement prepareStatement(String sql) throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        Map<Integer, String> parameters = new ConcurrentHashMap<>();
+        doAnswer(invocation -> parameters.put(invocation.getArgument(0), invocation.getArgument(1))).when(statement).setString(anyInt(), anyString());
+        when(statement.executeQuery()).thenAnswer(invocation -> {
+            List<Object[]> rows = new ArrayList<>();
+            synchronized (this.table) {
+                if (sql.equals(LOAD_TIMER_STATES)) {
+                    for (Map.Entry<String, TimerState> entry : this.table.entrySet()) {
+                        rows.add(new Object[] { entry.getKey(), entry.getValue().name() });
+                    }
+                } else {
+                    // parameters 1 and 2 are the timed object and partition, followed by the requested timer ids
+                    List<String> ids = new ArrayList<>();
+                    for (int i = 3; parameters.containsKey(i); ++i) {
+                        ids.add(parameters.get(i));
+                    }
+                    if (sql.startsWith("refresh-timers")) {
+                        this.refreshQueries.add(ids.size());
+                    } else {
+                        ids.addAll(this.table.keySet());
+                    }
+                    for (String id : ids) {
+                        TimerState state = this.table.get(id);
+                        if (state != null) {
+                            rows.add(timerRow(id, state));
+                        }
+                    }
+                }
+            }
+            return resultSet(rows);
+        });
+        return statement;
+    }
+
+    private static Object[] timerRow(String id, TimerState state) {
+        Object[] row = new Object[25];
+        row[0] = id;
+        row[1] = TIMED_OBJECT_ID;
+        row[2] = new Timestamp(System.currentTimeMillis());
+        row[3] = 0L;
+        row[4] = new Timestamp(System.currentTimeMillis() + 60000L);
+        row[8] = state.name();
+        row[23] = Boolean.FALSE;
+        return row;
+    }
+
+    private static ResultSet resultSet(List<Object[]> rows) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        int[] cursor = new int[] { -1 };
+        when(resultSet.next()).thenAnswer(invocation -> ++cursor[0] < rows.size());
+        when(resultSet.getString(anyInt())).thenAnswer(invocation -> (String) rows.get(cursor[0])[invocation.<Integer>getArgument(0) - 1]);
+        when(resultSet.getTimestamp(anyInt())).thenAnswer(invocation -> (Timestamp) rows.get(cursor[0])[invocation.<Integer>getArgument(0) - 1]);
+        when(resultSet.getLong(anyInt())).thenAnswer(invocation -> {
+            Object value = rows.get(cursor[0])[invocation.<Integer>getArgument(0) - 1];
+            return (value != null) ? (Long) value : 0L;
+        });
+        when(resultSet.getBoolean(anyInt())).thenAnswer(invocation -> Boolean.TRUE.equals(rows.get(cursor[0])[invocation.<Integer>getArgument(0) - 1]));
+        return resultSet;
+    }
+
+    @Test
+    public void incremental() throws Exception {
+        DatabaseTimerPersistence persistence = this.createPersistence(RefreshMode.INCREMENTAL);
+        this.table.put("timer-1", TimerState.ACTIVE);
+        this.table.put("timer-2", TimerState.ACTIVE);
+        this.table.put("timer-3", TimerState.ACTIVE);
+
+        // Timers unknown to this node are loaded and announced
+        persistence.refreshTimers();
+        verify(this.listener).timerAdded(this.timers.get("timer-1"));
+        verify(this.listener).timerAdded(this.timers.get("timer-2"));
+        verify(this.listener).timerAdded(this.timers.get("timer-3"));
+        assertEquals(Collections.singletonList(3), this.refreshQueries);
+        assertEquals(1L, persistence.getRefreshCount());
+        assertEquals(3L, persistence.getRowsScanned());
+        assertEquals(3L, persistence.getRowsLoaded());
+
+        // Unchanged timers are scanned, but not loaded
+        reset(this.listener);
+        this.initListener();
+        this.refreshQueries.clear();
+        persistence.refreshTimers();
+        verify(this.listener, never()).timerAdded(any());
+        verify(this.listener, never()).timerSync(any(), any());
+        verify(this.listener, never()).timerRemoved(anyString());
+        assertTrue(this.refreshQueries.isEmpty());
+        assertEquals(2L, persistence.getRefreshCount());
+        assertEquals(6L, persistence.getRowsScanned());
+        assertEquals(3L, persistence.getRowsLoaded());
+
+        // A timer whose stored state is valid while its in-memory state is not is synchronized,
+        // a timer removed from the table is removed, and a new timer is added
+        TimerImpl canceled = this.timers.get("timer-1");
+        canceled.setTimerState(TimerState.CANCELED);
+        this.table.remove("timer-2");
+        this.table.put("timer-4", TimerState.ACTIVE);
+        persistence.refreshTimers();
+        verify(this.listener).timerSync(same(canceled), any());
+        verify(this.listener).timerRemoved("timer-2");
+        verify(this.listener).timerAdded(this.timers.get("timer-4"));
+        verify(this.listener, never()).timerAdded(this.timers.get("timer-3"));
+        assertEquals(TimerState.ACTIVE, this.timers.get("timer-1").getState());
+        assertEquals(Collections.singletonList(2), this.refreshQueries);
+        assertEquals(9L, persistence.getRowsScanned());
+        assertEquals(5L, persistence.getRowsLoaded());
+
+        // A removed timer is not announced again
+        reset(this.listener);
+        this.initListener();
+        this.refreshQueries.clear();
+        persistence.refreshTimers();
+        verify(this.listener, never()).timerAdded(any());
+        verify(this.listener, never()).timerSync(any(), any());
+        verify(this.listener, never()).timerRemoved(anyString());
+        assertTrue(this.refreshQueries.isEmpty());
+        assertEquals(5L, persistence.getRowsLoaded());
+    }
+
+    @Test
+    public void incrementalBatches() throws Exception {
+        DatabaseTimerPersistence persistence = this.createPersistence(RefreshMode.INCREMENTAL);
+        int count = 250;
+        for (int i = 0; i < count; ++i) {
+            this.table.put("timer-" + i, TimerState.ACTIVE);
+        }
+
+        // Changed timers are loaded by at most 100 per query
+        persistence.refreshTimers();
+        assertEquals(Arrays.asList(100, 100, 50), this.refreshQueries);
+        assertEquals(count, this.timers.size());
+        for (int i = 0; i < count; ++i) {
+            assertSame(TimerState.ACTIVE, this.timers.get("timer-" + i).getState());
+        }
+        assertEquals(count, persistence.getRowsScanned());
+        assertEquals(count, persistence.getRowsLoaded());
+
+        // A batch of exactly the maximum size requires a single query
+        this.refreshQueries.clear();
+        for (int i = count; i < count + 100; ++i) {
+            this.table.put("timer-" + i, TimerState.ACTIVE);
+        }
+        persistence.refreshTimers();
+        assertEquals(Collections.singletonList(100), this.refreshQueries);
+        assertEquals(count + 100, this.timers.size());
+        assertEquals(count + 100, persistence.getRowsLoaded());
+    }
+
+    @Test
+    public void full() throws Exception {
+        DatabaseTimerPersistence persistence = this.createPersistence(RefreshMode.FULL);
+        this.table.put("timer-1", TimerState.ACTIVE);
+        this.table.put("timer-2", TimerState.ACTIVE);
+
+        persistence.refreshTimers();
+        verify(this.listener).timerAdded(this.timers.get("timer-1"));
+        verify(this.listener).timerAdded(this.timers.get("timer-2"));
+
+        // Every timer is loaded by each refresh, whether or not it changed
+        this.table.remove("timer-2");
+        persistence.refreshTimers();
+        verify(this.listener).timerRemoved("timer-2");
+        assertTrue(this.refreshQueries.isEmpty());
+        assertEquals(2L, persistence.getRefreshCount());
+        assertEquals(3L, persistence.getRowsScanned());
+        assertEquals(3L, persistence.getRowsLoaded());
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TimerJournal}.
+ *
+ * @author agent
+ */
+public class TimerJournalTestCase {
+
+    @Test
+    public void putAndRemove() throws IOException {
+        File directory = Files.createTempDirectory("journal").toFile();
+        try {
+            try (TimerJournal journal = new TimerJournal(directory)) {
+                journal.open();
+                Assert.assertFalse(TimerJournal.exists(directory));
+                journal.put("a", bytes("a1"));
+                journal.put("b", bytes("b1"));
+                journal.put("a", bytes("a2"));
+                Assert.assertTrue(journal.remove("b"));
+                Assert.assertFalse(journal.remove("c"));
+                Assert.assertTrue(journal.contains("a"));
+                Assert.assertFalse(journal.contains("b"));
+                Assert.assertEquals(1, journal.size());
+                Assert.assertEquals("a2", string(journal.read().get("a")));
+            }
+            Assert.assertTrue(TimerJournal.exists(directory));
+
+            try (TimerJournal journal = new TimerJournal(directory)) {
+                journal.open();
+                Map<String, byte[]> timers = journal.read();
+                Assert.assertEquals(1, timers.size());
+                Assert.assertEquals("a2", string(timers.get("a")));
+                // Appends after reopening must be visible to the next reader
+                journal.put("c", bytes("c1"));
+            }
+
+            try (TimerJournal journal = new TimerJournal(directory)) {
+                journal.open();
+                Assert.assertEquals(2, journal.size());
+                Assert.assertEquals("c1", string(journal.read().get("c")));
+                journal.delete();
+            }
+            Assert.assertFalse(TimerJournal.exists(directory));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void roll() throws IOException {
+        File directory = Files.createTempDirectory("journal").toFile();
+        try {
+            try (TimerJournal journal = new TimerJournal(directory, 256, Integer.MAX_VALUE)) {
+                journal.open();
+                for (int i = 0; i < 100; ++i) {
+                    journal.put(Integer.toString(i), bytes("value-" + i));
+                }
+            }
+            Assert.assertTrue(segments(directory) > 1);
+
+            try (TimerJournal journal = new TimerJournal(directory, 256, Integer.MAX_VALUE)) {
+                journal.open();
+                Map<String, byte[]> timers = journal.read();
+                Assert.assertEquals(100, timers.size());
+                for (int i = 0; i < 100; ++i) {
+                    Assert.assertEquals("value-" + i, string(timers.get(Integer.toString(i))));
+                }
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void maxSegmentSize() {
+        File directory = new File("journal");
+        // Offsets within a memory-mapped segment must fit within an int
+        try {
+            new TimerJournal(directory, TimerJournal.MAX_SEGMENT_SIZE + 1, Integer.MAX_VALUE);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        try {
+            new TimerJournal(directory, 0, Integer.MAX_VALUE);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        new TimerJournal(directory, TimerJournal.MAX_SEGMENT_SIZE, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void compact() throws IOException {
+        File directory = Files.createTempDirectory("journal").toFile();
+        try {
+            try (TimerJournal journal = new TimerJournal(directory, 1024, 10)) {
+                journal.open();
+                journal.put("live", bytes("live"));
+                // Repeatedly update the same timer, as a repeating timer would on each timeout
+                for (int i = 0; i < 1000; ++i) {
+                    journal.put("repeating", bytes(Integer.toString(i)));
+                }
+                Assert.assertEquals("999", string(journal.read().get("repeating")));
+                Assert.assertEquals("live", string(journal.read().get("live")));
+            }
+            // Superseded records were compacted away
+            Assert.assertEquals(1, segments(directory));
+
+            try (TimerJournal journal = new TimerJournal(directory, 1024, 10)) {
+                journal.open();
+                Map<String, byte[]> timers = journal.read();
+                Assert.assertEquals(2, timers.size());
+                Assert.assertEquals("999", string(timers.get("repeating")));
+                Assert.assertEquals("live", string(timers.get("live")));
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void supersededSegments() throws IOException {
+        File directory = Files.createTempDirectory("journal").toFile();
+        try {
+            try (TimerJournal journal = new TimerJournal(directory, 128, Integer.MAX_VALUE)) {
+                journal.open();
+                for (int i = 0; i < 20; ++i) {
+                    journal.put(Integer.toString(i), bytes("value-" + i));
+                }
+                journal.remove("0");
+            }
+            File[] before = directory.listFiles();
+            File copy = Files.createTempDirectory("journal-copy").toFile();
+            try {
+                // Keep copies of the segments that compaction will delete, as if their deletion had failed
+                for (File file : before) {
+                    Files.copy(file.toPath(), new File(copy, file.getName()).toPath());
+                }
+                try (TimerJournal journal = new TimerJournal(directory, 128, Integer.MAX_VALUE)) {
+                    journal.open();
+                    journal.remove("1");
+                    journal.compact();
+                }
+                for (File file : copy.listFiles()) {
+                    Files.copy(file.toPath(), new File(directory, file.getName()).toPath());
+                }
+            } finally {
+                delete(copy);
+            }
+            // Leftover of an interrupted compaction
+            Files.write(new File(directory, "timers-00000000000000ff.journal.tmp").toPath(), bytes("garbage"));
+
+            try (TimerJournal journal = new TimerJournal(directory, 128, Integer.MAX_VALUE)) {
+                journal.open();
+                Map<String, byte[]> timers = journal.read();
+                Assert.assertEquals(18, timers.size());
+                Assert.assertFalse(timers.containsKey("0"));
+                Assert.assertFalse(timers.containsKey("1"));
+            }
+            Assert.assertEquals(1, segments(directory));
+            Assert.assertEquals(1, directory.listFiles().length);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void truncated() throws IOException {
+        File directory = Files.createTempDirectory("journal").toFile();
+        try {
+            try (TimerJournal journal = new TimerJournal(directory)) {
+                journal.open();
+                journal.put("a", bytes("a1"));
+                journal.put("b", bytes("b1"));
+            }
+            File segment = directory.listFiles()[0];
+            // Simulate a crash in the middle of appending a record
+            try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+                file.setLength(file.length() - 1);
+            }
+
+            try (TimerJournal journal = new TimerJournal(directory)) {
+                journal.open();
+                Map<String, byte[]> timers = journal.read();
+                Assert.assertEquals(1, timers.size());
+                Assert.assertEquals("a1", string(timers.get("a")));
+                // The partial record must not corrupt subsequent appends
+                journal.put("c", bytes("c1"));
+            }
+
+            try (TimerJournal journal = new TimerJournal(directory)) {
+                journal.open();
+                Map<String, byte[]> timers = journal.read();
+                Assert.assertEquals(2, timers.size());
+                Assert.assertEquals("c1", string(timers.get("c")));
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static int segments(File directory) {
+        int count = 0;
+        for (String name : directory.list()) {
+            if (name.endsWith(".journal")) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    private static void delete(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+}
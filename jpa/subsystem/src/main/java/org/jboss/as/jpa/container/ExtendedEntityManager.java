@@ -154,7 +154,7 @@ public class ExtendedEntityManager extends AbstractEntityManager implements Seri
                     underlyingEntityManager.joinTransaction();
                 }
                 // associate the entity manager with the current transaction
-                TransactionUtil.putEntityManagerInTransactionRegistry(puScopedName, this, transactionSynchronizationRegistry);
+                TransactionUtil.putEntityManagerInTransactionRegistry(puScopedName, this, transactionSynchronizationRegistry, transactionManager);
             }
         }
     }
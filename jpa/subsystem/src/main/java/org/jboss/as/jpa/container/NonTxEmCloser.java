@@ -24,11 +24,13 @@ package org.jboss.as.jpa.container;
 
 import static org.jboss.as.jpa.messages.JpaLogger.ROOT_LOGGER;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
 
 import javax.persistence.EntityManager;
 
+import org.jboss.as.jpa.transaction.TransactionUtil;
+
 /**
  * Close the non tx invocations on transaction scoped entity manager
  *
@@ -37,9 +39,21 @@ import javax.persistence.EntityManager;
 public class NonTxEmCloser {
 
     /**
-     * Each thread will have its own list of SB invocations in progress.
-     * Key = scoped persistence unit name
+     * Each thread will have its own stack of SB invocations in progress.
+     * To avoid allocations per invocation, the frames of the stack are reused by subsequent invocations.
+     */
+    private static final ThreadLocal<Frames> callStack = new ThreadLocal<Frames>() {
+        @Override
+        protected Frames initialValue() {
+            return new Frames();
+        }
+    };
+
+    /**
+     * @deprecated No longer used to track the session bean invocations in progress, use {@link #pushCall()}, {@link #popCall()},
+     * {@link #get(String)} and {@link #add(String, EntityManager)} instead.  Will be removed in a future release.
      */
+    @Deprecated
     public static final ThreadLocalStack<Map<String, EntityManager>> nonTxStack = new ThreadLocalStack<Map<String, EntityManager>>();
 
     /**
@@ -47,8 +61,7 @@ public class NonTxEmCloser {
      * without a Jakarta Transactions transaction.
      */
     public static void pushCall() {
-        nonTxStack.push(null);          // to conserve memory/cpu cycles, push a null placeholder that will only get replaced
-        // with a Map if we actually need it (in add() below).
+        callStack.get().push();
     }
 
     /**
@@ -56,22 +69,7 @@ public class NonTxEmCloser {
      * transaction.
      */
     public static void popCall() {
-        Map<String, EntityManager> emStack = nonTxStack.pop();
-        if (emStack != null) {
-            for (EntityManager entityManager : emStack.values()) {
-                try {
-                    if (entityManager.isOpen()) {
-                        entityManager.close();
-                    }
-                } catch (RuntimeException safeToIgnore) {
-                    if (ROOT_LOGGER.isTraceEnabled()) {
-                        ROOT_LOGGER.trace("Could not close (non-transactional) container managed entity manager." +
-                            "  This shouldn't impact application functionality (only read " +
-                            "operations occur in non-transactional mode)", safeToIgnore);
-                    }
-                }
-            }
-        }
+        callStack.get().pop().close();
     }
 
     /**
@@ -81,23 +79,106 @@ public class NonTxEmCloser {
      * @return
      */
     public static EntityManager get(String puScopedName) {
-        Map<String, EntityManager> map = nonTxStack.peek();
-        if (map != null) {
-            return map.get(puScopedName);
+        return get(TransactionUtil.getSlot(puScopedName));
+    }
+
+    /**
+     * Return the transactional entity manager for the specified persistence unit slot
+     *
+     * @param slot
+     * @return
+     */
+    public static EntityManager get(int slot) {
+        Frame frame = callStack.get().peek();
+        if (frame != null) {
+            return frame.get(slot);
         }
         return null;
     }
 
     public static void add(String puScopedName, EntityManager entityManager) {
-        Map<String, EntityManager> map = nonTxStack.peek();
-        if (map == null && !nonTxStack.isEmpty()) {
-            // replace null with a collection to hold the entity managers.
-            map = new HashMap<String, EntityManager>();
-            nonTxStack.pop();
-            nonTxStack.push(map);    // replace top of stack (currently null) with new collection
+        add(TransactionUtil.getSlot(puScopedName), entityManager);
+    }
+
+    public static void add(int slot, EntityManager entityManager) {
+        Frame frame = callStack.get().peek();
+        if (frame != null) {
+            frame.add(slot, entityManager);
+        }
+    }
+
+    private static class Frames {
+        private static final int INITIAL_DEPTH = 8;
+
+        private Frame[] frames = new Frame[INITIAL_DEPTH];
+        private int depth = 0;
+
+        void push() {
+            if (depth == frames.length) {
+                frames = Arrays.copyOf(frames, depth * 2);
+            }
+            if (frames[depth] == null) {
+                frames[depth] = new Frame();
+            }
+            depth++;
+        }
+
+        Frame pop() {
+            return frames[--depth];
+        }
+
+        Frame peek() {
+            return (depth > 0) ? frames[depth - 1] : null;
+        }
+    }
+
+    /**
+     * The transactional entity managers created without a Jakarta Transactions transaction by a single session bean invocation,
+     * indexed by persistence unit slot.
+     */
+    private static class Frame {
+        private static final EntityManager[] NO_MANAGERS = new EntityManager[0];
+
+        private EntityManager[] managers = NO_MANAGERS;
+        // slots in use, in order of creation
+        private int[] slots = new int[1];
+        private int count = 0;
+
+        EntityManager get(int slot) {
+            return (slot < managers.length) ? managers[slot] : null;
         }
-        if (map != null) {
-            map.put(puScopedName, entityManager);
+
+        void add(int slot, EntityManager entityManager) {
+            if (slot >= managers.length) {
+                managers = Arrays.copyOf(managers, slot + 1);
+            }
+            if (managers[slot] == null) {
+                if (count == slots.length) {
+                    slots = Arrays.copyOf(slots, count * 2);
+                }
+                slots[count++] = slot;
+            }
+            managers[slot] = entityManager;
+        }
+
+        void close() {
+            for (int i = 0; i < count; ++i) {
+                int slot = slots[i];
+                EntityManager entityManager = managers[slot];
+                managers[slot] = null;
+                try {
+                    if (entityManager.isOpen()) {
+                        entityManager.close();
+                    }
+                } catch (RuntimeException safeToIgnore) {
+                    if (ROOT_LOGGER.isTraceEnabled()) {
+                        ROOT_LOGGER.trace("Could not close (non-transactional) container managed entity manager." +
+                            "  This shouldn't impact application functionality (only read " +
+                            "operations occur in non-transactional mode)", safeToIgnore);
+                    }
+                }
+            }
+            count = 0;
         }
     }
 }
@@ -126,7 +126,8 @@ public class SFSBCallStack {
     public static void pushCall(Map<String, ExtendedEntityManager> entityManagers) {
         currentSFSBCallStack().add(entityManagers);
 
-        if (entityManagers != null) {
+        // skip the iterator allocation for beans without an extended persistence context
+        if (entityManagers != null && !entityManagers.isEmpty()) {
             /**
              * JPA 2.0 spec section 7.9.1 Container Responsibilities:
              * "When a business method of the stateful session bean is invoked,
@@ -150,9 +151,8 @@ public class SFSBCallStack {
      */
     public static Map<String, ExtendedEntityManager> popCall() {
         ArrayList<Map<String, ExtendedEntityManager>> stack = currentSFSBCallStack();
-        Map<String, ExtendedEntityManager> result = stack.remove(stack.size() - 1);
-        stack.trimToSize();
-        return result;
+        // the backing array is retained, to avoid reallocating it on every invocation
+        return stack.remove(stack.size() - 1);
     }
 
     /**
@@ -171,10 +171,12 @@ public class SFSBCallStack {
 
 
     private static class SFSBCallStackThreadData {
+        private static final int INITIAL_DEPTH = 8;
+
         /**
          * Each thread will have its own list of SFSB invocations in progress.
          */
-        private ArrayList<Map<String, ExtendedEntityManager>> invocationStack = new ArrayList<Map<String, ExtendedEntityManager>>();
+        private ArrayList<Map<String, ExtendedEntityManager>> invocationStack = new ArrayList<Map<String, ExtendedEntityManager>>(INITIAL_DEPTH);
 
         /**
          * During SFSB creation, track the injected extended persistence contexts
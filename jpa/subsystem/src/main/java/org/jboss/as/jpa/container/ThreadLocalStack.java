@@ -30,8 +30,9 @@ import java.util.Deque;
  * in excessive deque allocations.
  *
  * @author Stuart Douglas
- *
+ * @deprecated No longer used by the Jakarta Persistence invocation stacks, which reuse their frames instead.  Will be removed in a future release.
  */
+@Deprecated
 public class ThreadLocalStack<E> {
 
     private static final Object NULL_VALUE = new Object();
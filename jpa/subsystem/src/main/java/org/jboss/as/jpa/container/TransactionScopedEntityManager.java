@@ -32,6 +32,7 @@ import java.util.Map;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.SynchronizationType;
+import javax.transaction.Transaction;
 import javax.transaction.TransactionManager;
 import javax.transaction.TransactionSynchronizationRegistry;
 
@@ -66,6 +67,7 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
     private transient TransactionManager transactionManager;
     private transient Boolean deferDetach;
     private transient Boolean skipQueryDetach;
+    private transient int slot;                 // Slot of the persistent unit within the transaction's entity managers
 
     public TransactionScopedEntityManager(String puScopedName, Map properties, EntityManagerFactory emf, SynchronizationType synchronizationType, TransactionSynchronizationRegistry transactionSynchronizationRegistry, TransactionManager transactionManager) {
         this.puScopedName = puScopedName;
@@ -74,22 +76,21 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
         this.synchronizationType = synchronizationType;
         this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
         this.transactionManager = transactionManager;
+        this.slot = TransactionUtil.getSlot(puScopedName);
     }
 
     @Override
     protected EntityManager getEntityManager() {
         EntityManager entityManager;
-        boolean isInTx;
+        Transaction transaction = TransactionUtil.getActiveTransaction(transactionManager);
 
-        isInTx = TransactionUtil.isInTx(transactionManager);
-
-        if (isInTx) {
-            entityManager = getOrCreateTransactionScopedEntityManager(emf, puScopedName, properties, synchronizationType);
+        if (transaction != null) {
+            entityManager = getOrCreateTransactionScopedEntityManager(transaction, emf, puScopedName, properties, synchronizationType);
         } else {
-            entityManager = NonTxEmCloser.get(puScopedName);
+            entityManager = NonTxEmCloser.get(slot);
             if (entityManager == null) {
                 entityManager = createEntityManager(emf, properties, synchronizationType);
-                NonTxEmCloser.add(puScopedName, entityManager);
+                NonTxEmCloser.add(slot, entityManager);
             }
         }
         return entityManager;
@@ -123,6 +124,7 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
         transactionSynchronizationRegistry = (TransactionSynchronizationRegistry) currentServiceContainer().getService(JPAServiceNames.TRANSACTION_SYNCHRONIZATION_REGISTRY_SERVICE).getValue();
 
         emf = persistenceUnitService.getEntityManagerFactory();
+        slot = TransactionUtil.getSlot(puScopedName);
     }
 
     private static ServiceContainer currentServiceContainer() {
@@ -141,6 +143,7 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
      * get or create a Transactional entity manager.
      * Only call while a transaction is active in the current thread.
      *
+     * @param transaction
      * @param emf
      * @param scopedPuName
      * @param properties
@@ -148,25 +151,25 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
      * @return
      */
     private EntityManager getOrCreateTransactionScopedEntityManager(
+            final Transaction transaction,
             final EntityManagerFactory emf,
             final String scopedPuName,
             final Map properties,
             final SynchronizationType synchronizationType) {
-        EntityManager entityManager = TransactionUtil.getTransactionScopedEntityManager(puScopedName, transactionSynchronizationRegistry);
+        EntityManager entityManager = TransactionUtil.getTransactionScopedEntityManager(slot, transaction, transactionSynchronizationRegistry);
         if (entityManager == null) {
             entityManager = createEntityManager(emf, properties, synchronizationType);
             if (ROOT_LOGGER.isDebugEnabled()) {
                 ROOT_LOGGER.debugf("%s: created entity manager session %s", TransactionUtil.getEntityManagerDetails(entityManager, scopedPuName),
-                        TransactionUtil.getTransaction(transactionManager).toString());
+                        transaction.toString());
             }
-            TransactionUtil.registerSynchronization(entityManager, scopedPuName, transactionSynchronizationRegistry, transactionManager);
-            TransactionUtil.putEntityManagerInTransactionRegistry(scopedPuName, entityManager, transactionSynchronizationRegistry);
+            TransactionUtil.putTransactionScopedEntityManager(slot, scopedPuName, entityManager, transaction, transactionSynchronizationRegistry, transactionManager);
         }
         else {
             testForMixedSynchronizationTypes(emf, entityManager, puScopedName, synchronizationType, properties);
             if (ROOT_LOGGER.isDebugEnabled()) {
                 ROOT_LOGGER.debugf("%s: reuse entity manager session already in tx %s", TransactionUtil.getEntityManagerDetails(entityManager, scopedPuName),
-                        TransactionUtil.getTransaction(transactionManager).toString());
+                        transaction.toString());
             }
         }
         return entityManager;
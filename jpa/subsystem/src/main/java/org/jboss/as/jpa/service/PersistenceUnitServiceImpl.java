@@ -41,6 +41,7 @@ import org.jboss.as.jpa.beanmanager.ProxyBeanManager;
 import org.jboss.as.jpa.classloader.TempClassLoaderFactoryImpl;
 import org.jboss.as.jpa.spi.PersistenceUnitService;
 import org.jboss.as.jpa.subsystem.PersistenceUnitRegistryImpl;
+import org.jboss.as.jpa.transaction.TransactionUtil;
 import org.jboss.as.jpa.util.JPAServiceNames;
 import org.jboss.as.naming.WritableServiceBasedNamingStore;
 import org.jboss.as.server.deployment.SetupAction;
@@ -266,6 +267,7 @@ public class PersistenceUnitServiceImpl implements Service<PersistenceUnitServic
                                                     pu.setTempClassLoaderFactory(null);
                                                     WritableServiceBasedNamingStore.popOwner();
                                                     persistenceUnitRegistry.remove(getScopedPersistenceUnitName());
+                                                    TransactionUtil.releaseSlot(getScopedPersistenceUnitName());
                                                 }
                                             }
                                         }
@@ -26,7 +26,11 @@ import static java.security.AccessController.doPrivileged;
 import static org.jboss.as.jpa.messages.JpaLogger.ROOT_LOGGER;
 
 import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Synchronization;
@@ -41,7 +45,6 @@ import org.jboss.tm.TxUtils;
 import org.jboss.tm.listener.EventType;
 import org.wildfly.transaction.client.AbstractTransaction;
 import org.wildfly.transaction.client.AssociationListener;
-import org.wildfly.transaction.client.ContextTransactionManager;
 
 /**
  * Transaction utilities for Jakarta Persistence
@@ -52,11 +55,70 @@ public class TransactionUtil {
 
     private static final EnumSet<EventType> eventTypes = EnumSet.of(EventType.ASSOCIATED, EventType.DISASSOCIATING);
 
+    // key of the per-transaction entity managers within the TransactionSynchronizationRegistry
+    private static final Object ENTITY_MANAGERS_KEY = TransactionScopedEntityManagers.class;
+    // slot assigned to each persistence unit, by scoped name
+    private static final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    // slots currently assigned, guarded by slots
+    private static final BitSet assignedSlots = new BitSet();
+    // one past the highest assigned slot, used to size the per-transaction arrays
+    private static volatile int slotCount = 0;
+    // entity managers of the transaction last used by the current thread
+    private static final ThreadLocal<TransactionScopedEntityManagers> currentEntityManagers = new ThreadLocal<>();
+
     public static boolean isInTx(TransactionManager transactionManager) {
+        return getActiveTransaction(transactionManager) != null;
+    }
+
+    /**
+     * Get the transaction associated with the current thread, if it is active.
+     *
+     * @param transactionManager
+     * @return the active transaction, or null if there is none
+     */
+    public static Transaction getActiveTransaction(TransactionManager transactionManager) {
         Transaction tx = getTransaction(transactionManager);
         if (tx == null || !TxUtils.isActive(tx))
-            return false;
-        return true;
+            return null;
+        return tx;
+    }
+
+    /**
+     * Get the slot assigned to the specified persistence unit, assigning one if necessary.
+     * Slots index the per-transaction array of entity managers, and are reused once released.
+     *
+     * @param puScopedName
+     * @return
+     */
+    public static int getSlot(String puScopedName) {
+        Integer slot = slots.get(puScopedName);
+        if (slot != null) {
+            return slot;
+        }
+        synchronized (slots) {
+            return slots.computeIfAbsent(puScopedName, name -> {
+                int assigned = assignedSlots.nextClearBit(0);
+                assignedSlots.set(assigned);
+                slotCount = assignedSlots.length();
+                return assigned;
+            });
+        }
+    }
+
+    /**
+     * Release the slot assigned to the specified persistence unit, so that it can be reused by another persistence unit.
+     * Only call once the persistence unit is stopped, and no entity manager of the persistence unit is in use.
+     *
+     * @param puScopedName
+     */
+    public static void releaseSlot(String puScopedName) {
+        synchronized (slots) {
+            Integer slot = slots.remove(puScopedName);
+            if (slot != null) {
+                assignedSlots.clear(slot);
+                slotCount = assignedSlots.length();
+            }
+        }
     }
 
     /**
@@ -66,17 +128,36 @@ public class TransactionUtil {
      * @return
      */
     public static EntityManager getTransactionScopedEntityManager(String puScopedName, TransactionSynchronizationRegistry tsr) {
-        return getEntityManagerInTransactionRegistry(puScopedName, tsr);
+        return getTransactionScopedEntityManager(getSlot(puScopedName), null, tsr);
+    }
+
+    /**
+     * Get current persistence context.  Only call while the specified transaction is active in the current thread.
+     *
+     * @param slot the slot of the persistence unit
+     * @param transaction the active transaction, if known, used to bypass the TransactionSynchronizationRegistry
+     * @return
+     */
+    public static EntityManager getTransactionScopedEntityManager(int slot, Transaction transaction, TransactionSynchronizationRegistry tsr) {
+        TransactionScopedEntityManagers managers = getEntityManagersInTransactionRegistry(transaction, tsr);
+        return (managers != null) ? managers.get(slot) : null;
     }
 
     public static void registerSynchronization(EntityManager entityManager, String puScopedName, TransactionSynchronizationRegistry tsr, TransactionManager transactionManager) {
-        SessionSynchronization sessionSynchronization = new SessionSynchronization(entityManager, puScopedName);
-        tsr.registerInterposedSynchronization(sessionSynchronization);
-        final AbstractTransaction transaction = ((ContextTransactionManager) transactionManager).getTransaction();
-        doPrivileged((PrivilegedAction<Void>) () -> {
-            transaction.registerAssociationListener(sessionSynchronization);
-            return null;
-        });
+        getOrCreateEntityManagersInTransactionRegistry(null, tsr, transactionManager).put(getSlot(puScopedName), puScopedName, entityManager, true);
+    }
+
+    /**
+     * Save the specified transaction scoped EntityManager in the local threads active transaction.
+     * The EntityManager is closed once the transaction completes and is no longer associated with any thread.
+     *
+     * @param slot the slot of the persistence unit
+     * @param puScopedName the scoped name of the persistence unit
+     * @param entityManager
+     * @param transaction the active transaction, if known
+     */
+    public static void putTransactionScopedEntityManager(int slot, String puScopedName, EntityManager entityManager, Transaction transaction, TransactionSynchronizationRegistry tsr, TransactionManager transactionManager) {
+        getOrCreateEntityManagersInTransactionRegistry(transaction, tsr, transactionManager).put(slot, puScopedName, entityManager, true);
     }
 
     public static Transaction getTransaction(TransactionManager transactionManager) {
@@ -102,9 +183,44 @@ public class TransactionUtil {
         return result;
     }
 
+    /**
+     * Get the entity managers of the active transaction, checking the entity managers last used by this thread before
+     * consulting the TransactionSynchronizationRegistry.
+     */
+    private static TransactionScopedEntityManagers getEntityManagersInTransactionRegistry(Transaction transaction, TransactionSynchronizationRegistry tsr) {
+        if (transaction != null) {
+            TransactionScopedEntityManagers managers = currentEntityManagers.get();
+            if (managers != null && managers.transaction == transaction) {
+                return managers;
+            }
+        }
+        TransactionScopedEntityManagers managers = (TransactionScopedEntityManagers) tsr.getResource(ENTITY_MANAGERS_KEY);
+        if (managers != null && managers.transaction != null) {
+            currentEntityManagers.set(managers);
+        }
+        return managers;
+    }
 
-    private static EntityManager getEntityManagerInTransactionRegistry(String scopedPuName, TransactionSynchronizationRegistry tsr) {
-        return (EntityManager)tsr.getResource(scopedPuName);
+    private static TransactionScopedEntityManagers getOrCreateEntityManagersInTransactionRegistry(Transaction transaction, TransactionSynchronizationRegistry tsr, TransactionManager transactionManager) {
+        TransactionScopedEntityManagers managers = getEntityManagersInTransactionRegistry(transaction, tsr);
+        if (managers == null) {
+            // only one synchronization is registered per transaction, regardless of the number of persistence units used
+            final Transaction owner = (transaction != null) ? transaction : getTransaction(transactionManager);
+            // association changes can only be tracked for transactions of the WildFly transaction client
+            final boolean tracked = owner instanceof AbstractTransaction;
+            managers = new TransactionScopedEntityManagers(owner, tracked ? 1 : 0);
+            tsr.registerInterposedSynchronization(managers);
+            tsr.putResource(ENTITY_MANAGERS_KEY, managers);
+            if (tracked) {
+                final TransactionScopedEntityManagers listener = managers;
+                doPrivileged((PrivilegedAction<Void>) () -> {
+                    ((AbstractTransaction) owner).registerAssociationListener(listener);
+                    return null;
+                });
+            }
+            currentEntityManagers.set(managers);
+        }
+        return managers;
     }
 
     /**
@@ -114,8 +230,8 @@ public class TransactionUtil {
      * @param scopedPuName
      * @param entityManager
      */
-    public static void putEntityManagerInTransactionRegistry(String scopedPuName, EntityManager entityManager, TransactionSynchronizationRegistry tsr) {
-        tsr.putResource(scopedPuName, entityManager);
+    public static void putEntityManagerInTransactionRegistry(String scopedPuName, EntityManager entityManager, TransactionSynchronizationRegistry tsr, TransactionManager transactionManager) {
+        getOrCreateEntityManagersInTransactionRegistry(null, tsr, transactionManager).put(getSlot(scopedPuName), scopedPuName, entityManager, false);
     }
 
     /**
@@ -135,18 +251,41 @@ public class TransactionUtil {
      *     https://developer.jboss.org/message/919807
      *     https://developer.jboss.org/thread/252572
      */
-    private static class SessionSynchronization implements Synchronization, AssociationListener {
-        private EntityManager manager;  // the underlying entity manager
-        private String scopedPuName;
+    private static class TransactionScopedEntityManagers implements Synchronization, AssociationListener {
+        private static final EntityManager[] NO_MANAGERS = new EntityManager[0];
+        private static final String[] NO_NAMES = new String[0];
+
+        volatile Transaction transaction;  // the owning transaction, cleared on completion
+        private volatile EntityManager[] managers = NO_MANAGERS;  // the entity managers, indexed by slot
+        private String[] names = NO_NAMES;  // the scoped persistence unit name of each entity manager to be closed on completion
         private boolean afterCompletionCalled = false;
-        private int associationCounter = 1; // set to one since transaction is associated with current thread already.
+        private int associationCounter;     // set to one if the transaction is associated with current thread already.
                                             // incremented when a thread is associated with transaction,
                                             // decremented when a thread is disassociated from transaction.
                                             // synchronization on this object protects associationCounter.
 
-        public SessionSynchronization(EntityManager session, String scopedPuName) {
-            this.manager = session;
-            this.scopedPuName = scopedPuName;
+        TransactionScopedEntityManagers(Transaction transaction, int associationCounter) {
+            this.transaction = transaction;
+            this.associationCounter = associationCounter;
+        }
+
+        EntityManager get(int slot) {
+            EntityManager[] managers = this.managers;
+            return (slot < managers.length) ? managers[slot] : null;
+        }
+
+        synchronized void put(int slot, String scopedPuName, EntityManager manager, boolean closeable) {
+            EntityManager[] managers = this.managers;
+            if (slot >= managers.length) {
+                int length = Math.max(slot + 1, slotCount);
+                managers = Arrays.copyOf(managers, length);
+                this.names = Arrays.copyOf(this.names, length);
+            } else {
+                managers = managers.clone();
+            }
+            managers[slot] = manager;
+            this.names[slot] = closeable ? scopedPuName : null;
+            this.managers = managers;
         }
 
         public void beforeCompletion() {
@@ -160,31 +299,39 @@ public class TransactionUtil {
              */
             synchronized (this) {
                 afterCompletionCalled = true;
-                safeCloseEntityManager();
+                transaction = null;
+                safeCloseEntityManagers();
             }
         }
 
         /**
          * After the Jakarta Transactions transaction is ended (Synchronization.afterCompletion has been called) and
          * the Jakarta Transactions transaction is no longer associated with application thread (application thread called
-         * transaction.rollback/commit/suspend), the entity manager can safely be closed.
+         * transaction.rollback/commit/suspend), the entity managers can safely be closed.
          *
-         * NOTE: caller must call with synchronized(this), where this == instance of SessionSynchronization associated with
+         * NOTE: caller must call with synchronized(this), where this == instance of TransactionScopedEntityManagers associated with
          * the Jakarta Transactions transaction.
          */
-        private void safeCloseEntityManager() {
+        private void safeCloseEntityManagers() {
             if ( afterCompletionCalled == true && associationCounter == 0) {
-                if (manager != null) {
-                    try {
-                        if (ROOT_LOGGER.isDebugEnabled())
-                            ROOT_LOGGER.debugf("%s: closing entity managersession", getEntityManagerDetails(manager, scopedPuName));
-                        manager.close();
-                    } catch (Exception ignored) {
-                        if (ROOT_LOGGER.isDebugEnabled())
-                            ROOT_LOGGER.debugf(ignored, "ignoring error that occurred while closing EntityManager for %s (", scopedPuName);
+                EntityManager[] managers = this.managers;
+                for (int slot = 0; slot < managers.length; ++slot) {
+                    EntityManager manager = managers[slot];
+                    String scopedPuName = names[slot];
+                    if (manager != null && scopedPuName != null) {
+                        try {
+                            if (ROOT_LOGGER.isDebugEnabled())
+                                ROOT_LOGGER.debugf("%s: closing entity managersession", getEntityManagerDetails(manager, scopedPuName));
+                            manager.close();
+                        } catch (Exception ignored) {
+                            if (ROOT_LOGGER.isDebugEnabled())
+                                ROOT_LOGGER.debugf(ignored, "ignoring error that occurred while closing EntityManager for %s (", scopedPuName);
+                        }
                     }
-                    manager = null;
                 }
+                // release references, since threads may retain this object beyond the transaction
+                this.managers = NO_MANAGERS;
+                this.names = NO_NAMES;
             }
         }
 
@@ -193,7 +340,7 @@ public class TransactionUtil {
                 // associationCounter is set to zero when application thread is no longer associated with Jakarta Transactions transaction.
                 // We are tracking when the application thread
                 // is no longer associated with the transaction, as that indicates that it is safe to
-                // close the entity manager (since the application is no longer using the entity manager).
+                // close the entity managers (since the application is no longer using the entity managers).
                 //
                 // Expected values for associationCounter:
                 // 1 - application thread is associated with transaction
@@ -205,13 +352,13 @@ public class TransactionUtil {
                 // 1 - either TM reaper or application thread disassociated from transaction
                 // 0 - both TM reaper and application thread are disassociated from transaction
                 //
-                // the safeCloseEntityManager() may close the entity manager in the (background) reaper thread or
+                // the safeCloseEntityManagers() may close the entity managers in the (background) reaper thread or
                 // application thread (whichever thread reaches associationCounter == 0).
                 associationCounter += associated ? 1 : -1;
                 if (ROOT_LOGGER.isTraceEnabled()) {
-                    ROOT_LOGGER.tracef("transaction association counter = %d for %s: ", associationCounter, getEntityManagerDetails(manager, scopedPuName));
+                    ROOT_LOGGER.tracef("transaction association counter = %d for %d entity managers: ", associationCounter, managers.length);
                 }
-                safeCloseEntityManager();
+                safeCloseEntityManagers();
             }
         }
     }
@@ -0,0 +1,151 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.jpa.container;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.persistence.EntityManager;
+
+import org.jboss.as.jpa.transaction.TransactionUtil;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit test for the invocation frames of {@link NonTxEmCloser}.
+ *
+ * @author agent
+ */
+public class NonTxEmCloserTestCase {
+
+    private static final String PU1 = "test.ear/test.jar#pu1";
+    private static final String PU2 = "test.ear/test.jar#pu2";
+
+    @After
+    public void destroy() {
+        TransactionUtil.releaseSlot(PU1);
+        TransactionUtil.releaseSlot(PU2);
+    }
+
+    private static EntityManager createEntityManager() {
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.isOpen()).thenReturn(true);
+        return entityManager;
+    }
+
+    @Test
+    public void nested() {
+        EntityManager outer = createEntityManager();
+        EntityManager inner = createEntityManager();
+
+        NonTxEmCloser.pushCall();
+        NonTxEmCloser.add(PU1, outer);
+        assertSame(outer, NonTxEmCloser.get(PU1));
+
+        NonTxEmCloser.pushCall();
+        // entity managers are not shared with the calling invocation
+        assertNull(NonTxEmCloser.get(PU1));
+        NonTxEmCloser.add(PU1, inner);
+        assertSame(inner, NonTxEmCloser.get(PU1));
+        assertSame(inner, NonTxEmCloser.get(TransactionUtil.getSlot(PU1)));
+
+        NonTxEmCloser.popCall();
+        verify(inner).close();
+        verify(outer, never()).close();
+        assertSame(outer, NonTxEmCloser.get(PU1));
+
+        NonTxEmCloser.popCall();
+        verify(outer).close();
+        assertNull(NonTxEmCloser.get(PU1));
+    }
+
+    @Test
+    public void closeInnerFrame() {
+        EntityManager manager1 = createEntityManager();
+        EntityManager manager2 = createEntityManager();
+        EntityManager closed = mock(EntityManager.class);
+        when(closed.isOpen()).thenReturn(false);
+
+        NonTxEmCloser.pushCall();
+        try {
+            NonTxEmCloser.pushCall();
+            NonTxEmCloser.add(PU1, manager1);
+            NonTxEmCloser.add(PU2, manager2);
+            NonTxEmCloser.pushCall();
+            NonTxEmCloser.add(PU1, closed);
+            NonTxEmCloser.popCall();
+            // an entity manager that is no longer open is not closed again
+            verify(closed, never()).close();
+
+            // a failure to close one entity manager does not prevent closing the others
+            doThrow(new IllegalStateException()).when(manager1).close();
+            NonTxEmCloser.popCall();
+            verify(manager1).close();
+            verify(manager2).close();
+
+            // the frame is reused by the next invocation, without its previous entity managers
+            NonTxEmCloser.pushCall();
+            assertNull(NonTxEmCloser.get(PU1));
+            assertNull(NonTxEmCloser.get(PU2));
+            NonTxEmCloser.popCall();
+        } finally {
+            NonTxEmCloser.popCall();
+        }
+    }
+
+    @Test
+    public void noFrame() {
+        EntityManager manager = createEntityManager();
+
+        assertNull(NonTxEmCloser.get(PU1));
+        // without an invocation in progress, entity managers are not tracked
+        NonTxEmCloser.add(PU1, manager);
+        assertNull(NonTxEmCloser.get(PU1));
+
+        NonTxEmCloser.pushCall();
+        NonTxEmCloser.popCall();
+        verify(manager, never()).close();
+        assertNull(NonTxEmCloser.get(PU1));
+    }
+
+    @Test
+    public void deep() {
+        int depth = 20;
+        EntityManager[] managers = new EntityManager[depth];
+        for (int i = 0; i < depth; ++i) {
+            managers[i] = createEntityManager();
+            NonTxEmCloser.pushCall();
+            NonTxEmCloser.add(PU1, managers[i]);
+        }
+        for (int i = depth - 1; i >= 0; --i) {
+            assertSame(managers[i], NonTxEmCloser.get(PU1));
+            NonTxEmCloser.popCall();
+            verify(managers[i]).close();
+        }
+        assertNull(NonTxEmCloser.get(PU1));
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.jpa.transaction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Unit test for the per-transaction entity managers of {@link TransactionUtil}.
+ *
+ * @author agent
+ */
+public class TransactionUtilTestCase {
+
+    private static final String PU1 = "test.ear/test.jar#pu1";
+    private static final String PU2 = "test.ear/test.jar#pu2";
+    private static final String PU3 = "test.ear/test.jar#pu3";
+
+    private final Map<Object, Object> resources = new ConcurrentHashMap<>();
+    private final TransactionSynchronizationRegistry tsr = mock(TransactionSynchronizationRegistry.class);
+    private final TransactionManager tm = mock(TransactionManager.class);
+    private final Transaction transaction = mock(Transaction.class);
+
+    @Before
+    public void init() throws Exception {
+        when(tm.getTransaction()).thenReturn(transaction);
+        when(tsr.getResource(any())).thenAnswer(invocation -> this.resources.get(invocation.getArgument(0)));
+        doAnswer(invocation -> this.resources.put(invocation.getArgument(0), invocation.getArgument(1))).when(tsr).putResource(any(), any());
+    }
+
+    @After
+    public void destroy() {
+        TransactionUtil.releaseSlot(PU1);
+        TransactionUtil.releaseSlot(PU2);
+        TransactionUtil.releaseSlot(PU3);
+    }
+
+    @Test
+    public void putAndGet() {
+        int slot1 = TransactionUtil.getSlot(PU1);
+        int slot2 = TransactionUtil.getSlot(PU2);
+        int slot3 = TransactionUtil.getSlot(PU3);
+        assertNotEquals(slot1, slot2);
+        assertNotEquals(slot2, slot3);
+        assertEquals(slot1, TransactionUtil.getSlot(PU1));
+
+        EntityManager manager1 = mock(EntityManager.class);
+        EntityManager manager3 = mock(EntityManager.class);
+
+        assertNull(TransactionUtil.getTransactionScopedEntityManager(slot1, this.transaction, this.tsr));
+
+        TransactionUtil.putTransactionScopedEntityManager(slot3, PU3, manager3, this.transaction, this.tsr, this.tm);
+        TransactionUtil.putTransactionScopedEntityManager(slot1, PU1, manager1, this.transaction, this.tsr, this.tm);
+
+        assertSame(manager1, TransactionUtil.getTransactionScopedEntityManager(slot1, this.transaction, this.tsr));
+        assertNull(TransactionUtil.getTransactionScopedEntityManager(slot2, this.transaction, this.tsr));
+        assertSame(manager3, TransactionUtil.getTransactionScopedEntityManager(slot3, this.transaction, this.tsr));
+        assertSame(manager1, TransactionUtil.getTransactionScopedEntityManager(PU1, this.tsr));
+        assertSame(manager3, TransactionUtil.getTransactionScopedEntityManager(PU3, this.tsr));
+
+        // a single synchronization is registered, regardless of the number of persistence units
+        verify(this.tsr).registerInterposedSynchronization(any());
+    }
+
+    @Test
+    public void getFromOtherThread() throws Exception {
+        int slot = TransactionUtil.getSlot(PU1);
+        EntityManager manager = mock(EntityManager.class);
+        TransactionUtil.putTransactionScopedEntityManager(slot, PU1, manager, this.transaction, this.tsr, this.tm);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // a thread that did not create the entity managers must find them via the registry
+            assertSame(manager, executor.submit(() -> TransactionUtil.getTransactionScopedEntityManager(slot, this.transaction, this.tsr)).get());
+            assertSame(manager, executor.submit(() -> TransactionUtil.getTransactionScopedEntityManager(PU1, this.tsr)).get());
+
+            // the entity managers last used by a thread must not be returned for a different transaction
+            this.resources.clear();
+            Transaction other = mock(Transaction.class);
+            assertNull(executor.submit(() -> TransactionUtil.getTransactionScopedEntityManager(slot, other, this.tsr)).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void clearAfterCompletion() {
+        int slot1 = TransactionUtil.getSlot(PU1);
+        int slot2 = TransactionUtil.getSlot(PU2);
+        EntityManager manager = mock(EntityManager.class);
+        EntityManager extended = mock(EntityManager.class);
+
+        TransactionUtil.putTransactionScopedEntityManager(slot1, PU1, manager, this.transaction, this.tsr, this.tm);
+        TransactionUtil.putEntityManagerInTransactionRegistry(PU2, extended, this.tsr, this.tm);
+
+        ArgumentCaptor<Synchronization> capturedSynchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(this.tsr).registerInterposedSynchronization(capturedSynchronization.capture());
+        Synchronization synchronization = capturedSynchronization.getValue();
+
+        synchronization.beforeCompletion();
+        verify(manager, never()).close();
+
+        synchronization.afterCompletion(Status.STATUS_COMMITTED);
+
+        // only transaction scoped entity managers are closed, extended persistence contexts outlive the transaction
+        verify(manager, times(1)).close();
+        verify(extended, never()).close();
+
+        assertNull(TransactionUtil.getTransactionScopedEntityManager(slot1, this.transaction, this.tsr));
+        assertNull(TransactionUtil.getTransactionScopedEntityManager(slot2, this.transaction, this.tsr));
+    }
+
+    @Test
+    public void releaseSlot() {
+        int slot1 = TransactionUtil.getSlot(PU1);
+        int slot2 = TransactionUtil.getSlot(PU2);
+
+        TransactionUtil.releaseSlot(PU1);
+
+        // a released slot is reused by the next persistence unit
+        assertEquals(slot1, TransactionUtil.getSlot(PU3));
+        assertEquals(slot2, TransactionUtil.getSlot(PU2));
+        assertNotEquals(slot1, TransactionUtil.getSlot(PU1));
+    }
+}
@@ -29,13 +29,16 @@ import static org.wildfly.extension.messaging.activemq.MessagingExtension.LARGE_
 import static org.wildfly.extension.messaging.activemq.MessagingExtension.PAGING_DIRECTORY_PATH;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.util.Date;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.activemq.artemis.cli.commands.tools.xml.XmlDataExporter;
+import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -45,13 +48,22 @@ import org.wildfly.extension.messaging.activemq.logging.MessagingLogger;
 
 /**
  * Export a dump of Artemis journal. WildFly must be running in ADMIN-ONLY mode to perform this operation.
- *
- * The dump is stored on WildFly host and is not sent to the client invoking the operation.
- *
+ * <p>
+ * By default, the dump is stored on WildFly host, next to the journal directory, and only its path is returned to the client invoking the operation.
+ * If the {@code attach} parameter is set, the dump is instead compressed via gzip and attached to the operation response as a stream,
+ * so that it can be imported into another server via the {@link ImportJournalOperation}.
+ * The progress of the export is reported to the client via response warnings.
+ * </p>
  * @author <a href="http://jmesnil.net/">Jeff Mesnil</a> (c) 2015 Red Hat inc.
  */
 public class ExportJournalOperation extends AbstractArtemisActionHandler {
 
+    private static final AttributeDefinition ATTACH = SimpleAttributeDefinitionBuilder.create("attach", ModelType.BOOLEAN)
+            .setDefaultValue(ModelNode.FALSE)
+            .setAllowExpression(false)
+            .setRequired(false)
+            .build();
+
     private static final String OPERATION_NAME = "export-journal";
     static final ExportJournalOperation INSTANCE = new ExportJournalOperation();
 
@@ -64,6 +76,7 @@ public class ExportJournalOperation extends AbstractArtemisActionHandler {
 
     static void registerOperation(final ManagementResourceRegistration registry, final ResourceDescriptionResolver resourceDescriptionResolver) {
         registry.registerOperationHandler(new SimpleOperationDefinitionBuilder(OPERATION_NAME, resourceDescriptionResolver)
+                        .addParameter(ATTACH)
                         .setRuntimeOnly()
                         .setReplyValueType(ModelType.STRING)
                         .build(),
@@ -82,25 +95,32 @@ public class ExportJournalOperation extends AbstractArtemisActionHandler {
         final String paging = resolvePath(context,  PAGING_DIRECTORY_PATH);
         final String largeMessages = resolvePath(context, LARGE_MESSAGES_DIRECTORY_PATH);
 
+        final boolean attach = ATTACH.resolveModelAttribute(context, operation).asBoolean();
+
         final XmlDataExporter exporter = new XmlDataExporter();
 
         String name = String.format(FILE_NAME_FORMAT, new Date());
-        // write the exported dump at the same level than the journal directory
-        File dump = new File(new File(journal).getParent(), name);
-        FileOutputStream fos = null;
         try {
-            fos = new FileOutputStream(dump);
-            exporter.process(fos, bindings, journal, paging, largeMessages);
-            context.getResult().set(dump.getAbsolutePath());
-        } catch (Exception e) {
-            throw new OperationFailedException(e);
-        } finally {
-            if (fos != null) {
-                try {
-                    fos.close();
-                } catch (IOException e) {
+            if (attach) {
+                // stage the compressed dump in a temporary file, deleted once the attached stream is closed
+                final TemporaryFileInputStream dump = new TemporaryFileInputStream(Files.createTempFile(getServerTempDir(context), name, ".gz"));
+                try (OutputStream output = JournalStreams.output(new GZIPOutputStream(Files.newOutputStream(dump.getFile()), JournalStreams.BUFFER_SIZE), JournalStreams.progress(context, OPERATION_NAME))) {
+                    exporter.process(output, bindings, journal, paging, largeMessages);
+                } catch (Exception e) {
+                    dump.close();
+                    throw e;
+                }
+                context.getResult().set(context.attachResultStream("application/gzip", dump));
+            } else {
+                // write the exported dump at the same level than the journal directory
+                File dump = new File(new File(journal).getParent(), name);
+                try (OutputStream output = JournalStreams.output(Files.newOutputStream(dump.toPath()), JournalStreams.progress(context, OPERATION_NAME))) {
+                    exporter.process(output, bindings, journal, paging, largeMessages);
                 }
+                context.getResult().set(dump.getAbsolutePath());
             }
+        } catch (Exception e) {
+            throw new OperationFailedException(e);
         }
     }
 }
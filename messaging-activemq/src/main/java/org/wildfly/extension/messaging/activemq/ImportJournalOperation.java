@@ -24,10 +24,11 @@ package org.wildfly.extension.messaging.activemq;
 
 import static org.jboss.as.controller.PathAddress.EMPTY_ADDRESS;
 import static org.jboss.as.controller.RunningMode.NORMAL;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INPUT_STREAM_INDEX;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -57,9 +58,12 @@ import org.wildfly.extension.messaging.activemq.logging.MessagingLogger;
 /**
  * Import a dump of Artemis journal in a running Artemis server.
  * WildFly must be running in NORMAL mode to perform this operation.
- *
- * The dump file MUST be on WildFly host. It is not attached to the operation stream.
- *
+ * <p>
+ * The dump is read either from a file on WildFly host, or from a stream attached to the operation,
+ * e.g. a dump attached to the response of the {@link ExportJournalOperation} of another server.
+ * A dump compressed via gzip is decompressed while it is imported.
+ * The progress of the import is reported to the client via response warnings.
+ * </p>
  * @author <a href="http://jmesnil.net/">Jeff Mesnil</a> (c) 2015 Red Hat inc.
  */
 public class ImportJournalOperation extends AbstractArtemisActionHandler {
@@ -67,6 +71,13 @@ public class ImportJournalOperation extends AbstractArtemisActionHandler {
     private static AttributeDefinition FILE = SimpleAttributeDefinitionBuilder.create("file", PathResourceDefinition.PATH)
             .setAllowExpression(false)
             .setRequired(true)
+            .setAlternatives(INPUT_STREAM_INDEX)
+            .build();
+
+    private static AttributeDefinition INPUT_STREAM = SimpleAttributeDefinitionBuilder.create(INPUT_STREAM_INDEX, ModelType.INT)
+            .setAllowExpression(false)
+            .setRequired(true)
+            .setAlternatives(FILE.getName())
             .build();
 
     private static AttributeDefinition LEGACY_PREFIXES = SimpleAttributeDefinitionBuilder.create("legacy-prefixes", ModelType.BOOLEAN)
@@ -87,6 +98,7 @@ public class ImportJournalOperation extends AbstractArtemisActionHandler {
     static void registerOperation(final ManagementResourceRegistration registry, final ResourceDescriptionResolver resourceDescriptionResolver) {
         registry.registerOperationHandler(new SimpleOperationDefinitionBuilder(OPERATION_NAME, resourceDescriptionResolver)
                         .addParameter(FILE)
+                        .addParameter(INPUT_STREAM)
                         .addParameter(LEGACY_PREFIXES)
                         .setRuntimeOnly()
                         .setReplyValueType(ModelType.BOOLEAN)
@@ -101,7 +113,7 @@ public class ImportJournalOperation extends AbstractArtemisActionHandler {
         }
         checkAllowedOnJournal(context, OPERATION_NAME);
 
-        String file = FILE.resolveModelAttribute(context, operation).asString();
+        ModelNode file = FILE.resolveModelAttribute(context, operation);
         boolean legacyPrefixes = LEGACY_PREFIXES.resolveModelAttribute(context, operation).asBoolean();
 
         final XmlDataImporter importer = new XmlDataImporter();
@@ -109,7 +121,7 @@ public class ImportJournalOperation extends AbstractArtemisActionHandler {
 
         TransportConfiguration transportConfiguration = createInVMTransportConfiguration(context);
         try (
-                InputStream is = new FileInputStream(new File(file));
+                InputStream is = JournalStreams.input(file.isDefined() ? Files.newInputStream(Paths.get(file.asString())) : context.getAttachmentStream(INPUT_STREAM.resolveModelAttribute(context, operation).asInt()), JournalStreams.progress(context, OPERATION_NAME));
                 ServerLocator serverLocator = ActiveMQClient.createServerLocator(false, transportConfiguration);
                 ClientSessionFactory sf = serverLocator.createSessionFactory()
         ) {
@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.messaging.activemq;
+
+import static org.jboss.as.controller.SimpleAttributeDefinitionBuilder.create;
+import static org.jboss.as.controller.registry.AttributeAccess.Flag.COUNTER_METRIC;
+import static org.jboss.as.controller.registry.AttributeAccess.Flag.GAUGE_METRIC;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.wildfly.clustering.spi.dispatcher.CommandBatchStatistics;
+import org.wildfly.extension.messaging.activemq.broadcast.BroadcastStatistics;
+import org.wildfly.extension.messaging.activemq.broadcast.CommandDispatcherBroadcastEndpointFactory;
+
+/**
+ * Handler for the metrics of the broadcast endpoints of a JGroups broadcast group or discovery group.
+ * Metrics are undefined until a broadcast endpoint of the associated JGroups cluster is opened.
+ *
+ * @author agent
+ */
+public class JGroupsBroadcastEndpointMetricHandler extends AbstractRuntimeOnlyHandler {
+
+    public static final SimpleAttributeDefinition BROADCAST_BATCH_COUNT = create("broadcast-batch-count", ModelType.LONG)
+            .setStorageRuntime()
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .addFlag(COUNTER_METRIC)
+            .build();
+
+    public static final SimpleAttributeDefinition BATCHED_BROADCAST_COUNT = create("batched-broadcast-count", ModelType.LONG)
+            .setStorageRuntime()
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .addFlag(COUNTER_METRIC)
+            .build();
+
+    public static final SimpleAttributeDefinition MAX_BROADCAST_BATCH_SIZE = create("max-broadcast-batch-size", ModelType.INT)
+            .setStorageRuntime()
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .addFlag(GAUGE_METRIC)
+            .build();
+
+    public static final SimpleAttributeDefinition COALESCED_BROADCAST_COUNT = create("coalesced-broadcast-count", ModelType.LONG)
+            .setStorageRuntime()
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .addFlag(COUNTER_METRIC)
+            .build();
+
+    public static final SimpleAttributeDefinition DROPPED_BROADCAST_COUNT = create("dropped-broadcast-count", ModelType.LONG)
+            .setStorageRuntime()
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .addFlag(COUNTER_METRIC)
+            .build();
+
+    public static final AttributeDefinition[] BROADCAST_GROUP_METRICS = { BROADCAST_BATCH_COUNT, BATCHED_BROADCAST_COUNT, MAX_BROADCAST_BATCH_SIZE };
+
+    public static final AttributeDefinition[] DISCOVERY_GROUP_METRICS = { COALESCED_BROADCAST_COUNT, DROPPED_BROADCAST_COUNT };
+
+    public static final JGroupsBroadcastEndpointMetricHandler INSTANCE = new JGroupsBroadcastEndpointMetricHandler();
+
+    private JGroupsBroadcastEndpointMetricHandler() {
+    }
+
+    public static void registerBroadcastGroupMetrics(ManagementResourceRegistration registry) {
+        for (AttributeDefinition metric : BROADCAST_GROUP_METRICS) {
+            registry.registerMetric(metric, INSTANCE);
+        }
+    }
+
+    public static void registerDiscoveryGroupMetrics(ManagementResourceRegistration registry) {
+        for (AttributeDefinition metric : DISCOVERY_GROUP_METRICS) {
+            registry.registerMetric(metric, INSTANCE);
+        }
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+        ModelNode model = context.readResource(PathAddress.EMPTY_ADDRESS, false).getModel();
+        String name = CommonAttributes.JGROUPS_CLUSTER.resolveModelAttribute(context, model).asString();
+        if (COALESCED_BROADCAST_COUNT.getName().equals(attributeName) || DROPPED_BROADCAST_COUNT.getName().equals(attributeName)) {
+            BroadcastStatistics statistics = CommandDispatcherBroadcastEndpointFactory.getBroadcastStatistics(name);
+            if (statistics != null) {
+                context.getResult().set(COALESCED_BROADCAST_COUNT.getName().equals(attributeName) ? statistics.getCoalescedCount() : statistics.getDroppedCount());
+            }
+            return;
+        }
+        CommandBatchStatistics statistics = CommandDispatcherBroadcastEndpointFactory.getCommandBatchStatistics(name);
+        if (statistics != null) {
+            if (BROADCAST_BATCH_COUNT.getName().equals(attributeName)) {
+                context.getResult().set(statistics.getBatchCount());
+            } else if (BATCHED_BROADCAST_COUNT.getName().equals(attributeName)) {
+                context.getResult().set(statistics.getCommandCount());
+            } else if (MAX_BROADCAST_BATCH_SIZE.getName().equals(attributeName)) {
+                context.getResult().set(statistics.getMaxBatchSize());
+            }
+        }
+    }
+}
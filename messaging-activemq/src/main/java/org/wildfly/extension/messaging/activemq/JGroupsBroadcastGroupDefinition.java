@@ -127,6 +127,10 @@ public class JGroupsBroadcastGroupDefinition extends PersistentResourceDefinitio
         }
 
         BroadcastGroupControlHandler.INSTANCE.registerAttributes(registry);
+
+        if (registerRuntimeOnly) {
+            JGroupsBroadcastEndpointMetricHandler.registerBroadcastGroupMetrics(registry);
+        }
     }
 
     @Override
@@ -123,5 +123,9 @@ public class JGroupsDiscoveryGroupDefinition extends PersistentResourceDefinitio
                 registry.registerReadWriteAttribute(attr, null, reloadRequiredWriteAttributeHandler);
             }
         }
+
+        if (registerRuntimeOnly) {
+            JGroupsBroadcastEndpointMetricHandler.registerDiscoveryGroupMetrics(registry);
+        }
     }
 }
@@ -0,0 +1,162 @@
+package org.wildfly.extension.messaging.activemq;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+import java.util.logging.Level;
+import java.util.zip.GZIPInputStream;
+
+import org.jboss.as.controller.OperationContext;
+import org.wildfly.extension.messaging.activemq.logging.MessagingLogger;
+
+/**
+ * Stream decorators used to transfer journal dumps in chunks of bounded size, while reporting the progress of the transfer.
+ *
+ * @author agent
+ */
+final class JournalStreams {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+    // Progress of a transfer is reported each time this number of bytes have been transferred
+    static final long PROGRESS_INTERVAL = 64L * 1024 * 1024;
+    private static final int MEGABYTE = 1024 * 1024;
+
+    private JournalStreams() {
+    }
+
+    /**
+     * Creates a progress listener that logs the progress of a transfer, and reports it to the caller of the specified operation via a response warning.
+     * @param context the context of the operation transferring the journal dump
+     * @param operationName the name of the operation transferring the journal dump
+     * @return a listener of the number of bytes transferred
+     */
+    static LongConsumer progress(OperationContext context, String operationName) {
+        return bytes -> {
+            long megabytes = bytes / MEGABYTE;
+            MessagingLogger.ROOT_LOGGER.journalTransferProgress(operationName, megabytes);
+            context.addResponseWarning(Level.INFO, MessagingLogger.ROOT_LOGGER.journalTransferred(megabytes));
+        };
+    }
+
+    /**
+     * Decorates the specified input stream with buffering and progress reporting, decompressing its content if it was compressed via gzip.
+     * @param input an input stream
+     * @param progress a listener notified of the number of bytes read, each time another {@link #PROGRESS_INTERVAL} bytes were read
+     * @return a decorated input stream
+     * @throws IOException if the stream could not be read
+     */
+    static InputStream input(InputStream input, LongConsumer progress) throws IOException {
+        return input(input, progress, PROGRESS_INTERVAL);
+    }
+
+    static InputStream input(InputStream input, LongConsumer progress, long interval) throws IOException {
+        InputStream result = new BufferedInputStream(new ProgressInputStream(input, new Progress(progress, interval)), BUFFER_SIZE);
+        result.mark(2);
+        int magic = result.read() | (result.read() << 8);
+        result.reset();
+        return (magic == GZIPInputStream.GZIP_MAGIC) ? new BufferedInputStream(new GZIPInputStream(result, BUFFER_SIZE), BUFFER_SIZE) : result;
+    }
+
+    /**
+     * Decorates the specified output stream with buffering and progress reporting.
+     * @param output an output stream
+     * @param progress a listener notified of the number of bytes written, each time another {@link #PROGRESS_INTERVAL} bytes were written
+     * @return a decorated output stream
+     */
+    static OutputStream output(OutputStream output, LongConsumer progress) {
+        return output(output, progress, PROGRESS_INTERVAL);
+    }
+
+    static OutputStream output(OutputStream output, LongConsumer progress, long interval) {
+        return new BufferedOutputStream(new ProgressOutputStream(output, new Progress(progress, interval)), BUFFER_SIZE);
+    }
+
+    private static class Progress {
+        private final LongConsumer listener;
+        private final long interval;
+        private long count = 0;
+        private long threshold;
+
+        Progress(LongConsumer listener, long interval) {
+            this.listener = listener;
+            this.interval = interval;
+            this.threshold = interval;
+        }
+
+        void transferred(long bytes) {
+            this.count += bytes;
+            if (this.count >= this.threshold) {
+                // Skip any intervals spanned by a single transfer
+                this.threshold += ((this.count - this.threshold) / this.interval + 1) * this.interval;
+                this.listener.accept(this.count);
+            }
+        }
+    }
+
+    private static class ProgressInputStream extends FilterInputStream {
+        private final Progress progress;
+
+        ProgressInputStream(InputStream input, Progress progress) {
+            super(input);
+            this.progress = progress;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result >= 0) {
+                this.progress.transferred(1);
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int result = super.read(bytes, offset, length);
+            if (result > 0) {
+                this.progress.transferred(result);
+            }
+            return result;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long result = super.skip(n);
+            this.progress.transferred(result);
+            return result;
+        }
+
+        @Override
+        public boolean markSupported() {
+            // Re-reading marked content would distort progress
+            return false;
+        }
+    }
+
+    private static class ProgressOutputStream extends FilterOutputStream {
+        private final Progress progress;
+
+        ProgressOutputStream(OutputStream output, Progress progress) {
+            super(output);
+            this.progress = progress;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            this.out.write(b);
+            this.progress.transferred(1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            // Avoid the byte-at-a-time implementation of FilterOutputStream
+            this.out.write(bytes, offset, length);
+            this.progress.transferred(length);
+        }
+    }
+}
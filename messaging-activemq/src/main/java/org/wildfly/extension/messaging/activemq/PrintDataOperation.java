@@ -23,6 +23,7 @@ import static org.wildfly.extension.messaging.activemq.MessagingExtension.BINDIN
 import static org.wildfly.extension.messaging.activemq.MessagingExtension.JOURNAL_DIRECTORY_PATH;
 import static org.wildfly.extension.messaging.activemq.MessagingExtension.PAGING_DIRECTORY_PATH;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.PrintStream;
 import java.nio.file.Files;
@@ -41,7 +42,8 @@ import org.jboss.dmr.ModelType;
 import org.wildfly.extension.messaging.activemq.logging.MessagingLogger;
 
 /**
- *
+ * Print the content of the Artemis journal into a report attached to the operation response, optionally as a zip archive.
+ * WildFly must be running in ADMIN-ONLY mode to perform this operation.
  * @author Emmanuel Hugonnet (c) 2020 Red Hat, Inc.
  */
 public class PrintDataOperation extends AbstractArtemisActionHandler {
@@ -86,26 +88,29 @@ public class PrintDataOperation extends AbstractArtemisActionHandler {
         final File journal = resolveFile(context, JOURNAL_DIRECTORY_PATH);
 
         try {
-            final TemporaryFileInputStream temp = new TemporaryFileInputStream(Files.createTempFile(getServerTempDir(context), "data-print", ".txt"));
-            try ( PrintStream out = new PrintStream(temp.getFile().toFile())) {
-                PrintData.printData(bindings, journal, paging, out, secret);
-            }
             String uuid;
             if (archive) {
+                // print directly into the archive, rather than staging the uncompressed report in a separate file
                 final TemporaryFileInputStream tempZip = new TemporaryFileInputStream(Files.createTempFile(getServerTempDir(context), "data-print", ".zip"));
-                try ( ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(tempZip.getFile()))) {
-                    out.putNextEntry(new ZipEntry("data-print-report.txt"));
-                    byte[] bytes = new byte[1024];
-                    int length;
-                    while ((length = temp.read(bytes)) >= 0) {
-                        out.write(bytes, 0, length);
-                    }
-                    out.finish();
-                } finally {
-                    temp.close();
+                try (ZipOutputStream zip = new ZipOutputStream(JournalStreams.output(Files.newOutputStream(tempZip.getFile()), JournalStreams.progress(context, OPERATION_NAME)))) {
+                    zip.putNextEntry(new ZipEntry("data-print-report.txt"));
+                    PrintStream out = new PrintStream(new BufferedOutputStream(zip, JournalStreams.BUFFER_SIZE));
+                    PrintData.printData(bindings, journal, paging, out, secret);
+                    out.flush();
+                    zip.finish();
+                } catch (Exception e) {
+                    tempZip.close();
+                    throw e;
                 }
                 uuid = context.attachResultStream("application/zip", tempZip);
             } else {
+                final TemporaryFileInputStream temp = new TemporaryFileInputStream(Files.createTempFile(getServerTempDir(context), "data-print", ".txt"));
+                try (PrintStream out = new PrintStream(JournalStreams.output(Files.newOutputStream(temp.getFile()), JournalStreams.progress(context, OPERATION_NAME)))) {
+                    PrintData.printData(bindings, journal, paging, out, secret);
+                } catch (Exception e) {
+                    temp.close();
+                    throw e;
+                }
                 uuid = context.attachResultStream("text/plain", temp);
             }
             context.getResult().get(UUID).set(uuid);
@@ -27,7 +27,7 @@ import java.util.concurrent.TimeUnit;
 /**
  * @author Paul Ferraro
  */
-public interface BroadcastManager extends BroadcastReceiver {
+public interface BroadcastManager extends BroadcastReceiver, BroadcastStatistics {
 
     byte[] getBroadcast() throws InterruptedException;
 
@@ -22,19 +22,33 @@
 
 package org.wildfly.extension.messaging.activemq.broadcast;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.activemq.artemis.api.core.BroadcastEndpoint;
 import org.wildfly.clustering.dispatcher.CommandDispatcher;
+import org.wildfly.clustering.dispatcher.CommandDispatcherException;
+import org.wildfly.clustering.group.Node;
+import org.wildfly.clustering.spi.dispatcher.CommandBatchStatistics;
 import org.wildfly.clustering.spi.dispatcher.CommandDispatcherFactory;
+import org.wildfly.extension.messaging.activemq.logging.MessagingLogger;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * A {@link BroadcastEndpoint} based on a {@link CommandDispatcher}.
+ * At most one broadcast is in flight at any given time.
+ * A broadcast issued while another is in flight is deferred until the group has received the former,
+ * superseding any broadcast deferred before it, since only the most recent broadcast is relevant to discovery.
+ * If command batching is enabled for the command dispatcher factory, broadcasts of all endpoints of the same name destined for the same member are coalesced into batches.
+ * Batching is disabled by default, since batches of multiple broadcasts are not understood by members that do not support batching.
  * @author Paul Ferraro
  */
-public class CommandDispatcherBroadcastEndpoint implements BroadcastEndpoint {
+public class CommandDispatcherBroadcastEndpoint implements BroadcastEndpoint, BroadcastStatistics {
 
     private enum Mode {
         BROADCASTER, RECEIVER, CLOSED;
@@ -45,6 +59,10 @@ public class CommandDispatcherBroadcastEndpoint implements BroadcastEndpoint {
     private final BroadcastManager manager;
     private final AtomicReference<Mode> mode = new AtomicReference<>(Mode.CLOSED);
 
+    private final AtomicReference<byte[]> pending = new AtomicReference<>();
+    private final AtomicBoolean dispatching = new AtomicBoolean(false);
+    private final LongAdder coalesced = new LongAdder();
+
     private volatile CommandDispatcher<BroadcastReceiver> dispatcher;
 
     public CommandDispatcherBroadcastEndpoint(CommandDispatcherFactory factory, String name, BroadcastManager manager) {
@@ -68,21 +86,67 @@ public class CommandDispatcherBroadcastEndpoint implements BroadcastEndpoint {
     }
 
     private void open() throws Exception {
-        this.dispatcher = this.factory.createCommandDispatcher(this.name, this.manager, WildFlySecurityManager.getClassLoaderPrivileged(this.getClass()));
+        CommandDispatcher<BroadcastReceiver> dispatcher = this.factory.createCommandDispatcher(this.name, this.manager, WildFlySecurityManager.getClassLoaderPrivileged(this.getClass()));
+        if (dispatcher instanceof CommandBatchStatistics) {
+            CommandDispatcherBroadcastEndpointFactory.setCommandBatchStatistics(this.name, (CommandBatchStatistics) dispatcher);
+        }
+        this.dispatcher = dispatcher;
     }
 
     @Override
     public void close(boolean isBroadcast) throws Exception {
-        if (this.mode.getAndSet(Mode.CLOSED) != Mode.CLOSED) {
+        Mode mode = this.mode.getAndSet(Mode.CLOSED);
+        if (mode != Mode.CLOSED) {
+            this.pending.set(null);
             this.dispatcher.close();
             this.manager.clear();
+            if (mode == Mode.BROADCASTER) {
+                MessagingLogger.ROOT_LOGGER.debugf("Broadcast endpoint %s coalesced %d broadcasts", this.name, this.coalesced.sum());
+            } else {
+                MessagingLogger.ROOT_LOGGER.debugf("Broadcast endpoint %s coalesced %d and dropped %d received broadcasts", this.name, this.manager.getCoalescedCount(), this.manager.getDroppedCount());
+            }
         }
     }
 
     @Override
     public void broadcast(byte[] data) throws Exception {
         if (this.mode.get() == Mode.BROADCASTER) {
-            this.dispatcher.executeOnGroup(new BroadcastCommand(data));
+            if (this.pending.getAndSet(data) != null) {
+                this.coalesced.increment();
+            }
+            this.dispatch();
+        }
+    }
+
+    private void dispatch() throws CommandDispatcherException {
+        // Loop guards against a broadcast deferred just as the previous dispatch completed
+        while ((this.pending.get() != null) && (this.mode.get() == Mode.BROADCASTER) && this.dispatching.compareAndSet(false, true)) {
+            byte[] data = this.pending.getAndSet(null);
+            if (data == null) {
+                this.dispatching.set(false);
+                continue;
+            }
+            Map<Node, CompletionStage<Void>> responses;
+            try {
+                responses = this.dispatcher.executeOnGroup(new BroadcastCommand(data));
+            } catch (CommandDispatcherException | RuntimeException e) {
+                this.dispatching.set(false);
+                throw e;
+            }
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[responses.size()];
+            int index = 0;
+            for (CompletionStage<Void> response : responses.values()) {
+                futures[index++] = response.toCompletableFuture();
+            }
+            CompletableFuture.allOf(futures).whenComplete((result, exception) -> {
+                this.dispatching.set(false);
+                try {
+                    this.dispatch();
+                } catch (CommandDispatcherException | RuntimeException e) {
+                    MessagingLogger.ROOT_LOGGER.debug(e.getLocalizedMessage(), e);
+                }
+            });
+            return;
         }
     }
 
@@ -95,4 +159,14 @@ public class CommandDispatcherBroadcastEndpoint implements BroadcastEndpoint {
     public byte[] receiveBroadcast(long time, TimeUnit unit) throws Exception {
         return (this.mode.get() == Mode.RECEIVER) ? this.manager.getBroadcast(time, unit) : null;
     }
+
+    @Override
+    public long getCoalescedCount() {
+        return this.coalesced.sum() + this.manager.getCoalescedCount();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return this.manager.getDroppedCount();
+    }
 }
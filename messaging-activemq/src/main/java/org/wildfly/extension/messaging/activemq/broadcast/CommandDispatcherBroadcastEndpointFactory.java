@@ -27,7 +27,9 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.activemq.artemis.api.core.BroadcastEndpoint;
 import org.apache.activemq.artemis.api.core.BroadcastEndpointFactory;
+import org.wildfly.clustering.spi.dispatcher.CommandBatchStatistics;
 import org.wildfly.clustering.spi.dispatcher.CommandDispatcherFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * A {@link BroadcastEndpointFactory} based on a {@link CommandDispatcherFactory}.
@@ -36,7 +38,33 @@ import org.wildfly.clustering.spi.dispatcher.CommandDispatcherFactory;
 @SuppressWarnings("serial")
 public class CommandDispatcherBroadcastEndpointFactory implements BroadcastEndpointFactory {
 
+    // Maximum number of received broadcasts pending delivery to a broadcast endpoint
+    private static final int BROADCAST_CAPACITY = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged("jboss.messaging.broadcast.capacity", Integer.toString(QueueBroadcastManager.DEFAULT_CAPACITY)));
     private static final Map<String, BroadcastManager> BROADCAST_MANAGERS = new ConcurrentHashMap<>();
+    // Statistics of the command dispatcher most recently opened by a broadcast endpoint of a given name
+    private static final Map<String, CommandBatchStatistics> BATCH_STATISTICS = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the batching statistics of the command dispatcher used by the broadcast endpoints of the specified name.
+     * @param name a broadcast endpoint name, i.e. a JGroups cluster name
+     * @return the batching statistics, or null, if no such endpoint was opened
+     */
+    public static CommandBatchStatistics getCommandBatchStatistics(String name) {
+        return BATCH_STATISTICS.get(name);
+    }
+
+    /**
+     * Returns the statistics of the broadcasts received by the broadcast endpoints of the specified name.
+     * @param name a broadcast endpoint name, i.e. a JGroups cluster name
+     * @return the broadcast statistics, or null, if no such endpoint factory was created
+     */
+    public static BroadcastStatistics getBroadcastStatistics(String name) {
+        return BROADCAST_MANAGERS.get(name);
+    }
+
+    static void setCommandBatchStatistics(String name, CommandBatchStatistics statistics) {
+        BATCH_STATISTICS.put(name, statistics);
+    }
 
     private final CommandDispatcherFactory factory;
     private final String name;
@@ -45,7 +73,7 @@ public class CommandDispatcherBroadcastEndpointFactory implements BroadcastEndpo
     public CommandDispatcherBroadcastEndpointFactory(CommandDispatcherFactory factory, String name) {
         this.factory = factory;
         this.name = name;
-        this.manager = BROADCAST_MANAGERS.computeIfAbsent(name, key -> new QueueBroadcastManager());
+        this.manager = BROADCAST_MANAGERS.computeIfAbsent(name, key -> new QueueBroadcastManager(BROADCAST_CAPACITY));
     }
 
     @Override
@@ -22,33 +22,120 @@
 
 package org.wildfly.extension.messaging.activemq.broadcast;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * A {@link BroadcastManager} that buffers received broadcasts in a bounded ring buffer.
+ * When the buffer is full, the oldest pending broadcast is dropped in favor of the most recent one.
+ * A broadcast identical to the most recent pending broadcast is coalesced with it.
  * @author Paul Ferraro
  */
 public class QueueBroadcastManager implements BroadcastManager {
-    private final BlockingQueue<byte[]> broadcasts = new LinkedBlockingDeque<>();
+    public static final int DEFAULT_CAPACITY = 128;
+
+    private final byte[][] broadcasts;
+    private final Lock lock = new ReentrantLock();
+    private final Condition notEmpty = this.lock.newCondition();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    // Index of the oldest pending broadcast
+    private int head = 0;
+    private int size = 0;
+
+    public QueueBroadcastManager() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public QueueBroadcastManager(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(Integer.toString(capacity));
+        }
+        this.broadcasts = new byte[capacity][];
+    }
 
     @Override
     public void receive(byte[] broadcast) {
-        this.broadcasts.add(broadcast);
+        this.lock.lock();
+        try {
+            int capacity = this.broadcasts.length;
+            if ((this.size > 0) && Arrays.equals(this.broadcasts[(this.head + this.size - 1) % capacity], broadcast)) {
+                this.coalesced.increment();
+                return;
+            }
+            if (this.size == capacity) {
+                this.broadcasts[this.head] = null;
+                this.head = (this.head + 1) % capacity;
+                this.size -= 1;
+                this.dropped.increment();
+            }
+            this.broadcasts[(this.head + this.size) % capacity] = broadcast;
+            this.size += 1;
+            this.notEmpty.signal();
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     @Override
     public byte[] getBroadcast() throws InterruptedException {
-        return this.broadcasts.take();
+        this.lock.lockInterruptibly();
+        try {
+            while (this.size == 0) {
+                this.notEmpty.await();
+            }
+            return this.poll();
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     @Override
     public byte[] getBroadcast(long timeout, TimeUnit unit) throws InterruptedException {
-        return this.broadcasts.poll(timeout, unit);
+        long remaining = unit.toNanos(timeout);
+        this.lock.lockInterruptibly();
+        try {
+            while (this.size == 0) {
+                if (remaining <= 0) return null;
+                remaining = this.notEmpty.awaitNanos(remaining);
+            }
+            return this.poll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private byte[] poll() {
+        byte[] broadcast = this.broadcasts[this.head];
+        this.broadcasts[this.head] = null;
+        this.head = (this.head + 1) % this.broadcasts.length;
+        this.size -= 1;
+        return broadcast;
     }
 
     @Override
     public void clear() {
-        this.broadcasts.clear();
+        this.lock.lock();
+        try {
+            Arrays.fill(this.broadcasts, null);
+            this.head = 0;
+            this.size = 0;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public long getCoalescedCount() {
+        return this.coalesced.sum();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return this.dropped.sum();
     }
 }
@@ -876,4 +876,11 @@ public interface MessagingLogger extends BasicLogger {
     @Message(id = 103, value = "Broker is not started. It cannot be managed yet.")
     IllegalStateException brokerNotStarted();
 
+    @LogMessage(level = INFO)
+    @Message(id = 104, value = "Operation %s has transferred %d MB of journal data")
+    void journalTransferProgress(String operationName, long megabytes);
+
+    @Message(id = 105, value = "Transferred %d MB of journal data")
+    String journalTransferred(long megabytes);
+
 }
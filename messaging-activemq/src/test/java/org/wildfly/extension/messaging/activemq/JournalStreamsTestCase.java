@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.messaging.activemq;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongConsumer;
+import java.util.logging.Level;
+import java.util.zip.GZIPOutputStream;
+
+import org.jboss.as.controller.OperationContext;
+import org.junit.Test;
+import org.wildfly.extension.messaging.activemq.logging.MessagingLogger;
+
+/**
+ * Unit test for {@link JournalStreams}.
+ * @author agent
+ */
+public class JournalStreamsTestCase {
+
+    private static final LongConsumer NO_PROGRESS = bytes -> {
+    };
+
+    private static byte[] dump(int size) {
+        byte[] dump = new byte[size];
+        new Random(size).nextBytes(dump);
+        return dump;
+    }
+
+    private static byte[] readFully(InputStream input) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1000];
+        int read = input.read(buffer);
+        while (read >= 0) {
+            result.write(buffer, 0, read);
+            read = input.read(buffer);
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * Verifies that a dump exported as an attachment, i.e. compressed via gzip, is decompressed when imported via an input stream index.
+     */
+    @Test
+    public void attach() throws IOException {
+        byte[] dump = dump(JournalStreams.BUFFER_SIZE * 3 + 17);
+
+        ByteArrayOutputStream attachment = new ByteArrayOutputStream();
+        try (OutputStream output = JournalStreams.output(new GZIPOutputStream(attachment, JournalStreams.BUFFER_SIZE), NO_PROGRESS)) {
+            output.write(dump);
+        }
+        byte[] compressed = attachment.toByteArray();
+        assertFalse(compressed.length == dump.length);
+
+        try (InputStream input = JournalStreams.input(new ByteArrayInputStream(compressed), NO_PROGRESS)) {
+            assertArrayEquals(dump, readFully(input));
+        }
+    }
+
+    /**
+     * Verifies that an uncompressed dump, e.g. read from a file or from an input stream index, is imported as is.
+     */
+    @Test
+    public void inputStreamIndex() throws IOException {
+        byte[] dump = dump(JournalStreams.BUFFER_SIZE + 1);
+
+        try (InputStream input = JournalStreams.input(new ByteArrayInputStream(dump), NO_PROGRESS)) {
+            assertArrayEquals(dump, readFully(input));
+        }
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        try (OutputStream output = JournalStreams.output(file, NO_PROGRESS)) {
+            for (byte b : dump) {
+                output.write(b);
+            }
+        }
+        assertArrayEquals(dump, file.toByteArray());
+    }
+
+    @Test
+    public void empty() throws IOException {
+        try (InputStream input = JournalStreams.input(new ByteArrayInputStream(new byte[0]), NO_PROGRESS)) {
+            assertEquals(-1, input.read());
+        }
+        try (InputStream input = JournalStreams.input(new ByteArrayInputStream(new byte[] { 1 }), NO_PROGRESS)) {
+            assertEquals(1, input.read());
+            assertEquals(-1, input.read());
+        }
+    }
+
+    @Test
+    public void outputProgress() throws IOException {
+        List<Long> progress = new ArrayList<>();
+        try (OutputStream output = JournalStreams.output(new ByteArrayOutputStream(), progress::add, 100)) {
+            output.write(new byte[99]);
+            output.flush();
+            assertTrue(progress.isEmpty());
+            output.write(1);
+            output.flush();
+            assertEquals(1, progress.size());
+            assertEquals(100L, progress.get(0).longValue());
+            // A single transfer spanning several intervals is reported once
+            output.write(new byte[350]);
+            output.flush();
+            assertEquals(2, progress.size());
+            assertEquals(450L, progress.get(1).longValue());
+            output.write(new byte[49]);
+            output.flush();
+            assertEquals(2, progress.size());
+            output.write(1);
+        }
+        assertEquals(3, progress.size());
+        assertEquals(500L, progress.get(2).longValue());
+    }
+
+    @Test
+    public void inputProgress() throws IOException {
+        byte[] dump = dump(1000);
+        List<Long> progress = new ArrayList<>();
+        // Emulate an attached stream, which delivers its content in chunks
+        InputStream attachment = new FilterInputStream(new ByteArrayInputStream(dump)) {
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                return super.read(bytes, offset, Math.min(length, 100));
+            }
+        };
+        try (InputStream input = JournalStreams.input(attachment, progress::add, 300)) {
+            assertArrayEquals(dump, readFully(input));
+        }
+        assertEquals(3, progress.size());
+        long previous = 0;
+        for (long bytes : progress) {
+            // Reported progress never exceeds the dump, and advances by at least one interval
+            assertTrue(bytes <= dump.length);
+            assertTrue(bytes - previous >= 300);
+            previous = bytes;
+        }
+    }
+
+    @Test
+    public void progress() {
+        OperationContext context = mock(OperationContext.class);
+
+        JournalStreams.progress(context, "export-journal").accept(JournalStreams.PROGRESS_INTERVAL);
+
+        verify(context).addResponseWarning(Level.INFO, MessagingLogger.ROOT_LOGGER.journalTransferred(64));
+    }
+}
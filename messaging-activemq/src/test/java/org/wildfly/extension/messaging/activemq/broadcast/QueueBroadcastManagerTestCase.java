@@ -0,0 +1,184 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.messaging.activemq.broadcast;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link QueueBroadcastManager}.
+ * @author agent
+ */
+public class QueueBroadcastManagerTestCase {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCapacity() {
+        new QueueBroadcastManager(0);
+    }
+
+    @Test
+    public void order() throws InterruptedException {
+        BroadcastManager manager = new QueueBroadcastManager(4);
+
+        byte[] first = new byte[] { 1 };
+        byte[] second = new byte[] { 2 };
+        byte[] third = new byte[] { 3 };
+
+        manager.receive(first);
+        manager.receive(second);
+        manager.receive(third);
+
+        assertSame(first, manager.getBroadcast());
+        assertSame(second, manager.getBroadcast());
+
+        // Wrap around the end of the buffer
+        byte[] fourth = new byte[] { 4 };
+        byte[] fifth = new byte[] { 5 };
+        byte[] sixth = new byte[] { 6 };
+        manager.receive(fourth);
+        manager.receive(fifth);
+        manager.receive(sixth);
+
+        assertSame(third, manager.getBroadcast());
+        assertSame(fourth, manager.getBroadcast());
+        assertSame(fifth, manager.getBroadcast());
+        assertSame(sixth, manager.getBroadcast());
+        assertNull(manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+
+        assertEquals(0L, manager.getDroppedCount());
+        assertEquals(0L, manager.getCoalescedCount());
+    }
+
+    @Test
+    public void drop() throws InterruptedException {
+        BroadcastManager manager = new QueueBroadcastManager(2);
+
+        manager.receive(new byte[] { 1 });
+        manager.receive(new byte[] { 2 });
+        // Buffer is full, so the oldest broadcast is dropped
+        manager.receive(new byte[] { 3 });
+
+        assertEquals(1L, manager.getDroppedCount());
+
+        manager.receive(new byte[] { 4 });
+
+        assertEquals(2L, manager.getDroppedCount());
+
+        assertArrayEquals(new byte[] { 3 }, manager.getBroadcast());
+        assertArrayEquals(new byte[] { 4 }, manager.getBroadcast());
+        assertNull(manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+        assertEquals(0L, manager.getCoalescedCount());
+    }
+
+    @Test
+    public void coalesce() throws InterruptedException {
+        BroadcastManager manager = new QueueBroadcastManager(4);
+
+        manager.receive(new byte[] { 1 });
+        // Identical to the most recent pending broadcast
+        manager.receive(new byte[] { 1 });
+
+        assertEquals(1L, manager.getCoalescedCount());
+
+        manager.receive(new byte[] { 2 });
+        // Identical to a pending broadcast, but not to the most recent one
+        manager.receive(new byte[] { 1 });
+
+        assertEquals(1L, manager.getCoalescedCount());
+
+        assertArrayEquals(new byte[] { 1 }, manager.getBroadcast());
+        assertArrayEquals(new byte[] { 2 }, manager.getBroadcast());
+        assertArrayEquals(new byte[] { 1 }, manager.getBroadcast());
+        assertNull(manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+
+        // Broadcasts that were already delivered are never coalesced
+        manager.receive(new byte[] { 1 });
+
+        assertEquals(1L, manager.getCoalescedCount());
+        assertArrayEquals(new byte[] { 1 }, manager.getBroadcast());
+        assertEquals(0L, manager.getDroppedCount());
+    }
+
+    @Test
+    public void clear() throws InterruptedException {
+        BroadcastManager manager = new QueueBroadcastManager(2);
+
+        manager.receive(new byte[] { 1 });
+        manager.receive(new byte[] { 2 });
+
+        manager.clear();
+
+        assertNull(manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+
+        // Cleared buffer is fully usable
+        manager.receive(new byte[] { 3 });
+        manager.receive(new byte[] { 4 });
+
+        assertArrayEquals(new byte[] { 3 }, manager.getBroadcast());
+        assertArrayEquals(new byte[] { 4 }, manager.getBroadcast());
+        assertEquals(0L, manager.getDroppedCount());
+    }
+
+    @Test
+    public void timeout() throws InterruptedException {
+        BroadcastManager manager = new QueueBroadcastManager(2);
+
+        long start = System.nanoTime();
+        assertNull(manager.getBroadcast(50, TimeUnit.MILLISECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void await() throws InterruptedException {
+        BroadcastManager manager = new QueueBroadcastManager(2);
+        AtomicReference<byte[]> result = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            try {
+                result.set(manager.getBroadcast());
+                latch.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        try {
+            byte[] broadcast = new byte[] { 1 };
+            manager.receive(broadcast);
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertSame(broadcast, result.get());
+        } finally {
+            thread.interrupt();
+            thread.join();
+        }
+    }
+}
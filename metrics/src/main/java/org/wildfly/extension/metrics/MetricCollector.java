@@ -104,6 +104,8 @@ public class MetricCollector {
         }
 
         ModelNode resourceDescription = null;
+        // All metrics of this resource are sampled together
+        ResourceMetricsReader reader = null;
         for (Map.Entry<String, AttributeAccess> entry : attributes.entrySet()) {
             String attributeName = entry.getKey();
 
@@ -121,10 +123,13 @@ public class MetricCollector {
             boolean isCounter = attributeAccess.getFlags().contains(AttributeAccess.Flag.COUNTER_METRIC);
             String attributeDescription = resourceDescription.get(ATTRIBUTES, attributeName, DESCRIPTION).asStringOrNull();
 
-            WildFlyMetric metric = new WildFlyMetric(modelControllerClient, resourceAddress, attributeName);
+            if (reader == null) {
+                reader = new ResourceMetricsReader(modelControllerClient, resourceAddress);
+            }
+            WildFlyMetric metric = new WildFlyMetric(reader, attributeName);
             WildFlyMetricMetadata metadata = new WildFlyMetricMetadata(attributeName, resourceAddress, prefix, attributeDescription, unit, isCounter ? COUNTER : GAUGE);
 
-            registration.addRegistrationTask(() -> registration.registerMetric(metric, metadata));
+            registration.addRegistrationTask(registry -> registry.registerMetric(metric, metadata));
             registration.addUnregistrationTask(metadata.getMetricID());
         }
 
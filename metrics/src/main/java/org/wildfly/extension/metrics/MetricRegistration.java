@@ -23,10 +23,11 @@ package org.wildfly.extension.metrics;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class MetricRegistration {
 
-    private final List<Runnable> registrationTasks = new ArrayList<>();
+    private final List<Consumer<MetricRegistry>> registrationTasks = new ArrayList<>();
     private final List<MetricID> unregistrationTasks = new ArrayList<>();
     private final MetricRegistry registry;
 
@@ -36,9 +37,12 @@ public class MetricRegistration {
 
     public void register() { // synchronized to avoid registering same thing twice. Shouldn't really be possible; just being cautious
         synchronized (registry) {
-            for (Runnable task : registrationTasks) {
-                task.run();
-            }
+            // Register all metrics with a single update of the registry
+            registry.update(batch -> {
+                for (Consumer<MetricRegistry> task : registrationTasks) {
+                    task.accept(batch);
+                }
+            });
             // This object will last until undeploy or server stop,
             // so clean up and save memory
             registrationTasks.clear();
@@ -47,9 +51,11 @@ public class MetricRegistration {
 
     public void unregister() {
         synchronized (registry) {
-            for (MetricID id : unregistrationTasks) {
-                registry.unregister(id);
-            }
+            registry.update(batch -> {
+                for (MetricID id : unregistrationTasks) {
+                    batch.unregister(id);
+                }
+            });
             unregistrationTasks.clear();
         }
     }
@@ -58,7 +64,7 @@ public class MetricRegistration {
         registry.registerMetric(metric, metadata);
     }
 
-    public synchronized void addRegistrationTask(Runnable task) {
+    public synchronized void addRegistrationTask(Consumer<MetricRegistry> task) {
         registrationTasks.add(task);
     }
 
@@ -21,13 +21,15 @@
  */
 package org.wildfly.extension.metrics;
 
+import java.util.function.Consumer;
+
 /**
  * Provides a registry of metrics.
  */
 public interface MetricRegistry {
 
     /**
-     * Registers the given metric. Calls will block if another thread
+     * Registers the given metric. Depending on the implementation, calls may block if another thread
      * {@link #readLock() holds the registry read lock}.
      *
      * @param metric the metric. Cannot be {@code null}
@@ -36,17 +38,28 @@ public interface MetricRegistry {
     void registerMetric(Metric metric, MetricMetadata metadata);
 
     /**
-     * Unregisters the given metric, if it is registered. Calls will block if another thread
+     * Unregisters the given metric, if it is registered. Depending on the implementation, calls may block if another thread
      * {@link #readLock() holds the registry read lock}.
      *
      * @param metricID the id for the metric. Cannot be {@code null}
      */
     void unregister(MetricID metricID);
 
+    /**
+     * Performs the registrations and unregistrations of the specified task as a single update of this registry.
+     * Implementations may use this to apply many modifications at once, e.g. all the metrics of a deployment.
+     *
+     * @param task a task that registers and/or unregisters metrics using the specified registry
+     */
+    default void update(Consumer<MetricRegistry> task) {
+        task.accept(this);
+    }
+
     /**
      * Acquires a non-exclusive read lock that will cause calls from other threads
      * to {@link #registerMetric(Metric, MetricMetadata)} or {@link #unregister(MetricID)}
      * to block. Must be followed by a call to {@link #unlock()}.
+     * Implementations that expose immutable snapshots to readers may implement this as a no-op.
      */
     void readLock();
 
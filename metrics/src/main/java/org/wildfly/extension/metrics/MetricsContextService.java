@@ -27,6 +27,10 @@ import static org.wildfly.extension.metrics.MetricsSubsystemDefinition.METRICS_H
 import static org.wildfly.extension.metrics.MetricsSubsystemDefinition.METRICS_HTTP_SECURITY_CAPABILITY;
 import static org.wildfly.extension.metrics.MetricsSubsystemDefinition.METRICS_REGISTRY_RUNTIME_CAPABILITY;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -93,14 +97,17 @@ public class MetricsContextService implements Service {
                     return;
                 }
 
-                WildFlyMetricRegistry metricRegistry = wildflyMetricRegistry.get();
-                metricRegistry.readLock();
-                try {
-                    String wildFlyMetrics = prometheusExporter.export(metricRegistry);
-                    exchange.getResponseSender().send(wildFlyMetrics);
-                } finally {
-                    metricRegistry.unlock();
+                // Metrics are streamed to the response using blocking I/O
+                if (exchange.isInIoThread()) {
+                    exchange.dispatch(this);
+                    return;
                 }
+                exchange.startBlocking();
+
+                // The registry exports an immutable snapshot, so the scrape does not block concurrent (un)deployments
+                Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getOutputStream(), StandardCharsets.UTF_8));
+                prometheusExporter.export(wildflyMetricRegistry.get(), writer);
+                writer.flush();
             }
         });
         consumer.accept(this);
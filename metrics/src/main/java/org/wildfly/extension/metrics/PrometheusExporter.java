@@ -21,10 +21,11 @@
  */
 package org.wildfly.extension.metrics;
 
-import java.util.HashSet;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.OptionalDouble;
-import java.util.Set;
 
 import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.wildfly.extension.metrics.MetricMetadata.MetricTag;
@@ -33,42 +34,54 @@ public class PrometheusExporter {
 
     private static final String LF = "\n";
 
-    public String export(WildFlyMetricRegistry registry) {
-        Set<String> alreadyExportedMetrics = new HashSet<String>();
+    // Formatted text of each exported metric, keyed by metric ID, replaced on each export so that it only retains registered metrics
+    private volatile Map<MetricID, ExportedMetric> exportedMetrics = new HashMap<>();
 
+    public String export(WildFlyMetricRegistry registry) {
         StringBuilder out = new StringBuilder();
-
-        for (Map.Entry<MetricID, Metric> entry : registry.getMetrics().entrySet()) {
-            MetricID metricID = entry.getKey();
-            String metricName = metricID.getMetricName();
-            MetricMetadata metadata = registry.getMetricMetadata().get(metricName);
-            String prometheusMetricName = toPrometheusMetricName(metricID, metadata);
-            OptionalDouble metricValue = entry.getValue().getValue();
-            // if the metric does not return a value, we skip printing the HELP and TYPE
-            if (!metricValue.isPresent()) {
-                continue;
-            }
-            if (!alreadyExportedMetrics.contains(metricName)) {
-                out.append("# HELP " + prometheusMetricName + " " + metadata.getDescription());
-                out.append(LF);
-                out.append("# TYPE " + prometheusMetricName + " " + metadata.getType());
-                out.append(LF);
-                alreadyExportedMetrics.add(metricName);
-            }
-            double scaledValue = scaleToBaseUnit(metricValue.getAsDouble(), metadata.getMeasurementUnit());
-            // I'm pretty sure this is incorrect but that aligns with smallrye-metrics OpenMetricsExporter behaviour
-            if (metadata.getType() == MetricMetadata.Type.COUNTER && metadata.getMeasurementUnit() != MeasurementUnit.NONE) {
-                prometheusMetricName += "_" + metadata.getBaseMetricUnit();
-            }
-            out.append(prometheusMetricName + getTagsAsAString(metricID) + " " + scaledValue);
-            out.append(LF);
+        try {
+            this.export(registry, out);
+        } catch (IOException e) {
+            // StringBuilder does not throw IOException
+            throw new UncheckedIOException(e);
         }
-
         return out.toString();
     }
 
-    private static double scaleToBaseUnit(double value, MeasurementUnit unit) {
-        return value * MeasurementUnit.calculateOffset(unit, unit.getBaseUnits());
+    /**
+     * Streams the metrics of the specified registry, in the Prometheus text format, to the specified output.
+     * @param registry a metric registry
+     * @param out the output to which metrics are written
+     * @throws IOException if the metrics could not be written
+     */
+    public void export(WildFlyMetricRegistry registry, Appendable out) throws IOException {
+        Map<MetricID, ExportedMetric> previousMetrics = this.exportedMetrics;
+        Map<MetricID, ExportedMetric> currentMetrics = new HashMap<>();
+
+        for (MetricFamily family : registry.getMetricFamilies().values()) {
+            MetricMetadata metadata = family.getMetadata();
+            boolean exported = false;
+            for (Map.Entry<MetricID, Metric> entry : family.getMetrics().entrySet()) {
+                MetricID metricID = entry.getKey();
+                ExportedMetric exportedMetric = previousMetrics.get(metricID);
+                if ((exportedMetric == null) || (exportedMetric.metadata != metadata)) {
+                    exportedMetric = new ExportedMetric(metricID, metadata);
+                }
+                currentMetrics.put(metricID, exportedMetric);
+                OptionalDouble metricValue = entry.getValue().getValue();
+                // if the metric does not return a value, we skip printing the HELP and TYPE
+                if (!metricValue.isPresent()) {
+                    continue;
+                }
+                if (!exported) {
+                    out.append(exportedMetric.header);
+                    exported = true;
+                }
+                out.append(exportedMetric.prefix).append(Double.toString(metricValue.getAsDouble() * exportedMetric.scale)).append(LF);
+            }
+        }
+
+        this.exportedMetrics = currentMetrics;
     }
 
     private static String toPrometheusMetricName(MetricID metricID, MetricMetadata metadata) {
@@ -101,4 +114,27 @@ public class PrometheusExporter {
         }
         return out.append("}").toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * The invariant text of an exported metric, i.e. everything but its value.
+     */
+    private static class ExportedMetric {
+        final MetricMetadata metadata;
+        final String header;
+        final String prefix;
+        final double scale;
+
+        ExportedMetric(MetricID metricID, MetricMetadata metadata) {
+            this.metadata = metadata;
+            String prometheusMetricName = toPrometheusMetricName(metricID, metadata);
+            this.header = "# HELP " + prometheusMetricName + " " + metadata.getDescription() + LF + "# TYPE " + prometheusMetricName + " " + metadata.getType() + LF;
+            MeasurementUnit unit = metadata.getMeasurementUnit();
+            this.scale = MeasurementUnit.calculateOffset(unit, unit.getBaseUnits());
+            // I'm pretty sure this is incorrect but that aligns with smallrye-metrics OpenMetricsExporter behaviour
+            if (metadata.getType() == MetricMetadata.Type.COUNTER && unit != MeasurementUnit.NONE) {
+                prometheusMetricName += "_" + metadata.getBaseMetricUnit();
+            }
+            this.prefix = prometheusMetricName + getTagsAsAString(metricID) + " ";
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.metrics;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_UNDEFINED_METRIC_VALUES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ON_RUNTIME_FAILURE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.wildfly.extension.metrics._private.MetricsLogger.LOGGER;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.LocalModelControllerClient;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Reads the metrics of a single management resource.
+ * The metrics of the resource are sampled together, using a single management operation,
+ * and a sample is shared by all reads of the metrics of the resource within the same sample period, e.g. a single scrape.
+ */
+class ResourceMetricsReader {
+
+    static final long DEFAULT_SAMPLE_PERIOD_MILLIS = 500;
+
+    private final LocalModelControllerClient modelControllerClient;
+    private final PathAddress address;
+    private final long samplePeriodNanos;
+    private final List<String> attributeNames = new CopyOnWriteArrayList<>();
+    // Attributes that failed to be read within a composite operation
+    private final Set<String> isolatedAttributeNames = new HashSet<>();
+    private volatile Sample sample = null;
+
+    ResourceMetricsReader(LocalModelControllerClient modelControllerClient, PathAddress address) {
+        this(modelControllerClient, address, DEFAULT_SAMPLE_PERIOD_MILLIS);
+    }
+
+    ResourceMetricsReader(LocalModelControllerClient modelControllerClient, PathAddress address, long samplePeriodMillis) {
+        this.modelControllerClient = modelControllerClient;
+        this.address = address;
+        this.samplePeriodNanos = TimeUnit.MILLISECONDS.toNanos(samplePeriodMillis);
+    }
+
+    PathAddress getAddress() {
+        return this.address;
+    }
+
+    /**
+     * Adds the specified attribute to the metrics sampled by this reader.
+     * @param attributeName the name of a metric attribute
+     */
+    void addAttribute(String attributeName) {
+        if (!this.attributeNames.contains(attributeName)) {
+            this.attributeNames.add(attributeName);
+        }
+    }
+
+    /**
+     * Reads the value of the specified metric attribute from the current sample, taking a new sample if necessary.
+     * @param attributeName the name of a metric attribute
+     * @return the value of the attribute, or an undefined node if the value could not be read
+     */
+    ModelNode read(String attributeName) {
+        Sample sample = this.sample;
+        if ((sample == null) || sample.isExpired(this.samplePeriodNanos) || !sample.values.containsKey(attributeName)) {
+            sample = this.sample(attributeName);
+        }
+        return sample.values.getOrDefault(attributeName, new ModelNode());
+    }
+
+    private synchronized Sample sample(String attributeName) {
+        // Another thread may have taken a sample while we were waiting
+        Sample current = this.sample;
+        if ((current != null) && !current.isExpired(this.samplePeriodNanos) && current.values.containsKey(attributeName)) {
+            return current;
+        }
+        this.addAttribute(attributeName);
+        Map<String, ModelNode> values = new HashMap<>();
+        List<String> batched = new ArrayList<>(this.attributeNames.size());
+        for (String name : this.attributeNames) {
+            if (this.isolatedAttributeNames.contains(name)) {
+                values.put(name, this.readAttributeValue(name));
+            } else {
+                batched.add(name);
+            }
+        }
+        if (batched.size() == 1) {
+            values.put(batched.get(0), this.readAttributeValue(batched.get(0)));
+        } else if (!batched.isEmpty()) {
+            ModelNode operation = Util.createEmptyOperation(COMPOSITE, PathAddress.EMPTY_ADDRESS);
+            operation.get(OPERATION_HEADERS, ROLLBACK_ON_RUNTIME_FAILURE).set(false);
+            ModelNode steps = operation.get(STEPS).setEmptyList();
+            for (String name : batched) {
+                steps.add(this.createReadAttributeOperation(name));
+            }
+            ModelNode results = this.modelControllerClient.execute(operation).get(RESULT);
+            for (int i = 0; i < batched.size(); ++i) {
+                String name = batched.get(i);
+                ModelNode result = results.get("step-" + (i + 1));
+                if (result.hasDefined(FAILURE_DESCRIPTION)) {
+                    // Read this metric separately from now on, so that it cannot fail the sampling of the other metrics of this resource
+                    this.isolatedAttributeNames.add(name);
+                    values.put(name, this.getResult(name, result));
+                } else if (SUCCESS.equals(result.get(OUTCOME).asStringOrNull())) {
+                    values.put(name, result.get(RESULT));
+                } else {
+                    // Step was cancelled or rolled back due to the failure of another step
+                    values.put(name, this.readAttributeValue(name));
+                }
+            }
+        }
+        Sample sample = new Sample(values);
+        this.sample = sample;
+        return sample;
+    }
+
+    private ModelNode readAttributeValue(String attributeName) {
+        return this.getResult(attributeName, this.modelControllerClient.execute(this.createReadAttributeOperation(attributeName)));
+    }
+
+    private ModelNode createReadAttributeOperation(String attributeName) {
+        ModelNode operation = Util.createEmptyOperation(READ_ATTRIBUTE_OPERATION, this.address);
+        operation.get(INCLUDE_UNDEFINED_METRIC_VALUES).set(false);
+        operation.get(NAME).set(attributeName);
+        return operation;
+    }
+
+    private ModelNode getResult(String attributeName, ModelNode response) {
+        if (response.hasDefined(FAILURE_DESCRIPTION)) {
+            String error = response.get(FAILURE_DESCRIPTION).toString();
+            // [WFLY-11933] if the value can not be read if the management resource is not accessible due to RBAC,
+            // it is logged it at a lower level.
+            if (error.contains("WFLYCTL0216")) {
+                LOGGER.debugf("Unable to read attribute %s: %s.", attributeName, error);
+            } else {
+                LOGGER.unableToReadAttribute(attributeName, this.address, error);
+            }
+            return new ModelNode();
+        }
+        return response.get(RESULT);
+    }
+
+    private static class Sample {
+        private final long time = System.nanoTime();
+        final Map<String, ModelNode> values;
+
+        Sample(Map<String, ModelNode> values) {
+            this.values = values;
+        }
+
+        boolean isExpired(long periodNanos) {
+            return System.nanoTime() - this.time >= periodNanos;
+        }
+    }
+}
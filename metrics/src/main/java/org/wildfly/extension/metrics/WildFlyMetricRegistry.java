@@ -24,75 +24,146 @@ package org.wildfly.extension.metrics;
 import static java.util.Objects.requireNonNull;
 
 import java.io.Closeable;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
 import java.util.TreeMap;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
 
+/**
+ * A registry of metrics whose content is published as immutable snapshots.
+ * Individual registrations and unregistrations are queued, and applied together when the next snapshot is read or the next batch is applied,
+ * such that many individual modifications cost a single copy of the modified metric families.
+ * Readers (e.g. a scrape) apply any queued modifications, then iterate over the current snapshot without holding any lock.
+ */
 public class WildFlyMetricRegistry implements Closeable, MetricRegistry {
 
-    /* Key is the metric name */
-    private Map<String, MetricMetadata> metadataMap = new HashMap();
-    private Map<MetricID, Metric> metricMap = new TreeMap<>();
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private static final Map<String, MetricFamily> EMPTY = Collections.unmodifiableMap(new TreeMap<>());
 
+    /* Key is the metric name */
+    private volatile Map<String, MetricFamily> families = EMPTY;
+    // Individual modifications not yet applied to a snapshot
+    private final Queue<Consumer<MetricRegistry>> pending = new ConcurrentLinkedQueue<>();
 
     @Override
-    public void close() {
-
-        lock.writeLock().lock();
-        try {
-            metricMap.clear();
-            metadataMap.clear();
-        } finally {
-            lock.writeLock().unlock();
-        }
+    public synchronized void close() {
+        this.pending.clear();
+        this.families = EMPTY;
     }
 
-    Map<MetricID, Metric> getMetrics() {
-        return metricMap;
-    }
-
-    Map<String, MetricMetadata> getMetricMetadata() {
-        return metadataMap;
+    /**
+     * Returns an immutable snapshot of the metrics of this registry, grouped by metric name.
+     * @return an unmodifiable map of metric families, sorted by metric name
+     */
+    Map<String, MetricFamily> getMetricFamilies() {
+        if (!this.pending.isEmpty()) {
+            this.update(registry -> {});
+        }
+        return this.families;
     }
 
     @Override
-    public synchronized void registerMetric(Metric metric, MetricMetadata metadata) {
+    public void registerMetric(Metric metric, MetricMetadata metadata) {
         requireNonNull(metadata);
         requireNonNull(metric);
-
-        lock.writeLock().lock();
-        try {
-            MetricID metricID = metadata.getMetricID();
-            if (!metadataMap.containsKey(metadata.getMetricName())) {
-                metadataMap.put(metadata.getMetricName(), metadata);
-            }
-            metricMap.put(metricID, metric);
-        } finally {
-            lock.writeLock().unlock();
-        }
+        this.pending.add(registry -> registry.registerMetric(metric, metadata));
     }
 
     @Override
     public void unregister(MetricID metricID) {
-        lock.writeLock().lock();
-        try {
-            metricMap.remove(metricID);
-        } finally {
-            lock.writeLock().unlock();
+        requireNonNull(metricID);
+        this.pending.add(registry -> registry.unregister(metricID));
+    }
+
+    @Override
+    public synchronized void update(Consumer<MetricRegistry> task) {
+        SnapshotBuilder builder = new SnapshotBuilder(this.families);
+        // Apply queued modifications first, to preserve the order of modifications
+        Consumer<MetricRegistry> modification = this.pending.poll();
+        while (modification != null) {
+            modification.accept(builder);
+            modification = this.pending.poll();
         }
+        task.accept(builder);
+        this.families = builder.build();
     }
 
     @Override
     public void readLock() {
-        lock.readLock().lock();
+        // Readers operate on an immutable snapshot
     }
 
     @Override
     public void unlock() {
-        lock.readLock().unlock();
+        // Readers operate on an immutable snapshot
+    }
+
+    /**
+     * Collects the modifications to a snapshot, copying each modified metric family at most once.
+     */
+    private static class SnapshotBuilder implements MetricRegistry {
+        private final Map<String, MetricFamily> families;
+        private final Map<String, MetricMetadata> modifiedMetadata = new HashMap<>();
+        private final Map<String, Map<MetricID, Metric>> modifiedMetrics = new HashMap<>();
+
+        SnapshotBuilder(Map<String, MetricFamily> families) {
+            this.families = new TreeMap<>(families);
+        }
+
+        @Override
+        public void registerMetric(Metric metric, MetricMetadata metadata) {
+            requireNonNull(metadata);
+            requireNonNull(metric);
+
+            String name = metadata.getMetricName();
+            Map<MetricID, Metric> metrics = this.getModifiableMetrics(name);
+            // The metadata of the first registered metric of a given name applies to all metrics of that name
+            if (metrics.isEmpty()) {
+                this.modifiedMetadata.put(name, metadata);
+            }
+            metrics.put(metadata.getMetricID(), metric);
+        }
+
+        @Override
+        public void unregister(MetricID metricID) {
+            String name = metricID.getMetricName();
+            if (this.modifiedMetrics.containsKey(name) || this.families.containsKey(name)) {
+                this.getModifiableMetrics(name).remove(metricID);
+            }
+        }
+
+        @Override
+        public void readLock() {
+        }
+
+        @Override
+        public void unlock() {
+        }
+
+        private Map<MetricID, Metric> getModifiableMetrics(String name) {
+            return this.modifiedMetrics.computeIfAbsent(name, key -> {
+                MetricFamily family = this.families.get(key);
+                return (family != null) ? new TreeMap<>(family.getMetrics()) : new TreeMap<>();
+            });
+        }
+
+        Map<String, MetricFamily> build() {
+            for (Map.Entry<String, Map<MetricID, Metric>> entry : this.modifiedMetrics.entrySet()) {
+                String name = entry.getKey();
+                Map<MetricID, Metric> metrics = entry.getValue();
+                if (metrics.isEmpty()) {
+                    this.families.remove(name);
+                } else {
+                    MetricMetadata metadata = this.modifiedMetadata.get(name);
+                    if (metadata == null) {
+                        metadata = this.families.get(name).getMetadata();
+                    }
+                    this.families.put(name, new MetricFamily(metadata, Collections.unmodifiableMap(metrics)));
+                }
+            }
+            return Collections.unmodifiableMap(this.families);
+        }
     }
-}
\ No newline at end of file
+}
@@ -103,9 +103,11 @@ public class JmxMetricCollector {
         }
         configs.addAll(expandedConfigs);
 
-        for (JmxMetricMetadata config : configs) {
-            register(registry, config);
-        }
+        registry.update(batch -> {
+            for (JmxMetricMetadata config : configs) {
+                register(batch, config);
+            }
+        });
     }
 
     void register(MetricRegistry registry, JmxMetricMetadata metadata) {
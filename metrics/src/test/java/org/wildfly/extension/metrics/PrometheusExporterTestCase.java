@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.OptionalDouble;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link PrometheusExporter}.
+ * @author agent
+ */
+public class PrometheusExporterTestCase {
+
+    @Test
+    public void export() throws IOException {
+        WildFlyMetricRegistry registry = new WildFlyMetricRegistry();
+        registry.update(batch -> {
+            batch.registerMetric(() -> OptionalDouble.of(2), new TestMetricMetadata("requests", "Requests", MeasurementUnit.NONE, MetricMetadata.Type.COUNTER, new MetricMetadata.MetricTag("server", "b")));
+            batch.registerMetric(() -> OptionalDouble.of(1), new TestMetricMetadata("requests", "Requests", MeasurementUnit.NONE, MetricMetadata.Type.COUNTER, new MetricMetadata.MetricTag("server", "a")));
+            batch.registerMetric(() -> OptionalDouble.of(1024), new TestMetricMetadata("memory_used", "Used memory", MeasurementUnit.BYTES, MetricMetadata.Type.GAUGE, new MetricMetadata.MetricTag("area", "heap"), new MetricMetadata.MetricTag("pool", "eden")));
+            batch.registerMetric(() -> OptionalDouble.of(4), new TestMetricMetadata("threads", "Threads", MeasurementUnit.NONE, MetricMetadata.Type.GAUGE));
+            // Metrics without a value are not exported, nor is the header of their family
+            batch.registerMetric(OptionalDouble::empty, new TestMetricMetadata("undefined", "Undefined", MeasurementUnit.NONE, MetricMetadata.Type.GAUGE));
+        });
+
+        String expected = "# HELP memory_used_bytes Used memory\n"
+                + "# TYPE memory_used_bytes gauge\n"
+                + "memory_used_bytes{area=\"heap\",pool=\"eden\"} 1024.0\n"
+                + "# HELP requests_total Requests\n"
+                + "# TYPE requests_total counter\n"
+                + "requests_total{server=\"a\"} 1.0\n"
+                + "requests_total{server=\"b\"} 2.0\n"
+                + "# HELP threads Threads\n"
+                + "# TYPE threads gauge\n"
+                + "threads 4.0\n";
+
+        PrometheusExporter exporter = new PrometheusExporter();
+        assertEquals(expected, exporter.export(registry));
+
+        // Streamed output must be identical
+        StringWriter writer = new StringWriter();
+        exporter.export(registry, writer);
+        assertEquals(expected, writer.toString());
+    }
+
+    @Test
+    public void exportChanges() {
+        WildFlyMetricRegistry registry = new WildFlyMetricRegistry();
+        AtomicReference<OptionalDouble> value = new AtomicReference<>(OptionalDouble.of(1));
+        TestMetricMetadata a = new TestMetricMetadata("requests", "Requests", MeasurementUnit.NONE, MetricMetadata.Type.COUNTER, new MetricMetadata.MetricTag("server", "a"));
+        TestMetricMetadata b = new TestMetricMetadata("requests", "Requests", MeasurementUnit.NONE, MetricMetadata.Type.COUNTER, new MetricMetadata.MetricTag("server", "b"));
+        registry.registerMetric(value::get, a);
+        registry.registerMetric(() -> OptionalDouble.of(2), b);
+
+        PrometheusExporter exporter = new PrometheusExporter();
+        assertEquals("# HELP requests_total Requests\n# TYPE requests_total counter\nrequests_total{server=\"a\"} 1.0\nrequests_total{server=\"b\"} 2.0\n", exporter.export(registry));
+
+        // Values are read on every export
+        value.set(OptionalDouble.of(3));
+        assertEquals("# HELP requests_total Requests\n# TYPE requests_total counter\nrequests_total{server=\"a\"} 3.0\nrequests_total{server=\"b\"} 2.0\n", exporter.export(registry));
+
+        // Header is still written if the first metric of a family has no value
+        value.set(OptionalDouble.empty());
+        assertEquals("# HELP requests_total Requests\n# TYPE requests_total counter\nrequests_total{server=\"b\"} 2.0\n", exporter.export(registry));
+
+        registry.unregister(b.getMetricID());
+        assertEquals("", exporter.export(registry));
+
+        // Metric re-registered with different metadata must not reuse the text of its previous export
+        registry.unregister(a.getMetricID());
+        registry.registerMetric(() -> OptionalDouble.of(5), new TestMetricMetadata("requests", "Active requests", MeasurementUnit.NONE, MetricMetadata.Type.GAUGE, new MetricMetadata.MetricTag("server", "a")));
+        assertEquals("# HELP requests Active requests\n# TYPE requests gauge\nrequests{server=\"a\"} 5.0\n", exporter.export(registry));
+
+        registry.close();
+        assertEquals("", exporter.export(registry));
+    }
+
+    private static class TestMetricMetadata implements MetricMetadata {
+        private final String description;
+        private final MeasurementUnit unit;
+        private final Type type;
+        private final MetricTag[] tags;
+        private final MetricID id;
+
+        TestMetricMetadata(String name, String description, MeasurementUnit unit, Type type, MetricTag... tags) {
+            this.description = description;
+            this.unit = unit;
+            this.type = type;
+            this.tags = tags;
+            this.id = new MetricID(name, tags);
+        }
+
+        @Override
+        public String getMetricName() {
+            return this.id.getMetricName();
+        }
+
+        @Override
+        public MetricTag[] getTags() {
+            return this.tags;
+        }
+
+        @Override
+        public String getDescription() {
+            return this.description;
+        }
+
+        @Override
+        public MeasurementUnit getMeasurementUnit() {
+            return this.unit;
+        }
+
+        @Override
+        public Type getType() {
+            return this.type;
+        }
+
+        @Override
+        public MetricID getMetricID() {
+            return this.id;
+        }
+    }
+}
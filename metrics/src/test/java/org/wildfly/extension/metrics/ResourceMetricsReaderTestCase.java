@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.metrics;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.as.controller.LocalModelControllerClient;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ResourceMetricsReader}.
+ * @author agent
+ */
+public class ResourceMetricsReaderTestCase {
+
+    private final LocalModelControllerClient client = mock(LocalModelControllerClient.class);
+    private final PathAddress address = PathAddress.pathAddress("subsystem", "test");
+    private final Map<String, Long> values = new HashMap<>();
+    private final Set<String> failures = new HashSet<>();
+    // Each executed operation, where composite operations are recorded by their step operation names
+    private final List<List<String>> operations = new ArrayList<>();
+
+    @Before
+    public void init() {
+        when(this.client.execute(any(ModelNode.class))).thenAnswer(invocation -> this.execute(invocation.getArgument(0)));
+        this.values.put("foo", 1L);
+        this.values.put("bar", 2L);
+        this.values.put("baz", 3L);
+    }
+
+    private ModelNode execute(ModelNode operation) {
+        if (operation.get(OP).asString().equals(COMPOSITE)) {
+            List<String> names = new ArrayList<>();
+            ModelNode response = new ModelNode();
+            ModelNode results = response.get(RESULT);
+            int step = 0;
+            for (ModelNode stepOperation : operation.get(STEPS).asList()) {
+                names.add(stepOperation.get(NAME).asString());
+                results.get("step-" + (++step)).set(this.readAttribute(stepOperation));
+            }
+            response.get(OUTCOME).set(SUCCESS);
+            this.operations.add(names);
+            return response;
+        }
+        this.operations.add(Collections.singletonList(operation.get(NAME).asString()));
+        return this.readAttribute(operation);
+    }
+
+    private ModelNode readAttribute(ModelNode operation) {
+        assertEquals(READ_ATTRIBUTE_OPERATION, operation.get(OP).asString());
+        String name = operation.get(NAME).asString();
+        ModelNode response = new ModelNode();
+        if (this.failures.contains(name)) {
+            response.get(OUTCOME).set(FAILED);
+            response.get(FAILURE_DESCRIPTION).set("WFLYCTL0216: " + name);
+        } else {
+            response.get(OUTCOME).set(SUCCESS);
+            response.get(RESULT).set(this.values.get(name));
+        }
+        return response;
+    }
+
+    @Test
+    public void sample() {
+        ResourceMetricsReader reader = new ResourceMetricsReader(this.client, this.address, Long.MAX_VALUE);
+        reader.addAttribute("foo");
+        reader.addAttribute("bar");
+        reader.addAttribute("baz");
+
+        assertEquals(1L, reader.read("foo").asLong());
+        assertEquals(2L, reader.read("bar").asLong());
+        assertEquals(3L, reader.read("baz").asLong());
+
+        // All metrics of the resource are sampled using a single composite operation
+        assertEquals(1, this.operations.size());
+        assertEquals(Arrays.asList("foo", "bar", "baz"), this.operations.get(0));
+
+        // Subsequent reads within the same sample period reuse the sample
+        this.values.put("foo", 10L);
+        assertEquals(1L, reader.read("foo").asLong());
+        assertEquals(1, this.operations.size());
+    }
+
+    @Test
+    public void expiredSample() {
+        ResourceMetricsReader reader = new ResourceMetricsReader(this.client, this.address, 0);
+        reader.addAttribute("foo");
+        reader.addAttribute("bar");
+
+        assertEquals(1L, reader.read("foo").asLong());
+        this.values.put("foo", 10L);
+        assertEquals(10L, reader.read("foo").asLong());
+
+        assertEquals(2, this.operations.size());
+        assertEquals(Arrays.asList("foo", "bar"), this.operations.get(1));
+    }
+
+    @Test
+    public void unsampledAttribute() {
+        ResourceMetricsReader reader = new ResourceMetricsReader(this.client, this.address, Long.MAX_VALUE);
+        reader.addAttribute("foo");
+
+        // Single attribute is read without a composite operation
+        assertEquals(1L, reader.read("foo").asLong());
+        assertEquals(Collections.singletonList(Collections.singletonList("foo")), this.operations);
+
+        // Reading an attribute missing from the current sample triggers a new sample that includes it
+        assertEquals(2L, reader.read("bar").asLong());
+        assertEquals(2, this.operations.size());
+        assertEquals(Arrays.asList("foo", "bar"), this.operations.get(1));
+    }
+
+    @Test
+    public void failedStep() {
+        ResourceMetricsReader reader = new ResourceMetricsReader(this.client, this.address, 0);
+        reader.addAttribute("foo");
+        reader.addAttribute("bar");
+        reader.addAttribute("baz");
+        this.failures.add("bar");
+
+        // A failed step must not fail the other metrics of the resource
+        assertEquals(1L, reader.read("foo").asLong());
+        assertFalse(reader.read("bar").isDefined());
+        assertEquals(3L, reader.read("baz").asLong());
+        assertEquals(Arrays.asList("foo", "bar", "baz"), this.operations.get(0));
+
+        // The failed metric is read separately from then on
+        this.operations.clear();
+        this.failures.clear();
+        assertEquals(1L, reader.read("foo").asLong());
+        assertEquals(Arrays.asList(Collections.singletonList("bar"), Arrays.asList("foo", "baz")), this.operations);
+        assertEquals(2L, reader.read("bar").asLong());
+    }
+}
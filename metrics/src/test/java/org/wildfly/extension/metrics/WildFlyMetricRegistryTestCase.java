@@ -0,0 +1,209 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link WildFlyMetricRegistry}.
+ * @author agent
+ */
+public class WildFlyMetricRegistryTestCase {
+
+    @Test
+    public void register() {
+        WildFlyMetricRegistry registry = new WildFlyMetricRegistry();
+        Metric metric = () -> OptionalDouble.of(1);
+        MetricMetadata metadata = new TestMetricMetadata("foo", MetricMetadata.Type.GAUGE, new MetricMetadata.MetricTag("server", "a"));
+
+        assertTrue(registry.getMetricFamilies().isEmpty());
+
+        registry.registerMetric(metric, metadata);
+
+        Map<String, MetricFamily> families = registry.getMetricFamilies();
+        assertEquals(1, families.size());
+        MetricFamily family = families.get("foo");
+        assertSame(metadata, family.getMetadata());
+        assertEquals(1, family.getMetrics().size());
+        assertSame(metric, family.getMetrics().get(metadata.getMetricID()));
+
+        // Snapshot is reused, if there were no modifications
+        assertSame(families, registry.getMetricFamilies());
+
+        registry.unregister(metadata.getMetricID());
+
+        assertTrue(registry.getMetricFamilies().isEmpty());
+        // Previous snapshot is unaffected
+        assertEquals(1, families.size());
+        assertEquals(1, family.getMetrics().size());
+    }
+
+    @Test
+    public void snapshot() {
+        WildFlyMetricRegistry registry = new WildFlyMetricRegistry();
+        MetricMetadata a = new TestMetricMetadata("foo", MetricMetadata.Type.GAUGE, new MetricMetadata.MetricTag("server", "a"));
+        MetricMetadata b = new TestMetricMetadata("foo", MetricMetadata.Type.COUNTER, new MetricMetadata.MetricTag("server", "b"));
+        MetricMetadata c = new TestMetricMetadata("bar", MetricMetadata.Type.GAUGE);
+        registry.registerMetric(() -> OptionalDouble.of(1), a);
+        registry.registerMetric(() -> OptionalDouble.of(2), c);
+
+        Map<String, MetricFamily> snapshot = registry.getMetricFamilies();
+        MetricFamily bar = snapshot.get("bar");
+        MetricFamily foo = snapshot.get("foo");
+
+        registry.registerMetric(() -> OptionalDouble.of(3), b);
+
+        Map<String, MetricFamily> current = registry.getMetricFamilies();
+        assertNotSame(snapshot, current);
+        // Unmodified families are shared between snapshots
+        assertSame(bar, current.get("bar"));
+        assertNotSame(foo, current.get("foo"));
+        assertEquals(1, foo.getMetrics().size());
+        assertEquals(2, current.get("foo").getMetrics().size());
+        // The metadata of the first registered metric applies to the family
+        assertSame(a, current.get("foo").getMetadata());
+
+        // Families are sorted by name, metrics by ID
+        assertEquals(Arrays.asList("bar", "foo"), Arrays.asList(current.keySet().toArray()));
+        assertEquals(Arrays.asList(a.getMetricID(), b.getMetricID()), Arrays.asList(current.get("foo").getMetrics().keySet().toArray()));
+
+        // Snapshots are immutable
+        try {
+            current.remove("foo");
+            throw new AssertionError();
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+        try {
+            current.get("foo").getMetrics().clear();
+            throw new AssertionError();
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void update() {
+        WildFlyMetricRegistry registry = new WildFlyMetricRegistry();
+        MetricMetadata a = new TestMetricMetadata("foo", MetricMetadata.Type.GAUGE, new MetricMetadata.MetricTag("server", "a"));
+        MetricMetadata b = new TestMetricMetadata("foo", MetricMetadata.Type.GAUGE, new MetricMetadata.MetricTag("server", "b"));
+        MetricMetadata c = new TestMetricMetadata("bar", MetricMetadata.Type.GAUGE);
+
+        // Queued modifications are applied before those of a batch
+        registry.registerMetric(() -> OptionalDouble.of(1), a);
+        registry.update(batch -> {
+            batch.unregister(a.getMetricID());
+            batch.registerMetric(() -> OptionalDouble.of(2), b);
+            batch.registerMetric(() -> OptionalDouble.of(3), c);
+            // Unregistration of an unknown metric is ignored
+            batch.unregister(new MetricID("baz", new MetricMetadata.MetricTag[0]));
+        });
+
+        Map<String, MetricFamily> families = registry.getMetricFamilies();
+        assertEquals(2, families.size());
+        assertFalse(families.get("foo").getMetrics().containsKey(a.getMetricID()));
+        assertTrue(families.get("foo").getMetrics().containsKey(b.getMetricID()));
+        assertTrue(families.get("bar").getMetrics().containsKey(c.getMetricID()));
+
+        registry.update(batch -> {
+            batch.unregister(b.getMetricID());
+            batch.unregister(c.getMetricID());
+        });
+
+        // Empty families are removed
+        assertTrue(registry.getMetricFamilies().isEmpty());
+
+        // Metadata of a family whose metrics were all unregistered does not apply to subsequent registrations
+        MetricMetadata d = new TestMetricMetadata("foo", MetricMetadata.Type.COUNTER, new MetricMetadata.MetricTag("server", "d"));
+        registry.registerMetric(() -> OptionalDouble.of(1), a);
+        registry.update(batch -> {
+            batch.unregister(a.getMetricID());
+            batch.registerMetric(() -> OptionalDouble.of(4), d);
+        });
+        assertSame(d, registry.getMetricFamilies().get("foo").getMetadata());
+    }
+
+    @Test
+    public void close() {
+        WildFlyMetricRegistry registry = new WildFlyMetricRegistry();
+        registry.update(batch -> batch.registerMetric(() -> OptionalDouble.of(1), new TestMetricMetadata("foo", MetricMetadata.Type.GAUGE)));
+        // Queued modification
+        registry.registerMetric(() -> OptionalDouble.of(2), new TestMetricMetadata("bar", MetricMetadata.Type.GAUGE));
+
+        registry.close();
+
+        assertTrue(registry.getMetricFamilies().isEmpty());
+    }
+
+    private static class TestMetricMetadata implements MetricMetadata {
+        private final Type type;
+        private final MetricTag[] tags;
+        private final MetricID id;
+
+        TestMetricMetadata(String name, Type type, MetricTag... tags) {
+            this.type = type;
+            this.tags = tags;
+            this.id = new MetricID(name, tags);
+        }
+
+        @Override
+        public String getMetricName() {
+            return this.id.getMetricName();
+        }
+
+        @Override
+        public MetricTag[] getTags() {
+            return this.tags;
+        }
+
+        @Override
+        public String getDescription() {
+            return this.id.getMetricName();
+        }
+
+        @Override
+        public MeasurementUnit getMeasurementUnit() {
+            return MeasurementUnit.NONE;
+        }
+
+        @Override
+        public Type getType() {
+            return this.type;
+        }
+
+        @Override
+        public MetricID getMetricID() {
+            return this.id;
+        }
+    }
+}
@@ -27,9 +27,13 @@ import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 
 import javax.naming.Binding;
@@ -58,12 +62,20 @@ import org.wildfly.security.manager.WildFlySecurityManager;
  * @author Eduardo Martins
  */
 public class ServiceBasedNamingStore implements NamingStore {
+    // Upper bound on the number of cached bindings, beyond which the cache is reset
+    private static final int MAX_CACHED_BINDINGS = 1024;
+
     private final Name EMPTY_NAME = new CompositeName();
     private Name baseName;
     private final ServiceRegistry serviceRegistry;
     private final ServiceName serviceNameBase;
 
     private ConcurrentSkipListSet<ServiceName> boundServices = new ConcurrentSkipListSet<ServiceName>();
+    // Caches the binder service of names resolved directly to a bound service, keyed by the string form of the name
+    private final Map<String, ServiceController<?>> bindings = new ConcurrentHashMap<>();
+    // Indexes the cached names by the service to which they resolve, sorted such that the names resolving to a service or any of its descendants are contiguous
+    private final ConcurrentSkipListMap<ServiceName, Set<String>> cachedNames = new ConcurrentSkipListMap<>();
+    private final LookupCacheStatistics statistics = new LookupCacheStatistics();
 
     public ServiceBasedNamingStore(final ServiceRegistry serviceRegistry, final ServiceName serviceNameBase) {
         this.serviceRegistry = serviceRegistry;
@@ -79,8 +91,31 @@ public class ServiceBasedNamingStore implements NamingStore {
         if (name.isEmpty()) {
             return new NamingContext(EMPTY_NAME, this, null);
         }
+        final String key = name.toString();
+        final ServiceController<?> cachedController = this.bindings.get(key);
+        if (cachedController != null) {
+            if (cachedController.getState() != ServiceController.State.REMOVED) {
+                this.statistics.hit();
+                return lookup(key, cachedController, dereference);
+            }
+            this.bindings.remove(key, cachedController);
+        }
+        this.statistics.miss();
         final ServiceName lookupName = buildServiceName(name);
-        Object obj = lookup(name.toString(), lookupName, dereference);
+        final ServiceController<?> controller = serviceRegistry.getService(lookupName);
+        Object obj = lookup(key, controller, dereference);
+        if (obj != null && boundServices.contains(lookupName)) {
+            if (this.bindings.size() >= MAX_CACHED_BINDINGS) {
+                this.bindings.clear();
+                this.cachedNames.clear();
+            }
+            this.bindings.put(key, controller);
+            this.cachedNames.computeIfAbsent(lookupName, serviceName -> ConcurrentHashMap.newKeySet()).add(key);
+            // Guard against a concurrent unbind
+            if (!boundServices.contains(lookupName)) {
+                this.bindings.remove(key, controller);
+            }
+        }
         if (obj == null) {
             final ServiceName lower = boundServices.lower(lookupName);
             if (lower != null && lower.isParentOf(lookupName)) {
@@ -125,8 +160,11 @@ public class ServiceBasedNamingStore implements NamingStore {
     }
 
     private Object lookup(final String name, final ServiceName lookupName, boolean dereference) throws NamingException {
+        return lookup(name, serviceRegistry.getService(lookupName), dereference);
+    }
+
+    private Object lookup(final String name, final ServiceController<?> controller, boolean dereference) throws NamingException {
         try {
-            final ServiceController<?> controller = serviceRegistry.getService(lookupName);
             if (controller != null) {
                 final Object object = controller.getValue();
                 if (dereference && object instanceof ManagedReferenceFactory) {
@@ -257,6 +295,8 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     public void close() throws NamingException {
         boundServices.clear();
+        bindings.clear();
+        cachedNames.clear();
     }
 
     public void addNamingListener(Name target, int scope, NamingListener listener) {
@@ -271,10 +311,34 @@ public class ServiceBasedNamingStore implements NamingStore {
             throw NamingLogger.ROOT_LOGGER.serviceAlreadyBound(serviceName);
         }
         boundServices.add(serviceName);
+        invalidate(serviceName);
     }
 
     public void remove(final ServiceName serviceName) {
         boundServices.remove(serviceName);
+        invalidate(serviceName);
+    }
+
+    private void invalidate(final ServiceName serviceName) {
+        final Iterator<Map.Entry<ServiceName, Set<String>>> entries = cachedNames.tailMap(serviceName, true).entrySet().iterator();
+        while (entries.hasNext()) {
+            final Map.Entry<ServiceName, Set<String>> entry = entries.next();
+            if (!serviceName.equals(entry.getKey()) && !serviceName.isParentOf(entry.getKey())) {
+                break;
+            }
+            entries.remove();
+            for (String key : entry.getValue()) {
+                bindings.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Returns the hit/miss statistics of the lookup cache of this store.
+     * @return the lookup cache statistics
+     */
+    public LookupCacheStatistics getLookupCacheStatistics() {
+        return this.statistics;
     }
 
     protected ServiceName buildServiceName(final Name name) {
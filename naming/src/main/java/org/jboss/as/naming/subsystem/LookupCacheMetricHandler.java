@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.naming.subsystem;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.naming.LookupCacheStatistics;
+import org.jboss.as.naming.ServiceBasedNamingStore;
+import org.jboss.as.naming.deployment.ContextNames;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceRegistry;
+
+/**
+ * Reports a lookup cache metric of each of the server's naming stores, keyed by the name of its JNDI context.
+ *
+ * @author agent
+ */
+class LookupCacheMetricHandler extends AbstractRuntimeOnlyHandler {
+
+    private static final Map<String, ServiceName> CONTEXTS = new LinkedHashMap<>();
+    static {
+        CONTEXTS.put("java:", ContextNames.JAVA_CONTEXT_SERVICE_NAME);
+        CONTEXTS.put("java:jboss", ContextNames.JBOSS_CONTEXT_SERVICE_NAME);
+        CONTEXTS.put("java:jboss/exported", ContextNames.EXPORTED_CONTEXT_SERVICE_NAME);
+        CONTEXTS.put("java:global", ContextNames.GLOBAL_CONTEXT_SERVICE_NAME);
+    }
+
+    private final ToLongFunction<LookupCacheStatistics> metric;
+
+    LookupCacheMetricHandler(ToLongFunction<LookupCacheStatistics> metric) {
+        this.metric = metric;
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) {
+        final ServiceRegistry registry = context.getServiceRegistry(false);
+        final ModelNode result = context.getResult().setEmptyObject();
+        for (Map.Entry<String, ServiceName> entry : CONTEXTS.entrySet()) {
+            final ServiceController<?> controller = registry.getService(entry.getValue());
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                final Object store = controller.getValue();
+                if (store instanceof ServiceBasedNamingStore) {
+                    result.get(entry.getKey()).set(this.metric.applyAsLong(((ServiceBasedNamingStore) store).getLookupCacheStatistics()));
+                }
+            }
+        }
+    }
+}
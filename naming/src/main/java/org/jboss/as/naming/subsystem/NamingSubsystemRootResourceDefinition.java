@@ -24,7 +24,9 @@ package org.jboss.as.naming.subsystem;
 
 import java.util.EnumSet;
 
+import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleMapAttributeDefinition;
 import org.jboss.as.controller.SimpleOperationDefinition;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
@@ -65,6 +67,14 @@ public class NamingSubsystemRootResourceDefinition extends SimpleResourceDefinit
             .setReplyValueType(ModelType.STRING)
             .build();
 
+    static final AttributeDefinition LOOKUP_CACHE_HITS = new SimpleMapAttributeDefinition.Builder("lookup-cache-hits", ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final AttributeDefinition LOOKUP_CACHE_MISSES = new SimpleMapAttributeDefinition.Builder("lookup-cache-misses", ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
     NamingSubsystemRootResourceDefinition() {
         super(PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, NamingExtension.SUBSYSTEM_NAME),
                 NamingExtension.getResourceDescriptionResolver(NamingExtension.SUBSYSTEM_NAME),
@@ -98,6 +98,67 @@ public class ServiceBasedNamingStoreTestCase {
         assertEquals(value, obj);
     }
 
+    @Test
+    public void testLookupCache() throws Exception {
+        final ServiceName bindingName = ServiceName.JBOSS.append("foo", "cached");
+        final Object value = new Object();
+        bindObject(bindingName, value);
+
+        final Name name = new CompositeName("foo/cached");
+        final LookupCacheStatistics statistics = store.getLookupCacheStatistics();
+        final long hits = statistics.getHitCount();
+        final long misses = statistics.getMissCount();
+
+        assertEquals(value, store.lookup(name));
+        assertEquals(hits, statistics.getHitCount());
+        assertEquals(misses + 1, statistics.getMissCount());
+
+        assertEquals(value, store.lookup(name));
+        assertEquals(hits + 1, statistics.getHitCount());
+        assertEquals(misses + 1, statistics.getMissCount());
+
+        // Unbinding must invalidate the cached binding
+        store.remove(bindingName);
+        store.lookup(name);
+        assertEquals(hits + 1, statistics.getHitCount());
+        assertEquals(misses + 2, statistics.getMissCount());
+    }
+
+    @Test
+    public void testLookupCacheParentInvalidation() throws Exception {
+        final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar", "cached");
+        final Object value = new Object();
+        bindObject(bindingName, value);
+
+        final Name name = new CompositeName("foo/bar/cached");
+        final LookupCacheStatistics statistics = store.getLookupCacheStatistics();
+
+        assertEquals(value, store.lookup(name));
+        assertEquals(value, store.lookup(name));
+        assertEquals(1, statistics.getHitCount());
+        assertEquals(1, statistics.getMissCount());
+
+        // Binding or unbinding an ancestor must invalidate the cached bindings beneath it
+        final ServiceName parentName = ServiceName.JBOSS.append("foo");
+        store.add(parentName);
+        assertEquals(value, store.lookup(name));
+        assertEquals(1, statistics.getHitCount());
+        assertEquals(2, statistics.getMissCount());
+
+        assertEquals(value, store.lookup(name));
+        assertEquals(2, statistics.getHitCount());
+
+        store.remove(parentName);
+        assertEquals(value, store.lookup(name));
+        assertEquals(2, statistics.getHitCount());
+        assertEquals(3, statistics.getMissCount());
+
+        // Statistics are specific to each store
+        final LookupCacheStatistics otherStatistics = new ServiceBasedNamingStore(container, ServiceName.JBOSS).getLookupCacheStatistics();
+        assertEquals(0, otherStatistics.getHitCount());
+        assertEquals(0, otherStatistics.getMissCount());
+    }
+
     @Test
     public void testLookupParentContext() throws Exception {
         final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar");
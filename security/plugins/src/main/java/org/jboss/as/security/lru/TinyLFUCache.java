@@ -0,0 +1,635 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.security.lru;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded cache, optimized for concurrent reads, using the W-TinyLFU eviction policy.
+ * <p/>
+ * <p>Entries are admitted into a small LRU window, and evicted from the window into a segmented LRU main space,
+ * consisting of a probation and a protected segment. An entry evicted from the window only displaces the victim of the main space
+ * if it was used more frequently, according to a {@link FrequencySketch}.</p>
+ * <p/>
+ * <p>Reads never block, and never modify shared eviction state directly. Instead, accesses are recorded into striped, lossy buffers,
+ * which are replayed against the eviction policy in batches by whichever thread acquires the eviction lock.
+ * Writes are recorded into a lossless buffer, and drained likewise.</p>
+ * <p/>
+ * <p>Entries optionally expire a fixed time after they were last written. Expired entries are never returned, and are removed lazily.</p>
+ *
+ * @author agent
+ */
+public class TinyLFUCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>, CacheStatistics {
+    private static final int READ_BUFFER_SIZE = 16;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int READ_BUFFERS = Math.min(16, Integer.highestOneBit(Math.max(Runtime.getRuntime().availableProcessors() - 1, 1)) << 1);
+
+    private static final int UNLINKED = -1;
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final ConcurrentHashMap<K, Node<K, V>> cache = new ConcurrentHashMap<>();
+    private final ReadBuffer<K, V>[] readBuffers;
+    private final Queue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final RemoveCallback<K, V> removeCallback;
+    private final long expirationNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Eviction policy state, guarded by evictionLock
+    private final FrequencySketch sketch;
+    private final AccessOrder<K, V> window = new AccessOrder<>();
+    private final AccessOrder<K, V> probation = new AccessOrder<>();
+    private final AccessOrder<K, V> protectedSegment = new AccessOrder<>();
+    private final int maxEntries;
+    private final int maxWindow;
+    private final int maxProtected;
+    private int size = 0;
+    private int windowSize = 0;
+    private int protectedSize = 0;
+
+    public TinyLFUCache(int maxEntries) {
+        this(maxEntries, 0, TimeUnit.MILLISECONDS, null);
+    }
+
+    public TinyLFUCache(int maxEntries, RemoveCallback<K, V> removeCallback) {
+        this(maxEntries, 0, TimeUnit.MILLISECONDS, removeCallback);
+    }
+
+    /**
+     * Creates a new cache.
+     * @param maxEntries the maximum number of entries
+     * @param expiration the duration after which an entry expires, following its last write, or a non-positive value if entries never expire
+     * @param unit the unit of the expiration duration
+     * @param removeCallback an optional callback, invoked after an entry is removed, evicted, or its value replaced
+     */
+    @SuppressWarnings("unchecked")
+    public TinyLFUCache(int maxEntries, long expiration, TimeUnit unit, RemoveCallback<K, V> removeCallback) {
+        this.maxEntries = Math.max(maxEntries, 1);
+        this.maxWindow = Math.max(1, this.maxEntries / 100);
+        this.maxProtected = (this.maxEntries - this.maxWindow) * 4 / 5;
+        this.expirationNanos = (expiration > 0) ? unit.toNanos(expiration) : 0L;
+        this.removeCallback = removeCallback;
+        this.sketch = new FrequencySketch(this.maxEntries);
+        this.readBuffers = new ReadBuffer[READ_BUFFERS];
+        for (int i = 0; i < READ_BUFFERS; ++i) {
+            this.readBuffers[i] = new ReadBuffer<>();
+        }
+    }
+
+    @Override
+    public V get(Object key) {
+        @SuppressWarnings("SuspiciousMethodCalls")
+        Node<K, V> node = cache.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        if (isExpired(node, now())) {
+            misses.increment();
+            expire(node);
+            return null;
+        }
+        hits.increment();
+        afterRead(node);
+        return node.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        @SuppressWarnings("SuspiciousMethodCalls")
+        Node<K, V> node = cache.get(key);
+        return node != null && !isExpired(node, now());
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return put(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return put(key, value, true);
+    }
+
+    private V put(K key, V value, boolean ifAbsent) {
+        long now = now();
+        Node<K, V> node = cache.get(key);
+        for (;;) {
+            if (node == null) {
+                Node<K, V> newNode = new Node<>(key, value, now);
+                node = cache.putIfAbsent(key, newNode);
+                if (node == null) {
+                    afterWrite(() -> onAdd(newNode));
+                    return null;
+                }
+            }
+            if (isExpired(node, now)) {
+                expire(node);
+                node = cache.get(key);
+                continue;
+            }
+            afterRead(node);
+            if (ifAbsent) {
+                return node.value;
+            }
+            V old = node.value;
+            node.value = value;
+            node.writeTime = now;
+            return old;
+        }
+    }
+
+    @Override
+    public V replace(K key, V newValue) {
+        Node<K, V> node = cache.get(key);
+        if (node == null) return null;
+
+        afterRead(node);
+        V old = node.value;
+        node.value = newValue;
+        node.writeTime = now();
+        if (removeCallback != null) {
+            removeCallback.afterRemove(key, old);
+        }
+        return old;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Node<K, V> node = cache.get(key);
+        if (node == null || !node.compareAndSetValue(oldValue, newValue)) {
+            return false;
+        }
+        node.writeTime = now();
+        afterRead(node);
+        if (removeCallback != null) {
+            removeCallback.afterRemove(key, oldValue);
+        }
+        return true;
+    }
+
+    @Override
+    public V remove(Object key) {
+        @SuppressWarnings("SuspiciousMethodCalls")
+        Node<K, V> node = cache.remove(key);
+        if (node == null) {
+            return null;
+        }
+        afterWrite(() -> onRemove(node));
+        if (removeCallback != null) {
+            removeCallback.afterRemove(node.key, node.value);
+        }
+        return node.value;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        @SuppressWarnings("SuspiciousMethodCalls")
+        Node<K, V> node = cache.get(key);
+        if (node == null || node.value != value || !cache.remove(key, node)) {
+            return false;
+        }
+        afterWrite(() -> onRemove(node));
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (K key : cache.keySet()) {
+            remove(key);
+        }
+    }
+
+    @Override
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new WrappedEntrySet();
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private long now() {
+        return (expirationNanos > 0) ? System.nanoTime() : 0L;
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+        return (expirationNanos > 0) && (now - node.writeTime >= expirationNanos);
+    }
+
+    private void expire(Node<K, V> node) {
+        if (cache.remove(node.key, node)) {
+            evictions.increment();
+            afterWrite(() -> onRemove(node));
+            if (removeCallback != null) {
+                removeCallback.afterRemove(node.key, node.value);
+            }
+        }
+    }
+
+    /**
+     * Records an access to the specified entry.  If the read buffer of the current thread is full, the buffers are drained.
+     */
+    private void afterRead(Node<K, V> node) {
+        int index = (int) Thread.currentThread().getId() & (readBuffers.length - 1);
+        if (!readBuffers[index].offer(node)) {
+            drain();
+        }
+    }
+
+    private void afterWrite(Runnable task) {
+        writeBuffer.add(task);
+        drain();
+    }
+
+    /**
+     * Replays buffered reads and writes against the eviction policy, unless another thread is already doing so.
+     */
+    private void drain() {
+        do {
+            if (!evictionLock.tryLock()) {
+                // The lock owner re-checks the write buffer after releasing the lock
+                return;
+            }
+            try {
+                for (ReadBuffer<K, V> buffer : readBuffers) {
+                    drainReadBuffer(buffer);
+                }
+                for (Runnable task = writeBuffer.poll(); task != null; task = writeBuffer.poll()) {
+                    task.run();
+                }
+                expireEntries();
+                evictEntries();
+            } finally {
+                evictionLock.unlock();
+            }
+        } while (!writeBuffer.isEmpty());
+    }
+
+    private void drainReadBuffer(ReadBuffer<K, V> buffer) {
+        long head = buffer.readCounter;
+        long tail = buffer.writeCounter.get();
+        for (; head < tail; ++head) {
+            int index = (int) (head & READ_BUFFER_MASK);
+            Node<K, V> node = buffer.nodes.get(index);
+            if (node == null) {
+                // Slot was claimed, but not yet published
+                break;
+            }
+            buffer.nodes.lazySet(index, null);
+            onAccess(node);
+        }
+        buffer.readCounter = head;
+    }
+
+    private void onAdd(Node<K, V> node) {
+        sketch.increment(node.key);
+        if (node.retired) return;
+        node.queue = WINDOW;
+        window.add(node);
+        windowSize++;
+        size++;
+    }
+
+    private void onAccess(Node<K, V> node) {
+        sketch.increment(node.key);
+        switch (node.queue) {
+            case WINDOW:
+                window.moveToTail(node);
+                break;
+            case PROBATION:
+                // Promote to the protected segment, demoting its least recently used entries if necessary
+                probation.remove(node);
+                node.queue = PROTECTED;
+                protectedSegment.add(node);
+                protectedSize++;
+                while (protectedSize > maxProtected) {
+                    Node<K, V> demoted = protectedSegment.head;
+                    protectedSegment.remove(demoted);
+                    protectedSize--;
+                    demoted.queue = PROBATION;
+                    probation.add(demoted);
+                }
+                break;
+            case PROTECTED:
+                protectedSegment.moveToTail(node);
+                break;
+            default:
+                // Not yet added, or already removed
+        }
+    }
+
+    private void onRemove(Node<K, V> node) {
+        unlink(node);
+        node.retired = true;
+    }
+
+    private void unlink(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.remove(node);
+                windowSize--;
+                break;
+            case PROBATION:
+                probation.remove(node);
+                break;
+            case PROTECTED:
+                protectedSegment.remove(node);
+                protectedSize--;
+                break;
+            default:
+                return;
+        }
+        node.queue = UNLINKED;
+        size--;
+    }
+
+    private void evict(Node<K, V> node) {
+        onRemove(node);
+        if (cache.remove(node.key, node)) {
+            evictions.increment();
+            if (removeCallback != null) {
+                removeCallback.afterRemove(node.key, node.value);
+            }
+        }
+    }
+
+    /**
+     * Removes expired entries from the head of each segment.  Since segments are in access order, rather than write order,
+     * this is a best-effort cleanup; remaining expired entries are removed on access, or are eventually evicted.
+     */
+    private void expireEntries() {
+        if (expirationNanos <= 0) return;
+        long now = now();
+        expireEntries(window, now);
+        expireEntries(probation, now);
+        expireEntries(protectedSegment, now);
+    }
+
+    private void expireEntries(AccessOrder<K, V> segment, long now) {
+        for (Node<K, V> node = segment.head; node != null && isExpired(node, now); node = segment.head) {
+            evict(node);
+        }
+    }
+
+    private void evictEntries() {
+        int maxMain = maxEntries - maxWindow;
+        while (windowSize > maxWindow) {
+            Node<K, V> candidate = window.head;
+            window.remove(candidate);
+            windowSize--;
+            candidate.queue = PROBATION;
+            probation.add(candidate);
+            if (size - windowSize <= maxMain) continue;
+
+            // Main space is full, so admit the candidate only if it is more popular than the victim
+            Node<K, V> victim = (probation.head != candidate) ? probation.head : protectedSegment.head;
+            if (victim == null || sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                if (victim != null) {
+                    evict(victim);
+                }
+            } else {
+                evict(candidate);
+            }
+        }
+        while (size > maxEntries) {
+            Node<K, V> victim = (probation.head != null) ? probation.head : (protectedSegment.head != null) ? protectedSegment.head : window.head;
+            evict(victim);
+        }
+    }
+
+    static final class Node<K, V> {
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<Node, Object> valueUpdater = AtomicReferenceFieldUpdater.newUpdater(Node.class, Object.class, "value");
+
+        final K key;
+        volatile V value;
+        volatile long writeTime;
+
+        // Guarded by evictionLock
+        int queue = UNLINKED;
+        boolean retired = false;
+        Node<K, V> previous;
+        Node<K, V> next;
+
+        Node(K key, V value, long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+
+        boolean compareAndSetValue(V expected, V value) {
+            return valueUpdater.compareAndSet(this, expected, value);
+        }
+    }
+
+    /**
+     * An intrusive, doubly-linked list of nodes, in access order.  Not thread-safe.
+     */
+    static final class AccessOrder<K, V> {
+        Node<K, V> head;
+        Node<K, V> tail;
+
+        void add(Node<K, V> node) {
+            node.previous = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.previous == null) {
+                head = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+        }
+
+        void moveToTail(Node<K, V> node) {
+            if (node != tail) {
+                remove(node);
+                add(node);
+            }
+        }
+    }
+
+    /**
+     * A bounded, lossy, multiple-producer buffer of accessed nodes.
+     * Offers are dropped when contended, since the eviction policy tolerates a sample of accesses.
+     */
+    static final class ReadBuffer<K, V> {
+        final AtomicLong writeCounter = new AtomicLong();
+        final AtomicReferenceArray<Node<K, V>> nodes = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        // Written only while holding the eviction lock
+        volatile long readCounter = 0;
+
+        /**
+         * Records the specified node, unless the buffer is full.
+         * @return false, if the buffer is full and should be drained, true otherwise
+         */
+        boolean offer(Node<K, V> node) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            if (tail - head >= READ_BUFFER_SIZE) {
+                return false;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                nodes.lazySet((int) (tail & READ_BUFFER_MASK), node);
+            }
+            return true;
+        }
+    }
+
+    private class WrappedEntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new WrappedIterator(cache.values().iterator());
+        }
+
+        @Override
+        public int size() {
+            return cache.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry))
+                return false;
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            @SuppressWarnings("SuspiciousMethodCalls")
+            Node<K, V> node = cache.get(e.getKey());
+            return node != null && node.value != null && node.value.equals(e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Entry))
+                return false;
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return TinyLFUCache.this.remove(e.getKey()) != null;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return cache.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            TinyLFUCache.this.clear();
+        }
+    }
+
+    private class WrappedIterator implements Iterator<Entry<K, V>> {
+        private final Iterator<Node<K, V>> iterator;
+        private Node<K, V> last;
+
+        WrappedIterator(Iterator<Node<K, V>> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            final Node<K, V> next = iterator.next();
+            last = next;
+
+            return new Entry<K, V>() {
+                @Override
+                public K getKey() {
+                    return next.key;
+                }
+
+                @Override
+                public V getValue() {
+                    return next.value;
+                }
+
+                @Override
+                public V setValue(V value) {
+                    V old = next.value;
+                    next.value = value;
+                    return old;
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException("next() not called");
+            }
+            TinyLFUCache.this.remove(last.key);
+            last = null;
+        }
+    }
+}
@@ -24,9 +24,12 @@ package org.jboss.as.security.plugins;
 
 import java.security.Principal;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
-import org.jboss.as.security.lru.LRUCache;
+import org.jboss.as.security._private.SecurityLogger;
+import org.jboss.as.security.lru.TinyLFUCache;
 import org.jboss.security.authentication.JBossCachedAuthenticationManager.DomainInfo;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Factory that creates default {@code ConcurrentMap}s for authentication cache.
@@ -35,13 +38,49 @@ import org.jboss.security.authentication.JBossCachedAuthenticationManager.Domain
  */
 public class DefaultAuthenticationCacheFactory implements AuthenticationCacheFactory {
 
+    private static final String MAX_ENTRIES = "jboss.security.authentication-cache.max-entries";
+    private static final String EXPIRATION = "jboss.security.authentication-cache.expiration";
+
+    private final int maxEntries;
+    private final long expiration;
+
+    public DefaultAuthenticationCacheFactory() {
+        this((int) parseProperty(MAX_ENTRIES, 1000, 1, Integer.MAX_VALUE), parseProperty(EXPIRATION, 0, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    private static long parseProperty(String name, long defaultValue, long minValue, long maxValue) {
+        String value = WildFlySecurityManager.getPropertyPrivileged(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            long result = Long.parseLong(value.trim());
+            if ((result >= minValue) && (result <= maxValue)) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through
+        }
+        SecurityLogger.ROOT_LOGGER.warnf("Ignoring invalid value '%s' of system property %s", value, name);
+        return defaultValue;
+    }
+
+    /**
+     * @param maxEntries the maximum number of cached principals
+     * @param expiration the number of milliseconds after which a cached principal expires, or a non-positive value if principals never expire
+     */
+    public DefaultAuthenticationCacheFactory(int maxEntries, long expiration) {
+        this.maxEntries = maxEntries;
+        this.expiration = expiration;
+    }
+
     /**
      * Returns a default cache implementation
      *
      * @return cache implementation
      */
     public ConcurrentMap<Principal, DomainInfo> getCache() {
-        return new LRUCache<>(1000, (key, value) -> {
+        return new TinyLFUCache<>(this.maxEntries, this.expiration, TimeUnit.MILLISECONDS, (key, value) -> {
             if (value != null) {
                 value.logout();
             }
@@ -33,6 +33,7 @@ import javax.naming.InitialContext;
 import javax.security.auth.callback.CallbackHandler;
 
 import org.jboss.as.security._private.SecurityLogger;
+import org.jboss.as.security.lru.CacheStatistics;
 import org.jboss.modules.ModuleLoader;
 import org.jboss.security.AuthenticationManager;
 import org.jboss.security.AuthorizationManager;
@@ -288,6 +289,7 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
                                                                     JSSESecurityDomain jsseSecurityDomain) throws Exception {
         SecurityLogger.ROOT_LOGGER.debugf("Creating SDC for domain = %s", securityDomain);
         AuthenticationManager am = createAuthenticationManager(securityDomain);
+        CacheStatistics cacheStatistics = null;
         if (cacheFactory != null && am instanceof CacheableManager) {
             // create authentication cache
             final Map<Principal, ?> cache = cacheFactory.getCache();
@@ -295,6 +297,9 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
                 @SuppressWarnings({ "unchecked", "rawtypes" })
                 CacheableManager<Map, Principal> cm = (CacheableManager<Map, Principal>) am;
                 cm.setCache(cache);
+                if (cache instanceof CacheStatistics) {
+                    cacheStatistics = (CacheStatistics) cache;
+                }
             }
         }
 
@@ -307,7 +312,7 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
                 createAuthorizationManager(securityDomain),
                 createAuditManager(securityDomain),
                 createIdentityTrustManager(securityDomain), createMappingManager(securityDomain),
-                jsseSecurityDomain);
+                jsseSecurityDomain, cacheStatistics);
     }
 
     /**
@@ -26,6 +26,7 @@ import javax.security.auth.Subject;
 import javax.security.jacc.PolicyContext;
 import javax.security.jacc.PolicyContextException;
 
+import org.jboss.as.security.lru.CacheStatistics;
 import org.jboss.security.AuthenticationManager;
 import org.jboss.security.AuthorizationManager;
 import org.jboss.security.JSSESecurityDomain;
@@ -48,6 +49,7 @@ public final class SecurityDomainContext {
     private final MappingManager mappingMgr;
     private final IdentityTrustManager identityTrustMgr;
     private final JSSESecurityDomain jsseSecurityDomain;
+    private final CacheStatistics authenticationCacheStatistics;
 
     private static final String SUBJECT_CONTEXT_KEY = "javax.security.auth.Subject.container";
 
@@ -56,12 +58,22 @@ public final class SecurityDomainContext {
                                  AuditManager auditMgr,
                                  IdentityTrustManager identityTrustMgr, MappingManager mappingMgr,
                                  JSSESecurityDomain jsseSecurityDomain) {
+        this(authenticationMgr, authorizationMgr, auditMgr, identityTrustMgr, mappingMgr, jsseSecurityDomain, null);
+    }
+
+    public SecurityDomainContext(AuthenticationManager authenticationMgr,
+                                 AuthorizationManager authorizationMgr,
+                                 AuditManager auditMgr,
+                                 IdentityTrustManager identityTrustMgr, MappingManager mappingMgr,
+                                 JSSESecurityDomain jsseSecurityDomain,
+                                 CacheStatistics authenticationCacheStatistics) {
         this.authenticationMgr = authenticationMgr;
         this.authorizationMgr = authorizationMgr;
         this.auditMgr = auditMgr;
         this.mappingMgr = mappingMgr;
         this.identityTrustMgr = identityTrustMgr;
         this.jsseSecurityDomain = jsseSecurityDomain;
+        this.authenticationCacheStatistics = authenticationCacheStatistics;
     }
 
     public Subject getSubject() {
@@ -96,4 +108,13 @@ public final class SecurityDomainContext {
     public JSSESecurityDomain getJSSE() {
         return jsseSecurityDomain;
     }
+
+    /**
+     * Returns the statistics of the authentication cache, if the cache tracks them.
+     *
+     * @return the cache statistics, or null if unavailable
+     */
+    public CacheStatistics getAuthenticationCacheStatistics() {
+        return authenticationCacheStatistics;
+    }
 }
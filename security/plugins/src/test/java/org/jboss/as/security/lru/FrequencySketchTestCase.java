@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.security.lru;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link FrequencySketch}.
+ * @author agent
+ */
+public class FrequencySketchTestCase {
+
+    @Test
+    public void frequency() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        assertEquals(0, sketch.frequency("a"));
+        for (int i = 1; i <= 10; ++i) {
+            sketch.increment("a");
+            assertEquals(i, sketch.frequency("a"));
+        }
+        assertTrue(sketch.frequency("b") < sketch.frequency("a"));
+    }
+
+    @Test
+    public void maximum() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 100; ++i) {
+            sketch.increment("a");
+        }
+        // Counters saturate at 4 bits
+        assertEquals(15, sketch.frequency("a"));
+    }
+
+    @Test
+    public void reset() {
+        int capacity = 1000;
+        int sampleSize = 10 * capacity;
+        FrequencySketch sketch = new FrequencySketch(capacity);
+        for (int i = 0; i < 10; ++i) {
+            sketch.increment("a");
+        }
+        // Increment distinct keys until one increment short of the sample size
+        for (int i = 1; i < sampleSize - 10; ++i) {
+            sketch.increment(i);
+        }
+        int frequency = sketch.frequency("a");
+        assertTrue(Integer.toString(frequency), frequency >= 10);
+
+        // Reaching the sample size halves all counters
+        sketch.increment(0);
+        int aged = sketch.frequency("a");
+        assertEquals(frequency >>> 1, aged);
+    }
+
+    @Test
+    public void popularity() {
+        FrequencySketch sketch = new FrequencySketch(512);
+        for (int i = 0; i < 512; ++i) {
+            // Key i is incremented i % 8 times
+            for (int j = 0; j < i % 8; ++j) {
+                sketch.increment(i);
+            }
+        }
+        int overestimated = 0;
+        for (int i = 0; i < 512; ++i) {
+            int frequency = sketch.frequency(i);
+            // A count-min sketch never underestimates
+            assertTrue(frequency >= i % 8);
+            if (frequency > i % 8) {
+                overestimated += 1;
+            }
+        }
+        // Collisions are rare for a sketch sized to its capacity
+        assertTrue(Integer.toString(overestimated), overestimated < 512 / 10);
+    }
+}
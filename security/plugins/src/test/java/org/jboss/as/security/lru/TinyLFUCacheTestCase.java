@@ -0,0 +1,271 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.security.lru;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TinyLFUCache}.
+ * @author agent
+ */
+public class TinyLFUCacheTestCase {
+
+    private final Map<String, String> removed = new ConcurrentHashMap<>();
+    private final RemoveCallback<String, String> callback = this.removed::put;
+
+    /**
+     * Fills a cache of 10 entries with keys 0 through 9, each read 3 times.
+     */
+    private static TinyLFUCache<String, String> populate(TinyLFUCache<String, String> cache) {
+        for (int i = 0; i < 10; ++i) {
+            cache.put(Integer.toString(i), "value" + i);
+        }
+        for (int j = 0; j < 3; ++j) {
+            for (int i = 0; i < 10; ++i) {
+                assertEquals("value" + i, cache.get(Integer.toString(i)));
+            }
+        }
+        return cache;
+    }
+
+    @Test
+    public void admission() {
+        TinyLFUCache<String, String> cache = populate(new TinyLFUCache<>(10, this.callback));
+        assertEquals(10, cache.size());
+        assertEquals(0L, cache.getEvictionCount());
+
+        // The window entry is displaced into the main space, evicting a popular entry
+        cache.put("a", "a");
+        assertEquals(10, cache.size());
+        assertEquals(1L, cache.getEvictionCount());
+        assertEquals(1, this.removed.size());
+
+        // A one-hit wonder is not admitted into the main space
+        cache.put("b", "b");
+        assertFalse(cache.containsKey("a"));
+        assertTrue(cache.containsKey("b"));
+        assertEquals("a", this.removed.get("a"));
+        assertEquals(10, cache.size());
+        assertEquals(2L, cache.getEvictionCount());
+
+        // A popular newcomer is admitted, at the expense of the least recently used entry of the main space
+        cache.put("c", "c");
+        assertFalse(cache.containsKey("b"));
+        for (int i = 0; i < 5; ++i) {
+            assertEquals("c", cache.get("c"));
+        }
+        this.removed.clear();
+        cache.put("d", "d");
+        assertTrue(cache.containsKey("c"));
+        assertTrue(cache.containsKey("d"));
+        assertEquals(1, this.removed.size());
+        assertFalse(this.removed.containsKey("c"));
+        assertEquals(10, cache.size());
+        assertEquals(4L, cache.getEvictionCount());
+    }
+
+    @Test
+    public void scanResistance() {
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(100);
+        // Hot set of half the capacity, accessed repeatedly
+        for (int j = 0; j < 10; ++j) {
+            for (int i = 0; i < 50; ++i) {
+                if (cache.get(i) == null) {
+                    cache.put(i, i);
+                }
+            }
+        }
+        // Scan of many keys that are only used once, while the hot set remains in use
+        // Since the sketch ages, an entry that is no longer used would eventually be evicted
+        for (int i = 1000; i < 11000; ++i) {
+            assertNull(cache.get(i));
+            cache.put(i, i);
+            assertEquals(Integer.valueOf(i % 50), cache.get(i % 50));
+        }
+        for (int i = 0; i < 50; ++i) {
+            assertTrue(Integer.toString(i), cache.containsKey(i));
+        }
+        assertTrue(cache.size() <= 100);
+    }
+
+    @Test
+    public void drain() {
+        TinyLFUCache<String, String> cache = populate(new TinyLFUCache<>(10, this.callback));
+        cache.put("c", "c");
+        // Reads many times the capacity of a read buffer, so that buffers are drained without any intervening write
+        for (int i = 0; i < 1000; ++i) {
+            assertEquals("c", cache.get("c"));
+        }
+        cache.put("d", "d");
+        // Frequency of "c" was recorded, so it is admitted into the main space
+        assertTrue(cache.containsKey("c"));
+        assertEquals(10, cache.size());
+        assertEquals(1000L, cache.getHitCount() - 30L);
+    }
+
+    @Test
+    public void readBuffer() {
+        TinyLFUCache.ReadBuffer<String, String> buffer = new TinyLFUCache.ReadBuffer<>();
+        TinyLFUCache.Node<String, String> node = new TinyLFUCache.Node<>("a", "a", 0L);
+        for (int i = 0; i < 16; ++i) {
+            assertTrue(buffer.offer(node));
+        }
+        // A full buffer must be drained
+        assertFalse(buffer.offer(node));
+        buffer.readCounter = buffer.writeCounter.get();
+        assertTrue(buffer.offer(node));
+    }
+
+    @Test
+    public void expire() throws InterruptedException {
+        TinyLFUCache<String, String> cache = new TinyLFUCache<>(10, 50, TimeUnit.MILLISECONDS, this.callback);
+        cache.put("a", "1");
+        assertEquals("1", cache.get("a"));
+        assertTrue(cache.containsKey("a"));
+
+        Thread.sleep(100);
+
+        assertFalse(cache.containsKey("a"));
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(1L, cache.getEvictionCount());
+        assertEquals(1L, cache.getHitCount());
+        assertEquals(1L, cache.getMissCount());
+        assertEquals("1", this.removed.get("a"));
+
+        // An expired entry is replaced on write
+        this.removed.clear();
+        cache.put("b", "1");
+        Thread.sleep(100);
+        assertNull(cache.put("b", "2"));
+        assertEquals("1", this.removed.get("b"));
+        assertEquals("2", cache.get("b"));
+    }
+
+    @Test
+    public void expireOnWrite() throws InterruptedException {
+        TinyLFUCache<String, String> cache = new TinyLFUCache<>(10, 50, TimeUnit.MILLISECONDS, this.callback);
+        cache.put("a", "1");
+        cache.put("b", "1");
+        Thread.sleep(100);
+        // Expired entries are cleaned up when the buffers are drained
+        cache.put("c", "1");
+        assertEquals(1, cache.size());
+        assertEquals(2, this.removed.size());
+        assertEquals(2L, cache.getEvictionCount());
+    }
+
+    @Test
+    public void removeCallback() {
+        TinyLFUCache<String, String> cache = new TinyLFUCache<>(10, this.callback);
+        cache.put("a", "1");
+
+        assertEquals("1", cache.replace("a", "2"));
+        assertEquals("1", this.removed.remove("a"));
+
+        assertFalse(cache.replace("a", "1", "3"));
+        assertTrue(this.removed.isEmpty());
+        assertTrue(cache.replace("a", "2", "3"));
+        assertEquals("2", this.removed.remove("a"));
+
+        assertEquals("3", cache.remove("a"));
+        assertEquals("3", this.removed.remove("a"));
+        assertNull(cache.remove("a"));
+        assertTrue(this.removed.isEmpty());
+
+        // Replacing a missing entry does not invoke the callback
+        assertNull(cache.replace("a", "4"));
+        assertTrue(this.removed.isEmpty());
+
+        cache.put("b", "1");
+        cache.put("c", "1");
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(2, this.removed.size());
+    }
+
+    @Test
+    public void putIfAbsent() {
+        TinyLFUCache<String, String> cache = new TinyLFUCache<>(10);
+        assertNull(cache.putIfAbsent("a", "1"));
+        assertEquals("1", cache.putIfAbsent("a", "2"));
+        assertEquals("1", cache.put("a", "3"));
+        assertEquals("3", cache.get("a"));
+        assertFalse(cache.remove("a", "1"));
+        assertTrue(cache.remove("a", "3"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void concurrent() throws Exception {
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(100);
+        int threads = 8;
+        int operations = 100000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; ++i) {
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int j = 0; j < operations; ++j) {
+                        int key = (int) Math.abs(random.nextGaussian() * 100);
+                        Integer value = cache.get(key);
+                        if (value == null) {
+                            cache.putIfAbsent(key, key);
+                        } else {
+                            assertEquals(key, value.intValue());
+                            if (j % 100 == 0) {
+                                cache.remove(key);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals((long) threads * operations, cache.getHitCount() + cache.getMissCount());
+        // A subsequent write drains any pending evictions
+        cache.put(-1, -1);
+        assertTrue(Integer.toString(cache.size()), cache.size() <= 100);
+        assertTrue(cache.getEvictionCount() > 0);
+    }
+}
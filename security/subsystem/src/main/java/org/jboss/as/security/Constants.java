@@ -118,6 +118,9 @@ public interface Constants {
     String LIST_CACHED_PRINCIPALS = "list-cached-principals";
     String FLUSH_CACHE = "flush-cache";
     String PRINCIPAL_ARGUMENT = "principal";
+    String CACHE_HIT_COUNT = "cache-hit-count";
+    String CACHE_MISS_COUNT = "cache-miss-count";
+    String CACHE_EVICTION_COUNT = "cache-eviction-count";
     // ELYTRON INTEGRATION CONSTANTS
     String ELYTRON_INTEGRATION = "elytron-integration";
     String SECURITY_REALMS = "security-realms";
@@ -30,8 +30,10 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
 
 import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
@@ -48,9 +50,11 @@ import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraint
 import org.jboss.as.controller.capability.RuntimeCapability;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.operations.validation.StringAllowedValuesValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.security.logging.SecurityLogger;
+import org.jboss.as.security.lru.CacheStatistics;
 import org.jboss.as.security.plugins.SecurityDomainContext;
 import org.jboss.as.security.service.SecurityDomainService;
 import org.jboss.dmr.ModelNode;
@@ -111,6 +115,12 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
     @Override
     public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerReadWriteAttribute(CACHE_TYPE, null, new SecurityDomainReloadWriteHandler(CACHE_TYPE));
+
+        if (registerRuntimeOnly) {
+            for (CacheStatisticsMetricHandler handler : CacheStatisticsMetricHandler.INSTANCES) {
+                resourceRegistration.registerMetric(handler.getDefinition(), handler);
+            }
+        }
     }
 
     @Override
@@ -181,6 +191,44 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
         }
     }
 
+    /**
+     * Reads a statistic of the authentication cache of a security domain.
+     * Reports 0 if the cache of the security domain does not track statistics.
+     */
+    static final class CacheStatisticsMetricHandler extends AbstractRuntimeOnlyHandler {
+        static final CacheStatisticsMetricHandler[] INSTANCES = new CacheStatisticsMetricHandler[] {
+                new CacheStatisticsMetricHandler(Constants.CACHE_HIT_COUNT, CacheStatistics::getHitCount),
+                new CacheStatisticsMetricHandler(Constants.CACHE_MISS_COUNT, CacheStatistics::getMissCount),
+                new CacheStatisticsMetricHandler(Constants.CACHE_EVICTION_COUNT, CacheStatistics::getEvictionCount),
+        };
+
+        private final AttributeDefinition definition;
+        private final ToLongFunction<CacheStatistics> metric;
+
+        private CacheStatisticsMetricHandler(String name, ToLongFunction<CacheStatistics> metric) {
+            this.definition = new SimpleAttributeDefinitionBuilder(name, ModelType.LONG)
+                    .setUndefinedMetricValue(new ModelNode(0L))
+                    .setFlags(AttributeAccess.Flag.COUNTER_METRIC)
+                    .setStorageRuntime()
+                    .build();
+            this.metric = metric;
+        }
+
+        AttributeDefinition getDefinition() {
+            return this.definition;
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final String securityDomain = context.getCurrentAddressValue();
+
+            ServiceController<SecurityDomainContext> controller = getSecurityDomainService(context, securityDomain);
+            waitForService(controller);
+            CacheStatistics statistics = controller.getValue().getAuthenticationCacheStatistics();
+            context.getResult().set((statistics != null) ? this.metric.applyAsLong(statistics) : 0L);
+        }
+    }
+
     static final class FlushOperation extends AbstractRuntimeOnlyHandler {
         static final FlushOperation INSTANCE = new FlushOperation();
         static final SimpleOperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(Constants.FLUSH_CACHE,
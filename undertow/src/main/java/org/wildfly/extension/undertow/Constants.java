@@ -181,6 +181,7 @@ public interface Constants {
     String LOAD_BALANCING_GROUP = "load-balancing-group";
     String CACHE_CONNECTIONS = "cache-connections";
     String FLUSH_WAIT = "flush-wait";
+    String FORMAT = "format";
     String MAX_CONNECTIONS = "max-connections";
     String OPEN_CONNECTIONS = "open-connections";
     String PING = "ping";
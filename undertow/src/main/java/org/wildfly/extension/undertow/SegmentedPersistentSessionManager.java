@@ -0,0 +1,139 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import io.undertow.servlet.UndertowServletLogger;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.Unmarshaller;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Persistent session manager that streams sessions to disk one at a time, via a {@link SegmentedSessionStore}.
+ * Restored sessions are only deserialized when first accessed, i.e. when the first request for a given session arrives.
+ * Sessions persisted by {@link DiskBasedModularPersistentSessionManager} are still restored.
+ *
+ * @author agent
+ */
+public class SegmentedPersistentSessionManager extends DiskBasedModularPersistentSessionManager {
+
+    private static final String STORE_SUFFIX = ".sessions";
+
+    public SegmentedPersistentSessionManager(String path, String pathRelativeTo) {
+        super(path, pathRelativeTo);
+    }
+
+    @Override
+    public void persistSessions(String deploymentName, Map<String, PersistentSession> sessionData) {
+        try {
+            Marshaller marshaller = createMarshaller();
+            try (SegmentedSessionStore.Writer writer = this.createStore(deploymentName).createWriter()) {
+                for (Map.Entry<String, PersistentSession> entry : sessionData.entrySet()) {
+                    PersistentSession session = entry.getValue();
+                    writer.append(entry.getKey(), session.getExpiration().getTime(), marshalAttributes(marshaller, entry.getKey(), session.getSessionData()));
+                }
+                writer.commit();
+            } finally {
+                marshaller.close();
+            }
+            // Sessions persisted in the single file format are now obsolete
+            new File(getBaseDir(), deploymentName).delete();
+        } catch (Exception e) {
+            UndertowServletLogger.ROOT_LOGGER.failedToPersistSessions(e);
+        }
+    }
+
+    @Override
+    public Map<String, PersistentSession> loadSessionAttributes(String deploymentName, ClassLoader classLoader) {
+        SegmentedSessionStore store = this.createStore(deploymentName);
+        try {
+            if (!store.exists()) {
+                return super.loadSessionAttributes(deploymentName, classLoader);
+            }
+            long time = System.currentTimeMillis();
+            Map<String, PersistentSession> result = new HashMap<>();
+            for (Map.Entry<String, SegmentedSessionStore.StoredSession> entry : store.read().entrySet()) {
+                SegmentedSessionStore.StoredSession session = entry.getValue();
+                if (session.getExpiration() > time) {
+                    result.put(entry.getKey(), new PersistentSession(new Date(session.getExpiration()), new LazySessionAttributes(entry.getKey(), session)));
+                }
+            }
+            return result;
+        } catch (Exception e) {
+            UndertowServletLogger.ROOT_LOGGER.failedtoLoadPersistentSessions(e);
+        }
+        return null;
+    }
+
+    private SegmentedSessionStore createStore(String deploymentName) {
+        return new SegmentedSessionStore(new File(getBaseDir(), deploymentName + STORE_SUFFIX));
+    }
+
+    /**
+     * Session attributes that are read and deserialized from the store on first access.
+     */
+    private class LazySessionAttributes extends AbstractMap<String, Object> {
+        private final String sessionId;
+        private SegmentedSessionStore.StoredSession session;
+        private Map<String, Object> attributes;
+
+        LazySessionAttributes(String sessionId, SegmentedSessionStore.StoredSession session) {
+            this.sessionId = sessionId;
+            this.session = session;
+        }
+
+        @Override
+        public synchronized Set<Entry<String, Object>> entrySet() {
+            if (this.attributes == null) {
+                this.attributes = this.load();
+                // Release the mapped segment
+                this.session = null;
+            }
+            return this.attributes.entrySet();
+        }
+
+        private Map<String, Object> load() {
+            try {
+                Unmarshaller unmarshaller = createUnmarshaller();
+                try {
+                    return unmarshalAttributes(unmarshaller, this.session.getAttributes());
+                } finally {
+                    unmarshaller.close();
+                }
+            } catch (StreamCorruptedException e) {
+                UndertowLogger.ROOT_LOGGER.corruptPersistentSession(this.sessionId);
+            } catch (IOException | ClassNotFoundException e) {
+                UndertowServletLogger.ROOT_LOGGER.failedtoLoadPersistentSessions(e);
+            }
+            return Collections.emptyMap();
+        }
+    }
+}
@@ -0,0 +1,403 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+
+/**
+ * Stores the serialized sessions of a deployment in a directory of segment files.
+ * Sessions are appended one record at a time, so writing never requires the sessions of a deployment to be serialized at once.
+ * Each write creates a new generation of segments, which replaces the previous generation once its last segment is marked as complete.
+ * Every segment is forced to the storage device before it is closed, so that a generation is only marked as complete once all of its segments are durable.
+ * <p/>
+ * Reading only indexes the identifier and expiration of each session, using memory-mapped segments.
+ * The serialized attributes of a session are read from its segment on demand.
+ *
+ * @author agent
+ */
+public class SegmentedSessionStore {
+
+    static final long DEFAULT_MAX_SEGMENT_SIZE = 64L << 20;
+
+    private static final String SEGMENT_SUFFIX = ".segment";
+
+    // Segment header: magic, version, flags
+    private static final int MAGIC = 0x55505353;
+    private static final byte VERSION = 1;
+    private static final byte LAST = 0x1;
+    private static final int FLAGS_OFFSET = Integer.BYTES + 1;
+    private static final int SEGMENT_HEADER_SIZE = FLAGS_OFFSET + 1;
+
+    // Record header: body length, body checksum
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final File directory;
+    private final long maxSegmentSize;
+
+    public SegmentedSessionStore(File directory) {
+        this(directory, DEFAULT_MAX_SEGMENT_SIZE);
+    }
+
+    SegmentedSessionStore(File directory, long maxSegmentSize) {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    /**
+     * Indicates whether this store contains a complete generation of sessions.
+     * @return true, if sessions were stored, false otherwise
+     * @throws IOException if a segment could not be read
+     */
+    public boolean exists() throws IOException {
+        return this.findComplete(this.generations()) != null;
+    }
+
+    /**
+     * Creates a writer for a new generation of sessions.
+     * @return a session writer
+     * @throws IOException if the writer could not be created
+     */
+    public Writer createWriter() throws IOException {
+        if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+            throw new IOException(this.directory.getPath());
+        }
+        NavigableMap<Long, NavigableMap<Integer, File>> generations = this.generations();
+        return new Writer(generations.isEmpty() ? 0L : generations.lastKey() + 1);
+    }
+
+    /**
+     * Indexes the sessions of the most recent complete generation, and deletes all other generations.
+     * @return the stored sessions, keyed by session identifier
+     * @throws IOException if a segment could not be read
+     */
+    public Map<String, StoredSession> read() throws IOException {
+        NavigableMap<Long, NavigableMap<Integer, File>> generations = this.generations();
+        Long generation = this.findComplete(generations);
+        Map<String, StoredSession> sessions = new HashMap<>();
+        if (generation == null) return sessions;
+        for (Map.Entry<Long, NavigableMap<Integer, File>> entry : generations.entrySet()) {
+            if (!entry.getKey().equals(generation)) {
+                delete(entry.getValue().values());
+            }
+        }
+        for (File file : generations.get(generation).values()) {
+            this.scan(file, sessions);
+        }
+        return sessions;
+    }
+
+    /**
+     * Deletes all sessions of this store.
+     * @throws IOException if the store could not be listed
+     */
+    public void delete() throws IOException {
+        for (NavigableMap<Integer, File> segments : this.generations().values()) {
+            delete(segments.values());
+        }
+        this.directory.delete();
+    }
+
+    private void scan(File file, Map<String, StoredSession> sessions) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < SEGMENT_HEADER_SIZE) {
+                UndertowLogger.ROOT_LOGGER.persistentSessionsTruncated(file, 0);
+                return;
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if ((buffer.getInt() != MAGIC) || (buffer.get() != VERSION)) {
+                UndertowLogger.ROOT_LOGGER.persistentSessionsTruncated(file, 0);
+                return;
+            }
+            buffer.position(SEGMENT_HEADER_SIZE);
+            long end = buffer.position();
+            while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if ((length < Integer.BYTES + Long.BYTES) || (length > buffer.remaining())) break;
+                ByteBuffer body = buffer.slice();
+                body.limit(length);
+                int idLength = body.getInt();
+                if ((idLength < 0) || (idLength > body.remaining() - Long.BYTES)) break;
+                byte[] id = new byte[idLength];
+                body.get(id);
+                long expiration = body.getLong();
+                body.rewind();
+                sessions.put(new String(id, StandardCharsets.UTF_8), new StoredSession(body, checksum, expiration));
+                buffer.position(buffer.position() + length);
+                end = buffer.position();
+            }
+            if (end < size) {
+                UndertowLogger.ROOT_LOGGER.persistentSessionsTruncated(file, end);
+            }
+        }
+    }
+
+    private Long findComplete(NavigableMap<Long, NavigableMap<Integer, File>> generations) throws IOException {
+        for (Map.Entry<Long, NavigableMap<Integer, File>> entry : generations.descendingMap().entrySet()) {
+            NavigableMap<Integer, File> segments = entry.getValue();
+            // Segments must be contiguous, and the last must be marked as such
+            if ((segments.firstKey() == 0) && (segments.lastKey() == segments.size() - 1) && isLast(segments.lastEntry().getValue())) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private NavigableMap<Long, NavigableMap<Integer, File>> generations() {
+        NavigableMap<Long, NavigableMap<Integer, File>> generations = new TreeMap<>();
+        File[] files = this.directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                int separator = name.indexOf('-');
+                if (!name.endsWith(SEGMENT_SUFFIX) || (separator < 0)) continue;
+                try {
+                    long generation = Long.parseLong(name.substring(0, separator), 16);
+                    int segment = Integer.parseInt(name.substring(separator + 1, name.length() - SEGMENT_SUFFIX.length()), 16);
+                    generations.computeIfAbsent(generation, key -> new TreeMap<>()).put(segment, file);
+                } catch (NumberFormatException e) {
+                    // Not a segment
+                }
+            }
+        }
+        return generations;
+    }
+
+    private static boolean isLast(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) return false;
+            }
+            header.flip();
+            return (header.getInt() == MAGIC) && (header.get() == VERSION) && ((header.get() & LAST) != 0);
+        }
+    }
+
+    private static void delete(Iterable<File> files) {
+        for (File file : files) {
+            // Segments that cannot be deleted yet, e.g. while still mapped, are deleted by a subsequent read
+            file.delete();
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if ((length < 0) || (length > buffer.remaining())) {
+            throw new StreamCorruptedException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The persistent state of a session, whose attributes are read on demand.
+     */
+    public static class StoredSession {
+        private final ByteBuffer body;
+        private final int checksum;
+        private final long expiration;
+
+        StoredSession(ByteBuffer body, int checksum, long expiration) {
+            this.body = body;
+            this.checksum = checksum;
+            this.expiration = expiration;
+        }
+
+        public long getExpiration() {
+            return this.expiration;
+        }
+
+        /**
+         * Reads the serialized attributes of this session.
+         * @return the serialized attributes, keyed by attribute name
+         * @throws StreamCorruptedException if the record of this session is corrupt
+         */
+        public Map<String, byte[]> getAttributes() throws IOException {
+            ByteBuffer body = this.body.duplicate();
+            CRC32 checksum = new CRC32();
+            checksum.update(body.duplicate());
+            if ((int) checksum.getValue() != this.checksum) {
+                throw new StreamCorruptedException();
+            }
+            try {
+                readString(body);
+                body.getLong();
+                int count = body.getInt();
+                Map<String, byte[]> attributes = new HashMap<>();
+                for (int i = 0; i < count; ++i) {
+                    String name = readString(body);
+                    int length = body.getInt();
+                    if ((length < 0) || (length > body.remaining())) {
+                        throw new StreamCorruptedException();
+                    }
+                    byte[] value = new byte[length];
+                    body.get(value);
+                    attributes.put(name, value);
+                }
+                return attributes;
+            } catch (RuntimeException e) {
+                throw new StreamCorruptedException(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Appends sessions to a new generation of segments.
+     * The new generation only replaces the previous generation once committed.
+     */
+    public class Writer implements Closeable {
+        private final long generation;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        private final DataOutputStream body = new DataOutputStream(this.bytes);
+        private final CRC32 checksum = new CRC32();
+        private int segment = -1;
+        private FileOutputStream file;
+        private DataOutputStream output;
+        private long size;
+        private boolean committed = false;
+
+        Writer(long generation) {
+            this.generation = generation;
+        }
+
+        /**
+         * Appends the specified session.
+         * @param id a session identifier
+         * @param expiration the expiration time of the session, in milliseconds since the epoch
+         * @param attributes the serialized attributes of the session
+         * @throws IOException if the session could not be written
+         */
+        public void append(String id, long expiration, Map<String, byte[]> attributes) throws IOException {
+            this.bytes.reset();
+            writeString(this.body, id);
+            this.body.writeLong(expiration);
+            this.body.writeInt(attributes.size());
+            for (Map.Entry<String, byte[]> attribute : attributes.entrySet()) {
+                writeString(this.body, attribute.getKey());
+                this.body.writeInt(attribute.getValue().length);
+                this.body.write(attribute.getValue());
+            }
+            this.body.flush();
+            byte[] record = this.bytes.toByteArray();
+            this.checksum.reset();
+            this.checksum.update(record, 0, record.length);
+
+            if ((this.output == null) || (this.size > SEGMENT_HEADER_SIZE && this.size + RECORD_HEADER_SIZE + record.length > SegmentedSessionStore.this.maxSegmentSize)) {
+                this.roll();
+            }
+            this.output.writeInt(record.length);
+            this.output.writeInt((int) this.checksum.getValue());
+            this.output.write(record);
+            this.size += RECORD_HEADER_SIZE + record.length;
+        }
+
+        /**
+         * Marks this generation as complete, and deletes all prior generations.
+         * @throws IOException if this generation could not be completed
+         */
+        public void commit() throws IOException {
+            if (this.output == null) {
+                this.roll();
+            }
+            // Prior segments were already forced when rolled, so once the records of the final segment are durable, so is the whole generation
+            this.forceSegment();
+            FileChannel channel = this.file.getChannel();
+            channel.write(ByteBuffer.wrap(new byte[] { LAST }), FLAGS_OFFSET);
+            channel.force(true);
+            this.closeSegment();
+            this.committed = true;
+            for (Map.Entry<Long, NavigableMap<Integer, File>> entry : SegmentedSessionStore.this.generations().headMap(this.generation, false).entrySet()) {
+                delete(entry.getValue().values());
+            }
+        }
+
+        /**
+         * Closes this writer, discarding this generation unless committed.
+         */
+        @Override
+        public void close() throws IOException {
+            this.closeSegment();
+            if (!this.committed) {
+                NavigableMap<Integer, File> segments = SegmentedSessionStore.this.generations().get(this.generation);
+                if (segments != null) {
+                    delete(segments.values());
+                }
+            }
+        }
+
+        private void roll() throws IOException {
+            this.forceSegment();
+            this.closeSegment();
+            this.segment += 1;
+            this.file = new FileOutputStream(new File(SegmentedSessionStore.this.directory, String.format("%016x-%08x%s", this.generation, this.segment, SEGMENT_SUFFIX)));
+            this.output = new DataOutputStream(new BufferedOutputStream(this.file, 64 * 1024));
+            this.output.writeInt(MAGIC);
+            this.output.writeByte(VERSION);
+            this.output.writeByte(0);
+            this.size = SEGMENT_HEADER_SIZE;
+        }
+
+        private void forceSegment() throws IOException {
+            DataOutputStream output = this.output;
+            if (output != null) {
+                output.flush();
+                this.file.getChannel().force(true);
+            }
+        }
+
+        private void closeSegment() throws IOException {
+            DataOutputStream output = this.output;
+            if (output != null) {
+                this.output = null;
+                this.file = null;
+                output.close();
+            }
+        }
+    }
+}
@@ -231,7 +231,8 @@ public class UndertowSubsystemParser_12_0 extends PersistentResourceXMLParser {
                                         builder(PersistentSessionsDefinition.INSTANCE.getPathElement())
                                                 .addAttributes(
                                                         PersistentSessionsDefinition.PATH,
-                                                        PersistentSessionsDefinition.RELATIVE_TO
+                                                        PersistentSessionsDefinition.RELATIVE_TO,
+                                                        PersistentSessionsDefinition.FORMAT
                                                 )
                                 )
                                 .addChild(
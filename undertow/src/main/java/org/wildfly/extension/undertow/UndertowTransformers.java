@@ -111,6 +111,13 @@ public class UndertowTransformers implements ExtensionTransformerRegistration {
         subsystemBuilder.getAttributeBuilder().addRejectCheck(RejectAttributeChecker.DEFINED, OBFUSCATE_SESSION_ROUTE)
                 .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, OBFUSCATE_SESSION_ROUTE)
                 .end();
+
+        subsystemBuilder.addChildResource(UndertowExtension.PATH_SERVLET_CONTAINER)
+                .addChildResource(UndertowExtension.PATH_PERSISTENT_SESSIONS)
+                .getAttributeBuilder()
+                    .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, PersistentSessionsDefinition.FORMAT)
+                    .addRejectCheck(RejectAttributeChecker.DEFINED, PersistentSessionsDefinition.FORMAT)
+                .end();
     }
 
     private static void registerTransformersWildFly18(ResourceTransformationDescriptionBuilder subsystemBuilder) {
@@ -432,4 +432,12 @@ public interface UndertowLogger extends BasicLogger {
     @LogMessage(level = INFO)
     @Message(id = 107, value = "Generated obfuscated session route '%s' from '%s'")
     void obfuscatedSessionRoute(String obfuscatedRoute, String route);
+
+    @LogMessage(level = WARN)
+    @Message(id = 108, value = "Discarding unreadable persistent session records in %s beyond offset %d")
+    void persistentSessionsTruncated(File segment, long offset);
+
+    @LogMessage(level = WARN)
+    @Message(id = 109, value = "Persistent session %s is corrupt and will not be restored")
+    void corruptPersistentSession(String sessionId);
 }
@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link SegmentedSessionStore}.
+ * @author agent
+ */
+public class SegmentedSessionStoreTestCase {
+
+    private File directory;
+
+    @Before
+    public void init() throws IOException {
+        this.directory = Files.createTempDirectory("sessions").toFile();
+    }
+
+    @After
+    public void destroy() throws IOException {
+        new SegmentedSessionStore(this.directory).delete();
+        this.directory.delete();
+    }
+
+    @Test
+    public void writeAndRead() throws IOException {
+        SegmentedSessionStore store = new SegmentedSessionStore(this.directory, 256);
+        assertFalse(store.exists());
+        try (SegmentedSessionStore.Writer writer = store.createWriter()) {
+            for (int i = 0; i < 100; ++i) {
+                writer.append("session" + i, i, Collections.singletonMap("attribute", ("value" + i).getBytes(StandardCharsets.UTF_8)));
+            }
+            writer.commit();
+        }
+        assertTrue(store.exists());
+        assertTrue(this.directory.listFiles().length > 1);
+
+        Map<String, SegmentedSessionStore.StoredSession> sessions = store.read();
+        assertEquals(100, sessions.size());
+        for (int i = 0; i < 100; ++i) {
+            SegmentedSessionStore.StoredSession session = sessions.get("session" + i);
+            assertEquals(i, session.getExpiration());
+            Map<String, byte[]> attributes = session.getAttributes();
+            assertEquals(1, attributes.size());
+            assertEquals("value" + i, new String(attributes.get("attribute"), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void uncommitted() throws IOException {
+        SegmentedSessionStore store = new SegmentedSessionStore(this.directory);
+        try (SegmentedSessionStore.Writer writer = store.createWriter()) {
+            writer.append("committed", 1L, new HashMap<>());
+            writer.commit();
+        }
+        try (SegmentedSessionStore.Writer writer = store.createWriter()) {
+            writer.append("uncommitted", 1L, new HashMap<>());
+        }
+        Map<String, SegmentedSessionStore.StoredSession> sessions = store.read();
+        assertEquals(Collections.singleton("committed"), sessions.keySet());
+
+        // A subsequent commit replaces the previous generation
+        try (SegmentedSessionStore.Writer writer = store.createWriter()) {
+            writer.append("replacement", 1L, new HashMap<>());
+            writer.commit();
+        }
+        assertEquals(1, this.directory.listFiles().length);
+        assertEquals(Collections.singleton("replacement"), store.read().keySet());
+    }
+
+    @Test
+    public void corruptHeader() throws IOException {
+        SegmentedSessionStore store = new SegmentedSessionStore(this.directory, 256);
+        try (SegmentedSessionStore.Writer writer = store.createWriter()) {
+            for (int i = 0; i < 100; ++i) {
+                writer.append("session" + i, i, Collections.singletonMap("attribute", ("value" + i).getBytes(StandardCharsets.UTF_8)));
+            }
+            writer.commit();
+        }
+        int total = store.read().size();
+        File[] segments = this.directory.listFiles();
+        Arrays.sort(segments);
+        assertTrue(segments.length > 1);
+        // Corrupt the magic of the first segment, which, unlike the last segment, is never otherwise validated
+        try (RandomAccessFile file = new RandomAccessFile(segments[0], "rw")) {
+            file.seek(0);
+            file.writeInt(0);
+        }
+        Map<String, SegmentedSessionStore.StoredSession> sessions = store.read();
+        assertFalse(sessions.isEmpty());
+        assertTrue(sessions.size() < total);
+        assertFalse(sessions.containsKey("session0"));
+        assertTrue(sessions.containsKey("session99"));
+    }
+
+    @Test
+    public void corrupt() throws IOException {
+        SegmentedSessionStore store = new SegmentedSessionStore(this.directory);
+        try (SegmentedSessionStore.Writer writer = store.createWriter()) {
+            writer.append("session", 1L, Collections.singletonMap("attribute", new byte[] { 1, 2, 3 }));
+            writer.commit();
+        }
+        File segment = this.directory.listFiles()[0];
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            // Flip the last byte of the attribute value, and append a partial record
+            long length = file.length();
+            file.seek(length - 1);
+            file.write(4);
+            file.writeInt(100);
+        }
+        Map<String, SegmentedSessionStore.StoredSession> sessions = store.read();
+        assertEquals(1, sessions.size());
+        try {
+            sessions.get("session").getAttributes();
+            fail();
+        } catch (StreamCorruptedException e) {
+            // Expected
+        }
+    }
+}